@@ -43,7 +43,9 @@ import io.fabric8.forge.camel.commands.project.dto.ComponentDto;
 import io.fabric8.forge.camel.commands.project.dto.ContextDto;
 import io.fabric8.forge.camel.commands.project.dto.NodeDto;
 import io.fabric8.forge.camel.commands.project.dto.NodeDtos;
+import io.fabric8.forge.camel.commands.project.helper.CamelCatalogTracing;
 import io.fabric8.forge.camel.commands.project.helper.CamelCommandsHelper;
+import io.fabric8.forge.camel.commands.project.helper.CamelXmlEditSession;
 import io.fabric8.forge.camel.commands.project.helper.CamelXmlHelper;
 import io.fabric8.forge.camel.commands.project.helper.PoorMansLogger;
 import io.fabric8.utils.Strings;
@@ -106,6 +108,7 @@ public abstract class AbstractCamelProjectCommand extends AbstractProjectCommand
 
     @Override
     public boolean isEnabled(UIContext context) {
+        CamelCatalogTracing.bind(context);
         boolean enabled = super.isEnabled(context);
         if (!enabled) {
             return false;
@@ -121,6 +124,7 @@ public abstract class AbstractCamelProjectCommand extends AbstractProjectCommand
     }
 
     protected Project getSelectedProjectOrNull(UIContext context) {
+        CamelCatalogTracing.bind(context);
         return Projects.getSelectedProject(this.getProjectFactory(), context);
     }
 
@@ -416,11 +420,22 @@ public abstract class AbstractCamelProjectCommand extends AbstractProjectCommand
         });
     }
 
-    protected Element getSelectedCamelElementNode(Project project, String xmlResourceName, String key) throws Exception {
+    /**
+     * Returns the editing session of the given XML file, which is parsed once and shared by the pages of the wizard
+     */
+    protected CamelXmlEditSession getXmlEditSession(UIContext context, Project project, String xmlResourceName) throws Exception {
         FileResource file = getXmlResourceFile(project, xmlResourceName);
-        if (file != null) {
-            InputStream resourceInputStream = file.getResourceInputStream();
-            return CamelXmlHelper.getSelectedCamelElementNode(key, resourceInputStream);
+        if (file != null && file.exists()) {
+            return CamelXmlEditSession.getOrLoad(context.getAttributeMap(), file);
+        } else {
+            return null;
+        }
+    }
+
+    protected Element getSelectedCamelElementNode(UIContext context, Project project, String xmlResourceName, String key) throws Exception {
+        CamelXmlEditSession session = getXmlEditSession(context, project, xmlResourceName);
+        if (session != null) {
+            return session.findCamelElement(key);
         } else {
             return null;
         }
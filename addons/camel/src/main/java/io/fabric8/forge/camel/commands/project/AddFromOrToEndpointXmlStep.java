@@ -20,7 +20,7 @@ import java.util.List;
 import io.fabric8.forge.addon.utils.LineNumberHelper;
 import io.fabric8.forge.addon.utils.XmlLineNumberParser;
 import io.fabric8.forge.camel.commands.project.dto.NodeDto;
-import io.fabric8.forge.camel.commands.project.helper.CamelXmlHelper;
+import io.fabric8.forge.camel.commands.project.helper.CamelXmlEditSession;
 import io.fabric8.forge.camel.commands.project.helper.PoorMansLogger;
 import io.fabric8.utils.Strings;
 import org.apache.camel.catalog.CamelCatalog;
@@ -35,7 +35,7 @@ import org.jboss.forge.addon.ui.result.Results;
 import org.jboss.forge.addon.ui.util.Categories;
 import org.jboss.forge.addon.ui.util.Metadata;
 import org.w3c.dom.Document;
-import org.w3c.dom.Node;
+import org.w3c.dom.Element;
 
 /**
  * A wizard step to add a from or to endpoint to a node
@@ -68,9 +68,10 @@ public class AddFromOrToEndpointXmlStep extends ConfigureEndpointPropertiesStep
             return Results.fail("Parent node has no key! " + parentNode + " in file " + file.getName());
         }
 
-        Document root = XmlLineNumberParser.parseXml(file.getResourceInputStream());
+        CamelXmlEditSession session = CamelXmlEditSession.load(file);
+        Document root = session.getDocument();
         if (root != null) {
-            Node selectedNode = CamelXmlHelper.findCamelNodeInDocument(root, key);
+            Element selectedNode = session.findCamelElement(key);
             if (selectedNode != null) {
 
                 // we need to add after the parent node, so use line number information from the parent
@@ -88,25 +89,21 @@ public class AddFromOrToEndpointXmlStep extends ConfigureEndpointPropertiesStep
                         line = String.format("<to uri=\"%s\"/>", uri);
                     }
 
-                    // read all the lines
-                    List<String> lines = LineNumberHelper.readLines(file.getResourceInputStream());
-
                     // the list is 0-based, and line number is 1-based
                     // if from then use the start line number, otherwise use the end line number
                     int idx = isFrom ? Integer.valueOf(lineNumber) : Integer.valueOf(lineNumberEnd);
                     // use the same indent from the parent line
-                    int spaces = LineNumberHelper.leadingSpaces(lines, idx - 1);
+                    int spaces = session.leadingSpaces(idx - 1);
                     if (isFrom) {
                         // and append 2 if we are starting a new route with <from>
                         spaces += 2;
                     }
                     line = LineNumberHelper.padString(line, spaces);
                     // add the line at the position
-                    lines.add(idx, line);
+                    session.insertLines(idx, line);
 
                     // and save the file back
-                    String content = LineNumberHelper.linesToString(lines);
-                    file.setContents(content);
+                    session.save(file);
                     return Results.success("Added: " + line.trim());
                 }
             }
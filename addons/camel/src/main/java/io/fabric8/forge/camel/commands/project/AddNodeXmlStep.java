@@ -18,6 +18,7 @@ package io.fabric8.forge.camel.commands.project;
 import java.util.List;
 
 import io.fabric8.forge.addon.utils.LineNumberHelper;
+import io.fabric8.forge.camel.commands.project.helper.CamelXmlEditSession;
 import io.fabric8.forge.camel.commands.project.helper.PoorMansLogger;
 import org.apache.camel.catalog.CamelCatalog;
 import org.jboss.forge.addon.projects.ProjectFactory;
@@ -50,7 +51,7 @@ public class AddNodeXmlStep extends ConfigureEipPropertiesStep {
     }
 
     @Override
-    protected Result addModelXml(String pattern, List<String> lines, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception {
+    protected Result addModelXml(String pattern, CamelXmlEditSession session, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception {
 
         // the list is 0-based, and line number is 1-based
         int idx = Integer.valueOf(lineNumberEnd);
@@ -60,27 +61,25 @@ public class AddNodeXmlStep extends ConfigureEipPropertiesStep {
         }
 
         // use the same indent from the parent line
-        int spaces = LineNumberHelper.leadingSpaces(lines, idx - 1);
+        int spaces = session.leadingSpaces(idx - 1);
 
         LOG.info("Spaces " + spaces);
 
         String[] editLines = modelXml.split("\n");
-        for (String line : editLines) {
+        for (int i = 0; i < editLines.length; i++) {
             // use the same indent from the eip we are replacing
-            line = LineNumberHelper.padString(line, spaces);
-            // add the new line at the old starting position
-            lines.add(idx, line);
-            idx++;
+            editLines[i] = LineNumberHelper.padString(editLines[i], spaces);
         }
+        // add the new lines at the old starting position
+        session.insertLines(idx, editLines);
 
         // and save the file back
-        String content = LineNumberHelper.linesToString(lines);
-        file.setContents(content);
+        session.save(file);
         return Results.success("Added: " + modelXml);
     }
 
     @Override
-    protected Result editModelXml(String pattern, List<String> lines, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception {
+    protected Result editModelXml(String pattern, CamelXmlEditSession session, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception {
         // noop
         return null;
     }
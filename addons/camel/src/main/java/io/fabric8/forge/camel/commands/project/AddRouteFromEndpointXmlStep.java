@@ -19,6 +19,7 @@ import java.util.List;
 
 import io.fabric8.forge.addon.utils.LineNumberHelper;
 import io.fabric8.forge.addon.utils.XmlLineNumberParser;
+import io.fabric8.forge.camel.commands.project.helper.CamelXmlEditSession;
 import io.fabric8.forge.camel.commands.project.helper.CamelXmlHelper;
 import org.apache.camel.catalog.CamelCatalog;
 import org.jboss.forge.addon.projects.ProjectFactory;
@@ -58,7 +59,8 @@ public class AddRouteFromEndpointXmlStep extends ConfigureEndpointPropertiesStep
 
     @Override
     protected Result addOrEditEndpointXml(FileResource file, String uri, String endpointUrl, String endpointInstanceName, String xml, String lineNumber, String lineNumberEnd) throws Exception {
-        Document root = XmlLineNumberParser.parseXml(file.getResourceInputStream());
+        CamelXmlEditSession session = CamelXmlEditSession.load(file);
+        Document root = session.getDocument();
         if (root != null) {
             NodeList camels = getCamelContextElements(root);
             // TODO: what about 2+ camel's ?
@@ -96,33 +98,27 @@ public class AddRouteFromEndpointXmlStep extends ConfigureEndpointPropertiesStep
                     String line2 = String.format("<from uri=\"%s\"/>", uri);
                     String line3 = "</route>";
 
-                    // if we created a new endpoint, then insert a new line with the endpoint details
-                    List<String> lines = LineNumberHelper.readLines(file.getResourceInputStream());
-
                     // the list is 0-based, and line number is 1-based
                     int idx = Integer.valueOf(lineNumberEnd) - 1;
-                    int spaces = LineNumberHelper.leadingSpaces(lines, idx);
+                    int spaces = session.leadingSpaces(idx);
 
                     line3 = LineNumberHelper.padString(line3, spaces + 2);
                     line2 = LineNumberHelper.padString(line2, spaces + 4);
                     line1 = LineNumberHelper.padString(line1, spaces + 2);
 
                     // check if previous line is empty or not
-                    String text = lines.get(idx - 1);
+                    String text = session.getLine(idx - 1);
                     boolean emptyLine = text == null || text.trim().isEmpty();
 
-                    lines.add(idx, "");
-                    lines.add(idx, line3);
-                    lines.add(idx, line2);
-                    lines.add(idx, line1);
-                    if (!emptyLine) {
+                    if (emptyLine) {
+                        session.insertLines(idx, line1, line2, line3, "");
+                    } else {
                         // insert empty lines around the added route (if needed to avoid 2x empty lines)
-                        lines.add(idx, "");
+                        session.insertLines(idx, "", line1, line2, line3, "");
                     }
 
                     // and save the file back
-                    String content = LineNumberHelper.linesToString(lines);
-                    file.setContents(content);
+                    session.save(file);
                 }
                 return Results.success("Added route");
             }
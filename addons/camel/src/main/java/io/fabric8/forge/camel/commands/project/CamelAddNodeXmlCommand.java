@@ -163,7 +163,7 @@ public class CamelAddNodeXmlCommand extends AbstractCamelProjectCommand implemen
         attributeMap.put("name", nodeName);
         attributeMap.put("pattern", parentNode.getPattern());
 
-        Element selectedElement = getSelectedCamelElementNode(project, xmlResourceName, key);
+        Element selectedElement = getSelectedCamelElementNode(context.getUIContext(), project, xmlResourceName, key);
         if (selectedElement == null) {
             throw new IllegalArgumentException("Cannot find xml for node " + parentNode);
         }
@@ -18,11 +18,9 @@ package io.fabric8.forge.camel.commands.project;
 import java.util.List;
 import javax.inject.Inject;
 
-import io.fabric8.forge.addon.utils.LineNumberHelper;
 import io.fabric8.forge.addon.utils.XmlLineNumberParser;
-import io.fabric8.forge.camel.commands.project.dto.ContextDto;
 import io.fabric8.forge.camel.commands.project.dto.NodeDto;
-import io.fabric8.forge.camel.commands.project.helper.CamelXmlHelper;
+import io.fabric8.forge.camel.commands.project.helper.CamelXmlEditSession;
 import io.fabric8.utils.Strings;
 import org.jboss.forge.addon.projects.Project;
 import org.jboss.forge.addon.resource.FileResource;
@@ -34,7 +32,7 @@ import org.jboss.forge.addon.ui.metadata.WithAttributes;
 import org.jboss.forge.addon.ui.result.Result;
 import org.jboss.forge.addon.ui.result.Results;
 import org.w3c.dom.Document;
-import org.w3c.dom.Node;
+import org.w3c.dom.Element;
 
 public class CamelDeleteNodeXmlCommand extends AbstractCamelProjectCommand {
 
@@ -99,14 +97,10 @@ public class CamelDeleteNodeXmlCommand extends AbstractCamelProjectCommand {
             return Results.fail("Cannot find XML file " + xmlResourceName);
         }
 
-        List<ContextDto> camelContexts = CamelXmlHelper.loadCamelContext(getCamelCatalog(), context.getUIContext(), project, xmlResourceName);
-        if (camelContexts == null) {
-            return Results.fail("No file found for: " + xmlResourceName);
-        }
-
-        Document root = XmlLineNumberParser.parseXml(file.getResourceInputStream());
+        CamelXmlEditSession session = CamelXmlEditSession.getOrLoad(context.getUIContext().getAttributeMap(), file);
+        Document root = session.getDocument();
         if (root != null) {
-            Node selectedNode = CamelXmlHelper.findCamelNodeInDocument(root, key);
+            Element selectedNode = session.findCamelElement(key);
             if (selectedNode != null) {
 
                 // we need to add after the parent node, so use line number information from the parent
@@ -115,23 +109,16 @@ public class CamelDeleteNodeXmlCommand extends AbstractCamelProjectCommand {
 
                 if (lineNumber != null && lineNumberEnd != null) {
 
-                    // read all the lines
-                    List<String> lines = LineNumberHelper.readLines(file.getResourceInputStream());
-
                     // the list is 0-based, and line number is 1-based
                     int idx = Integer.valueOf(lineNumber) - 1;
                     int idx2 = Integer.valueOf(lineNumberEnd) - 1;
                     int delta = (idx2 - idx) + 1;
 
                     // remove the lines
-                    while (delta > 0) {
-                        delta--;
-                        lines.remove(idx);
-                    }
+                    session.removeLines(idx, Math.max(delta, 0));
 
                     // and save the file back
-                    String content = LineNumberHelper.linesToString(lines);
-                    file.setContents(content);
+                    session.save(file);
                     return Results.success("Removed node");
                 }
             }
@@ -15,7 +15,6 @@
  */
 package io.fabric8.forge.camel.commands.project;
 
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -27,7 +26,7 @@ import io.fabric8.forge.addon.utils.XmlLineNumberParser;
 import io.fabric8.forge.camel.commands.project.completer.CamelLanguagesCompleter;
 import io.fabric8.forge.camel.commands.project.completer.XmlEndpointsCompleter;
 import io.fabric8.forge.camel.commands.project.dto.NodeDto;
-import io.fabric8.forge.camel.commands.project.helper.CamelXmlHelper;
+import io.fabric8.forge.camel.commands.project.helper.CamelXmlEditSession;
 import io.fabric8.forge.camel.commands.project.helper.PoorMansLogger;
 import io.fabric8.forge.camel.commands.project.model.CamelEndpointDetails;
 import io.fabric8.forge.camel.commands.project.model.InputOptionByGroup;
@@ -39,7 +38,6 @@ import org.apache.camel.util.CollectionStringBuffer;
 import org.apache.camel.util.IntrospectionSupport;
 import org.jboss.forge.addon.projects.Project;
 import org.jboss.forge.addon.projects.dependencies.DependencyInstaller;
-import org.jboss.forge.addon.resource.FileResource;
 import org.jboss.forge.addon.ui.context.UIBuilder;
 import org.jboss.forge.addon.ui.context.UIContext;
 import org.jboss.forge.addon.ui.context.UIExecutionContext;
@@ -62,7 +60,6 @@ import org.w3c.dom.Node;
 
 import static io.fabric8.forge.camel.commands.project.helper.CamelCommandsHelper.createUIInputsForCamelEIP;
 import static io.fabric8.forge.camel.commands.project.helper.CamelCommandsHelper.createUIInputsForCamelEndpoint;
-import static io.fabric8.forge.camel.commands.project.helper.CamelXmlHelper.loadCamelXmlFileAsDom;
 import static io.fabric8.forge.camel.commands.project.helper.CamelXmlHelper.xmlAsModel;
 
 /**
@@ -132,14 +129,13 @@ public class CamelEditNodeXmlCommand extends AbstractCamelProjectCommand impleme
 
         NodeDto candidate = null;
 
-        FileResource file = getXmlResourceFile(project, currentFile);
-        if (file != null) {
-            InputStream resourceInputStream = file.getResourceInputStream();
-            Document root = loadCamelXmlFileAsDom(resourceInputStream);
+        CamelXmlEditSession session = getXmlEditSession(context, project, currentFile);
+        if (session != null) {
+            Document root = session.getDocument();
             if (root != null) {
                 for (NodeDto node : nodes) {
                     String key = node.getKey();
-                    Node selectedNode = CamelXmlHelper.findCamelNodeInDocument(root, key);
+                    Node selectedNode = session.findCamelElement(key);
                     LOG.info("Node " + key + " in XML " + selectedNode);
 
                     if (selectedNode != null) {
@@ -292,7 +288,7 @@ public class CamelEditNodeXmlCommand extends AbstractCamelProjectCommand impleme
         Project project = getSelectedProject(context);
         Map<Object, Object> attributeMap = context.getUIContext().getAttributeMap();
 
-        Element selectedElement = getSelectedCamelElementNode(project, xmlResourceName, key);
+        Element selectedElement = getSelectedCamelElementNode(context.getUIContext(), project, xmlResourceName, key);
         if (selectedElement == null) {
             throw new IllegalArgumentException("Cannot find xml for node " + editNode);
         }
@@ -304,7 +300,7 @@ public class CamelEditNodeXmlCommand extends AbstractCamelProjectCommand impleme
         // if we edit a node then it may have children. We should then only edit until the first child starts
         if (editNode.getChildren() != null && !editNode.getChildren().isEmpty()) {
             NodeDto child = editNode.getChildren().get(0);
-            Element childElement = getSelectedCamelElementNode(project, xmlResourceName, child.getKey());
+            Element childElement = getSelectedCamelElementNode(context.getUIContext(), project, xmlResourceName, child.getKey());
             String childLineNumber = (String) childElement.getUserData(XmlLineNumberParser.LINE_NUMBER);
             if (childLineNumber != null) {
                 int num = Integer.valueOf(childLineNumber) - 1;
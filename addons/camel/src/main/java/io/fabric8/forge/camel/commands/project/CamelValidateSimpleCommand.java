@@ -0,0 +1,130 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.project;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.fabric8.forge.camel.commands.project.completer.XmlFileCompleter;
+import io.fabric8.forge.camel.commands.project.helper.CamelSimpleValidator;
+import io.fabric8.forge.camel.commands.project.helper.RouteBuilderParser;
+import io.fabric8.forge.camel.commands.project.helper.XmlRouteParser;
+import io.fabric8.forge.camel.commands.project.model.CamelSimpleDetails;
+import io.fabric8.utils.TablePrinter;
+import org.apache.camel.catalog.SimpleValidationResult;
+import org.jboss.forge.addon.dependencies.Dependency;
+import org.jboss.forge.addon.parser.java.facets.JavaSourceFacet;
+import org.jboss.forge.addon.parser.java.resources.JavaResource;
+import org.jboss.forge.addon.parser.java.resources.JavaResourceVisitor;
+import org.jboss.forge.addon.projects.Project;
+import org.jboss.forge.addon.resource.FileResource;
+import org.jboss.forge.addon.resource.visit.VisitContext;
+import org.jboss.forge.addon.ui.context.UIBuilder;
+import org.jboss.forge.addon.ui.context.UIContext;
+import org.jboss.forge.addon.ui.context.UIExecutionContext;
+import org.jboss.forge.addon.ui.metadata.UICommandMetadata;
+import org.jboss.forge.addon.ui.result.Result;
+import org.jboss.forge.addon.ui.result.Results;
+import org.jboss.forge.addon.ui.util.Categories;
+import org.jboss.forge.addon.ui.util.Metadata;
+import org.jboss.forge.roaster.model.source.JavaClassSource;
+
+import static io.fabric8.forge.addon.utils.OutputFormatHelper.addTableTextOutput;
+
+public class CamelValidateSimpleCommand extends AbstractCamelProjectCommand {
+
+    @Override
+    public UICommandMetadata getMetadata(UIContext context) {
+        return Metadata.forCommand(CamelValidateSimpleCommand.class).name(
+                "Camel: Validate Simple").category(Categories.create(CATEGORY))
+                .description("Validates the simple expressions in the Camel routes of the project");
+    }
+
+    @Override
+    public void initializeUI(UIBuilder builder) throws Exception {
+    }
+
+    @Override
+    public Result execute(UIExecutionContext context) throws Exception {
+        Project project = getSelectedProject(context);
+
+        // does the project already have camel?
+        Dependency core = findCamelCoreDependency(project);
+        if (core == null) {
+            return Results.fail("The project does not include camel-core");
+        }
+
+        List<CamelSimpleDetails> simpleExpressions = new ArrayList<>();
+
+        if (project.hasFacet(JavaSourceFacet.class)) {
+            final JavaSourceFacet javaSourceFacet = project.getFacet(JavaSourceFacet.class);
+            final String baseDir = javaSourceFacet.getSourceDirectory().getFullyQualifiedName();
+            javaSourceFacet.visitJavaSources(new JavaResourceVisitor() {
+                @Override
+                public void visit(VisitContext visitContext, JavaResource resource) {
+                    try {
+                        // avoid package-info.java files
+                        if (!resource.getName().contains("package-info")) {
+                            JavaClassSource clazz = resource.getJavaType();
+                            RouteBuilderParser.parseRouteBuilderSimpleExpressions(clazz, baseDir, resource.getFullyQualifiedName(), simpleExpressions);
+                        }
+                    } catch (Throwable e) {
+                        // ignore
+                    }
+                }
+            });
+        }
+
+        XmlFileCompleter xmlFileCompleter = createXmlFileCompleter(project, null);
+        for (String xml : xmlFileCompleter.getFiles()) {
+            FileResource file = getXmlResourceFile(project, xml);
+            if (file != null && file.exists()) {
+                String fqn = file.getFullyQualifiedName();
+                String baseDir = fqn.substring(0, fqn.length() - xml.length() - 1);
+                try (InputStream is = file.getResourceInputStream()) {
+                    XmlRouteParser.parseXmlRouteSimpleExpressions(is, baseDir, fqn, simpleExpressions);
+                }
+            }
+        }
+
+        Map<String, SimpleValidationResult> results = new CamelSimpleValidator(getCamelCatalog()).validate(simpleExpressions);
+
+        int errors = 0;
+        TablePrinter table = new TablePrinter();
+        table.columns("file", "line", "simple", "error");
+        for (CamelSimpleDetails detail : simpleExpressions) {
+            SimpleValidationResult result = results.get(detail.getSimple());
+            if (!result.isSuccess()) {
+                errors++;
+                table.row(detail.getFileName(), detail.getLineNumber(), detail.getSimple(), result.getError());
+            }
+        }
+
+        String summary = String.format("Simple validation %s: (%s = passed, %s = invalid)", errors == 0 ? "success" : "error",
+                simpleExpressions.size() - errors, errors);
+        if (errors == 0) {
+            return Results.success(summary);
+        }
+
+        StringBuilder buffer = new StringBuilder("\n\n");
+        addTableTextOutput(buffer, "Invalid simple expressions", table);
+        buffer.append(summary);
+        return Results.fail(buffer.toString());
+    }
+
+}
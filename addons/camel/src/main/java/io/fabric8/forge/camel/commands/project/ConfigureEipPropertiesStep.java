@@ -22,6 +22,8 @@ import java.util.Map;
 
 import io.fabric8.forge.addon.utils.CamelProjectHelper;
 import io.fabric8.forge.addon.utils.LineNumberHelper;
+import io.fabric8.forge.camel.commands.project.helper.CamelEipTable;
+import io.fabric8.forge.camel.commands.project.helper.CamelXmlEditSession;
 import io.fabric8.forge.camel.commands.project.helper.PoorMansLogger;
 import org.apache.camel.catalog.CamelCatalog;
 import org.apache.camel.util.IntrospectionSupport;
@@ -46,9 +48,6 @@ import org.jboss.forge.addon.ui.util.Metadata;
 import org.jboss.forge.addon.ui.wizard.UIWizardStep;
 import org.jboss.forge.roaster.model.util.Strings;
 
-import static io.fabric8.forge.camel.commands.project.helper.CamelCatalogHelper.getModelJavaType;
-import static io.fabric8.forge.camel.commands.project.helper.CamelCatalogHelper.isModelDefaultValue;
-import static io.fabric8.forge.camel.commands.project.helper.CamelCatalogHelper.isModelExpressionKind;
 import static io.fabric8.forge.camel.commands.project.helper.CamelXmlHelper.dumpModelAsXml;
 
 public abstract class ConfigureEipPropertiesStep extends AbstractCamelProjectCommand implements UIWizardStep {
@@ -160,6 +159,9 @@ public abstract class ConfigureEipPropertiesStep extends AbstractCamelProjectCom
             return Results.fail("The project does not include camel-core");
         }
 
+        CamelEipTable eipTable = CamelEipTable.getInstance(camelCatalog);
+        CamelEipTable.EipModel eipModel = eipTable.requireModel(eipName);
+
         // collect all the options that was set
         Map<String, Object> options = new HashMap<String, Object>();
         Map<String, String> expressionKeys = new HashMap<String, String>();
@@ -168,7 +170,7 @@ public abstract class ConfigureEipPropertiesStep extends AbstractCamelProjectCom
             String key = input.getName();
 
             // special for expression
-            boolean expressionKey = isModelExpressionKind(camelCatalog, eipName, key);
+            boolean expressionKey = eipModel.isExpressionKind(key);
             boolean expressionValue = key.endsWith("_value") || key.endsWith("_extra");
 
             // only use the value if a value was set (and the value is not the same as the default value)
@@ -176,7 +178,7 @@ public abstract class ConfigureEipPropertiesStep extends AbstractCamelProjectCom
                 String value = input.getValue().toString();
                 if (value != null) {
                     // do not add the value if it match the default value
-                    boolean matchDefault = isModelDefaultValue(camelCatalog, eipName, key, value);
+                    boolean matchDefault = eipModel.isDefaultValue(key, value);
                     if (!matchDefault) {
                         if (expressionKey) {
                             expressionKeys.put(key, value);
@@ -202,7 +204,7 @@ public abstract class ConfigureEipPropertiesStep extends AbstractCamelProjectCom
             }
         }
 
-        String javaType = getModelJavaType(camelCatalog, eipName);
+        String javaType = eipModel.getJavaType();
         if (javaType == null) {
             return Results.fail("Cannot find javaType for " + eipName);
         }
@@ -215,6 +217,8 @@ public abstract class ConfigureEipPropertiesStep extends AbstractCamelProjectCom
             return Results.fail("Cannot find XML file " + xml);
         }
 
+        CamelXmlEditSession session = CamelXmlEditSession.getOrLoad(attributeMap, file);
+
         String modelXml = null;
         try {
             ClassLoader cl = CamelCatalog.class.getClassLoader();
@@ -231,7 +235,7 @@ public abstract class ConfigureEipPropertiesStep extends AbstractCamelProjectCom
                 String extra = expressionValues.get(name + "_extra");
 
                 // build the model
-                String lanJavaType = getModelJavaType(camelCatalog, language);
+                String lanJavaType = eipTable.requireModel(language).getJavaType();
                 if (lanJavaType != null) {
                     Class clazz2 = cl.loadClass(lanJavaType);
                     Object instance2 = clazz2.newInstance();
@@ -265,7 +269,7 @@ public abstract class ConfigureEipPropertiesStep extends AbstractCamelProjectCom
                 includeEndTag = "false".equals(children);
             }
             // calculate indent to use
-            int indent = calculateIndent(file, lineNumber);
+            int indent = calculateIndent(session, lineNumber);
             LOG.info("Calculated indent " + indent);
             // marshal to xml
             modelXml = dumpModelAsXml(instance, cl, includeEndTag, indent);
@@ -278,11 +282,11 @@ public abstract class ConfigureEipPropertiesStep extends AbstractCamelProjectCom
             return Results.fail("Cannot create XML model of the node");
         }
 
-        return addOrEditModelXml(file, pattern, modelXml, xml, lineNumber, lineNumberEnd, mode);
+        return addOrEditModelXml(session, file, pattern, modelXml, xml, lineNumber, lineNumberEnd, mode);
     }
 
-    protected int calculateIndent(FileResource file, String lineNumber) throws Exception {
-        List<String> lines = LineNumberHelper.readLines(file.getResourceInputStream());
+    protected int calculateIndent(CamelXmlEditSession session, String lineNumber) throws Exception {
+        List<String> lines = session.getLines();
 
         int idx = Integer.valueOf(lineNumber);
 
@@ -298,18 +302,17 @@ public abstract class ConfigureEipPropertiesStep extends AbstractCamelProjectCom
         return Math.max(answer, 2);
     }
 
-    protected Result addOrEditModelXml(FileResource file, String pattern, String modelXml, String xml, String lineNumber, String lineNumberEnd, String mode) throws Exception {
-        List<String> lines = LineNumberHelper.readLines(file.getResourceInputStream());
+    protected Result addOrEditModelXml(CamelXmlEditSession session, FileResource file, String pattern, String modelXml, String xml, String lineNumber, String lineNumberEnd, String mode) throws Exception {
         if ("add".equals(mode)) {
-            return addModelXml(pattern, lines, lineNumber, lineNumberEnd, modelXml, file, xml);
+            return addModelXml(pattern, session, lineNumber, lineNumberEnd, modelXml, file, xml);
         } else {
-            return editModelXml(pattern, lines, lineNumber, lineNumberEnd, modelXml, file, xml);
+            return editModelXml(pattern, session, lineNumber, lineNumberEnd, modelXml, file, xml);
         }
     }
 
-    protected abstract Result addModelXml(String pattern, List<String> lines, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception;
+    protected abstract Result addModelXml(String pattern, CamelXmlEditSession session, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception;
 
-    protected abstract Result editModelXml(String pattern, List<String> lines, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception;
+    protected abstract Result editModelXml(String pattern, CamelXmlEditSession session, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception;
 
     /**
      * Returns the mandatory String value of the given name
@@ -24,6 +24,7 @@ import java.util.regex.Pattern;
 import io.fabric8.forge.addon.utils.LineNumberHelper;
 import io.fabric8.forge.addon.utils.XmlLineNumberParser;
 import io.fabric8.forge.camel.commands.project.helper.CamelJavaParserHelper;
+import io.fabric8.forge.camel.commands.project.helper.EndpointUriCodec;
 import io.fabric8.forge.camel.commands.project.helper.PoorMansLogger;
 import io.fabric8.forge.camel.commands.project.helper.StringHelper;
 import io.fabric8.forge.camel.commands.project.model.CamelComponentDetails;
@@ -59,10 +60,6 @@ import org.w3c.dom.NodeList;
 
 import static io.fabric8.forge.addon.utils.CamelProjectHelper.findCamelArtifactDependency;
 import static io.fabric8.forge.camel.commands.project.helper.CamelXmlHelper.isCamelContextOrRoutesNode;
-import static io.fabric8.forge.camel.commands.project.helper.CamelCatalogHelper.getPrefix;
-import static io.fabric8.forge.camel.commands.project.helper.CamelCatalogHelper.isDefaultValue;
-import static io.fabric8.forge.camel.commands.project.helper.CamelCatalogHelper.isMultiValue;
-import static io.fabric8.forge.camel.commands.project.helper.CamelCatalogHelper.isNonePlaceholderEnumValue;
 import static io.fabric8.forge.camel.commands.project.helper.CamelCommandsHelper.ensureCamelArtifactIdAdded;
 import static io.fabric8.forge.camel.commands.project.helper.CamelCommandsHelper.loadCamelComponentDetails;
 import static io.fabric8.forge.camel.commands.project.helper.CamelXmlHelper.getCamelContextElements;
@@ -197,6 +194,11 @@ public class ConfigureEndpointPropertiesStep extends AbstractCamelProjectCommand
             return result;
         }
 
+        EndpointUriCodec codec = EndpointUriCodec.getInstance(camelCatalog, camelComponentName);
+        if (codec == null) {
+            return Results.fail("Cannot find endpoint with scheme " + camelComponentName);
+        }
+
         // collect all the options that was set
         Map<String, String> options = new HashMap<String, String>();
         for (InputComponent input : allInputs) {
@@ -206,9 +208,9 @@ public class ConfigureEndpointPropertiesStep extends AbstractCamelProjectCommand
                 String value = input.getValue().toString();
                 if (value != null) {
                     // special for multivalued options
-                    boolean isMultiValue = isMultiValue(camelCatalog, camelComponentName, key);
+                    boolean isMultiValue = codec.isMultiValue(key);
                     if (isMultiValue) {
-                        String prefix = getPrefix(camelCatalog, camelComponentName, key);
+                        String prefix = codec.getPrefix(key);
 
                         // ensure the value has prefix for all its options
                         // and make sure to adjust & to &amp; if in xml
@@ -235,10 +237,10 @@ public class ConfigureEndpointPropertiesStep extends AbstractCamelProjectCommand
                         value = sb.toString();
                     }
 
-                    boolean matchDefault = isDefaultValue(camelCatalog, camelComponentName, key, value);
+                    boolean matchDefault = codec.isDefaultValue(key, value);
                     if ("none".equals(value)) {
                         // special for enum that may have a none as dummy placeholder which we should not add
-                        boolean nonePlaceholder = isNonePlaceholderEnumValue(camelCatalog, camelComponentName, key);
+                        boolean nonePlaceholder = codec.isNonePlaceholderEnumValue(key);
                         if (!matchDefault && !nonePlaceholder) {
                             options.put(key, value);
                         }
@@ -256,7 +258,7 @@ public class ConfigureEndpointPropertiesStep extends AbstractCamelProjectCommand
         }
 
         LOG.info("Creating uri with component: " + componentName + " and options:" + options);
-        String uri = camelCatalog.asEndpointUriXml(camelComponentName, options, false);
+        String uri = codec.formatXml(options, false);
         LOG.info("Uri created: " + uri);
         if (uri == null) {
             return Results.fail("Cannot create endpoint uri");
@@ -452,6 +454,11 @@ public class ConfigureEndpointPropertiesStep extends AbstractCamelProjectCommand
             return result;
         }
 
+        EndpointUriCodec codec = EndpointUriCodec.getInstance(camelCatalog, camelComponentName);
+        if (codec == null) {
+            return Results.fail("Cannot find endpoint with scheme " + camelComponentName);
+        }
+
         // collect all the options that was set
         Map<String, String> options = new HashMap<String, String>();
         for (InputComponent input : allInputs) {
@@ -461,9 +468,9 @@ public class ConfigureEndpointPropertiesStep extends AbstractCamelProjectCommand
                 String value = input.getValue().toString();
                 if (value != null) {
                     // special for multivalued options
-                    boolean isMultiValue = isMultiValue(camelCatalog, camelComponentName, key);
+                    boolean isMultiValue = codec.isMultiValue(key);
                     if (isMultiValue) {
-                        String prefix = getPrefix(camelCatalog, camelComponentName, key);
+                        String prefix = codec.getPrefix(key);
 
                         // ensure the value has prefix for all its options
                         // and make sure to adjust & (we replace to xml style)
@@ -486,10 +493,10 @@ public class ConfigureEndpointPropertiesStep extends AbstractCamelProjectCommand
                         }
                         value = sb.toString();
                     }
-                    boolean matchDefault = isDefaultValue(camelCatalog, camelComponentName, key, value);
+                    boolean matchDefault = codec.isDefaultValue(key, value);
                     if ("none".equals(value)) {
                         // special for enum that may have a none as dummy placeholder which we should not add
-                        boolean nonePlaceholder = isNonePlaceholderEnumValue(camelCatalog, camelComponentName, key);
+                        boolean nonePlaceholder = codec.isNonePlaceholderEnumValue(key);
                         if (!matchDefault && !nonePlaceholder) {
                             options.put(key, value);
                         }
@@ -507,7 +514,7 @@ public class ConfigureEndpointPropertiesStep extends AbstractCamelProjectCommand
         }
 
         LOG.info("Creating uri with component: " + componentName + " and options:" + options);
-        String uri = camelCatalog.asEndpointUri(camelComponentName, options, false);
+        String uri = codec.format(options, false);
         LOG.info("Uri created: " + uri);
         if (uri == null) {
             return Results.fail("Cannot create endpoint uri");
@@ -721,6 +728,11 @@ public class ConfigureEndpointPropertiesStep extends AbstractCamelProjectCommand
             return result;
         }
 
+        EndpointUriCodec codec = EndpointUriCodec.getInstance(camelCatalog, camelComponentName);
+        if (codec == null) {
+            return Results.fail("Cannot find endpoint with scheme " + camelComponentName);
+        }
+
         // collect all the options that was set
         Map<String, String> options = new HashMap<String, String>();
         for (InputComponent input : allInputs) {
@@ -730,9 +742,9 @@ public class ConfigureEndpointPropertiesStep extends AbstractCamelProjectCommand
                 String value = input.getValue().toString();
                 if (value != null) {
                     // special for multivalued options
-                    boolean isMultiValue = isMultiValue(camelCatalog, camelComponentName, key);
+                    boolean isMultiValue = codec.isMultiValue(key);
                     if (isMultiValue) {
-                        String prefix = getPrefix(camelCatalog, camelComponentName, key);
+                        String prefix = codec.getPrefix(key);
 
                         // ensure the value has prefix for all its options
                         // and make sure to adjust & (we replace to xml style)
@@ -755,10 +767,10 @@ public class ConfigureEndpointPropertiesStep extends AbstractCamelProjectCommand
                         }
                         value = sb.toString();
                     }
-                    boolean matchDefault = isDefaultValue(camelCatalog, camelComponentName, key, value);
+                    boolean matchDefault = codec.isDefaultValue(key, value);
                     if ("none".equals(value)) {
                         // special for enum that may have a none as dummy placeholder which we should not add
-                        boolean nonePlaceholder = isNonePlaceholderEnumValue(camelCatalog, camelComponentName, key);
+                        boolean nonePlaceholder = codec.isNonePlaceholderEnumValue(key);
                         if (!matchDefault && !nonePlaceholder) {
                             options.put(key, value);
                         }
@@ -776,7 +788,7 @@ public class ConfigureEndpointPropertiesStep extends AbstractCamelProjectCommand
         }
 
         LOG.info("Creating uri with component: " + componentName + " and options:" + options);
-        String uri = camelCatalog.asEndpointUri(camelComponentName, options, false);
+        String uri = codec.format(options, false);
         LOG.info("Uri created: " + uri);
         if (uri == null) {
             return Results.fail("Cannot create endpoint uri");
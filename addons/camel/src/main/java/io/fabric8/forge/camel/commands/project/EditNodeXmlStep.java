@@ -18,6 +18,7 @@ package io.fabric8.forge.camel.commands.project;
 import java.util.List;
 
 import io.fabric8.forge.addon.utils.LineNumberHelper;
+import io.fabric8.forge.camel.commands.project.helper.CamelXmlEditSession;
 import io.fabric8.forge.camel.commands.project.helper.PoorMansLogger;
 import org.apache.camel.catalog.CamelCatalog;
 import org.jboss.forge.addon.projects.ProjectFactory;
@@ -50,40 +51,32 @@ public class EditNodeXmlStep extends ConfigureEipPropertiesStep {
     }
 
     @Override
-    protected Result editModelXml(String pattern, List<String> lines, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception {
+    protected Result editModelXml(String pattern, CamelXmlEditSession session, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception {
         // the list is 0-based, and line number is 1-based
         int idx = Integer.valueOf(lineNumber) - 1;
         int idx2 = Integer.valueOf(lineNumberEnd) - 1;
         int delta = (idx2 - idx) + 1;
 
         // use the same indent from the eip we are replacing
-        int spaces = LineNumberHelper.leadingSpaces(lines, idx);
-
-        // remove the old lines
-        while (delta > 0) {
-            delta--;
-            lines.remove(idx);
-        }
+        int spaces = session.leadingSpaces(idx);
 
         LOG.info("Spaces " + spaces);
 
         String[] editLines = modelXml.split("\n");
-        for (String line : editLines) {
+        for (int i = 0; i < editLines.length; i++) {
             // use the same indent from the eip we are replacing
-            line = LineNumberHelper.padString(line, spaces);
-            // add the new line at the old starting position
-            lines.add(idx, line);
-            idx++;
+            editLines[i] = LineNumberHelper.padString(editLines[i], spaces);
         }
+        // replace the old lines with the new lines at the old starting position
+        session.replaceLines(idx, Math.max(delta, 0), editLines);
 
         // and save the file back
-        String content = LineNumberHelper.linesToString(lines);
-        file.setContents(content);
+        session.save(file);
         return Results.success("Edited: " + modelXml);
     }
 
     @Override
-    protected Result addModelXml(String pattern, List<String> lines, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception {
+    protected Result addModelXml(String pattern, CamelXmlEditSession session, String lineNumber, String lineNumberEnd, String modelXml, FileResource file, String xml) throws Exception {
         // noop
         return null;
     }
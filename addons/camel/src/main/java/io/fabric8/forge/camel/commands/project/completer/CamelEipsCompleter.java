@@ -17,20 +17,17 @@ package io.fabric8.forge.camel.commands.project.completer;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import io.fabric8.forge.addon.utils.CamelProjectHelper;
 import io.fabric8.forge.camel.commands.project.dto.EipDto;
+import io.fabric8.forge.camel.commands.project.helper.CamelEipTable;
 import org.apache.camel.catalog.CamelCatalog;
-import org.apache.camel.catalog.JSonSchemaHelper;
 import org.jboss.forge.addon.dependencies.Dependency;
 import org.jboss.forge.addon.projects.Project;
 import org.jboss.forge.addon.ui.context.UIContext;
 import org.jboss.forge.addon.ui.input.InputComponent;
 import org.jboss.forge.addon.ui.input.UICompleter;
 
-import static io.fabric8.forge.camel.commands.project.helper.CamelCatalogHelper.createEipDto;
-
 public class CamelEipsCompleter implements UICompleter<EipDto> {
 
     private final Project project;
@@ -52,23 +49,13 @@ public class CamelEipsCompleter implements UICompleter<EipDto> {
 
         List<EipDto> answer = new ArrayList<>();
 
-        // find all available model names
-        List<String> names = camelCatalog.findModelNames();
-
-        // filter non matching names first
-        List<String> filtered = new ArrayList<String>();
-        for (String name : names) {
+        CamelEipTable table = CamelEipTable.getInstance(camelCatalog);
+        for (String name : table.getModelNames()) {
             if (value == null || name.startsWith(value)) {
-                filtered.add(name);
+                answer.add(table.getModel(name).createEipDto());
             }
         }
 
-        for (String name : filtered) {
-            String json = camelCatalog.modelJSonSchema(name);
-            EipDto dto = createEipDto(camelCatalog, json);
-            answer.add(dto);
-        }
-
         return answer;
     }
 
@@ -77,55 +64,19 @@ public class CamelEipsCompleter implements UICompleter<EipDto> {
             return null;
         }
 
-        List<String> names = camelCatalog.findModelNames();
+        CamelEipTable table = CamelEipTable.getInstance(camelCatalog);
+        Iterable<String> names = table.getModelNames();
 
-        if (label != null && !"<all>".equals(label)) {
-            names = filterByLabel(names, label);
+        if (label != null && !label.isEmpty() && !"<all>".equals(label)) {
+            names = table.findModelNamesByLabel(label);
         }
 
         List<EipDto> answer = new ArrayList<>();
         for (String name : names) {
-            EipDto dto = createEipDto(camelCatalog, name);
-            answer.add(dto);
-        }
-
-        return answer;
-    }
-
-    private List<String> filterByLabel(List<String> choices, String label) {
-        if (label == null || label.isEmpty()) {
-            return choices;
-        }
-
-        List<String> answer = new ArrayList<String>();
-
-        for (String name : choices) {
-            String json = camelCatalog.modelJSonSchema(name);
-            String labels = findLabel(json);
-            if (labels != null) {
-                for (String target : labels.split(",")) {
-                    if (target.startsWith(label)) {
-                        answer.add(name);
-                        break;
-                    }
-                }
-            } else {
-                // no label so they all match
-                answer.addAll(choices);
-            }
+            answer.add(table.getModel(name).createEipDto());
         }
 
         return answer;
     }
 
-    private static String findLabel(String json) {
-        List<Map<String, String>> data = JSonSchemaHelper.parseJsonSchema("model", json, false);
-        for (Map<String, String> row : data) {
-            if (row.get("label") != null) {
-                return row.get("label");
-            }
-        }
-        return null;
-    }
-
 }
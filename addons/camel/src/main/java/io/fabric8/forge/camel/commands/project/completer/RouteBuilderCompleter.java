@@ -15,20 +15,16 @@
  */
 package io.fabric8.forge.camel.commands.project.completer;
 
-import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
+import io.fabric8.forge.addon.utils.JavaSourceIndex;
 import org.jboss.forge.addon.parser.java.facets.JavaSourceFacet;
-import org.jboss.forge.addon.parser.java.resources.JavaResource;
-import org.jboss.forge.addon.parser.java.resources.JavaResourceVisitor;
-import org.jboss.forge.addon.resource.visit.VisitContext;
 import org.jboss.forge.addon.ui.context.UIContext;
 import org.jboss.forge.addon.ui.input.InputComponent;
 import org.jboss.forge.addon.ui.input.UICompleter;
-import org.jboss.forge.roaster.model.JavaClass;
 
 public class RouteBuilderCompleter implements UICompleter<String> {
 
@@ -36,25 +32,11 @@ public class RouteBuilderCompleter implements UICompleter<String> {
     private final Set<String> packages = new TreeSet<String>();
 
     public RouteBuilderCompleter(JavaSourceFacet facet) {
-        // find package names in the source code
-        facet.visitJavaSources(new JavaResourceVisitor() {
-            @Override
-            public void visit(VisitContext context, JavaResource javaResource) {
-                try {
-                    // avoid package-info.java files
-                    if (!javaResource.getName().contains("package-info")) {
-                        JavaClass clazz = javaResource.getJavaType();
-                        String superType = clazz.getSuperType();
-                        if (superType != null && isRouteBuilder(superType)) {
-                            routeBuilders.add(clazz.getQualifiedName());
-                            packages.add(clazz.getPackage());
-                        }
-                    }
-                } catch (FileNotFoundException e) {
-                    // ignore
-                }
-            }
-        });
+        // find the route builders in the source code using the index so only changed files are parsed
+        for (JavaSourceIndex.TypeSymbol type : JavaSourceIndex.forJavaSources(facet).findTypes(this::isRouteBuilder)) {
+            routeBuilders.add(type.getQualifiedName());
+            packages.add(type.getPackageName());
+        }
     }
 
     private boolean isRouteBuilder(String superType) {
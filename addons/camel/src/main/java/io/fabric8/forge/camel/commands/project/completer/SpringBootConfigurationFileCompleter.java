@@ -21,9 +21,9 @@ import java.util.Set;
 import java.util.TreeSet;
 import java.util.function.Function;
 
+import io.fabric8.forge.addon.utils.ResourceTree;
 import io.fabric8.forge.camel.commands.project.helper.CamelXmlHelper;
 import org.jboss.forge.addon.projects.facets.ResourcesFacet;
-import org.jboss.forge.addon.resource.visit.ResourceVisitor;
 import org.jboss.forge.addon.ui.context.UIContext;
 import org.jboss.forge.addon.ui.context.UIValidationContext;
 import org.jboss.forge.addon.ui.input.InputComponent;
@@ -40,11 +40,24 @@ public class SpringBootConfigurationFileCompleter implements UICompleter<String>
 
     public SpringBootConfigurationFileCompleter(final ResourcesFacet facet, Function<String, Boolean> filter) {
         if (facet != null) {
-            ResourceVisitor visitor = new SpringBootConfigurationResourcesFilesVisitor(facet, files, directories, filter);
-            facet.visitResources(visitor);
+            ResourceTree tree = ResourceTree.getInstance(facet.getResourceDirectory().getUnderlyingResourceObject());
+            for (String name : tree.findFiles(SpringBootConfigurationFileCompleter::isConfigurationFile)) {
+                boolean include = true;
+                if (filter != null) {
+                    Boolean out = filter.apply(name);
+                    include = out == null || out;
+                }
+                if (include) {
+                    files.add(name);
+                }
+            }
         }
     }
 
+    private static boolean isConfigurationFile(String name) {
+        return name.equals("application.properties") || name.equals("application.yaml") || name.equals("application.yml");
+    }
+
     public Set<String> getDirectories() {
         return directories;
     }
@@ -15,16 +15,19 @@
  */
 package io.fabric8.forge.camel.commands.project.completer;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
+import io.fabric8.forge.addon.utils.ResourceTree;
 import io.fabric8.forge.camel.commands.project.helper.CamelXmlHelper;
 import org.jboss.forge.addon.projects.facets.ResourcesFacet;
 import org.jboss.forge.addon.projects.facets.WebResourcesFacet;
-import org.jboss.forge.addon.resource.visit.ResourceVisitor;
+import org.jboss.forge.addon.resource.DirectoryResource;
 import org.jboss.forge.addon.ui.context.UIContext;
 import org.jboss.forge.addon.ui.context.UIValidationContext;
 import org.jboss.forge.addon.ui.input.InputComponent;
@@ -36,18 +39,43 @@ import org.jboss.forge.addon.ui.input.UIInput;
  */
 public class XmlFileCompleter implements UICompleter<String> {
 
+    private static final Predicate<File> CAMEL_ROUTES = XmlResourcesCamelEndpointsVisitor::containsCamelRoutes;
+
     private final Set<String> files = new TreeSet<String>();
     private final Set<String> directories = new TreeSet<String>();
 
     public XmlFileCompleter(final ResourcesFacet facet, final WebResourcesFacet webFacet, Function<String, Boolean> filter) {
-        // find Camel XML files
+        // find Camel XML files using the cached resource trees so we do not walk the directories each time
+        Predicate<String> include = name -> {
+            if (filter == null) {
+                return true;
+            }
+            Boolean out = filter.apply(name);
+            return out == null || out;
+        };
         if (facet != null) {
-            ResourceVisitor visitor = new XmlResourcesCamelFilesVisitor(facet, files, directories, filter);
-            facet.visitResources(visitor);
+            ResourceTree tree = ResourceTree.getInstance(facet.getResourceDirectory().getUnderlyingResourceObject());
+            files.addAll(tree.findFiles(".xml", include, CAMEL_ROUTES));
         }
         if (webFacet != null) {
-            ResourceVisitor visitor = new XmlWebResourcesCamelFilesVisitor(webFacet, files, directories, filter);
-            webFacet.visitWebResources(visitor);
+            File webRoot = webFacet.getWebRootDirectory().getUnderlyingResourceObject();
+            for (DirectoryResource directory : webFacet.getWebRootDirectories()) {
+                File root = directory.getUnderlyingResourceObject();
+                ResourceTree tree = ResourceTree.getInstance(root);
+                for (String name : tree.findFiles(".xml", null, CAMEL_ROUTES)) {
+                    // we only want the relative dir name from the web root directory, eg WEB-INF/foo.xml
+                    if (!root.getAbsoluteFile().equals(webRoot.getAbsoluteFile())) {
+                        name = tree.getFile(name).getPath();
+                    }
+                    if (include.test(name)) {
+                        int idx = Math.max(name.lastIndexOf("/"), name.lastIndexOf("\\"));
+                        if (idx > 0) {
+                            directories.add(name.substring(0, idx));
+                        }
+                        files.add(name);
+                    }
+                }
+            }
         }
     }
 
@@ -15,7 +15,11 @@
  */
 package io.fabric8.forge.camel.commands.project.completer;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.List;
 import java.util.function.Function;
 
@@ -86,4 +90,14 @@ public class XmlResourcesCamelEndpointsVisitor implements ResourceVisitor {
         String contents = resource.getContents();
         return contents.contains("<camelContext") || contents.contains("<routes");
     }
+
+    public static boolean containsCamelRoutes(File file) {
+        String contents;
+        try {
+            contents = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return false;
+        }
+        return contents.contains("<camelContext") || contents.contains("<routes");
+    }
 }
@@ -28,8 +28,9 @@ public class CamelCatalogService {
     @Produces
     public CamelCatalog createCamelCatalog() {
         if (instance == null) {
-            instance = new DefaultCamelCatalog(true);
-            instance.setSuggestionStrategy(new LuceneSuggestionStrategy());
+            CamelCatalog catalog = new DefaultCamelCatalog(true);
+            catalog.setSuggestionStrategy(new LuceneSuggestionStrategy());
+            instance = CamelCatalogTracing.wrap(catalog);
         }
         return instance;
     }
@@ -0,0 +1,76 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.project.helper;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.function.Function;
+
+import org.apache.camel.catalog.CamelCatalog;
+import org.jboss.forge.addon.ui.context.UIContext;
+
+/**
+ * Records the time spent in {@link CamelCatalog} lookups as spans of the current REST request trace.
+ * <p/>
+ * The REST service puts a span factory into the attribute map of each {@link UIContext}; as addons cannot see
+ * its classes, the factory is a plain {@link Function} from span name to {@link AutoCloseable}. The factory itself
+ * decides whether there is an active trace on the calling thread, so once bound it can be used by all catalog calls.
+ */
+public final class CamelCatalogTracing {
+    public static final String SPAN_FACTORY_ATTRIBUTE = "fabric8.tracer";
+
+    private static volatile Function<String, AutoCloseable> spanFactory;
+
+    private CamelCatalogTracing() {
+    }
+
+    /**
+     * Binds the span factory of the REST service if the context has one
+     */
+    @SuppressWarnings("unchecked")
+    public static void bind(UIContext context) {
+        if (spanFactory == null && context != null) {
+            Object value = context.getAttributeMap().get(SPAN_FACTORY_ATTRIBUTE);
+            if (value instanceof Function) {
+                spanFactory = (Function<String, AutoCloseable>) value;
+            }
+        }
+    }
+
+    /**
+     * Returns a catalog which records a span for each call to the given catalog
+     */
+    public static CamelCatalog wrap(final CamelCatalog catalog) {
+        return (CamelCatalog) Proxy.newProxyInstance(CamelCatalog.class.getClassLoader(), new Class[]{CamelCatalog.class}, (proxy, method, args) -> {
+            Function<String, AutoCloseable> factory = spanFactory;
+            if (factory == null || method.getDeclaringClass() == Object.class) {
+                return invoke(catalog, method, args);
+            }
+            try (AutoCloseable span = factory.apply("camel.catalog." + method.getName())) {
+                return invoke(catalog, method, args);
+            }
+        });
+    }
+
+    private static Object invoke(CamelCatalog catalog, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(catalog, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -412,7 +412,7 @@ public final class CamelCommandsHelper {
         if (camelComponentName == null && uri != null) {
             camelComponentName = endpointComponentName(uri);
         }
-        Map<String, String> currentValues = uri != null ? camelCatalog.endpointProperties(uri) : Collections.EMPTY_MAP;
+        Map<String, String> currentValues = uri != null ? EndpointUriCodec.parse(camelCatalog, uri) : Collections.EMPTY_MAP;
         return doCreateUIInputsForCamel(camelComponentName, currentValues, maxOptionsPerPage, consumerOnly, producerOnly, camelCatalog, componentFactory, converterFactory, ui, true);
     }
 
@@ -427,8 +427,9 @@ public final class CamelCommandsHelper {
         }
 
         // is the component consumer or producer only, if so we do not need any kind of filter
-        boolean componentConsumerOnly = CamelCatalogHelper.isComponentConsumerOnly(camelCatalog, camelComponentName);
-        boolean componentProducerOnly = CamelCatalogHelper.isComponentProducerOnly(camelCatalog, camelComponentName);
+        EndpointUriCodec codec = EndpointUriCodec.getInstance(camelCatalog, camelComponentName);
+        boolean componentConsumerOnly = codec.isConsumerOnly();
+        boolean componentProducerOnly = codec.isProducerOnly();
         if (componentConsumerOnly || componentProducerOnly) {
             // reset the filters as the component can only be one of them anyway, so we should show all options
             consumerOnly = false;
@@ -0,0 +1,274 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.project.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import io.fabric8.forge.camel.commands.project.dto.EipDto;
+import io.fabric8.utils.Strings;
+import org.apache.camel.catalog.CamelCatalog;
+import org.apache.camel.catalog.JSonSchemaHelper;
+
+/**
+ * An immutable table of the EIP models of a Camel catalog with their name, title, description, labels, java type
+ * and options, together with an index from each label to the names of its models.
+ * <p/>
+ * The JSon schema of each model is parsed once when the table is built, and a table is built once for each version
+ * loaded by a catalog, so the EIP completers and wizard steps do not parse the JSon schemas on every keystroke.
+ */
+public final class CamelEipTable {
+
+    private static final Map<CamelCatalog, CamelEipTable> TABLES = new WeakHashMap<>();
+
+    private final String version;
+    private final Map<String, EipModel> models;
+    private final Map<String, List<String>> labelIndex;
+
+    /**
+     * An EIP model of the catalog
+     */
+    public static final class EipModel {
+        private final String name;
+        private final String title;
+        private final String description;
+        private final String label;
+        private final List<String> labels;
+        private final String javaType;
+        private final boolean output;
+        private final Map<String, Map<String, String>> properties;
+
+        EipModel(String name, String title, String description, String label, String javaType, boolean output,
+                 Map<String, Map<String, String>> properties) {
+            this.name = name;
+            this.title = title;
+            this.description = description;
+            this.label = label;
+            this.labels = label != null ? Collections.unmodifiableList(Arrays.asList(label.split(","))) : Collections.<String>emptyList();
+            this.javaType = javaType;
+            this.output = output;
+            this.properties = properties;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * Whether the model has a label, models without a label are included when filtering by any label
+         */
+        public boolean hasLabel() {
+            return label != null;
+        }
+
+        public List<String> getLabels() {
+            return labels;
+        }
+
+        public String getJavaType() {
+            return javaType;
+        }
+
+        public boolean isSupportOutput() {
+            return output;
+        }
+
+        /**
+         * Checks whether the given key is an expression kind
+         */
+        public boolean isExpressionKind(String key) {
+            Map<String, String> property = properties.get(key);
+            return property != null && "expression".equals(property.get("kind"));
+        }
+
+        /**
+         * Checks whether the given value is matching the default value of the given key
+         */
+        public boolean isDefaultValue(String key, String value) {
+            Map<String, String> property = properties.get(key);
+            return property != null && value.equalsIgnoreCase(property.get("defaultValue"));
+        }
+
+        /**
+         * Creates a new {@link EipDto} of this model
+         */
+        public EipDto createEipDto() {
+            EipDto dto = new EipDto();
+            dto.setName(name);
+            dto.setTitle(title);
+            dto.setDescription(description);
+            if (Strings.isNotBlank(label)) {
+                dto.setTags(label.split(","));
+            }
+            dto.setJavaType(javaType);
+            return dto;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private CamelEipTable(String version, Map<String, EipModel> models) {
+        this.version = version;
+        this.models = Collections.unmodifiableMap(models);
+
+        Map<String, List<String>> index = new LinkedHashMap<>();
+        for (Map.Entry<String, EipModel> model : models.entrySet()) {
+            for (String label : model.getValue().getLabels()) {
+                List<String> names = index.get(label);
+                if (names == null) {
+                    names = new ArrayList<>();
+                    index.put(label, names);
+                }
+                names.add(model.getKey());
+            }
+        }
+        for (Map.Entry<String, List<String>> entry : index.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        this.labelIndex = Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * Returns the table of the version currently loaded by the given catalog
+     */
+    public static CamelEipTable getInstance(CamelCatalog camelCatalog) {
+        String version = camelCatalog.getLoadedVersion();
+        if (version == null) {
+            version = camelCatalog.getCatalogVersion();
+        }
+        synchronized (TABLES) {
+            CamelEipTable answer = TABLES.get(camelCatalog);
+            if (answer == null || !answer.version.equals(version)) {
+                answer = create(camelCatalog, version);
+                TABLES.put(camelCatalog, answer);
+            }
+            return answer;
+        }
+    }
+
+    private static CamelEipTable create(CamelCatalog camelCatalog, String version) {
+        Map<String, EipModel> models = new LinkedHashMap<>();
+        for (String modelName : camelCatalog.findModelNames()) {
+            String json = camelCatalog.modelJSonSchema(modelName);
+            if (json == null) {
+                continue;
+            }
+
+            // use the first value of each of the model attributes
+            Map<String, String> model = new LinkedHashMap<>();
+            for (Map<String, String> row : JSonSchemaHelper.parseJsonSchema("model", json, false)) {
+                for (Map.Entry<String, String> entry : row.entrySet()) {
+                    if (entry.getValue() != null && !model.containsKey(entry.getKey())) {
+                        model.put(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+
+            Map<String, Map<String, String>> properties = new LinkedHashMap<>();
+            for (Map<String, String> row : JSonSchemaHelper.parseJsonSchema("properties", json, true)) {
+                String name = row.get("name");
+                if (name != null && !properties.containsKey(name)) {
+                    properties.put(name, Collections.unmodifiableMap(row));
+                }
+            }
+
+            String name = model.get("name");
+            models.put(modelName, new EipModel(name, model.get("title"), model.get("description"), model.get("label"),
+                    model.get("javaType"), "true".equals(model.get("output")), Collections.unmodifiableMap(properties)));
+        }
+        return new CamelEipTable(version, models);
+    }
+
+    /**
+     * The catalog version of this table
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the names of all the models in catalog order
+     */
+    public Set<String> getModelNames() {
+        return models.keySet();
+    }
+
+    /**
+     * Returns the model of the given name or <tt>null</tt> if there is no such model
+     */
+    public EipModel getModel(String modelName) {
+        return models.get(modelName);
+    }
+
+    /**
+     * Returns the model of the given name
+     *
+     * @throws IllegalArgumentException if there is no such model
+     */
+    public EipModel requireModel(String modelName) {
+        EipModel answer = models.get(modelName);
+        if (answer == null) {
+            throw new IllegalArgumentException("Could not find catalog entry for model name: " + modelName);
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the labels of all the models
+     */
+    public Set<String> getLabels() {
+        return labelIndex.keySet();
+    }
+
+    /**
+     * Returns the names of the models with a label starting with the given label, and the models without
+     * any label, in catalog order
+     */
+    public List<String> findModelNamesByLabel(String label) {
+        Set<String> matches = new HashSet<>();
+        for (Map.Entry<String, List<String>> entry : labelIndex.entrySet()) {
+            if (entry.getKey().startsWith(label)) {
+                matches.addAll(entry.getValue());
+            }
+        }
+
+        List<String> answer = new ArrayList<>();
+        for (Map.Entry<String, EipModel> model : models.entrySet()) {
+            if (!model.getValue().hasLabel() || matches.contains(model.getKey())) {
+                answer.add(model.getKey());
+            }
+        }
+        return answer;
+    }
+}
@@ -20,14 +20,11 @@ import java.util.Collections;
 import java.util.List;
 
 import io.fabric8.utils.Strings;
-import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.ASTNode;
-import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.Block;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.BooleanLiteral;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.ClassInstanceCreation;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.Expression;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.ExpressionStatement;
-import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.FieldDeclaration;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.InfixExpression;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.MemberValuePair;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.MethodDeclaration;
@@ -42,10 +39,8 @@ import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.SimpleType;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.SingleMemberAnnotation;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.Statement;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.StringLiteral;
-import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.Type;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.VariableDeclaration;
 import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.VariableDeclarationFragment;
-import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.VariableDeclarationStatement;
 import org.jboss.forge.roaster.model.Annotation;
 import org.jboss.forge.roaster.model.source.AnnotationSource;
 import org.jboss.forge.roaster.model.source.FieldSource;
@@ -157,14 +152,28 @@ public class CamelJavaParserHelper {
     }
 
     public static List<ParserResult> parseCamelConsumerUris(MethodSource<JavaClassSource> method, boolean strings, boolean fields) {
-        return doParseCamelUris(method, true, false, strings, fields);
+        return parseCamelConsumerUris(method != null ? new JavaSymbolTable(method.getOrigin()) : null, method, strings, fields);
+    }
+
+    /**
+     * Parses the consumer uris of the method, resolving the fields and variables using the given symbol table of its class
+     */
+    public static List<ParserResult> parseCamelConsumerUris(JavaSymbolTable symbols, MethodSource<JavaClassSource> method, boolean strings, boolean fields) {
+        return doParseCamelUris(symbols, method, true, false, strings, fields);
     }
 
     public static List<ParserResult> parseCamelProducerUris(MethodSource<JavaClassSource> method, boolean strings, boolean fields) {
-        return doParseCamelUris(method, false, true, strings, fields);
+        return parseCamelProducerUris(method != null ? new JavaSymbolTable(method.getOrigin()) : null, method, strings, fields);
+    }
+
+    /**
+     * Parses the producer uris of the method, resolving the fields and variables using the given symbol table of its class
+     */
+    public static List<ParserResult> parseCamelProducerUris(JavaSymbolTable symbols, MethodSource<JavaClassSource> method, boolean strings, boolean fields) {
+        return doParseCamelUris(symbols, method, false, true, strings, fields);
     }
 
-    private static List<ParserResult> doParseCamelUris(MethodSource<JavaClassSource> method, boolean consumers, boolean producers,
+    private static List<ParserResult> doParseCamelUris(JavaSymbolTable symbols, MethodSource<JavaClassSource> method, boolean consumers, boolean producers,
                                                        boolean strings, boolean fields) {
 
         List<ParserResult> answer = new ArrayList<ParserResult>();
@@ -180,7 +189,7 @@ public class CamelJavaParserHelper {
                         Expression exp = es.getExpression();
 
                         List<ParserResult> uris = new ArrayList<ParserResult>();
-                        parseExpression(method.getOrigin(), block, exp, uris, consumers, producers, strings, fields);
+                        parseExpression(symbols, block, exp, uris, consumers, producers, strings, fields);
                         if (!uris.isEmpty()) {
                             // reverse the order as we will grab them from last->first
                             Collections.reverse(uris);
@@ -194,21 +203,21 @@ public class CamelJavaParserHelper {
         return answer;
     }
 
-    private static void parseExpression(JavaClassSource clazz, Block block, Expression exp, List<ParserResult> uris,
+    private static void parseExpression(JavaSymbolTable symbols, Block block, Expression exp, List<ParserResult> uris,
                                         boolean consumers, boolean producers, boolean strings, boolean fields) {
         if (exp == null) {
             return;
         }
         if (exp instanceof MethodInvocation) {
             MethodInvocation mi = (MethodInvocation) exp;
-            doParseCamelUris(clazz, block, mi, uris, consumers, producers, strings, fields);
+            doParseCamelUris(symbols, block, mi, uris, consumers, producers, strings, fields);
             // if the method was called on another method, then recursive
             exp = mi.getExpression();
-            parseExpression(clazz, block, exp, uris, consumers, producers, strings, fields);
+            parseExpression(symbols, block, exp, uris, consumers, producers, strings, fields);
         }
     }
 
-    private static void doParseCamelUris(JavaClassSource clazz, Block block, MethodInvocation mi, List<ParserResult> uris,
+    private static void doParseCamelUris(JavaSymbolTable symbols, Block block, MethodInvocation mi, List<ParserResult> uris,
                                          boolean consumers, boolean producers, boolean strings, boolean fields) {
         String name = mi.getName().getIdentifier();
 
@@ -218,7 +227,7 @@ public class CamelJavaParserHelper {
                 if (args != null) {
                     for (Object arg : args) {
                         if (isValidArgument(name, arg)) {
-                            extractEndpointUriFromArgument(name, clazz, block, uris, arg, strings, fields);
+                            extractEndpointUriFromArgument(name, symbols, block, uris, arg, strings, fields);
                         }
                     }
                 }
@@ -229,7 +238,7 @@ public class CamelJavaParserHelper {
                 if (args != null && args.size() >= 1) {
                     Object arg = args.get(0);
                     if (isValidArgument(name, arg)) {
-                        extractEndpointUriFromArgument(name, clazz, block, uris, arg, strings, fields);
+                        extractEndpointUriFromArgument(name, symbols, block, uris, arg, strings, fields);
                     }
                 }
             }
@@ -239,7 +248,7 @@ public class CamelJavaParserHelper {
                 if (args != null && args.size() >= 1) {
                     Object arg = args.get(0);
                     if (isValidArgument(name, arg)) {
-                        extractEndpointUriFromArgument(name, clazz, block, uris, arg, strings, fields);
+                        extractEndpointUriFromArgument(name, symbols, block, uris, arg, strings, fields);
                     }
                 }
             }
@@ -252,7 +261,7 @@ public class CamelJavaParserHelper {
                     for (Object arg : args) {
                         // skip if the arg is a boolean, ExchangePattern or Iterateable, type
                         if (isValidArgument(name, arg)) {
-                            extractEndpointUriFromArgument(name, clazz, block, uris, arg, strings, fields);
+                            extractEndpointUriFromArgument(name, symbols, block, uris, arg, strings, fields);
                         }
                     }
                 }
@@ -263,7 +272,7 @@ public class CamelJavaParserHelper {
                 if (args != null && args.size() >= 1) {
                     Object arg = args.get(0);
                     if (isValidArgument(name, arg)) {
-                        extractEndpointUriFromArgument(name, clazz, block, uris, arg, strings, fields);
+                        extractEndpointUriFromArgument(name, symbols, block, uris, arg, strings, fields);
                     }
                 }
             }
@@ -273,7 +282,7 @@ public class CamelJavaParserHelper {
                 if (args != null && args.size() >= 1) {
                     Object arg = args.get(0);
                     if (isValidArgument(name, arg)) {
-                        extractEndpointUriFromArgument(name, clazz, block, uris, arg, strings, fields);
+                        extractEndpointUriFromArgument(name, symbols, block, uris, arg, strings, fields);
                     }
                 }
             }
@@ -296,9 +305,9 @@ public class CamelJavaParserHelper {
         return true;
     }
 
-    private static void extractEndpointUriFromArgument(String node, JavaClassSource clazz, Block block, List<ParserResult> uris, Object arg, boolean strings, boolean fields) {
+    private static void extractEndpointUriFromArgument(String node, JavaSymbolTable symbols, Block block, List<ParserResult> uris, Object arg, boolean strings, boolean fields) {
         if (strings) {
-            String uri = getLiteralValue(clazz, block, (Expression) arg);
+            String uri = getLiteralValue(symbols, block, (Expression) arg);
             if (Strings.isNotBlank(uri)) {
                 int position = ((Expression) arg).getStartPosition();
 
@@ -312,7 +321,7 @@ public class CamelJavaParserHelper {
             }
         }
         if (fields && arg instanceof SimpleName) {
-            FieldSource field = getField(clazz, block, (SimpleName) arg);
+            FieldSource field = symbols.getField(block, (SimpleName) arg);
             if (field != null) {
                 // find the endpoint uri from the annotation
                 AnnotationSource annotation = field.getAnnotation("org.apache.camel.cdi.Uri");
@@ -333,7 +342,7 @@ public class CamelJavaParserHelper {
                             }
                         }
                     }
-                    String uri = CamelJavaParserHelper.getLiteralValue(clazz, block, exp);
+                    String uri = CamelJavaParserHelper.getLiteralValue(symbols, block, exp);
                     if (Strings.isNotBlank(uri)) {
                         int position = ((SimpleName) arg).getStartPosition();
                         uris.add(new ParserResult(node, position, uri));
@@ -343,7 +352,7 @@ public class CamelJavaParserHelper {
                     Object fi = field.getInternal();
                     if (fi instanceof VariableDeclaration) {
                         Expression exp = ((VariableDeclaration) fi).getInitializer();
-                        String uri = CamelJavaParserHelper.getLiteralValue(clazz, block, exp);
+                        String uri = CamelJavaParserHelper.getLiteralValue(symbols, block, exp);
                         if (Strings.isNotBlank(uri)) {
                             // we want the position of the field, and not in the route
                             int position = ((VariableDeclaration) fi).getStartPosition();
@@ -359,6 +368,13 @@ public class CamelJavaParserHelper {
     }
 
     public static List<ParserResult> parseCamelSimpleExpressions(MethodSource<JavaClassSource> method) {
+        return parseCamelSimpleExpressions(new JavaSymbolTable(method.getOrigin()), method);
+    }
+
+    /**
+     * Parses the simple expressions of the method, resolving the fields and variables using the given symbol table of its class
+     */
+    public static List<ParserResult> parseCamelSimpleExpressions(JavaSymbolTable symbols, MethodSource<JavaClassSource> method) {
         List<ParserResult> answer = new ArrayList<ParserResult>();
 
         MethodDeclaration md = (MethodDeclaration) method.getInternal();
@@ -371,7 +387,7 @@ public class CamelJavaParserHelper {
                     Expression exp = es.getExpression();
 
                     List<ParserResult> expressions = new ArrayList<ParserResult>();
-                    parseExpression(null, method.getOrigin(), block, exp, expressions);
+                    parseExpression(null, symbols, block, exp, expressions);
                     if (!expressions.isEmpty()) {
                         // reverse the order as we will grab them from last->first
                         Collections.reverse(expressions);
@@ -384,20 +400,20 @@ public class CamelJavaParserHelper {
         return answer;
     }
 
-    private static void parseExpression(String node, JavaClassSource clazz, Block block, Expression exp, List<ParserResult> expressions) {
+    private static void parseExpression(String node, JavaSymbolTable symbols, Block block, Expression exp, List<ParserResult> expressions) {
         if (exp == null) {
             return;
         }
         if (exp instanceof MethodInvocation) {
             MethodInvocation mi = (MethodInvocation) exp;
-            doParseCamelSimple(node, clazz, block, mi, expressions);
+            doParseCamelSimple(node, symbols, block, mi, expressions);
             // if the method was called on another method, then recursive
             exp = mi.getExpression();
-            parseExpression(node, clazz, block, exp, expressions);
+            parseExpression(node, symbols, block, exp, expressions);
         }
     }
 
-    private static void doParseCamelSimple(String node, JavaClassSource clazz, Block block, MethodInvocation mi, List<ParserResult> expressions) {
+    private static void doParseCamelSimple(String node, JavaSymbolTable symbols, Block block, MethodInvocation mi, List<ParserResult> expressions) {
         String name = mi.getName().getIdentifier();
 
         if ("simple".equals(name)) {
@@ -406,7 +422,7 @@ public class CamelJavaParserHelper {
             if (args != null && args.size() >= 1) {
                 // it is a String type
                 Object arg = args.get(0);
-                String simple = getLiteralValue(clazz, block, (Expression) arg);
+                String simple = getLiteralValue(symbols, block, (Expression) arg);
                 if (Strings.isNotBlank(simple)) {
                     int position = ((Expression) arg).getStartPosition();
                     expressions.add(new ParserResult(node, position, simple));
@@ -420,72 +436,23 @@ public class CamelJavaParserHelper {
             for (Object arg : args) {
                 if (arg instanceof MethodInvocation) {
                     MethodInvocation ami = (MethodInvocation) arg;
-                    doParseCamelSimple(node, clazz, block, ami, expressions);
+                    doParseCamelSimple(node, symbols, block, ami, expressions);
                 }
             }
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static FieldSource<JavaClassSource> getField(JavaClassSource clazz, Block block, SimpleName ref) {
-        String fieldName = ref.getIdentifier();
-        if (fieldName != null) {
-            // find field in class
-            FieldSource field = clazz != null ? clazz.getField(fieldName) : null;
-            if (field == null) {
-                field = findFieldInBlock(clazz, block, fieldName);
-            }
-            return field;
-        }
-        return null;
-    }
-
-    @SuppressWarnings("unchecked")
-    private static FieldSource<JavaClassSource> findFieldInBlock(JavaClassSource clazz, Block block, String fieldName) {
-        for (Object statement : block.statements()) {
-            // try local statements first in the block
-            if (statement instanceof VariableDeclarationStatement) {
-                final Type type = ((VariableDeclarationStatement) statement).getType();
-                for (Object obj : ((VariableDeclarationStatement) statement).fragments()) {
-                    if (obj instanceof VariableDeclarationFragment) {
-                        VariableDeclarationFragment fragment = (VariableDeclarationFragment) obj;
-                        SimpleName name = fragment.getName();
-                        if (name != null && fieldName.equals(name.getIdentifier())) {
-                            return new StatementFieldSource(clazz, fragment, type);
-                        }
-                    }
-                }
-            }
-
-            // okay the field may be burried inside an anonymous inner class as a field declaration
-            // outside the configure method, so lets go back to the parent and see what we can find
-            ASTNode node = block.getParent();
-            if (node instanceof MethodDeclaration) {
-                node = node.getParent();
-            }
-            if (node instanceof AnonymousClassDeclaration) {
-                List declarations = ((AnonymousClassDeclaration) node).bodyDeclarations();
-                for (Object dec : declarations) {
-                    if (dec instanceof FieldDeclaration) {
-                        FieldDeclaration fd = (FieldDeclaration) dec;
-                        final Type type = fd.getType();
-                        for (Object obj : fd.fragments()) {
-                            if (obj instanceof VariableDeclarationFragment) {
-                                VariableDeclarationFragment fragment = (VariableDeclarationFragment) obj;
-                                SimpleName name = fragment.getName();
-                                if (name != null && fieldName.equals(name.getIdentifier())) {
-                                    return new StatementFieldSource(clazz, fragment, type);
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return null;
+    public static String getLiteralValue(JavaClassSource clazz, Block block, Expression expression) {
+        return getLiteralValue(new JavaSymbolTable(clazz), block, expression);
     }
 
-    public static String getLiteralValue(JavaClassSource clazz, Block block, Expression expression) {
+    /**
+     * Evaluates the expression to its literal value, resolving the fields and variables using the given symbol table.
+     * <p/>
+     * The value of a field or variable is only evaluated once per block, so the same symbol table should be used
+     * for all the expressions of a class.
+     */
+    public static String getLiteralValue(JavaSymbolTable symbols, Block block, Expression expression) {
         // unwrap parenthesis
         if (expression instanceof ParenthesizedExpression) {
             expression = ((ParenthesizedExpression) expression).getExpression();
@@ -515,73 +482,19 @@ public class CamelJavaParserHelper {
         }
 
         if (expression instanceof SimpleName) {
-            FieldSource<JavaClassSource> field = getField(clazz, block, (SimpleName) expression);
-            if (field != null) {
-                // is the field annotated with a Camel endpoint
-                if (field.getAnnotations() != null) {
-                    for (Annotation ann : field.getAnnotations()) {
-                        boolean valid = "org.apache.camel.EndpointInject".equals(ann.getQualifiedName()) || "org.apache.camel.cdi.Uri".equals(ann.getQualifiedName());
-                        if (valid) {
-                            Expression exp = (Expression) ann.getInternal();
-                            if (exp instanceof SingleMemberAnnotation) {
-                                exp = ((SingleMemberAnnotation) exp).getValue();
-                            } else if (exp instanceof NormalAnnotation) {
-                                List values = ((NormalAnnotation) exp).values();
-                                for (Object value : values) {
-                                    MemberValuePair pair = (MemberValuePair) value;
-                                    if ("uri".equals(pair.getName().toString())) {
-                                        exp = pair.getValue();
-                                        break;
-                                    }
-                                }
-                            }
-                            if (exp != null) {
-                                return getLiteralValue(clazz, block, exp);
-                            }
-                        }
-                    }
-                }
-                // is the field an org.apache.camel.Endpoint type?
-                if ("Endpoint".equals(field.getType().getSimpleName())) {
-                    // then grab the uri from the first argument
-                    VariableDeclarationFragment vdf = (VariableDeclarationFragment) field.getInternal();
-                    expression = vdf.getInitializer();
-                    if (expression instanceof MethodInvocation) {
-                        MethodInvocation mi = (MethodInvocation) expression;
-                        List args = mi.arguments();
-                        if (args != null && args.size() > 0) {
-                            // the first argument has the endpoint uri
-                            expression = (Expression) args.get(0);
-                            return getLiteralValue(clazz, block, expression);
-                        }
-                    }
-                } else {
-                    // no annotations so try its initializer
-                    VariableDeclarationFragment vdf = (VariableDeclarationFragment) field.getInternal();
-                    expression = vdf.getInitializer();
-                    if (expression == null) {
-                        // its a field which has no initializer, then add a dummy value assuming the field will be initialized at runtime
-                        return "{{" + field.getName() + "}}";
-                    } else {
-                        return getLiteralValue(clazz, block, expression);
-                    }
-                }
-            } else {
-                // we could not find the field in this class/method, so its maybe from some other super class, so insert a dummy value
-                final String fieldName = ((SimpleName) expression).getIdentifier();
-                return "{{" + fieldName + "}}";
-            }
+            final SimpleName ref = (SimpleName) expression;
+            return symbols.resolve(block, ref.getIdentifier(), () -> getFieldValue(symbols, block, ref));
         } else if (expression instanceof InfixExpression) {
             String answer = null;
             // is it a string that is concat together?
             InfixExpression ie = (InfixExpression) expression;
             if (InfixExpression.Operator.PLUS.equals(ie.getOperator())) {
 
-                String val1 = getLiteralValue(clazz, block, ie.getLeftOperand());
-                String val2 = getLiteralValue(clazz, block, ie.getRightOperand());
+                String val1 = getLiteralValue(symbols, block, ie.getLeftOperand());
+                String val2 = getLiteralValue(symbols, block, ie.getRightOperand());
 
                 // if numeric then we plus the values, otherwise we string concat
-                boolean numeric = isNumericOperator(clazz, block, ie.getLeftOperand()) && isNumericOperator(clazz, block, ie.getRightOperand());
+                boolean numeric = isNumericOperator(symbols, block, ie.getLeftOperand()) && isNumericOperator(symbols, block, ie.getRightOperand());
                 if (numeric) {
                     Long num1 = (val1 != null ? Long.valueOf(val1) : 0);
                     Long num2 = (val2 != null ? Long.valueOf(val2) : 0);
@@ -595,7 +508,7 @@ public class CamelJavaParserHelper {
                     List extended = ie.extendedOperands();
                     if (extended != null) {
                         for (Object ext : extended) {
-                            String val3 = getLiteralValue(clazz, block, (Expression) ext);
+                            String val3 = getLiteralValue(symbols, block, (Expression) ext);
                             if (numeric) {
                                 Long num3 = (val3 != null ? Long.valueOf(val3) : 0);
                                 Long num = Long.valueOf(answer);
@@ -613,11 +526,72 @@ public class CamelJavaParserHelper {
         return null;
     }
 
-    private static boolean isNumericOperator(JavaClassSource clazz, Block block, Expression expression) {
+    private static String getFieldValue(JavaSymbolTable symbols, Block block, SimpleName ref) {
+        Expression expression;
+        FieldSource<JavaClassSource> field = symbols.getField(block, ref);
+        if (field != null) {
+            // is the field annotated with a Camel endpoint
+            if (field.getAnnotations() != null) {
+                for (Annotation ann : field.getAnnotations()) {
+                    boolean valid = "org.apache.camel.EndpointInject".equals(ann.getQualifiedName()) || "org.apache.camel.cdi.Uri".equals(ann.getQualifiedName());
+                    if (valid) {
+                        Expression exp = (Expression) ann.getInternal();
+                        if (exp instanceof SingleMemberAnnotation) {
+                            exp = ((SingleMemberAnnotation) exp).getValue();
+                        } else if (exp instanceof NormalAnnotation) {
+                            List values = ((NormalAnnotation) exp).values();
+                            for (Object value : values) {
+                                MemberValuePair pair = (MemberValuePair) value;
+                                if ("uri".equals(pair.getName().toString())) {
+                                    exp = pair.getValue();
+                                    break;
+                                }
+                            }
+                        }
+                        if (exp != null) {
+                            return getLiteralValue(symbols, block, exp);
+                        }
+                    }
+                }
+            }
+            // is the field an org.apache.camel.Endpoint type?
+            if ("Endpoint".equals(field.getType().getSimpleName())) {
+                // then grab the uri from the first argument
+                VariableDeclarationFragment vdf = (VariableDeclarationFragment) field.getInternal();
+                expression = vdf.getInitializer();
+                if (expression instanceof MethodInvocation) {
+                    MethodInvocation mi = (MethodInvocation) expression;
+                    List args = mi.arguments();
+                    if (args != null && args.size() > 0) {
+                        // the first argument has the endpoint uri
+                        expression = (Expression) args.get(0);
+                        return getLiteralValue(symbols, block, expression);
+                    }
+                }
+            } else {
+                // no annotations so try its initializer
+                VariableDeclarationFragment vdf = (VariableDeclarationFragment) field.getInternal();
+                expression = vdf.getInitializer();
+                if (expression == null) {
+                    // its a field which has no initializer, then add a dummy value assuming the field will be initialized at runtime
+                    return "{{" + field.getName() + "}}";
+                } else {
+                    return getLiteralValue(symbols, block, expression);
+                }
+            }
+        } else {
+            // we could not find the field in this class/method, so its maybe from some other super class, so insert a dummy value
+            final String fieldName = ref.getIdentifier();
+            return "{{" + fieldName + "}}";
+        }
+        return null;
+    }
+
+    private static boolean isNumericOperator(JavaSymbolTable symbols, Block block, Expression expression) {
         if (expression instanceof NumberLiteral) {
             return true;
         } else if (expression instanceof SimpleName) {
-            FieldSource field = getField(clazz, block, (SimpleName) expression);
+            FieldSource field = symbols.getField(block, (SimpleName) expression);
             if (field != null) {
                 return field.getType().isType("int") || field.getType().isType("long")
                         || field.getType().isType("Integer") || field.getType().isType("Long");
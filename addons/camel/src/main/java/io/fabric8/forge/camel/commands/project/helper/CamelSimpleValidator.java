@@ -0,0 +1,158 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.project.helper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.fabric8.forge.camel.commands.project.model.CamelSimpleDetails;
+import org.apache.camel.catalog.CamelCatalog;
+import org.apache.camel.catalog.SimpleValidationResult;
+
+/**
+ * Validates the Camel simple expressions of a project.
+ * <p/>
+ * The same expression is often used many times in a project, so each distinct expression is only validated once,
+ * and the results are remembered per Camel version and expression so validating the project again only validates
+ * the new expressions. The expressions are validated in parallel.
+ */
+public class CamelSimpleValidator {
+
+    /**
+     * The maximum number of remembered results before the shared cache is cleared
+     */
+    private static final int MAX_RESULTS = 10000;
+
+    private static final Map<String, SimpleValidationResult> RESULTS = new ConcurrentHashMap<>();
+
+    private final CamelCatalog camelCatalog;
+    private final int threads;
+    private final Map<String, SimpleValidationResult> results;
+    private final AtomicInteger validated = new AtomicInteger();
+
+    /**
+     * Creates a validator which uses the shared results and validates using a thread per processor
+     */
+    public CamelSimpleValidator(CamelCatalog camelCatalog) {
+        this(camelCatalog, Runtime.getRuntime().availableProcessors(), RESULTS);
+    }
+
+    public CamelSimpleValidator(CamelCatalog camelCatalog, int threads) {
+        this(camelCatalog, threads, RESULTS);
+    }
+
+    public CamelSimpleValidator(CamelCatalog camelCatalog, int threads, Map<String, SimpleValidationResult> results) {
+        this.camelCatalog = camelCatalog;
+        this.threads = Math.max(1, threads);
+        this.results = results;
+    }
+
+    /**
+     * The number of expressions which has been validated with the catalog, rather than found in the results
+     */
+    public int getValidated() {
+        return validated.get();
+    }
+
+    /**
+     * Validates the simple expressions of the given details
+     *
+     * @return the result of each distinct expression
+     */
+    public Map<String, SimpleValidationResult> validate(Collection<CamelSimpleDetails> details) {
+        Set<String> expressions = new LinkedHashSet<>();
+        for (CamelSimpleDetails detail : details) {
+            expressions.add(detail.getSimple());
+        }
+        return validateExpressions(expressions);
+    }
+
+    /**
+     * Validates the given simple expressions
+     *
+     * @return the result of each distinct expression
+     */
+    public Map<String, SimpleValidationResult> validateExpressions(Collection<String> expressions) {
+        String version = camelCatalog.getLoadedVersion();
+        if (version == null) {
+            version = camelCatalog.getCatalogVersion();
+        }
+
+        Map<String, SimpleValidationResult> answer = new LinkedHashMap<>();
+        List<String> pending = new ArrayList<>();
+        for (String simple : expressions) {
+            SimpleValidationResult result = simple != null ? results.get(key(version, simple)) : null;
+            answer.put(simple, result);
+            if (result == null) {
+                pending.add(simple);
+            }
+        }
+
+        if (pending.size() > 1 && threads > 1) {
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, pending.size()));
+            try {
+                List<Future<SimpleValidationResult>> futures = new ArrayList<>();
+                for (String simple : pending) {
+                    futures.add(executor.submit(() -> doValidate(simple)));
+                }
+                for (int i = 0; i < pending.size(); i++) {
+                    answer.put(pending.get(i), futures.get(i).get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted validating simple expressions", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Error validating simple expressions due " + e.getCause().getMessage(), e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        } else {
+            for (String simple : pending) {
+                answer.put(simple, doValidate(simple));
+            }
+        }
+
+        if (results.size() + pending.size() > MAX_RESULTS) {
+            results.clear();
+        }
+        for (String simple : pending) {
+            if (simple != null) {
+                results.put(key(version, simple), answer.get(simple));
+            }
+        }
+        return answer;
+    }
+
+    private SimpleValidationResult doValidate(String simple) {
+        validated.incrementAndGet();
+        return camelCatalog.validateSimpleExpression(simple);
+    }
+
+    private static String key(String version, String simple) {
+        return version + "\n" + simple;
+    }
+}
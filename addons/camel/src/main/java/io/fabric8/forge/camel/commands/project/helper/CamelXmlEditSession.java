@@ -0,0 +1,281 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.project.helper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.fabric8.forge.addon.utils.LineNumberHelper;
+import io.fabric8.forge.addon.utils.XmlLineNumberParser;
+import org.jboss.forge.addon.resource.FileResource;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * An editing session on a Camel XML file which reads and parses the file once into a line numbered DOM
+ * and a table of line offsets. Nodes are looked up by their key, edits are recorded as line based patches
+ * against the original content and the file is written once when the session is saved.
+ * <p/>
+ * The saved content is the same as reading the lines with {@link LineNumberHelper#readLines(InputStream)},
+ * editing the list and writing it back with {@link LineNumberHelper#linesToString(List)}.
+ */
+public class CamelXmlEditSession {
+
+    private static final String ATTRIBUTE_NAME = CamelXmlEditSession.class.getName();
+
+    private final String name;
+    private final long lastModified;
+    private final byte[] data;
+    private final String content;
+    private final int[] lineStarts;
+    private final int[] lineEnds;
+    private final List<String> lines = new AbstractList<String>() {
+        @Override
+        public String get(int index) {
+            return getLine(index);
+        }
+
+        @Override
+        public int size() {
+            return getLineCount();
+        }
+    };
+    private final Map<String, Element> elements = new HashMap<>();
+    private final List<Patch> patches = new ArrayList<>();
+    private Document document;
+    private boolean parsed;
+
+    public CamelXmlEditSession(String name, long lastModified, byte[] data) {
+        this.name = name;
+        this.lastModified = lastModified;
+        this.data = data;
+        // the lines are read using the platform encoding like LineNumberHelper does
+        this.content = new String(data, Charset.defaultCharset());
+
+        int count = 0;
+        int[] starts = new int[64];
+        int[] ends = new int[64];
+        int pos = 0;
+        int length = content.length();
+        while (pos < length) {
+            int end = pos;
+            while (end < length && content.charAt(end) != '\n' && content.charAt(end) != '\r') {
+                end++;
+            }
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = pos;
+            ends[count] = end;
+            count++;
+            // a line ends with either \n, \r or \r\n
+            pos = end + 1;
+            if (pos < length && content.charAt(end) == '\r' && content.charAt(pos) == '\n') {
+                pos++;
+            }
+        }
+        this.lineStarts = Arrays.copyOf(starts, count);
+        this.lineEnds = Arrays.copyOf(ends, count);
+    }
+
+    /**
+     * Loads the given file into a new editing session
+     */
+    public static CamelXmlEditSession load(FileResource<?> file) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) Math.max(file.getSize(), 32));
+        try (InputStream is = file.getResourceInputStream()) {
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = is.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+        }
+        return new CamelXmlEditSession(file.getFullyQualifiedName(), file.getLastModified(), buffer.toByteArray());
+    }
+
+    /**
+     * Returns the editing session of the given file which was opened earlier in the same wizard if the file has not
+     * been changed since, otherwise loads the file into a new session which is kept in the attribute map for later steps.
+     */
+    public static CamelXmlEditSession getOrLoad(Map<Object, Object> attributeMap, FileResource<?> file) throws IOException {
+        Object value = attributeMap.get(ATTRIBUTE_NAME);
+        if (value instanceof CamelXmlEditSession) {
+            CamelXmlEditSession session = (CamelXmlEditSession) value;
+            if (session.isCurrent(file)) {
+                return session;
+            }
+        }
+        CamelXmlEditSession session = load(file);
+        attributeMap.put(ATTRIBUTE_NAME, session);
+        return session;
+    }
+
+    /**
+     * Returns true if the session has no pending edits and the file has not been changed since it was loaded
+     */
+    public boolean isCurrent(FileResource<?> file) {
+        return patches.isEmpty() && name.equals(file.getFullyQualifiedName())
+                && lastModified == file.getLastModified() && data.length == file.getSize();
+    }
+
+    /**
+     * Returns the line numbered DOM of the Camel XML which is parsed on first use
+     */
+    public Document getDocument() throws Exception {
+        if (!parsed) {
+            parsed = true;
+            document = CamelXmlHelper.loadCamelXmlFileAsDom(new ByteArrayInputStream(data));
+        }
+        return document;
+    }
+
+    /**
+     * Returns the Camel element for the given node key, or null if there is no such element
+     */
+    public Element findCamelElement(String key) throws Exception {
+        if (elements.containsKey(key)) {
+            return elements.get(key);
+        }
+        Element answer = null;
+        Node node = CamelXmlHelper.findCamelNodeInDocument(getDocument(), key);
+        if (node instanceof Element) {
+            answer = (Element) node;
+        }
+        elements.put(key, answer);
+        return answer;
+    }
+
+    /**
+     * Returns the original lines of the file
+     */
+    public List<String> getLines() {
+        return lines;
+    }
+
+    public int getLineCount() {
+        return lineStarts.length;
+    }
+
+    /**
+     * Returns the original line at the given 0-based index
+     */
+    public String getLine(int index) {
+        if (index < 0 || index >= lineStarts.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + lineStarts.length);
+        }
+        return content.substring(lineStarts[index], lineEnds[index]);
+    }
+
+    /**
+     * Returns the indent of the last non empty original line at or before the given 0-based index
+     */
+    public int leadingSpaces(int index) {
+        return LineNumberHelper.leadingSpaces(lines, index);
+    }
+
+    /**
+     * Inserts the lines before the original line at the given 0-based index
+     */
+    public void insertLines(int index, String... newLines) {
+        replaceLines(index, 0, newLines);
+    }
+
+    /**
+     * Removes the given number of original lines starting at the given 0-based index
+     */
+    public void removeLines(int index, int count) {
+        replaceLines(index, count, new String[0]);
+    }
+
+    /**
+     * Replaces the given number of original lines starting at the given 0-based index with the new lines
+     *
+     * @throws IllegalArgumentException if the lines overlap with an earlier edit in this session
+     */
+    public void replaceLines(int index, int count, String... newLines) {
+        if (index < 0 || count < 0 || index + count > lineStarts.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Count: " + count + ", Size: " + lineStarts.length);
+        }
+        for (Patch patch : patches) {
+            if (index < patch.index + patch.count && patch.index < index + count) {
+                throw new IllegalArgumentException("Lines " + (index + 1) + "-" + (index + count) + " overlap an earlier edit of lines "
+                        + (patch.index + 1) + "-" + (patch.index + patch.count) + " in " + name);
+            }
+        }
+        patches.add(new Patch(index, count, newLines));
+    }
+
+    public boolean isModified() {
+        return !patches.isEmpty();
+    }
+
+    /**
+     * Returns the content of the file with all the edits applied
+     */
+    public String getContent() {
+        List<Patch> sorted = new ArrayList<>(patches);
+        // a stable sort so inserts at the same line are kept in the order they were made
+        sorted.sort(Comparator.comparingInt(patch -> patch.index));
+
+        String separator = System.lineSeparator();
+        StringBuilder buffer = new StringBuilder(content.length() + 256);
+        int line = 0;
+        for (Patch patch : sorted) {
+            for (; line < patch.index; line++) {
+                buffer.append(content, lineStarts[line], lineEnds[line]).append(separator);
+            }
+            for (String newLine : patch.lines) {
+                buffer.append(newLine).append(separator);
+            }
+            line += patch.count;
+        }
+        for (; line < lineStarts.length; line++) {
+            buffer.append(content, lineStarts[line], lineEnds[line]).append(separator);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Writes the edited content back to the file
+     */
+    public void save(FileResource<?> file) {
+        file.setContents(getContent());
+    }
+
+    private static final class Patch {
+        private final int index;
+        private final int count;
+        private final String[] lines;
+
+        Patch(int index, int count, String[] lines) {
+            this.index = index;
+            this.count = count;
+            this.lines = lines;
+        }
+    }
+}
@@ -338,7 +338,7 @@ public final class CamelXmlHelper {
         node.setPattern(CamelModelHelper.getPatternName(definition));
         owner.addChild(node);
         node.defaultKey(owner, nodeCounts);
-        node.setSupportOutput(CamelCatalogHelper.isModelSupportOutput(camelCatalog, node.getPattern()));
+        node.setSupportOutput(CamelEipTable.getInstance(camelCatalog).requireModel(node.getPattern()).isSupportOutput());
         if (definition instanceof FromDefinition) {
             FromDefinition endpointDef = (FromDefinition) definition;
             node.setProperty("uri", endpointDef.getUri());
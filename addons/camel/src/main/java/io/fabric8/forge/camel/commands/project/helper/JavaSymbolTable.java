@@ -0,0 +1,155 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.commands.project.helper;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.ASTNode;
+import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
+import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.Block;
+import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.SimpleName;
+import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.Type;
+import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.VariableDeclarationStatement;
+import org.jboss.forge.roaster.model.source.FieldSource;
+import org.jboss.forge.roaster.model.source.JavaClassSource;
+
+/**
+ * The fields and local variables of a Java class, and the literal values they resolve to, as used by
+ * {@link CamelJavaParserHelper}.
+ * <p/>
+ * The fields of the class are looked up once, the local variables once per block, and the value of each name once
+ * per block, so the endpoint uris and simple expressions of a RouteBuilder which refer to the same constants do not
+ * walk the fields and method bodies again. A table should only be used while the class is not being modified.
+ */
+public class JavaSymbolTable {
+
+    private final JavaClassSource clazz;
+    private final Map<String, FieldSource<JavaClassSource>> fields = new HashMap<>();
+    private final Map<Block, Map<String, FieldSource<JavaClassSource>>> blockFields = new IdentityHashMap<>();
+    private final Map<Block, Map<String, String>> values = new IdentityHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public JavaSymbolTable(JavaClassSource clazz) {
+        this.clazz = clazz;
+        if (clazz != null) {
+            for (FieldSource<JavaClassSource> field : clazz.getFields()) {
+                if (!fields.containsKey(field.getName())) {
+                    fields.put(field.getName(), field);
+                }
+            }
+        }
+    }
+
+    public JavaClassSource getClazz() {
+        return clazz;
+    }
+
+    /**
+     * Finds the field of the class, or the local variable of the block, with the given name
+     */
+    public FieldSource<JavaClassSource> getField(Block block, SimpleName ref) {
+        String fieldName = ref.getIdentifier();
+        if (fieldName == null) {
+            return null;
+        }
+        FieldSource<JavaClassSource> field = fields.get(fieldName);
+        if (field == null && block != null) {
+            Map<String, FieldSource<JavaClassSource>> locals = blockFields.get(block);
+            if (locals == null) {
+                locals = findFieldsInBlock(block);
+                blockFields.put(block, locals);
+            }
+            field = locals.get(fieldName);
+        }
+        return field;
+    }
+
+    /**
+     * Returns the value of the given name in the given block, computing it the first time
+     */
+    String resolve(Block block, String name, Supplier<String> value) {
+        Map<String, String> names = values.get(block);
+        if (names == null) {
+            names = new HashMap<>();
+            values.put(block, names);
+        }
+        if (names.containsKey(name)) {
+            return names.get(name);
+        }
+        // guard against fields whose values refer to each other
+        names.put(name, "{{" + name + "}}");
+        String answer = value.get();
+        names.put(name, answer);
+        return answer;
+    }
+
+    /**
+     * Finds the local variables of the block, and the fields of the anonymous inner class of the method of the
+     * block, in the order they are looked up by name
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, FieldSource<JavaClassSource>> findFieldsInBlock(Block block) {
+        Map<String, FieldSource<JavaClassSource>> answer = new HashMap<>();
+        List statements = block.statements();
+        for (int i = 0; i < statements.size(); i++) {
+            // try local statements first in the block
+            Object statement = statements.get(i);
+            if (statement instanceof VariableDeclarationStatement) {
+                final Type type = ((VariableDeclarationStatement) statement).getType();
+                for (Object obj : ((VariableDeclarationStatement) statement).fragments()) {
+                    addFragment(answer, obj, type);
+                }
+            }
+
+            if (i == 0) {
+                // okay the field may be burried inside an anonymous inner class as a field declaration
+                // outside the configure method, so lets go back to the parent and see what we can find
+                ASTNode node = block.getParent();
+                if (node instanceof MethodDeclaration) {
+                    node = node.getParent();
+                }
+                if (node instanceof AnonymousClassDeclaration) {
+                    for (Object dec : ((AnonymousClassDeclaration) node).bodyDeclarations()) {
+                        if (dec instanceof FieldDeclaration) {
+                            FieldDeclaration fd = (FieldDeclaration) dec;
+                            for (Object obj : fd.fragments()) {
+                                addFragment(answer, obj, fd.getType());
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return answer;
+    }
+
+    private void addFragment(Map<String, FieldSource<JavaClassSource>> fields, Object obj, Type type) {
+        if (obj instanceof VariableDeclarationFragment) {
+            VariableDeclarationFragment fragment = (VariableDeclarationFragment) obj;
+            SimpleName name = fragment.getName();
+            if (name != null && !fields.containsKey(name.getIdentifier())) {
+                fields.put(name.getIdentifier(), new StatementFieldSource(clazz, fragment, type));
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import io.fabric8.forge.camel.commands.project.model.CamelEndpointDetails;
@@ -50,6 +51,9 @@ public class RouteBuilderParser {
 
     public static void parseRouteBuilderEndpoints(JavaClassSource clazz, String baseDir, String fullyQualifiedFileName,
                                                   List<CamelEndpointDetails> endpoints, List<String> unparsable, boolean includeInlinedRouteBuilders) {
+        LineNumbers lineNumbers = new LineNumbers(fullyQualifiedFileName);
+        // resolve the fields and variables of the class once for all the endpoints
+        JavaSymbolTable symbols = new JavaSymbolTable(clazz);
 
         // look for fields which are not used in the route
         for (FieldSource<JavaClassSource> field : clazz.getFields()) {
@@ -73,7 +77,7 @@ public class RouteBuilderParser {
                             }
                         }
                     }
-                    uri = CamelJavaParserHelper.getLiteralValue(clazz, null, exp);
+                    uri = CamelJavaParserHelper.getLiteralValue(symbols, null, exp);
                 }
             }
 
@@ -100,7 +104,7 @@ public class RouteBuilderParser {
                 // find position of field/expression
                 if (internal instanceof ASTNode) {
                     int pos = ((ASTNode) internal).getStartPosition();
-                    int line = findLineNumber(fullyQualifiedFileName, pos);
+                    int line = lineNumbers.find(pos);
                     if (line > -1) {
                         detail.setLineNumber("" + line);
                     }
@@ -128,7 +132,7 @@ public class RouteBuilderParser {
         // determine this to ensure when we edit the endpoint we should only the options accordingly
         for (MethodSource<JavaClassSource> configureMethod : methods) {
             // consumers only
-            List<ParserResult> uris = CamelJavaParserHelper.parseCamelConsumerUris(configureMethod, true, true);
+            List<ParserResult> uris = CamelJavaParserHelper.parseCamelConsumerUris(symbols, configureMethod, true, true);
             for (ParserResult result : uris) {
                 if (!result.isParsed()) {
                     if (unparsable != null) {
@@ -151,7 +155,7 @@ public class RouteBuilderParser {
                         detail.setMethodName(configureMethod.getName());
                         detail.setEndpointInstance(null);
                         detail.setEndpointUri(result.getElement());
-                        int line = findLineNumber(fullyQualifiedFileName, result.getPosition());
+                        int line = lineNumbers.find(result.getPosition());
                         if (line > -1) {
                             detail.setLineNumber("" + line);
                         }
@@ -163,7 +167,7 @@ public class RouteBuilderParser {
                 }
             }
             // producer only
-            uris = CamelJavaParserHelper.parseCamelProducerUris(configureMethod, true, true);
+            uris = CamelJavaParserHelper.parseCamelProducerUris(symbols, configureMethod, true, true);
             for (ParserResult result : uris) {
                 if (!result.isParsed()) {
                     if (unparsable != null) {
@@ -194,7 +198,7 @@ public class RouteBuilderParser {
                     detail.setMethodName(configureMethod.getName());
                     detail.setEndpointInstance(null);
                     detail.setEndpointUri(result.getElement());
-                    int line = findLineNumber(fullyQualifiedFileName, result.getPosition());
+                    int line = lineNumbers.find(result.getPosition());
                     if (line > -1) {
                         detail.setLineNumber("" + line);
                     }
@@ -218,10 +222,11 @@ public class RouteBuilderParser {
 
     public static void parseRouteBuilderSimpleExpressions(JavaClassSource clazz, String baseDir, String fullyQualifiedFileName,
                                                           List<CamelSimpleDetails> simpleExpressions) {
+        LineNumbers lineNumbers = new LineNumbers(fullyQualifiedFileName);
 
         MethodSource<JavaClassSource> method = CamelJavaParserHelper.findConfigureMethod(clazz);
         if (method != null) {
-            List<ParserResult> expressions = CamelJavaParserHelper.parseCamelSimpleExpressions(method);
+            List<ParserResult> expressions = CamelJavaParserHelper.parseCamelSimpleExpressions(new JavaSymbolTable(clazz), method);
             for (ParserResult result : expressions) {
                 if (result.isParsed()) {
                     String fileName = fullyQualifiedFileName;
@@ -233,7 +238,7 @@ public class RouteBuilderParser {
                     details.setFileName(fileName);
                     details.setClassName(clazz.getQualifiedName());
                     details.setMethodName("configure");
-                    int line = findLineNumber(fullyQualifiedFileName, result.getPosition());
+                    int line = lineNumbers.find(result.getPosition());
                     if (line > -1) {
                         details.setLineNumber("" + line);
                     }
@@ -245,27 +250,55 @@ public class RouteBuilderParser {
         }
     }
 
-    private static int findLineNumber(String fullyQualifiedFileName, int position) {
-        int lines = 0;
+    /**
+     * Finds the line numbers of positions in a source file, reading the file once on first use
+     */
+    private static final class LineNumbers {
+        private final String fullyQualifiedFileName;
+        private int[] lineEnds;
+        private boolean failed;
 
-        try {
-            int current = 0;
-            try (BufferedReader br = new BufferedReader(new FileReader(new File(fullyQualifiedFileName)))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    lines++;
-                    current += line.length() + 1; // add 1 for line feed
-                    if (current >= position) {
-                        return lines;
+        LineNumbers(String fullyQualifiedFileName) {
+            this.fullyQualifiedFileName = fullyQualifiedFileName;
+        }
+
+        int find(int position) {
+            if (lineEnds == null && !failed) {
+                lineEnds = readLineEnds();
+                failed = lineEnds == null;
+            }
+            if (failed) {
+                return -1;
+            }
+            // the line ends are increasing so find the first line which ends at or after the position
+            int idx = Arrays.binarySearch(lineEnds, position);
+            if (idx < 0) {
+                idx = -idx - 1;
+            }
+            return idx < lineEnds.length ? idx + 1 : lineEnds.length;
+        }
+
+        private int[] readLineEnds() {
+            List<Integer> ends = new ArrayList<>();
+            try {
+                int current = 0;
+                try (BufferedReader br = new BufferedReader(new FileReader(new File(fullyQualifiedFileName)))) {
+                    String line;
+                    while ((line = br.readLine()) != null) {
+                        current += line.length() + 1; // add 1 for line feed
+                        ends.add(current);
                     }
                 }
+            } catch (Exception e) {
+                // ignore
+                return null;
             }
-        } catch (Exception e) {
-            // ignore
-            return -1;
+            int[] answer = new int[ends.size()];
+            for (int i = 0; i < answer.length; i++) {
+                answer[i] = ends.get(i);
+            }
+            return answer;
         }
-
-        return lines;
     }
 
 }
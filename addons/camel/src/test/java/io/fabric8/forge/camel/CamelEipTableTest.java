@@ -0,0 +1,115 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import io.fabric8.forge.camel.commands.project.dto.EipDto;
+import io.fabric8.forge.camel.commands.project.helper.CamelCatalogHelper;
+import io.fabric8.forge.camel.commands.project.helper.CamelEipTable;
+import org.apache.camel.catalog.CamelCatalog;
+import org.apache.camel.catalog.DefaultCamelCatalog;
+import org.apache.camel.catalog.JSonSchemaHelper;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CamelEipTableTest {
+
+    private final CamelCatalog camelCatalog = new DefaultCamelCatalog(true);
+
+    @Test
+    public void testModelsMatchCatalog() {
+        CamelEipTable table = CamelEipTable.getInstance(camelCatalog);
+        Assert.assertSame(table, CamelEipTable.getInstance(camelCatalog));
+        Assert.assertEquals(camelCatalog.findModelNames(), new ArrayList<>(table.getModelNames()));
+
+        for (String name : camelCatalog.findModelNames()) {
+            EipDto expected = CamelCatalogHelper.createEipDto(camelCatalog, name);
+            EipDto actual = table.getModel(name).createEipDto();
+            Assert.assertEquals(name, expected.getName(), actual.getName());
+            Assert.assertEquals(name, expected.getTitle(), actual.getTitle());
+            Assert.assertEquals(name, expected.getDescription(), actual.getDescription());
+            Assert.assertArrayEquals(name, expected.getTags(), actual.getTags());
+            Assert.assertEquals(name, expected.getJavaType(), actual.getJavaType());
+
+            CamelEipTable.EipModel model = table.requireModel(name);
+            Assert.assertEquals(name, CamelCatalogHelper.getModelJavaType(camelCatalog, name), model.getJavaType());
+            Assert.assertEquals(name, CamelCatalogHelper.isModelSupportOutput(camelCatalog, name), model.isSupportOutput());
+
+            String json = camelCatalog.modelJSonSchema(name);
+            for (Map<String, String> row : JSonSchemaHelper.parseJsonSchema("properties", json, true)) {
+                String key = row.get("name");
+                Assert.assertEquals(name + "." + key, CamelCatalogHelper.isModelExpressionKind(camelCatalog, name, key), model.isExpressionKind(key));
+                for (String value : new String[]{"true", "false", "foo", "0", row.get("defaultValue")}) {
+                    if (value != null) {
+                        Assert.assertEquals(name + "." + key + "=" + value,
+                                CamelCatalogHelper.isModelDefaultValue(camelCatalog, name, key, value), model.isDefaultValue(key, value));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFilterByLabelMatchesCatalog() {
+        CamelEipTable table = CamelEipTable.getInstance(camelCatalog);
+        Assert.assertEquals(camelCatalog.findModelLabels(), new TreeSet<>(table.getLabels()));
+
+        List<String> labels = new ArrayList<>(camelCatalog.findModelLabels());
+        labels.add("e");
+        labels.add("unknown");
+        for (String label : labels) {
+            Assert.assertEquals(label, filterByLabel(camelCatalog.findModelNames(), label), table.findModelNamesByLabel(label));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRequireUnknownModel() {
+        CamelEipTable.getInstance(camelCatalog).requireModel("noSuchEip");
+    }
+
+    /**
+     * Filters the models by label by parsing the JSon schema of each model
+     */
+    private List<String> filterByLabel(List<String> choices, String label) {
+        List<String> answer = new ArrayList<String>();
+        for (String name : choices) {
+            String json = camelCatalog.modelJSonSchema(name);
+            String labels = null;
+            for (Map<String, String> row : JSonSchemaHelper.parseJsonSchema("model", json, false)) {
+                if (row.get("label") != null) {
+                    labels = row.get("label");
+                    break;
+                }
+            }
+            if (labels == null) {
+                // no label so it matches
+                answer.add(name);
+            } else {
+                for (String target : labels.split(",")) {
+                    if (target.startsWith(label)) {
+                        answer.add(name);
+                        break;
+                    }
+                }
+            }
+        }
+        return answer;
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.fabric8.forge.camel.commands.project.helper.CamelSimpleValidator;
+import io.fabric8.forge.camel.commands.project.model.CamelSimpleDetails;
+import org.apache.camel.catalog.CamelCatalog;
+import org.apache.camel.catalog.DefaultCamelCatalog;
+import org.apache.camel.catalog.SimpleValidationResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CamelSimpleValidatorTest {
+
+    private final CamelCatalog camelCatalog = new DefaultCamelCatalog(true);
+
+    @Test
+    public void testDistinctExpressionsAreValidatedOnce() {
+        List<CamelSimpleDetails> details = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            details.add(simple("${body} > " + (i % 20)));
+            details.add(simple("${header.foo} == 'bar" + (i % 10) + "'"));
+            details.add(simple("${body.foo} ${unknownFunction}"));
+        }
+
+        Map<String, SimpleValidationResult> cache = new HashMap<>();
+        CamelSimpleValidator validator = new CamelSimpleValidator(camelCatalog, 4, cache);
+        Map<String, SimpleValidationResult> results = validator.validate(details);
+        Assert.assertEquals(31, results.size());
+        Assert.assertEquals(31, validator.getValidated());
+
+        for (CamelSimpleDetails detail : details) {
+            SimpleValidationResult expected = camelCatalog.validateSimpleExpression(detail.getSimple());
+            SimpleValidationResult actual = results.get(detail.getSimple());
+            Assert.assertEquals(detail.getSimple(), expected.isSuccess(), actual.isSuccess());
+            Assert.assertEquals(detail.getSimple(), expected.getError(), actual.getError());
+        }
+        Assert.assertFalse(results.get("${body.foo} ${unknownFunction}").isSuccess());
+
+        // validating again only validates the new expressions
+        details.add(simple("${in.header.bar}"));
+        CamelSimpleValidator again = new CamelSimpleValidator(camelCatalog, 4, cache);
+        Assert.assertEquals(32, again.validate(details).size());
+        Assert.assertEquals(1, again.getValidated());
+    }
+
+    @Test
+    public void testSingleThread() {
+        List<CamelSimpleDetails> details = new ArrayList<>();
+        details.add(simple("${body}"));
+        details.add(simple("${body"));
+        details.add(simple("${body}"));
+
+        CamelSimpleValidator validator = new CamelSimpleValidator(camelCatalog, 1, new HashMap<>());
+        Map<String, SimpleValidationResult> results = validator.validate(details);
+        Assert.assertEquals(2, validator.getValidated());
+        Assert.assertTrue(results.get("${body}").isSuccess());
+        Assert.assertFalse(results.get("${body").isSuccess());
+    }
+
+    private static CamelSimpleDetails simple(String simple) {
+        CamelSimpleDetails detail = new CamelSimpleDetails();
+        detail.setSimple(simple);
+        return detail;
+    }
+}
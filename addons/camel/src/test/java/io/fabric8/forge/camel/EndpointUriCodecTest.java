@@ -0,0 +1,300 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import io.fabric8.forge.camel.commands.project.helper.CamelCatalogHelper;
+import io.fabric8.forge.camel.commands.project.helper.EndpointUriCodec;
+import org.apache.camel.catalog.CamelCatalog;
+import org.apache.camel.catalog.DefaultCamelCatalog;
+import org.apache.camel.catalog.EndpointValidationResult;
+import org.apache.camel.catalog.JSonSchemaHelper;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EndpointUriCodecTest {
+
+    private final CamelCatalog camelCatalog = new DefaultCamelCatalog(true);
+
+    {
+        // suggest the choices with the same first letter so the suggestions are compared too
+        camelCatalog.setSuggestionStrategy((names, unknownOption) -> names.stream()
+                .filter(name -> name != null && !unknownOption.isEmpty() && name.charAt(0) == unknownOption.charAt(0))
+                .toArray(String[]::new));
+    }
+
+    @Test
+    public void testCodecsAreBuiltOncePerComponent() {
+        EndpointUriCodec codec = EndpointUriCodec.getInstance(camelCatalog, "file");
+        Assert.assertSame(codec, EndpointUriCodec.getInstance(camelCatalog, "file"));
+        Assert.assertEquals(Arrays.asList("directoryName"), codec.getPathParameters());
+        Assert.assertNull(EndpointUriCodec.getInstance(camelCatalog, "noSuchComponent"));
+    }
+
+    @Test
+    public void testComponentsAddedLaterAreFound() {
+        Assert.assertNull(EndpointUriCodec.getInstance(camelCatalog, "mytimer"));
+
+        // as custom components of the project are added to the catalog
+        camelCatalog.addComponent("mytimer", "com.acme.MyTimerComponent", camelCatalog.componentJSonSchema("timer"));
+        EndpointUriCodec codec = EndpointUriCodec.getInstance(camelCatalog, "mytimer");
+        Assert.assertNotNull(codec);
+        Assert.assertEquals(Arrays.asList("timerName"), codec.getPathParameters());
+    }
+
+    @Test
+    public void testComponentsAddedAgainWithAnotherSchemaGetANewCodec() {
+        // a catalog which does not cache the schemas returns the schema the component was last added with
+        CamelCatalog catalog = new DefaultCamelCatalog();
+        catalog.addComponent("mycomponent", "com.acme.MyComponent", catalog.componentJSonSchema("timer"));
+        EndpointUriCodec codec = EndpointUriCodec.getInstance(catalog, "mycomponent");
+        Assert.assertSame(codec, EndpointUriCodec.getInstance(catalog, "mycomponent"));
+
+        // as another project adds its own component of the same name
+        catalog.addComponent("mycomponent", "com.acme.MyComponent", catalog.componentJSonSchema("log"));
+        codec = EndpointUriCodec.getInstance(catalog, "mycomponent");
+        Assert.assertEquals(Arrays.asList("loggerName"), codec.getPathParameters());
+    }
+
+    @Test
+    public void testFormatMatchesCatalog() {
+        for (String scheme : camelCatalog.findComponentNames()) {
+            EndpointUriCodec codec = EndpointUriCodec.getInstance(camelCatalog, scheme);
+            for (Map<String, String> options : createOptions(scheme)) {
+                String message = scheme + " " + options;
+                Assert.assertEquals(message, call(() -> camelCatalog.asEndpointUri(scheme, new LinkedHashMap<>(options), false)), call(() -> codec.format(new LinkedHashMap<>(options), false)));
+                Assert.assertEquals(message, call(() -> camelCatalog.asEndpointUri(scheme, new LinkedHashMap<>(options), true)), call(() -> codec.format(new LinkedHashMap<>(options), true)));
+                Assert.assertEquals(message, call(() -> camelCatalog.asEndpointUriXml(scheme, new LinkedHashMap<>(options), false)), call(() -> codec.formatXml(new LinkedHashMap<>(options), false)));
+            }
+        }
+    }
+
+    @Test
+    public void testParseMatchesCatalog() {
+        for (String scheme : camelCatalog.findComponentNames()) {
+            for (String uri : createUris(scheme)) {
+                Assert.assertEquals(uri, call(() -> new ArrayList<>(camelCatalog.endpointProperties(uri).entrySet())),
+                        call(() -> new ArrayList<>(EndpointUriCodec.parse(camelCatalog, uri).entrySet())));
+            }
+        }
+    }
+
+    @Test
+    public void testValidateMatchesCatalog() {
+        List<String> uris = new ArrayList<>();
+        for (String scheme : camelCatalog.findComponentNames()) {
+            uris.addAll(createUris(scheme));
+        }
+        for (String name : camelCatalog.findDataFormatNames()) {
+            uris.add("dataformat:" + name + ":marshal?prettyPrint=maybe&noSuchOption=1");
+        }
+        uris.addAll(Arrays.asList("noSuchComponent:foo", "{{uri}}", "{{scheme}}:foo", "foo", "file:inbox?delay= 1", "timer:foo?period=%"));
+
+        for (String uri : uris) {
+            for (boolean ignoreLenientProperties : new boolean[]{true, false}) {
+                Assert.assertEquals(uri, call(() -> describe(camelCatalog.validateEndpointProperties(uri, ignoreLenientProperties))),
+                        call(() -> describe(EndpointUriCodec.validate(camelCatalog, uri, ignoreLenientProperties))));
+            }
+        }
+    }
+
+    @Test
+    public void testOptionsMatchCatalog() {
+        for (String scheme : camelCatalog.findComponentNames()) {
+            EndpointUriCodec codec = EndpointUriCodec.getInstance(camelCatalog, scheme);
+            Assert.assertEquals(scheme, CamelCatalogHelper.isComponentConsumerOnly(camelCatalog, scheme), codec.isConsumerOnly());
+            Assert.assertEquals(scheme, CamelCatalogHelper.isComponentProducerOnly(camelCatalog, scheme), codec.isProducerOnly());
+
+            for (Map<String, String> row : properties(scheme)) {
+                String key = row.get("name");
+                String message = scheme + "." + key;
+                Assert.assertEquals(message, CamelCatalogHelper.isMultiValue(camelCatalog, scheme, key), codec.isMultiValue(key));
+                Assert.assertEquals(message, CamelCatalogHelper.getPrefix(camelCatalog, scheme, key), codec.getPrefix(key));
+                Assert.assertEquals(message, CamelCatalogHelper.isNonePlaceholderEnumValue(camelCatalog, scheme, key), codec.isNonePlaceholderEnumValue(key));
+                for (String value : new String[]{"true", "false", "none", "foo", "0", row.get("defaultValue")}) {
+                    if (value != null) {
+                        Assert.assertEquals(message + "=" + value, CamelCatalogHelper.isDefaultValue(camelCatalog, scheme, key, value), codec.isDefaultValue(key, value));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the options to format: none at all, only the path parameters, and the path parameters with all the
+     * other options
+     */
+    private List<Map<String, String>> createOptions(String scheme) {
+        Map<String, String> path = new LinkedHashMap<>();
+        Map<String, String> all = new LinkedHashMap<>();
+        Map<String, String> placeholders = new LinkedHashMap<>();
+        int i = 0;
+        for (Map<String, String> row : properties(scheme)) {
+            String name = row.get("name");
+            String value = sampleValue(row, i++);
+            if ("path".equals(row.get("kind"))) {
+                path.put(name, value);
+                placeholders.put(name, "{{" + name + "}}");
+            }
+            all.put(name, value);
+        }
+        Map<String, String> required = new LinkedHashMap<>(all);
+        required.keySet().retainAll(path.keySet());
+        required.remove(path.isEmpty() ? null : path.keySet().iterator().next());
+        all.put("showAll", "true");
+        all.put("showBody", "false");
+        all.put("nullValue", null);
+        return Arrays.asList(new LinkedHashMap<>(), path, required, placeholders, all);
+    }
+
+    /**
+     * Creates the uris to parse and validate from the formatted options, together with the uris with invalid option
+     * values, placeholders, references, user info and multi valued options
+     */
+    private List<String> createUris(String scheme) {
+        Set<String> answer = new LinkedHashSet<>();
+        for (Map<String, String> options : createOptions(scheme)) {
+            Object uri = call(() -> camelCatalog.asEndpointUri(scheme, new LinkedHashMap<>(options), false));
+            if (uri instanceof String) {
+                answer.add((String) uri);
+            }
+        }
+        String base = answer.isEmpty() ? scheme + ":foo" : answer.iterator().next();
+        String separator = base.contains("?") ? "&" : "?";
+        StringBuilder invalid = new StringBuilder(base);
+        StringBuilder lookups = new StringBuilder(base);
+        for (Map<String, String> row : properties(scheme)) {
+            if (!"path".equals(row.get("kind"))) {
+                String name = row.get("name");
+                String prefix = row.get("prefix");
+                invalid.append(separator).append(name).append("=").append(invalidValue(row));
+                lookups.append(separator).append(name).append("=").append(lookupValue(row));
+                if (prefix != null) {
+                    invalid.append("&").append(prefix).append("foo=bar");
+                }
+                if (row.get("optionalPrefix") != null) {
+                    invalid.append("&").append(row.get("optionalPrefix")).append(name).append("=1");
+                }
+                separator = "&";
+            }
+        }
+        answer.add(invalid.toString());
+        answer.add(lookups.toString());
+        answer.add(base + (base.contains("?") ? "&" : "?") + "noSuchOption=1&{{placeholder}}=2&=3");
+        answer.add(scheme + ":");
+        answer.add(scheme + ":a");
+        answer.add(scheme + ":a:b:c/d/e?x=1");
+        answer.add(scheme + "://user:secret@host:1234/path/to?x=1");
+        answer.add(scheme + "://user@host");
+        answer.add(scheme + ":temp:queue:foo");
+        answer.add(scheme + ":{{host}}:{{port}}");
+        return new ArrayList<>(answer);
+    }
+
+    private static String sampleValue(Map<String, String> row, int index) {
+        if (row.get("enum") != null) {
+            return row.get("enum").split(",")[index % 2 == 0 ? 0 : row.get("enum").split(",").length - 1];
+        }
+        if (row.get("defaultValue") != null && index % 3 == 0) {
+            return row.get("defaultValue");
+        }
+        String type = row.get("type");
+        if ("boolean".equals(type)) {
+            return index % 2 == 0 ? "true" : "false";
+        } else if ("integer".equals(type)) {
+            return index % 2 == 0 ? "" + index : "5s";
+        } else if ("number".equals(type)) {
+            return "1.5";
+        } else if ("object".equals(type)) {
+            return "#bean" + index;
+        }
+        return "v" + index;
+    }
+
+    private static String invalidValue(Map<String, String> row) {
+        if (row.get("enum") != null) {
+            return "noSuchChoice";
+        }
+        String type = row.get("type");
+        if ("boolean".equals(type)) {
+            return "maybe";
+        } else if ("integer".equals(type)) {
+            return "abc";
+        } else if ("number".equals(type)) {
+            return "NaN";
+        } else if ("object".equals(type)) {
+            return "bean";
+        }
+        return "";
+    }
+
+    private static String lookupValue(Map<String, String> row) {
+        String type = row.get("type");
+        if ("boolean".equals(type)) {
+            return "{{flag}}";
+        } else if ("integer".equals(type)) {
+            return "${header.foo}";
+        } else if ("number".equals(type)) {
+            return "$simple{body}";
+        }
+        return "#";
+    }
+
+    private List<Map<String, String>> properties(String scheme) {
+        return JSonSchemaHelper.parseJsonSchema("properties", camelCatalog.componentJSonSchema(scheme), true);
+    }
+
+    private static String describe(EndpointValidationResult result) {
+        return result.isSuccess() + " " + result.getNumberOfErrors() + " " + result.summaryErrorMessage(true)
+                + " syntaxError=" + result.getSyntaxError() + " incapable=" + result.getIncapable()
+                + " unknownComponent=" + result.getUnknownComponent() + " unknown=" + result.getUnknown()
+                + " unknownSuggestions=" + describe(result.getUnknownSuggestions()) + " required=" + result.getRequired()
+                + " invalidEnum=" + result.getInvalidEnum() + " invalidEnumChoices=" + describe(result.getInvalidEnumChoices())
+                + " invalidReference=" + result.getInvalidReference() + " invalidBoolean=" + result.getInvalidBoolean()
+                + " invalidInteger=" + result.getInvalidInteger() + " invalidNumber=" + result.getInvalidNumber()
+                + " defaultValues=" + result.getDefaultValues();
+    }
+
+    private static String describe(Map<String, String[]> map) {
+        if (map == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String[]> entry : map.entrySet()) {
+            sb.append(entry.getKey()).append("=").append(Arrays.toString(entry.getValue())).append(" ");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the answer of the given call, or the exception it failed with
+     */
+    private static Object call(Callable<Object> callable) {
+        try {
+            return callable.call();
+        } catch (Exception e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.java;
+
+import org.apache.camel.builder.RouteBuilder;
+
+public class MyConstantsRouteBuilder extends RouteBuilder {
+
+    private static final String HOST = "localhost";
+    private static final int PORT = 8080;
+    private static final int ADMIN_PORT = PORT + 1;
+    private static final String BASE = "http://" + HOST + ":" + PORT;
+    private static final String ORDERS = BASE + "/orders";
+    private static final String ADMIN = "http://" + HOST + ":" + ADMIN_PORT + "/admin";
+    private static final String HEADER = "orderId";
+    private final String queue = "seda:" + (ORDERS.length() > 0 ? "a" : "b");
+
+    @Override
+    public void configure() throws Exception {
+        String log = "log:" + HOST;
+
+        from("timer:" + HOST + "?period=" + PORT)
+            .filter().simple("${header." + HEADER + "} != null")
+            .to(ORDERS)
+            .to(ADMIN)
+            .to(BASE + "/items")
+            .to(log);
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.java;
+
+import java.io.File;
+import java.util.List;
+
+import io.fabric8.forge.camel.commands.project.helper.CamelJavaParserHelper;
+import io.fabric8.forge.camel.commands.project.helper.JavaSymbolTable;
+import io.fabric8.forge.camel.commands.project.helper.ParserResult;
+import org.jboss.forge.roaster.Roaster;
+import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.Expression;
+import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.jboss.forge.roaster.model.source.JavaClassSource;
+import org.jboss.forge.roaster.model.source.MethodSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RoasterConstantsRouteBuilderConfigureTest {
+
+    @Test
+    public void parse() throws Exception {
+        JavaClassSource clazz = (JavaClassSource) Roaster.parse(new File("src/test/java/io/fabric8/forge/camel/java/MyConstantsRouteBuilder.java"));
+        MethodSource<JavaClassSource> method = clazz.getMethod("configure");
+        JavaSymbolTable symbols = new JavaSymbolTable(clazz);
+
+        List<ParserResult> list = CamelJavaParserHelper.parseCamelConsumerUris(symbols, method, true, true);
+        for (ParserResult result : list) {
+            System.out.println("Consumer: " + result.getElement());
+        }
+        Assert.assertEquals("timer:localhost?period=8080", list.get(0).getElement());
+
+        list = CamelJavaParserHelper.parseCamelProducerUris(symbols, method, true, true);
+        for (ParserResult result : list) {
+            System.out.println("Producer: " + result.getElement());
+        }
+        Assert.assertEquals(4, list.size());
+        Assert.assertEquals("http://localhost:8080/orders", list.get(0).getElement());
+        Assert.assertEquals("http://localhost:8081/admin", list.get(1).getElement());
+        Assert.assertEquals("http://localhost:8080/items", list.get(2).getElement());
+        Assert.assertEquals("log:localhost", list.get(3).getElement());
+
+        list = CamelJavaParserHelper.parseCamelSimpleExpressions(symbols, method);
+        Assert.assertEquals(1, list.size());
+        Assert.assertEquals("${header.orderId} != null", list.get(0).getElement());
+    }
+
+    @Test
+    public void fieldReferences() throws Exception {
+        JavaClassSource clazz = (JavaClassSource) Roaster.parse(new File("src/test/java/io/fabric8/forge/camel/java/MyConstantsRouteBuilder.java"));
+        JavaSymbolTable symbols = new JavaSymbolTable(clazz);
+
+        Assert.assertEquals("8081", CamelJavaParserHelper.getLiteralValue(symbols, null, initializer(clazz, "ADMIN_PORT")));
+        Assert.assertEquals("http://localhost:8080/orders", CamelJavaParserHelper.getLiteralValue(symbols, null, initializer(clazz, "ORDERS")));
+        // a method invocation in the concatenation is kept as a placeholder
+        Assert.assertEquals("seda:", CamelJavaParserHelper.getLiteralValue(symbols, null, initializer(clazz, "queue")));
+
+        // the same table gives the same values when asked again, and the same as without a table
+        Assert.assertEquals("http://localhost:8080/orders", CamelJavaParserHelper.getLiteralValue(symbols, null, initializer(clazz, "ORDERS")));
+        Assert.assertEquals("http://localhost:8080", CamelJavaParserHelper.getLiteralValue(clazz, null, initializer(clazz, "BASE")));
+    }
+
+    @Test
+    public void cyclicFieldReferences() throws Exception {
+        JavaClassSource clazz = Roaster.parse(JavaClassSource.class,
+                "public class Cyclic { private String first = \"a:\" + second; private String second = first; }");
+        JavaSymbolTable symbols = new JavaSymbolTable(clazz);
+
+        // fields which refer to each other cannot be resolved, so they are kept as placeholders
+        Assert.assertEquals("a:a:{{second}}", CamelJavaParserHelper.getLiteralValue(symbols, null, initializer(clazz, "first")));
+    }
+
+    private static Expression initializer(JavaClassSource clazz, String name) {
+        return ((VariableDeclarationFragment) clazz.getField(name).getInternal()).getInitializer();
+    }
+
+}
@@ -0,0 +1,212 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.camel.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import io.fabric8.forge.addon.utils.LineNumberHelper;
+import io.fabric8.forge.addon.utils.XmlLineNumberParser;
+import io.fabric8.forge.camel.commands.project.helper.CamelXmlEditSession;
+import io.fabric8.forge.camel.commands.project.helper.CamelXmlHelper;
+import org.junit.Assert;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Checks that edits through {@link CamelXmlEditSession} write the same bytes as editing the list of lines
+ * read with {@link LineNumberHelper}, which is how the Camel XML commands used to edit files.
+ */
+public class CamelXmlEditSessionTest {
+
+    private static final String MY_CAMEL = "src/test/resources/io/fabric8/forge/camel/xml/mycamel.xml";
+    private static final String MY_ROUTES = "src/test/resources/io/fabric8/forge/camel/xml/myroutes.xml";
+
+    @Test
+    public void testLinesMatchLineNumberHelper() throws Exception {
+        assertSameLines("<a>\n  <b/>\n</a>\n");
+        assertSameLines("<a>\r\n  <b/>\r\n</a>");
+        assertSameLines("<a>\r  <b/>\r\r</a>\n\n");
+        assertSameLines("");
+        assertSameLines(new String(Files.readAllBytes(new File(MY_ROUTES).toPath())));
+    }
+
+    @Test
+    public void testDeleteNode() throws Exception {
+        for (String key : new String[]{"_camelContext1/cbr-route/_choice1", "_camelContext1/cbr-route/_transform1", "_camelContext1/cbr-route/_from1"}) {
+            byte[] data = Files.readAllBytes(new File(MY_ROUTES).toPath());
+
+            // as the delete command used to do it
+            Node node = CamelXmlHelper.findCamelNodeInDocument(XmlLineNumberParser.parseXml(new ByteArrayInputStream(data)), key);
+            int idx = lineNumber(node, XmlLineNumberParser.LINE_NUMBER) - 1;
+            int delta = lineNumber(node, XmlLineNumberParser.LINE_NUMBER_END) - 1 - idx + 1;
+            List<String> lines = readLines(data);
+            while (delta > 0) {
+                delta--;
+                lines.remove(idx);
+            }
+            String expected = LineNumberHelper.linesToString(lines);
+
+            CamelXmlEditSession session = new CamelXmlEditSession(MY_ROUTES, 0, data);
+            Element element = session.findCamelElement(key);
+            int start = lineNumber(element, XmlLineNumberParser.LINE_NUMBER) - 1;
+            int end = lineNumber(element, XmlLineNumberParser.LINE_NUMBER_END) - 1;
+            session.removeLines(start, end - start + 1);
+
+            assertSameBytes(expected, session.getContent());
+        }
+    }
+
+    @Test
+    public void testAddAndEditNode() throws Exception {
+        byte[] data = Files.readAllBytes(new File(MY_CAMEL).toPath());
+        String routeKey = "_camelContext1/_route1";
+        String transformKey = "_camelContext1/_route1/_transform1";
+        String modelXml = "<log message=\"Got ${body}\"/>\n<delay>\n  <constant>1000</constant>\n</delay>";
+
+        // add at the end of the route as the add node step used to do it
+        Element route = CamelXmlHelper.getSelectedCamelElementNode(routeKey, new ByteArrayInputStream(data));
+        int idx = lineNumber(route, XmlLineNumberParser.LINE_NUMBER_END) - 1;
+        List<String> lines = readLines(data);
+        int spaces = LineNumberHelper.leadingSpaces(lines, idx - 1);
+        for (String line : modelXml.split("\n")) {
+            lines.add(idx++, LineNumberHelper.padString(line, spaces));
+        }
+        String expectedAdd = LineNumberHelper.linesToString(lines);
+
+        CamelXmlEditSession session = new CamelXmlEditSession(MY_CAMEL, 0, data);
+        int sessionIdx = lineNumber(session.findCamelElement(routeKey), XmlLineNumberParser.LINE_NUMBER_END) - 1;
+        int sessionSpaces = session.leadingSpaces(sessionIdx - 1);
+        String[] editLines = modelXml.split("\n");
+        for (int i = 0; i < editLines.length; i++) {
+            editLines[i] = LineNumberHelper.padString(editLines[i], sessionSpaces);
+        }
+        session.insertLines(sessionIdx, editLines);
+        assertSameBytes(expectedAdd, session.getContent());
+
+        // replace the transform as the edit node step used to do it
+        Element transform = CamelXmlHelper.getSelectedCamelElementNode(transformKey, new ByteArrayInputStream(data));
+        idx = lineNumber(transform, XmlLineNumberParser.LINE_NUMBER) - 1;
+        int delta = lineNumber(transform, XmlLineNumberParser.LINE_NUMBER_END) - 1 - idx + 1;
+        lines = readLines(data);
+        spaces = LineNumberHelper.leadingSpaces(lines, idx);
+        while (delta > 0) {
+            delta--;
+            lines.remove(idx);
+        }
+        for (String line : modelXml.split("\n")) {
+            lines.add(idx++, LineNumberHelper.padString(line, spaces));
+        }
+        String expectedEdit = LineNumberHelper.linesToString(lines);
+
+        session = new CamelXmlEditSession(MY_CAMEL, 0, data);
+        Element element = session.findCamelElement(transformKey);
+        int start = lineNumber(element, XmlLineNumberParser.LINE_NUMBER) - 1;
+        int end = lineNumber(element, XmlLineNumberParser.LINE_NUMBER_END) - 1;
+        sessionSpaces = session.leadingSpaces(start);
+        editLines = modelXml.split("\n");
+        for (int i = 0; i < editLines.length; i++) {
+            editLines[i] = LineNumberHelper.padString(editLines[i], sessionSpaces);
+        }
+        session.replaceLines(start, end - start + 1, editLines);
+        assertSameBytes(expectedEdit, session.getContent());
+    }
+
+    @Test
+    public void testAddRouteAndEndpoint() throws Exception {
+        byte[] data = Files.readAllBytes(new File(MY_ROUTES).toPath());
+
+        // add a route at the end of <routes> as the add route step used to do it
+        Document root = XmlLineNumberParser.parseXml(new ByteArrayInputStream(data));
+        Node routes = CamelXmlHelper.getCamelContextElements(root).item(0);
+        int idx = lineNumber(routes, XmlLineNumberParser.LINE_NUMBER_END) - 1;
+        List<String> lines = readLines(data);
+        int spaces = LineNumberHelper.leadingSpaces(lines, idx);
+        String line1 = LineNumberHelper.padString("<route id=\"new\">", spaces + 2);
+        String line2 = LineNumberHelper.padString("<from uri=\"seda:new\"/>", spaces + 4);
+        String line3 = LineNumberHelper.padString("</route>", spaces + 2);
+        lines.add(idx, "");
+        lines.add(idx, line3);
+        lines.add(idx, line2);
+        lines.add(idx, line1);
+        lines.add(idx, "");
+        String expected = LineNumberHelper.linesToString(lines);
+
+        CamelXmlEditSession session = new CamelXmlEditSession(MY_ROUTES, 0, data);
+        Node sessionRoutes = CamelXmlHelper.getCamelContextElements(session.getDocument()).item(0);
+        int sessionIdx = lineNumber(sessionRoutes, XmlLineNumberParser.LINE_NUMBER_END) - 1;
+        Assert.assertEquals(idx, sessionIdx);
+        Assert.assertEquals(spaces, session.leadingSpaces(sessionIdx));
+        Assert.assertFalse(session.getLine(sessionIdx - 1).trim().isEmpty());
+        session.insertLines(sessionIdx, "", line1, line2, line3, "");
+        assertSameBytes(expected, session.getContent());
+
+        // add a <to> at the end of the route as the add endpoint step used to do it
+        String key = "_camelContext1/cbr-route";
+        Node route = CamelXmlHelper.findCamelNodeInDocument(XmlLineNumberParser.parseXml(new ByteArrayInputStream(data)), key);
+        idx = lineNumber(route, XmlLineNumberParser.LINE_NUMBER_END);
+        lines = readLines(data);
+        String line = LineNumberHelper.padString("<to uri=\"log:out\"/>", LineNumberHelper.leadingSpaces(lines, idx - 1));
+        lines.add(idx, line);
+        expected = LineNumberHelper.linesToString(lines);
+
+        session = new CamelXmlEditSession(MY_ROUTES, 0, data);
+        sessionIdx = lineNumber(session.findCamelElement(key), XmlLineNumberParser.LINE_NUMBER_END);
+        session.insertLines(sessionIdx, LineNumberHelper.padString("<to uri=\"log:out\"/>", session.leadingSpaces(sessionIdx - 1)));
+        assertSameBytes(expected, session.getContent());
+    }
+
+    @Test
+    public void testLookupsAreCached() throws Exception {
+        CamelXmlEditSession session = new CamelXmlEditSession(MY_ROUTES, 0, Files.readAllBytes(new File(MY_ROUTES).toPath()));
+        Element from = session.findCamelElement("_camelContext1/cbr-route/_from1");
+        Assert.assertNotNull(from);
+        Assert.assertSame(from, session.findCamelElement("_camelContext1/cbr-route/_from1"));
+        Assert.assertNull(session.findCamelElement("_camelContext1/cbr-route/_to7"));
+        Assert.assertFalse(session.isModified());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOverlappingEditsAreRejected() throws Exception {
+        CamelXmlEditSession session = new CamelXmlEditSession(MY_ROUTES, 0, Files.readAllBytes(new File(MY_ROUTES).toPath()));
+        session.removeLines(20, 5);
+        session.replaceLines(24, 2, "<to uri=\"log:out\"/>");
+    }
+
+    private static void assertSameLines(String content) throws Exception {
+        byte[] data = content.getBytes();
+        List<String> expected = readLines(data);
+        CamelXmlEditSession session = new CamelXmlEditSession("test.xml", 0, data);
+        Assert.assertEquals(expected, session.getLines());
+        Assert.assertEquals(LineNumberHelper.linesToString(expected), session.getContent());
+    }
+
+    private static List<String> readLines(byte[] data) throws Exception {
+        return LineNumberHelper.readLines(new ByteArrayInputStream(data));
+    }
+
+    private static int lineNumber(Node node, String key) {
+        return Integer.parseInt((String) node.getUserData(key));
+    }
+
+    private static void assertSameBytes(String expected, String actual) {
+        Assert.assertArrayEquals(expected.getBytes(), actual.getBytes());
+    }
+}
@@ -32,9 +32,8 @@ import io.fabric8.forge.addon.utils.StopWatch;
 import io.fabric8.forge.devops.dto.PipelineDTO;
 import io.fabric8.forge.devops.dto.ProjectOverviewDTO;
 import io.fabric8.forge.devops.springboot.IOHelper;
+import io.fabric8.forge.kubernetes.cache.KubernetesClients;
 import io.fabric8.kubernetes.api.Controller;
-import io.fabric8.kubernetes.client.ConfigBuilder;
-import io.fabric8.kubernetes.client.DefaultKubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.utils.Files;
 import io.fabric8.utils.GitHelpers;
@@ -98,12 +97,7 @@ public abstract class AbstractDevOpsCommand extends AbstractProjectCommand imple
 
     public KubernetesClient getKubernetes() {
         if (kubernetes == null) {
-            String kubernetesAddress = kubernetesUrl.getValue();
-            if (Strings.isNotBlank(kubernetesAddress)) {
-                kubernetes = new DefaultKubernetesClient(new ConfigBuilder().withMasterUrl(kubernetesAddress).build());
-            } else {
-                kubernetes = new DefaultKubernetesClient();
-            }
+            kubernetes = KubernetesClients.getInstance().getClient(kubernetesUrl.getValue(), null);
         }
         Objects.notNull(kubernetes, "kubernetes");
         return kubernetes;
@@ -65,6 +65,10 @@ public class DevOpsEditStep extends AbstractDevOpsCommand implements UIWizardSte
     @WithAttributes(label = "Pipeline", description = "The Jenkinsfile used to define the Continous Delivery pipeline")
     private UIInput<PipelineDTO> pipeline;
 
+    @Inject
+    @WithAttributes(label = "Refresh", required = false, defaultValue = "false", description = "Whether to register the webhooks and jobs again even if the settings have not changed")
+    private UIInput<Boolean> refresh;
+
     private String namespace = KubernetesHelper.defaultNamespace();
 
     private boolean hasJenkinsFile;
@@ -111,6 +115,7 @@ public class DevOpsEditStep extends AbstractDevOpsCommand implements UIWizardSte
         if (!hasJenkinsFile) {
             builder.add(pipeline);
         }
+        builder.add(refresh);
 
         log.info("initializeUI took " + watch.taken());
     }
@@ -133,6 +138,7 @@ public class DevOpsEditStep extends AbstractDevOpsCommand implements UIWizardSte
 
         // store the pipeline in a special place to avoid weird web console painting
         context.getUIContext().getAttributeMap().put("selectedPipeline", pipeline.getValue());
+        context.getUIContext().getAttributeMap().put("refresh", refresh.getValue());
 
         // execute and save
         Project project = getSelectedProject(context);
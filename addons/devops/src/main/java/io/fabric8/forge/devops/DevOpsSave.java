@@ -29,7 +29,6 @@ import io.fabric8.devops.connector.DevOpsConnector;
 import io.fabric8.forge.addon.utils.CommandHelpers;
 import io.fabric8.forge.addon.utils.StopWatch;
 import io.fabric8.forge.devops.dto.PipelineDTO;
-import io.fabric8.utils.Files;
 import io.fabric8.utils.GitHelpers;
 import io.fabric8.utils.IOHelpers;
 import io.fabric8.utils.Strings;
@@ -74,6 +73,8 @@ public class DevOpsSave {
         updateConfiguration(context, config);
         LOG.info("Using ProjectConfig: " + config);
 
+        DevOpsSavePlanner planner = new DevOpsSavePlanner();
+
         String message;
         if (config.isEmpty() && !hasFile) {
             message = "No " + fileName + " need be generated as there is no configuration";
@@ -83,8 +84,11 @@ public class DevOpsSave {
             if (!configFile.exists()) {
                 operation = "Created";
             }
-            ProjectConfigs.saveConfig(config, configFile);
-            message = operation + " " + fileName;
+            if (planner.saveConfig(config, configFile)) {
+                message = operation + " " + fileName;
+            } else {
+                message = "No changes to " + fileName;
+            }
         }
 
         // now lets update the devops stuff
@@ -190,8 +194,9 @@ public class DevOpsSave {
                     } else {
                         flowText = Strings.replaceAllWithoutRegex(flowText, "GIT_URL", "'" + gitUrl + "'");
                         File newFile = new File(basedir, ProjectConfigs.LOCAL_FLOW_FILE_NAME);
-                        Files.writeToFile(newFile, flowText.getBytes());
-                        LOG.info("Written pipeline to " + newFile);
+                        if (planner.saveFlow(newFile, flowText)) {
+                            LOG.info("Written pipeline to " + newFile);
+                        }
                         config.setPipeline(null);
                         config.setUseLocalFlow(true);
                     }
@@ -229,10 +234,9 @@ public class DevOpsSave {
         connector.setGitUrl(gitUrl);
         //When using external git repo we make sure local and remote git url are same
         if(Strings.isNotBlank(gitUrl)){
-            connector.setLocalGitUrl(gitUrl);
-        }else {
-            connector.setLocalGitUrl(localGitUrl);
+            localGitUrl = gitUrl;
         }
+        connector.setLocalGitUrl(localGitUrl);
         connector.setRepoName(named);
 
         connector.setRegisterWebHooks(true);
@@ -242,7 +246,10 @@ public class DevOpsSave {
 
         LOG.info("Using connector: " + connector);
         try {
-            connector.execute();
+            boolean refresh = Boolean.TRUE.equals(attributeMap.get("refresh"));
+            if (!planner.executeConnector(connector, localGitUrl, refresh)) {
+                LOG.info("DevOps resources are up to date as the settings have not changed");
+            }
         } catch (Exception e) {
             LOG.error("Failed to update DevOps resources: " + e, e);
             return Results.fail("Cannot update dev-ops configuration due " + e.getMessage() + ". See more details in the logs from the fabric8-forge pod.");
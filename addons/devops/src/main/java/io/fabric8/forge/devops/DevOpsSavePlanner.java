@@ -0,0 +1,199 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.fabric8.devops.ProjectConfig;
+import io.fabric8.devops.ProjectConfigs;
+import io.fabric8.devops.connector.DevOpsConnector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Plans the file writes and the connector execution of {@link DevOpsSave} so that saving the same dev-ops settings
+ * again neither rewrites the files of the project nor re-registers the webhooks and jobs of the project.
+ * <p/>
+ * A file is only written when its content changes. The {@link DevOpsConnector} is only executed when the fingerprint
+ * of its inputs, which are the effective {@link ProjectConfig}, the pipeline of the project and the git settings,
+ * differs from the fingerprint stored in the git folder of the project by its last successful execution, or when a
+ * refresh is forced.
+ */
+public class DevOpsSavePlanner {
+    private static final transient Logger LOG = LoggerFactory.getLogger(DevOpsSavePlanner.class);
+
+    public static final String FINGERPRINT_FILE_NAME = "fabric8-devops.fingerprint";
+
+    /**
+     * Writes the given configuration to the given file unless the file already has that content
+     *
+     * @return whether the file was written
+     */
+    public boolean saveConfig(ProjectConfig config, File configFile) throws IOException {
+        byte[] data = ProjectConfigs.createObjectMapper().writeValueAsBytes(config);
+        return writeIfChanged(configFile, data);
+    }
+
+    /**
+     * Writes the given pipeline to the given file unless the file already has that content
+     *
+     * @return whether the file was written
+     */
+    public boolean saveFlow(File flowFile, String flowText) throws IOException {
+        return writeIfChanged(flowFile, flowText.getBytes());
+    }
+
+    /**
+     * Executes the given connector unless its inputs have not changed since its last successful execution
+     *
+     * @param localGitUrl the cluster local git url the connector was configured with
+     * @return whether the connector was executed
+     */
+    public boolean executeConnector(DevOpsConnector connector, String localGitUrl) throws Exception {
+        return executeConnector(connector, localGitUrl, false);
+    }
+
+    /**
+     * Executes the given connector unless its inputs have not changed since its last successful execution.
+     * <p/>
+     * The connector logs most of its failures, such as failing to create the BuildConfig or to register the
+     * Jenkins job or the webhooks, rather than throwing them, so the execution only counts as successful if the
+     * connector logged no errors.
+     *
+     * @param localGitUrl the cluster local git url the connector was configured with
+     * @param force       whether to execute the connector even if its inputs have not changed
+     * @return whether the connector was executed
+     */
+    public boolean executeConnector(DevOpsConnector connector, String localGitUrl, boolean force) throws Exception {
+        String fingerprint = fingerprint(connector, localGitUrl);
+        File fingerprintFile = getFingerprintFile(connector.getBasedir());
+        if (!force && fingerprintFile != null && fingerprintFile.isFile()
+                && fingerprint.equals(new String(Files.readAllBytes(fingerprintFile.toPath()), StandardCharsets.UTF_8))) {
+            LOG.info("Not executing the connector as the dev-ops settings have not changed since the last save");
+            return false;
+        }
+
+        Logger log = connector.getLog();
+        List<String> errors = new ArrayList<>();
+        connector.setLog(recordErrors(log != null ? log : LOG, errors));
+        try {
+            connector.execute();
+        } finally {
+            connector.setLog(log);
+        }
+
+        if (fingerprintFile != null) {
+            if (errors.isEmpty()) {
+                writeIfChanged(fingerprintFile, fingerprint.getBytes(StandardCharsets.UTF_8));
+            } else {
+                LOG.warn("The connector will be executed again on the next save as it reported errors: " + errors);
+                Files.deleteIfExists(fingerprintFile.toPath());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the file the fingerprint of the last successful execution is stored in, which is in the git folder
+     * of the project so it is not committed, or <tt>null</tt> if the project has no git folder
+     */
+    protected File getFingerprintFile(File basedir) {
+        if (basedir != null) {
+            File gitFolder = new File(basedir, ".git");
+            if (gitFolder.isDirectory()) {
+                return new File(gitFolder, FINGERPRINT_FILE_NAME);
+            }
+        }
+        return null;
+    }
+
+    protected String fingerprint(DevOpsConnector connector, String localGitUrl) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ProjectConfig config = connector.getProjectConfig();
+        digest.update(config != null ? ProjectConfigs.createObjectMapper().writeValueAsBytes(config) : new byte[0]);
+
+        File basedir = connector.getBasedir();
+        File flowFile = basedir != null ? new File(basedir, ProjectConfigs.LOCAL_FLOW_FILE_NAME) : null;
+        if (flowFile != null && flowFile.isFile()) {
+            update(digest, "flow");
+            digest.update(Files.readAllBytes(flowFile.toPath()));
+        }
+
+        update(digest, basedir != null ? basedir.getAbsolutePath() : null);
+        update(digest, connector.getGitUrl());
+        update(digest, localGitUrl);
+        update(digest, connector.getBranch());
+        update(digest, connector.getRepoName());
+        update(digest, connector.getUsername());
+        update(digest, connector.getPassword());
+        update(digest, connector.getNamespace());
+        update(digest, "" + connector.isRegisterWebHooks() + connector.isTriggerJenkinsJob() + connector.isTryLoadConfigFileFromRemoteGit());
+
+        StringBuilder answer = new StringBuilder();
+        for (byte b : digest.digest()) {
+            answer.append(String.format("%02x", b));
+        }
+        return answer.toString();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        // separate the values so that moving characters between them changes the fingerprint
+        String text = value != null ? value.length() + ":" + value : "-";
+        digest.update((text + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns a logger which delegates to the given logger and adds the message of each error to the given list
+     */
+    private static Logger recordErrors(Logger delegate, List<String> errors) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().equals("error") && args != null && args.length > 0 && args[0] instanceof String) {
+                errors.add((String) args[0]);
+            }
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (Logger) Proxy.newProxyInstance(DevOpsSavePlanner.class.getClassLoader(), new Class<?>[]{Logger.class}, handler);
+    }
+
+    private static boolean writeIfChanged(File file, byte[] data) throws IOException {
+        if (file.isFile() && Arrays.equals(data, Files.readAllBytes(file.toPath()))) {
+            LOG.debug("Not writing " + file + " as it has not changed");
+            return false;
+        }
+        Files.write(file.toPath(), data);
+        return true;
+    }
+}
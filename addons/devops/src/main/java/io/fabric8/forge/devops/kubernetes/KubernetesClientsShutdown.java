@@ -0,0 +1,31 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.kubernetes;
+
+import io.fabric8.forge.kubernetes.cache.KubernetesClients;
+import org.jboss.forge.furnace.event.PreShutdown;
+
+import javax.enterprise.event.Observes;
+
+/**
+ * Closes the kubernetes clients of this addon when it is shut down
+ */
+public class KubernetesClientsShutdown {
+
+    static void onShutdown(@Observes PreShutdown event) {
+        KubernetesClients.getInstance().close();
+    }
+}
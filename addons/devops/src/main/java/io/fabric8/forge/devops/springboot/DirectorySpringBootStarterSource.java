@@ -0,0 +1,59 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.springboot;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads pre-generated starter zips from a local template directory so new projects can be created without network access.
+ * <p/>
+ * Each starter is stored as <tt>&lt;cacheKey&gt;.zip</tt> where the cache key is {@link SpringBootStarterRequest#getCacheKey()},
+ * which is the same layout {@link SpringBootStarterCache} uses for its disk cache, so a warm cache directory can be
+ * copied to an offline cluster as-is.
+ */
+public class DirectorySpringBootStarterSource implements SpringBootStarterSource {
+
+    private final File directory;
+
+    public DirectorySpringBootStarterSource(File directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public InputStream openStarterZip(SpringBootStarterRequest request) throws IOException {
+        File file = getStarterFile(request);
+        if (file.isFile()) {
+            return new FileInputStream(file);
+        }
+        return null;
+    }
+
+    public File getStarterFile(SpringBootStarterRequest request) {
+        return new File(directory, request.getCacheKey() + ".zip");
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public String toString() {
+        return "DirectorySpringBootStarterSource{" + directory + "}";
+    }
+}
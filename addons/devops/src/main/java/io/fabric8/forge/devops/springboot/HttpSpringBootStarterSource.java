@@ -0,0 +1,74 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.springboot;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static io.fabric8.forge.devops.springboot.OkHttpClientHelper.createOkHttpClient;
+
+/**
+ * Downloads starter zips over HTTP from start.spring.io or a compatible local stand-in.
+ * <p/>
+ * The http client is shared so connections to the starter service are pooled and kept alive between projects.
+ */
+public class HttpSpringBootStarterSource implements SpringBootStarterSource {
+
+    private static final transient Logger LOG = LoggerFactory.getLogger(HttpSpringBootStarterSource.class);
+
+    public static final String DEFAULT_STARTER_URL = "https://start.spring.io/starter.zip";
+
+    private static final OkHttpClient CLIENT = createOkHttpClient();
+
+    private final String starterUrl;
+
+    public HttpSpringBootStarterSource() {
+        this(DEFAULT_STARTER_URL);
+    }
+
+    public HttpSpringBootStarterSource(String starterUrl) {
+        this.starterUrl = starterUrl;
+    }
+
+    @Override
+    public InputStream openStarterZip(SpringBootStarterRequest request) throws IOException {
+        String url = starterUrl + "?" + request.toQueryString();
+        LOG.info("About to query url: " + url);
+
+        Request httpRequest = new Request.Builder().url(url).build();
+        Response response = CLIENT.newCall(httpRequest).execute();
+        if (!response.isSuccessful()) {
+            response.close();
+            throw new IOException("Failed to download Spring Boot starter from " + url + " due HTTP status " + response.code());
+        }
+        return response.body().byteStream();
+    }
+
+    public String getStarterUrl() {
+        return starterUrl;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpSpringBootStarterSource{" + starterUrl + "}";
+    }
+}
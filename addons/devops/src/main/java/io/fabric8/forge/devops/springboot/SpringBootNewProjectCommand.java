@@ -15,8 +15,8 @@
  */
 package io.fabric8.forge.devops.springboot;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -27,9 +27,6 @@ import javax.inject.Inject;
 
 import io.fabric8.forge.devops.AbstractDevOpsCommand;
 import io.fabric8.forge.devops.dto.SpringBootDependencyDTO;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
 import org.jboss.forge.addon.convert.Converter;
 import org.jboss.forge.addon.dependencies.builder.DependencyBuilder;
 import org.jboss.forge.addon.projects.Project;
@@ -56,9 +53,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yaml.snakeyaml.Yaml;
 
-import static io.fabric8.forge.devops.springboot.IOHelper.close;
-import static io.fabric8.forge.devops.springboot.IOHelper.copyAndCloseInput;
-import static io.fabric8.forge.devops.springboot.OkHttpClientHelper.createOkHttpClient;
 import static io.fabric8.forge.devops.springboot.UnzipHelper.unzip;
 import static io.fabric8.utils.Files.recursiveDelete;
 
@@ -73,8 +67,6 @@ public class SpringBootNewProjectCommand extends AbstractDevOpsCommand implement
     private static final String SPRING_BOOT_DEFAULT_VERSION = "1.4.3";
     private static final String[] SPRING_BOOT_VERSIONS = new String[]{"1.3.8", "1.4.3"};
 
-    private static final String STARTER_URL = "https://start.spring.io/starter.zip";
-
     // fabric8 only dependencies which we should not pass on to start.spring.io
     private static final String[] fabric8Deps = new String[]{"spring-cloud-kubernetes", "kubeflix-ribbon-discovery",
             "kubeflix-turbine-discovery", "kubeflix-turbine-server", "camel-zipkin-starter"};
@@ -92,6 +84,9 @@ public class SpringBootNewProjectCommand extends AbstractDevOpsCommand implement
     @Inject
     private DependencyInstaller dependencyInstaller;
 
+    @Inject
+    private SpringBootStarterCache starterCache;
+
     @Override
     public NavigationResult next(UINavigationContext context) throws Exception {
         return null;
@@ -198,34 +193,26 @@ public class SpringBootNewProjectCommand extends AbstractDevOpsCommand implement
 
         Map<String, SpringBootDependencyDTO> selectedDTOs = new HashMap<>();
         int[] selected = dependencies.getSelectedIndexes();
-        CollectionStringBuffer csbSpringBoot = new CollectionStringBuffer(",");
+        List<String> springBootDeps = new ArrayList<>();
         CollectionStringBuffer csbFabric8 = new CollectionStringBuffer(",");
         for (int val : selected) {
             SpringBootDependencyDTO dto = choices.get(val);
             if (isFabric8Dependency(dto.getId())) {
                 csbFabric8.append(dto.getId());
             } else {
-                csbSpringBoot.append(dto.getId());
+                springBootDeps.add(dto.getId());
             }
             selectedDTOs.put(dto.getId(), dto);
         }
-        String springBootDeps = csbSpringBoot.toString();
         String fabric8Deps = csbFabric8.toString();
         // boot version need the RELEASE suffix
         String bootVersion = springBootVersion.getValue() + ".RELEASE";
 
-        String url = String.format("%s?bootVersion=%s&groupId=%s&artifactId=%s&version=%s&packageName=%s&dependencies=%s",
-                STARTER_URL, bootVersion, groupId, projectName, version, groupId, springBootDeps);
-
-        LOG.info("About to query url: " + url);
-
-        // use http client to call start.spring.io that creates the project
-        OkHttpClient client = createOkHttpClient();
+        SpringBootStarterRequest request = new SpringBootStarterRequest(bootVersion, springBootDeps,
+                SpringBootStarterRequest.DEFAULT_PACKAGING, groupId, projectName, version, groupId);
 
-        Request request = new Request.Builder().url(url).build();
-
-        Response response = client.newCall(request).execute();
-        InputStream is = response.body().byteStream();
+        // get the starter zip which creates the project from the cache, or from start.spring.io
+        byte[] zip = starterCache.getStarterZip(request);
 
         // some archetypes might not use maven or use the maven source layout so lets remove
         // the pom.xml and src folder if its already been pre-created
@@ -239,23 +226,11 @@ public class SpringBootNewProjectCommand extends AbstractDevOpsCommand implement
             recursiveDelete(src);
         }
 
-        File name = new File(folder, projectName + ".zip");
-        if (name.exists()) {
-            name.delete();
-        }
-
-        FileOutputStream fos = new FileOutputStream(name, false);
-        copyAndCloseInput(is, fos);
-        close(fos);
-
-        // unzip the download from spring starter
-        unzip(name, folder);
+        // unzip the starter straight into the project folder, using the coordinates of the project
+        unzip(new ByteArrayInputStream(zip), folder, request);
 
         LOG.info("Unzipped file to folder: {}", folder.getAbsolutePath());
 
-        // and delete the zip file
-        name.delete();
-
         if (!Strings.isEmpty(fabric8Deps)) {
             addFabric8DependenciesToPom(project, fabric8Deps, selectedDTOs);
         }
@@ -0,0 +1,159 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.springboot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.enterprise.context.ApplicationScoped;
+
+import io.fabric8.utils.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static io.fabric8.forge.devops.springboot.IOHelper.close;
+import static io.fabric8.forge.devops.springboot.IOHelper.copyAndCloseInput;
+
+/**
+ * Caches the Spring Boot starter zips by {@link SpringBootStarterRequest#getCacheKey()} so creating the same kind of
+ * project again does not have to go to start.spring.io.
+ * <p/>
+ * The starters are looked up in the following order:
+ * <ul>
+ *     <li>the in memory cache</li>
+ *     <li>the local template directory configured via the <tt>SPRING_BOOT_STARTER_DIR</tt> environment variable</li>
+ *     <li>the starter url configured via the <tt>SPRING_BOOT_STARTER_URL</tt> environment variable, which defaults to start.spring.io</li>
+ * </ul>
+ * Starters downloaded over HTTP are also written to the template directory (if any) so they survive restarts.
+ */
+@ApplicationScoped
+public class SpringBootStarterCache {
+
+    private static final transient Logger LOG = LoggerFactory.getLogger(SpringBootStarterCache.class);
+
+    public static final String ENV_SPRING_BOOT_STARTER_URL = "SPRING_BOOT_STARTER_URL";
+    public static final String ENV_SPRING_BOOT_STARTER_DIR = "SPRING_BOOT_STARTER_DIR";
+
+    private static final int MAX_ENTRIES = 50;
+
+    private final DirectorySpringBootStarterSource directorySource;
+    private final List<SpringBootStarterSource> sources = new ArrayList<>();
+    private final Map<String, byte[]> cache = Collections.synchronizedMap(new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    });
+
+    public SpringBootStarterCache() {
+        this(createDirectorySource(), createHttpSource());
+    }
+
+    public SpringBootStarterCache(DirectorySpringBootStarterSource directorySource, SpringBootStarterSource remoteSource) {
+        this.directorySource = directorySource;
+        if (directorySource != null) {
+            sources.add(directorySource);
+        }
+        if (remoteSource != null) {
+            sources.add(remoteSource);
+        }
+    }
+
+    /**
+     * Returns the starter zip content for the given request, loading it from the first source which has it
+     * if its not already cached.
+     */
+    public byte[] getStarterZip(SpringBootStarterRequest request) throws IOException {
+        String key = request.getCacheKey();
+        byte[] answer = cache.get(key);
+        if (answer != null) {
+            LOG.info("Using cached Spring Boot starter " + key);
+            return answer;
+        }
+
+        for (SpringBootStarterSource source : sources) {
+            InputStream is = source.openStarterZip(request);
+            if (is != null) {
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                copyAndCloseInput(is, bos);
+                answer = bos.toByteArray();
+                LOG.info("Loaded Spring Boot starter " + key + " from " + source + " (" + answer.length + " bytes)");
+
+                if (source != directorySource) {
+                    storeInDirectory(request, answer);
+                }
+                cache.put(key, answer);
+                return answer;
+            }
+        }
+        throw new IOException("No Spring Boot starter available for " + request + " from sources " + sources);
+    }
+
+    /**
+     * Clears the in memory cache
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public List<SpringBootStarterSource> getSources() {
+        return Collections.unmodifiableList(sources);
+    }
+
+    private void storeInDirectory(SpringBootStarterRequest request, byte[] data) {
+        if (directorySource == null) {
+            return;
+        }
+        File file = directorySource.getStarterFile(request);
+        file.getParentFile().mkdirs();
+        FileOutputStream fos = null;
+        try {
+            fos = new FileOutputStream(file, false);
+            fos.write(data);
+        } catch (IOException e) {
+            LOG.warn("Failed to store Spring Boot starter in " + file + " due " + e.getMessage(), e);
+        } finally {
+            close(fos);
+        }
+    }
+
+    private static DirectorySpringBootStarterSource createDirectorySource() {
+        String dir = System.getenv(ENV_SPRING_BOOT_STARTER_DIR);
+        if (Strings.isNotBlank(dir)) {
+            return new DirectorySpringBootStarterSource(new File(dir));
+        }
+        return null;
+    }
+
+    private static SpringBootStarterSource createHttpSource() {
+        String url = System.getenv(ENV_SPRING_BOOT_STARTER_URL);
+        if (Strings.isNotBlank(url)) {
+            return new HttpSpringBootStarterSource(url);
+        }
+        return new HttpSpringBootStarterSource();
+    }
+}
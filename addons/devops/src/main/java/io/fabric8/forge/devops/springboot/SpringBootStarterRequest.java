@@ -0,0 +1,136 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.springboot;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The parameters of a request to the Spring Boot starter service.
+ * <p/>
+ * The dependencies are kept sorted so the same selection always results in the same cache key
+ * regardless of the order the user picked them in.
+ * <p/>
+ * The starter service is always asked for a template project with the <tt>TEMPLATE_*</tt> coordinates, so the cache
+ * key only depends on the boot version, dependencies and packaging. The coordinates of the actual project are
+ * written into the template when it is unzipped via {@link #getEntryName(String)} and {@link #rewrite(String)}.
+ */
+public class SpringBootStarterRequest {
+
+    public static final String DEFAULT_PACKAGING = "jar";
+
+    public static final String TEMPLATE_GROUP_ID = "io.fabric8.starter.template";
+    public static final String TEMPLATE_ARTIFACT_ID = "fabric8-starter-template";
+    public static final String TEMPLATE_VERSION = "0.0.0-FABRIC8-STARTER-TEMPLATE";
+    public static final String TEMPLATE_PACKAGE_NAME = "io.fabric8.startertemplate";
+
+    private final String bootVersion;
+    private final Set<String> dependencies;
+    private final String packaging;
+    private final String groupId;
+    private final String artifactId;
+    private final String version;
+    private final String packageName;
+
+    public SpringBootStarterRequest(String bootVersion, Collection<String> dependencies, String packaging,
+                                    String groupId, String artifactId, String version, String packageName) {
+        this.bootVersion = bootVersion;
+        this.dependencies = new TreeSet<>(dependencies);
+        this.packaging = packaging != null ? packaging : DEFAULT_PACKAGING;
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.version = version;
+        this.packageName = packageName;
+    }
+
+    /**
+     * The query string to append to the starter url, which asks for the template project
+     */
+    public String toQueryString() {
+        return String.format("bootVersion=%s&packaging=%s&groupId=%s&artifactId=%s&version=%s&packageName=%s&dependencies=%s",
+                bootVersion, packaging, TEMPLATE_GROUP_ID, TEMPLATE_ARTIFACT_ID, TEMPLATE_VERSION, TEMPLATE_PACKAGE_NAME, getDependenciesText());
+    }
+
+    /**
+     * A key which uniquely identifies the generated starter zip, which is safe to use as a file name.
+     * <p/>
+     * The project coordinates are not part of the key as the zip is a template which is rewritten for each project.
+     */
+    public String getCacheKey() {
+        String key = bootVersion + "_" + packaging + "_" + getDependenciesText().replace(',', '+');
+        return key.replaceAll("[^A-Za-z0-9._+-]", "-");
+    }
+
+    /**
+     * Returns the name of the given entry of the template zip in the project, which moves the sources of the
+     * template package into the package of the project
+     */
+    public String getEntryName(String templateEntryName) {
+        return templateEntryName.replace(TEMPLATE_PACKAGE_NAME.replace('.', '/'), packageName.replace('.', '/'));
+    }
+
+    /**
+     * Replaces the template coordinates in the given text content of the template zip with those of the project
+     */
+    public String rewrite(String text) {
+        return text.replace(TEMPLATE_GROUP_ID, groupId)
+                .replace(TEMPLATE_ARTIFACT_ID, artifactId)
+                .replace(TEMPLATE_VERSION, version)
+                .replace(TEMPLATE_PACKAGE_NAME, packageName);
+    }
+
+    public String getDependenciesText() {
+        CollectionStringBuffer csb = new CollectionStringBuffer(",");
+        for (String dependency : dependencies) {
+            csb.append(dependency);
+        }
+        return csb.toString();
+    }
+
+    public String getBootVersion() {
+        return bootVersion;
+    }
+
+    public Set<String> getDependencies() {
+        return dependencies;
+    }
+
+    public String getPackaging() {
+        return packaging;
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    @Override
+    public String toString() {
+        return "SpringBootStarterRequest{" + toQueryString() + "}";
+    }
+}
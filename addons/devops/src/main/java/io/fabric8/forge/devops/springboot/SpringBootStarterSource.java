@@ -0,0 +1,33 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.springboot;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A source of Spring Boot starter zips, such as start.spring.io or a local directory of pre-generated starters.
+ */
+public interface SpringBootStarterSource {
+
+    /**
+     * Opens a stream to the starter zip for the given request.
+     *
+     * @return the zip content, or <tt>null</tt> if this source has no starter for the request
+     */
+    InputStream openStarterZip(SpringBootStarterRequest request) throws IOException;
+
+}
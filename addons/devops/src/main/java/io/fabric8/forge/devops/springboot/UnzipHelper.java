@@ -16,10 +16,13 @@
 package io.fabric8.forge.devops.springboot;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -30,25 +33,53 @@ public class UnzipHelper {
      */
     private static final int BUFFER_SIZE = 8192;
 
+    /**
+     * The files of a starter which can contain the project coordinates
+     */
+    private static final String[] TEXT_FILE_EXTENSIONS = {".xml", ".gradle", ".java", ".kt", ".groovy", ".properties", ".yml", ".yaml", ".md", ".txt"};
+
     /**
      * Extracts a zip file specified by the zipFilePath to a directory specified by
      * destDirectory (will be created if does not exists)
      */
     public static void unzip(File file, File destDir) throws IOException {
+        unzip(new FileInputStream(file), destDir);
+    }
+
+    /**
+     * Extracts the zip content from the given stream to a directory specified by
+     * destDirectory (will be created if does not exists). The stream is closed afterwards.
+     */
+    public static void unzip(InputStream is, File destDir) throws IOException {
+        unzip(is, destDir, null);
+    }
+
+    /**
+     * Extracts the Spring Boot starter template from the given stream to a directory specified by
+     * destDirectory (will be created if does not exists), writing the coordinates of the given request
+     * into the entry names and text files. The stream is closed afterwards.
+     */
+    public static void unzip(InputStream is, File destDir, SpringBootStarterRequest request) throws IOException {
         if (!destDir.exists()) {
             destDir.mkdir();
         }
-        ZipInputStream zipIn = new ZipInputStream(new FileInputStream(file));
+        ZipInputStream zipIn = new ZipInputStream(is);
         ZipEntry entry = zipIn.getNextEntry();
         // iterates over entries in the zip file
         while (entry != null) {
-            File entryFile = new File(destDir, entry.getName());
+            String name = request != null ? request.getEntryName(entry.getName()) : entry.getName();
+            File entryFile = new File(destDir, name);
             if (!entry.isDirectory()) {
                 // if the entry is a file, extracts it
-                extractFile(zipIn, entryFile);
+                entryFile.getParentFile().mkdirs();
+                if (request != null && isTextFile(name)) {
+                    extractTextFile(zipIn, entryFile, request);
+                } else {
+                    extractFile(zipIn, entryFile);
+                }
             } else {
                 // if the entry is a directory, make the directory
-                entryFile.mkdir();
+                entryFile.mkdirs();
             }
             zipIn.closeEntry();
             entry = zipIn.getNextEntry();
@@ -66,4 +97,26 @@ public class UnzipHelper {
         bos.close();
     }
 
+    private static void extractTextFile(ZipInputStream zipIn, File file, SpringBootStarterRequest request) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        byte[] bytesIn = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = zipIn.read(bytesIn)) != -1) {
+            bos.write(bytesIn, 0, read);
+        }
+        String text = request.rewrite(new String(bos.toByteArray(), StandardCharsets.UTF_8));
+        try (FileOutputStream fos = new FileOutputStream(file)) {
+            fos.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static boolean isTextFile(String name) {
+        for (String extension : TEXT_FILE_EXTENSIONS) {
+            if (name.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
@@ -0,0 +1,276 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.fabric8.devops.ProjectConfig;
+import io.fabric8.devops.ProjectConfigs;
+import io.fabric8.devops.connector.DevOpsConnector;
+import io.fabric8.utils.GitHelpers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.eclipse.jgit.api.Git;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DevOpsSavePlannerTest {
+
+    private static final String FLOW = "node {\n  git GIT_URL\n  sh 'mvn install'\n}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public MockWebServer gitHost = new MockWebServer();
+
+    @Rule
+    public MockWebServer jenkins = new MockWebServer();
+
+    private final OkHttpClient httpClient = new OkHttpClient();
+    private final DevOpsSavePlanner planner = new DevOpsSavePlanner();
+    private Git clone;
+    private File basedir;
+    private String gitUrl;
+    private boolean failConnector;
+    private boolean reportError;
+
+    @Before
+    public void setUp() throws Exception {
+        Dispatcher created = new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setResponseCode(201).setBody("{}");
+            }
+        };
+        gitHost.setDispatcher(created);
+        jenkins.setDispatcher(created);
+
+        File bareRepo = folder.newFolder("demo.git");
+        Git.init().setBare(true).setDirectory(bareRepo).call().close();
+        basedir = folder.newFolder("demo");
+        clone = Git.cloneRepository().setURI(bareRepo.toURI().toString()).setDirectory(basedir).call();
+        gitUrl = GitHelpers.extractGitUrl(basedir);
+    }
+
+    @After
+    public void tearDown() {
+        clone.close();
+    }
+
+    @Test
+    public void testRepeatedSaveMakesNoWritesAndNoRemoteCalls() throws Exception {
+        assertSave(true, true, true, createEnvironments("staging"));
+        assertEquals(1, gitHost.getRequestCount());
+        assertEquals(1, jenkins.getRequestCount());
+        assertTrue(new File(basedir, ProjectConfigs.FILE_NAME).isFile());
+        assertTrue(new File(basedir, ProjectConfigs.LOCAL_FLOW_FILE_NAME).isFile());
+
+        int files = setLastModified(basedir, 1000L);
+        assertSave(false, false, false, createEnvironments("staging"));
+        assertEquals(1, gitHost.getRequestCount());
+        assertEquals(1, jenkins.getRequestCount());
+        assertEquals("Wrote files of the project", files * 1000L, getLastModified(basedir));
+
+        // the fingerprint is kept out of the working tree
+        assertEquals(new HashSet<>(Arrays.asList(ProjectConfigs.FILE_NAME, ProjectConfigs.LOCAL_FLOW_FILE_NAME)),
+                clone.status().call().getUntracked());
+    }
+
+    @Test
+    public void testChangedConfigurationExecutesConnectorAgain() throws Exception {
+        assertSave(true, true, true, createEnvironments("staging"));
+
+        assertSave(true, false, true, createEnvironments("staging", "production"));
+        assertEquals(2, gitHost.getRequestCount());
+        assertEquals(2, jenkins.getRequestCount());
+
+        assertSave(false, false, false, createEnvironments("staging", "production"));
+        assertEquals(2, gitHost.getRequestCount());
+    }
+
+    @Test
+    public void testFailedConnectorIsExecutedAgain() throws Exception {
+        failConnector = true;
+        try {
+            save(createEnvironments("staging"), false);
+            fail("Expected the connector to fail");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        failConnector = false;
+
+        assertSave(false, false, true, createEnvironments("staging"));
+        assertSave(false, false, false, createEnvironments("staging"));
+        assertEquals(2, gitHost.getRequestCount());
+    }
+
+    @Test
+    public void testConnectorReportingErrorsIsExecutedAgain() throws Exception {
+        reportError = true;
+        assertSave(true, true, true, createEnvironments("staging"));
+        assertEquals(0, jenkins.getRequestCount());
+        reportError = false;
+
+        assertSave(false, false, true, createEnvironments("staging"));
+        assertEquals(1, jenkins.getRequestCount());
+        assertSave(false, false, false, createEnvironments("staging"));
+        assertEquals(1, jenkins.getRequestCount());
+    }
+
+    @Test
+    public void testRefreshExecutesUnchangedConnectorAgain() throws Exception {
+        assertSave(true, true, true, createEnvironments("staging"));
+
+        assertSave(false, false, true, createEnvironments("staging"), true);
+        assertEquals(2, gitHost.getRequestCount());
+        assertEquals(2, jenkins.getRequestCount());
+
+        assertSave(false, false, false, createEnvironments("staging"));
+        assertEquals(2, gitHost.getRequestCount());
+    }
+
+    private void assertSave(boolean configWritten, boolean flowWritten, boolean connectorExecuted, Map<String, String> environments) throws Exception {
+        assertSave(configWritten, flowWritten, connectorExecuted, environments, false);
+    }
+
+    private void assertSave(boolean configWritten, boolean flowWritten, boolean connectorExecuted, Map<String, String> environments, boolean refresh) throws Exception {
+        boolean[] answer = save(environments, refresh);
+        assertEquals("config written", configWritten, answer[0]);
+        assertEquals("flow written", flowWritten, answer[1]);
+        assertEquals("connector executed", connectorExecuted, answer[2]);
+    }
+
+    /**
+     * Saves the settings the same way as {@link DevOpsSave}
+     */
+    private boolean[] save(Map<String, String> environments, boolean refresh) throws Exception {
+        File configFile = new File(basedir, ProjectConfigs.FILE_NAME);
+        ProjectConfig config = configFile.exists() ? ProjectConfigs.parseProjectConfig(configFile) : new ProjectConfig();
+        config.setBuildName("demo");
+        config.setPipeline("maven/CanaryReleaseAndStage.groovy");
+        config.setEnvironments(new LinkedHashMap<>(environments));
+        boolean configWritten = planner.saveConfig(config, configFile);
+
+        String flowText = FLOW.replace("GIT_URL", "'" + gitUrl + "'");
+        boolean flowWritten = planner.saveFlow(new File(basedir, ProjectConfigs.LOCAL_FLOW_FILE_NAME), flowText);
+        config.setPipeline(null);
+        config.setUseLocalFlow(true);
+
+        DevOpsConnector connector = new StubConnector();
+        connector.setProjectConfig(config);
+        connector.setTryLoadConfigFileFromRemoteGit(false);
+        connector.setUsername("developer");
+        connector.setPassword("secret");
+        connector.setBranch("master");
+        connector.setBasedir(basedir);
+        connector.setGitUrl(gitUrl);
+        connector.setLocalGitUrl(gitUrl);
+        connector.setRepoName("demo");
+        connector.setRegisterWebHooks(true);
+        connector.setTriggerJenkinsJob(false);
+        boolean connectorExecuted = planner.executeConnector(connector, gitUrl, refresh);
+
+        return new boolean[]{configWritten, flowWritten, connectorExecuted};
+    }
+
+    private static Map<String, String> createEnvironments(String... names) {
+        Map<String, String> answer = new LinkedHashMap<>();
+        for (String name : names) {
+            answer.put(name, "demo-" + name);
+        }
+        return answer;
+    }
+
+    /**
+     * Sets the last modified time of all the files in the given folder and returns the number of files
+     */
+    private static int setLastModified(File dir, long time) {
+        int answer = 0;
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    answer += setLastModified(file, time);
+                } else {
+                    assertTrue(file.setLastModified(time));
+                    answer++;
+                }
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the sum of the last modified times of all the files in the given folder
+     */
+    private static long getLastModified(File dir) {
+        long answer = 0;
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                answer += file.isDirectory() ? getLastModified(file) : file.lastModified();
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Stands in for the connector by registering the webhook with the git host and the job with Jenkins
+     */
+    private class StubConnector extends DevOpsConnector {
+
+        @Override
+        public void execute() throws Exception {
+            post(gitHost.url("/api/v1/repos/" + getUsername() + "/" + getRepoName() + "/hooks").toString(),
+                    "{\"type\":\"gogs\",\"config\":{\"url\":\"" + jenkins.url("/git/notifyCommit") + "\"}}");
+            if (failConnector) {
+                throw new IllegalStateException("Jenkins is not available");
+            }
+            if (reportError) {
+                // the connector logs most of its failures rather than throwing them
+                getLog().error("Failed to register job " + getRepoName() + " on " + jenkins.url("/"));
+                return;
+            }
+            post(jenkins.url("/createItem?name=" + getRepoName()).toString(), "<flow-definition/>");
+        }
+
+        private void post(String url, String body) throws Exception {
+            Request request = new Request.Builder().url(url).post(RequestBody.create(MediaType.parse("application/json"), body)).build();
+            try (Response response = httpClient.newCall(request).execute()) {
+                assertEquals(201, response.code());
+            }
+        }
+    }
+}
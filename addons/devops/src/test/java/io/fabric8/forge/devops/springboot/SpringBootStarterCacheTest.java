@@ -0,0 +1,193 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.devops.springboot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static io.fabric8.utils.Files.recursiveDelete;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the starter cache against a local HTTP stand-in for start.spring.io
+ */
+public class SpringBootStarterCacheTest {
+
+    private HttpServer server;
+    private String starterUrl;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicReference<String> lastQuery = new AtomicReference<>();
+    private File dir;
+
+    @Before
+    public void setUp() throws Exception {
+        final byte[] zip = createStarterZip();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/starter.zip", exchange -> {
+            requests.incrementAndGet();
+            lastQuery.set(exchange.getRequestURI().getQuery());
+            exchange.sendResponseHeaders(200, zip.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(zip);
+            }
+        });
+        server.start();
+        starterUrl = "http://localhost:" + server.getAddress().getPort() + "/starter.zip";
+        dir = Files.createTempDirectory("starters").toFile();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.stop(0);
+        recursiveDelete(dir);
+    }
+
+    @Test
+    public void testCachesByRequest() throws Exception {
+        SpringBootStarterCache cache = new SpringBootStarterCache(null, new HttpSpringBootStarterSource(starterUrl));
+
+        byte[] first = cache.getStarterZip(createRequest("web", "actuator"));
+        byte[] second = cache.getStarterZip(createRequest("actuator", "web"));
+
+        assertEquals(1, requests.get());
+        assertTrue(Arrays.equals(first, second));
+        assertTrue(lastQuery.get().contains("dependencies=actuator,web"));
+        assertTrue(lastQuery.get().contains("packaging=jar"));
+        assertTrue(lastQuery.get().contains("groupId=" + SpringBootStarterRequest.TEMPLATE_GROUP_ID));
+
+        // other project coordinates use the same template
+        cache.getStarterZip(new SpringBootStarterRequest("1.4.3.RELEASE", Arrays.asList("web", "actuator"), null,
+                "com.acme", "other", "2.0", "com.acme.other"));
+        assertEquals(1, requests.get());
+
+        cache.getStarterZip(createRequest("web"));
+        assertEquals(2, requests.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testOfflineFromTemplateDirectory() throws Exception {
+        SpringBootStarterRequest request = createRequest("web");
+
+        // warm up the template directory from the http stand-in
+        SpringBootStarterCache online = new SpringBootStarterCache(new DirectorySpringBootStarterSource(dir), new HttpSpringBootStarterSource(starterUrl));
+        online.getStarterZip(request);
+        assertEquals(1, requests.get());
+        assertTrue(new File(dir, request.getCacheKey() + ".zip").isFile());
+
+        // and now without any remote source at all
+        SpringBootStarterCache offline = new SpringBootStarterCache(new DirectorySpringBootStarterSource(dir), null);
+        byte[] zip = offline.getStarterZip(request);
+        assertEquals(1, requests.get());
+
+        File folder = new File(dir, "project");
+        UnzipHelper.unzip(new ByteArrayInputStream(zip), folder);
+        File pom = new File(folder, "pom.xml");
+        assertTrue(pom.isFile());
+        assertEquals("<project/>", new String(Files.readAllBytes(pom.toPath()), "UTF-8"));
+        assertTrue(new File(folder, "src/main/java").isDirectory());
+    }
+
+    @Test
+    public void testUnzipWritesProjectCoordinates() throws Exception {
+        SpringBootStarterRequest request = new SpringBootStarterRequest("1.4.3.RELEASE", Arrays.asList("web"), null,
+                "com.acme", "shop", "1.2.3", "com.acme.shop");
+
+        File folder = new File(dir, "shop");
+        UnzipHelper.unzip(new ByteArrayInputStream(createTemplateZip()), folder, request);
+
+        assertEquals("<project><groupId>com.acme</groupId><artifactId>shop</artifactId><version>1.2.3</version></project>",
+                new String(Files.readAllBytes(new File(folder, "pom.xml").toPath()), "UTF-8"));
+        File application = new File(folder, "src/main/java/com/acme/shop/DemoApplication.java");
+        assertTrue(application.isFile());
+        assertEquals("package com.acme.shop;", new String(Files.readAllBytes(application.toPath()), "UTF-8"));
+        assertEquals(3, Files.readAllBytes(new File(folder, ".mvn/wrapper/maven-wrapper.jar").toPath()).length);
+        assertFalse(new File(folder, "src/main/java/io").exists());
+    }
+
+    @Test(expected = IOException.class)
+    public void testNoStarterAvailable() throws Exception {
+        SpringBootStarterCache offline = new SpringBootStarterCache(new DirectorySpringBootStarterSource(dir), null);
+        offline.getStarterZip(createRequest("web"));
+    }
+
+    @Test
+    public void testCacheKeyIsFileNameSafe() throws Exception {
+        String key = createRequest("web", "data-jpa").getCacheKey();
+        assertNotNull(key);
+        assertEquals("1.4.3.RELEASE_jar_data-jpa+web", key);
+    }
+
+    private static SpringBootStarterRequest createRequest(String... dependencies) {
+        return new SpringBootStarterRequest("1.4.3.RELEASE", Arrays.asList(dependencies), null,
+                "io.fabric8.example", "demo", "1.0-SNAPSHOT", "io.fabric8.example");
+    }
+
+    private static byte[] createStarterZip() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(bos)) {
+            zos.putNextEntry(new ZipEntry("src/"));
+            zos.closeEntry();
+            zos.putNextEntry(new ZipEntry("src/main/"));
+            zos.closeEntry();
+            zos.putNextEntry(new ZipEntry("src/main/java/"));
+            zos.closeEntry();
+            zos.putNextEntry(new ZipEntry("pom.xml"));
+            zos.write("<project/>".getBytes("UTF-8"));
+            zos.closeEntry();
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] createTemplateZip() throws IOException {
+        String packageFolder = "src/main/java/" + SpringBootStarterRequest.TEMPLATE_PACKAGE_NAME.replace('.', '/') + "/";
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(bos)) {
+            zos.putNextEntry(new ZipEntry(packageFolder));
+            zos.closeEntry();
+            zos.putNextEntry(new ZipEntry(packageFolder + "DemoApplication.java"));
+            zos.write(("package " + SpringBootStarterRequest.TEMPLATE_PACKAGE_NAME + ";").getBytes("UTF-8"));
+            zos.closeEntry();
+            zos.putNextEntry(new ZipEntry("pom.xml"));
+            zos.write(("<project><groupId>" + SpringBootStarterRequest.TEMPLATE_GROUP_ID + "</groupId><artifactId>"
+                    + SpringBootStarterRequest.TEMPLATE_ARTIFACT_ID + "</artifactId><version>"
+                    + SpringBootStarterRequest.TEMPLATE_VERSION + "</version></project>").getBytes("UTF-8"));
+            zos.closeEntry();
+            zos.putNextEntry(new ZipEntry(".mvn/wrapper/maven-wrapper.jar"));
+            zos.write(new byte[]{1, 2, 3});
+            zos.closeEntry();
+        }
+        return bos.toByteArray();
+    }
+}
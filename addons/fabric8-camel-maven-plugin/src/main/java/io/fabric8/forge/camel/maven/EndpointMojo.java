@@ -21,8 +21,11 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import io.fabric8.forge.camel.commands.project.helper.CamelSimpleValidator;
+import io.fabric8.forge.camel.commands.project.helper.EndpointUriCodec;
 import io.fabric8.forge.camel.commands.project.helper.RouteBuilderParser;
 import io.fabric8.forge.camel.commands.project.helper.XmlRouteParser;
 import io.fabric8.forge.camel.commands.project.model.CamelEndpointDetails;
@@ -134,6 +137,12 @@ public class EndpointMojo extends AbstractMojo {
     @Parameter(property = "downloadVersion", defaultValue = "true", readonly = true, required = false)
     private boolean downloadVersion;
 
+    /**
+     * The number of threads to use for validating the simple expressions. By default a thread per processor is used.
+     */
+    @Parameter(property = "simpleValidationThreads", defaultValue = "0", readonly = true, required = false)
+    private int simpleValidationThreads;
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         CamelCatalog catalog = new DefaultCamelCatalog();
@@ -263,7 +272,7 @@ public class EndpointMojo extends AbstractMojo {
         int unknownComponents = 0;
         int incapableErrors = 0;
         for (CamelEndpointDetails detail : endpoints) {
-            EndpointValidationResult result = catalog.validateEndpointProperties(detail.getEndpointUri(), ignoreLenientProperties);
+            EndpointValidationResult result = EndpointUriCodec.validate(catalog, detail.getEndpointUri(), ignoreLenientProperties);
 
             boolean ok = result.isSuccess();
             if (!ok && ignoreUnknownComponent && result.getUnknownComponent() != null) {
@@ -360,9 +369,13 @@ public class EndpointMojo extends AbstractMojo {
             getLog().info(endpointSummary);
         }
 
+        // validate each distinct simple expression once
+        int threads = simpleValidationThreads > 0 ? simpleValidationThreads : Runtime.getRuntime().availableProcessors();
+        Map<String, SimpleValidationResult> simpleResults = new CamelSimpleValidator(catalog, threads).validate(simpleExpressions);
+
         int simpleErrors = 0;
         for (CamelSimpleDetails detail : simpleExpressions) {
-            SimpleValidationResult result = catalog.validateSimpleExpression(detail.getSimple());
+            SimpleValidationResult result = simpleResults.get(detail.getSimple());
             if (!result.isSuccess()) {
                 simpleErrors++;
 
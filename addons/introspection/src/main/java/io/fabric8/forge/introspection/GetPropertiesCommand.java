@@ -4,6 +4,8 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import io.fabric8.forge.addon.utils.CommandHelpers;
 import io.fabric8.forge.addon.utils.dto.OutputFormat;
 import io.fabric8.forge.introspection.dto.PropertyDTO;
+import io.fabric8.forge.introspection.introspect.IntrospectionService;
+import io.fabric8.forge.introspection.introspect.ProjectIntrospector;
 import io.fabric8.forge.introspection.introspect.support.ClassScanner;
 import org.jboss.forge.addon.parser.java.facets.JavaCompilerFacet;
 import org.jboss.forge.addon.parser.java.facets.JavaSourceFacet;
@@ -13,9 +15,7 @@ import org.jboss.forge.addon.projects.Project;
 import org.jboss.forge.addon.projects.ProjectFacet;
 import org.jboss.forge.addon.projects.Projects;
 import org.jboss.forge.addon.projects.building.BuildException;
-import org.jboss.forge.addon.projects.building.ProjectBuilder;
 import org.jboss.forge.addon.projects.facets.ClassLoaderFacet;
-import org.jboss.forge.addon.projects.facets.PackagingFacet;
 import org.jboss.forge.addon.resource.Resource;
 import org.jboss.forge.addon.ui.context.UIBuilder;
 import org.jboss.forge.addon.ui.context.UIContext;
@@ -34,8 +34,6 @@ import org.jboss.forge.roaster.model.Field;
 
 import javax.inject.Inject;
 
-import java.beans.BeanInfo;
-import java.beans.PropertyDescriptor;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
@@ -55,6 +53,9 @@ public class GetPropertiesCommand extends AbstractIntrospectionCommand {
 	@WithAttributes(label = "classNames", required = true, description = "Fully qualified class name")
 	private UIInput<List<String>> classNames;
 
+	@Inject
+	private IntrospectionService introspectionService;
+
 	private List<InputComponent> inputComponents;
 
 	@Override
@@ -95,15 +96,12 @@ public class GetPropertiesCommand extends AbstractIntrospectionCommand {
 			return Results.fail("No className field provided");
 		}
 		Project project = Projects.getSelectedProject(getProjectFactory(), uiContext);
-		// force build
-		PackagingFacet packaging = project.getFacet(PackagingFacet.class);
-		ProjectBuilder builder = packaging.createBuilder();
-		builder.runTests(false);
-		builder.addArguments("clean", "compile");
+		// compile the project if its sources have changed since the last time
+		ProjectIntrospector introspector = introspectionService.getIntrospector(project);
 		ByteArrayOutputStream baos = new ByteArrayOutputStream();
 		PrintStream stdout = new PrintStream(baos, true);
 		try {
-			builder.build(stdout, stdout);
+			introspector.compileIfRequired(stdout);
 		} catch (BuildException be) {
 			// no point in continuing the operation
 			return Results.fail("Failed to build project: " + be + "\n\n" + baos.toString());
@@ -113,19 +111,8 @@ public class GetPropertiesCommand extends AbstractIntrospectionCommand {
 		Map<String, List<Object>> answer = new HashMap<String, List<Object>>();
 		for (String className : classNames) {
 			List<Object> props = new ArrayList<Object>();
-			Class clazz;
 			try {
-				clazz = classLoader.loadClass(className);
-				BeanInfo beanInfo = java.beans.Introspector.getBeanInfo(clazz);
-				PropertyDescriptor[] propertyDescriptors = beanInfo.getPropertyDescriptors();
-				for (PropertyDescriptor propertyDescriptor : propertyDescriptors) {
-					// ignore the class property
-					if (propertyDescriptor.getName().equals("class")) {
-						continue;
-					}
-					PropertyDTO info = new PropertyDTO(propertyDescriptor);
-					props.add(info);
-				}
+				props.addAll(introspector.getProperties(classLoader, className));
 			} catch (Exception e) {
 				props.add("Failed to load class, error: " + e.getMessage());
 			}
@@ -1,7 +1,7 @@
 package io.fabric8.forge.introspection;
 
 import io.fabric8.forge.addon.utils.CommandHelpers;
-import io.fabric8.forge.introspection.introspect.support.ClassScanner;
+import io.fabric8.forge.introspection.introspect.IntrospectionService;
 import org.jboss.forge.addon.facets.Faceted;
 import org.jboss.forge.addon.parser.java.facets.JavaSourceFacet;
 import org.jboss.forge.addon.parser.java.resources.JavaResource;
@@ -41,6 +41,9 @@ public class ScanClassesCommand extends AbstractIntrospectionCommand {
 	@WithAttributes(label = "search", required = false, description = "Search term to find classes in the project")
 	private UIInput<String> search;
 
+	@Inject
+	private IntrospectionService introspectionService;
+
 	private List<InputComponent> inputComponents;
 
 	@Override
@@ -65,9 +68,8 @@ public class ScanClassesCommand extends AbstractIntrospectionCommand {
 		Map<Object, Object> map = uiContext.getAttributeMap();
 		String search = (String) (map.get("search") != null ? map.get("search") : "");
 		Project project = getSelectedProject(uiContext);
-		ClassScanner scanner = ClassScanner.newInstance(project);
-		final SortedSet<String> answer = scanner.findClassNames(search, 0);
-		scanner.dispose();
+		// the scanner is kept per project so its package caches are reused by the next search
+		SortedSet<String> answer = introspectionService.getIntrospector(project).findClassNames(search, 0);
 		return Results.success(toJson(answer));
 	}
 }
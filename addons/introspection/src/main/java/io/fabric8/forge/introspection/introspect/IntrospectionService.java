@@ -0,0 +1,61 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.introspection.introspect;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.enterprise.context.ApplicationScoped;
+
+import org.jboss.forge.addon.projects.Project;
+import org.jboss.forge.addon.resource.DirectoryResource;
+
+/**
+ * Keeps a {@link ProjectIntrospector} per project folder so that repeated introspection requests
+ * from the console reuse the compiled classes, class scanner and property metadata of earlier requests.
+ */
+@ApplicationScoped
+public class IntrospectionService {
+
+	private final Map<String, ProjectIntrospector> introspectors = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the introspector for the given project, creating it if required
+	 */
+	public ProjectIntrospector getIntrospector(Project project) {
+		String key = project.getRoot().reify(DirectoryResource.class).getFullyQualifiedName();
+		ProjectIntrospector answer = introspectors.computeIfAbsent(key, k -> new ProjectIntrospector(project));
+		answer.setProject(project);
+		return answer;
+	}
+
+	/**
+	 * Removes and disposes the introspector of the given project, for example when the project is deleted
+	 */
+	public void invalidate(Project project) {
+		String key = project.getRoot().reify(DirectoryResource.class).getFullyQualifiedName();
+		ProjectIntrospector introspector = introspectors.remove(key);
+		if (introspector != null) {
+			introspector.dispose();
+		}
+	}
+
+	public void dispose() {
+		for (ProjectIntrospector introspector : introspectors.values()) {
+			introspector.dispose();
+		}
+		introspectors.clear();
+	}
+}
@@ -0,0 +1,308 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.introspection.introspect;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import io.fabric8.forge.introspection.dto.PropertyDTO;
+import io.fabric8.forge.introspection.introspect.support.ClassScanner;
+import org.jboss.forge.addon.projects.Project;
+import org.jboss.forge.addon.projects.building.BuildException;
+import org.jboss.forge.addon.projects.building.ProjectBuilder;
+import org.jboss.forge.addon.projects.facets.PackagingFacet;
+import org.jboss.forge.addon.resource.DirectoryResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the introspection state of a single project:
+ * <ul>
+ *     <li>the source files and their fingerprint at the time of the last compile so we only compile again when they change</li>
+ *     <li>the introspected properties per class and class file checksum</li>
+ *     <li>a long lived {@link ClassScanner} which keeps its package caches until the sources change</li>
+ * </ul>
+ */
+public class ProjectIntrospector {
+	private static final transient Logger LOG = LoggerFactory.getLogger(ProjectIntrospector.class);
+
+	private static final String[] CLEAN_COMPILE = {"clean", "compile"};
+	private static final String[] COMPILE = {"compile"};
+	private static final String[] UP_TO_DATE = {};
+
+	private final Map<String, List<PropertyDTO>> propertyCache = new ConcurrentHashMap<>();
+	private Project project;
+	private Sources compiledSources;
+	private String scannerFingerprint;
+	private ClassScanner classScanner;
+
+	public ProjectIntrospector(Project project) {
+		this.project = project;
+	}
+
+	/**
+	 * Compiles the project if its sources or pom.xml have changed since the last compile, or its classes were removed.
+	 * <p/>
+	 * The first compile and any compile after source files were removed also runs <tt>clean</tt>, as the compiler does
+	 * not remove the classes of deleted sources from <tt>target/classes</tt>.
+	 *
+	 * @return true if the project was compiled, false if it was up to date
+	 */
+	public synchronized boolean compileIfRequired(PrintStream out) throws BuildException {
+		File basedir = getBasedir();
+		Sources sources = scanSources(basedir);
+		String[] goals = getCompileGoals(basedir, sources);
+		if (goals.length == 0) {
+			LOG.debug("Project " + basedir + " is up to date so not compiling");
+			return false;
+		}
+
+		build(out, goals);
+
+		// the classes have changed so anything we cached about them is stale
+		compiledSources = sources;
+		propertyCache.clear();
+		disposeClassScanner();
+		return true;
+	}
+
+	/**
+	 * Returns the properties of the given class loaded from the class loader,
+	 * using the cached properties if the class file has not changed.
+	 */
+	public List<PropertyDTO> getProperties(ClassLoader classLoader, String className) throws ClassNotFoundException, IntrospectionException {
+		String key = className + "@" + classFileChecksum(classLoader, className);
+		List<PropertyDTO> answer = propertyCache.get(key);
+		if (answer == null) {
+			Class<?> clazz = classLoader.loadClass(className);
+			answer = Collections.unmodifiableList(introspect(clazz));
+			propertyCache.put(key, answer);
+		}
+		return answer;
+	}
+
+	/**
+	 * Returns the names of the classes of the project which match the search text.
+	 * <p/>
+	 * The search holds the same lock as the compiles and invalidations which dispose the class scanner,
+	 * so its class loaders cannot be closed while it is running
+	 */
+	public synchronized SortedSet<String> findClassNames(String search, Integer limit) {
+		return getClassScanner().findClassNames(search, limit);
+	}
+
+	/**
+	 * Returns the class scanner of this project, creating a new one if the sources have changed since it was created
+	 */
+	protected synchronized ClassScanner getClassScanner() {
+		Sources sources = scanSources(getBasedir());
+		String fingerprint = sources != null ? sources.getFingerprint() : "error-" + System.nanoTime();
+		if (classScanner != null && !fingerprint.equals(scannerFingerprint)) {
+			LOG.debug("Sources of " + getBasedir() + " have changed so discarding the class scanner");
+			disposeClassScanner();
+		}
+		if (classScanner == null) {
+			classScanner = ClassScanner.newInstance(project);
+			scannerFingerprint = fingerprint;
+		}
+		return classScanner;
+	}
+
+	/**
+	 * Forgets everything we know about the project so the next request compiles and introspects again
+	 */
+	public synchronized void invalidate() {
+		compiledSources = null;
+		propertyCache.clear();
+		disposeClassScanner();
+	}
+
+	public void dispose() {
+		invalidate();
+	}
+
+	/**
+	 * Updates the project, waiting for any compile or scan of the previous project to complete
+	 */
+	public synchronized void setProject(Project project) {
+		this.project = project;
+	}
+
+	/**
+	 * Returns the maven goals required to bring the classes of the project up to date with the given sources,
+	 * which is empty if they are up to date
+	 */
+	protected String[] getCompileGoals(File basedir, Sources sources) {
+		if (compiledSources == null || sources == null) {
+			// we do not know which classes are left from earlier builds
+			return CLEAN_COMPILE;
+		}
+		if (!sources.getPaths().containsAll(compiledSources.getPaths())) {
+			LOG.debug("Files of " + basedir + " have been removed so cleaning the classes of the project");
+			return CLEAN_COMPILE;
+		}
+		if (!sources.getFingerprint().equals(compiledSources.getFingerprint())) {
+			return COMPILE;
+		}
+		if (!sources.getPaths().isEmpty() && !new File(basedir, "target/classes").isDirectory()) {
+			LOG.debug("Classes of " + basedir + " have been removed so compiling again");
+			return COMPILE;
+		}
+		return UP_TO_DATE;
+	}
+
+	protected void build(PrintStream out, String... goals) throws BuildException {
+		PackagingFacet packaging = project.getFacet(PackagingFacet.class);
+		ProjectBuilder builder = packaging.createBuilder();
+		builder.runTests(false);
+		builder.addArguments(goals);
+		builder.build(out, out);
+	}
+
+	protected File getBasedir() {
+		return project.getRoot().reify(DirectoryResource.class).getUnderlyingResourceObject();
+	}
+
+	protected static List<PropertyDTO> introspect(Class<?> clazz) throws IntrospectionException {
+		List<PropertyDTO> answer = new ArrayList<>();
+		BeanInfo beanInfo = java.beans.Introspector.getBeanInfo(clazz);
+		PropertyDescriptor[] propertyDescriptors = beanInfo.getPropertyDescriptors();
+		for (PropertyDescriptor propertyDescriptor : propertyDescriptors) {
+			// ignore the class property
+			if (propertyDescriptor.getName().equals("class")) {
+				continue;
+			}
+			answer.add(new PropertyDTO(propertyDescriptor));
+		}
+		return answer;
+	}
+
+	/**
+	 * Returns a checksum of the class file or an empty string if the class file cannot be found
+	 */
+	protected static String classFileChecksum(ClassLoader classLoader, String className) {
+		String resource = className.replace('.', '/') + ".class";
+		try (InputStream is = classLoader.getResourceAsStream(resource)) {
+			if (is == null) {
+				return "";
+			}
+			CRC32 crc = new CRC32();
+			byte[] buffer = new byte[8192];
+			int n;
+			while ((n = is.read(buffer)) != -1) {
+				crc.update(buffer, 0, n);
+			}
+			return Long.toHexString(crc.getValue());
+		} catch (IOException e) {
+			return "";
+		}
+	}
+
+	/**
+	 * Returns the files of the pom.xml and <tt>src/main</tt> folder with a digest of their names, sizes and
+	 * modification times, or null if the sources could not be scanned
+	 */
+	protected static Sources scanSources(File basedir) {
+		final Map<String, String> files = new TreeMap<>();
+		File pom = new File(basedir, "pom.xml");
+		if (pom.isFile()) {
+			files.put("pom.xml", pom.lastModified() + ":" + pom.length());
+		}
+		final Path base = basedir.toPath();
+		File srcMain = new File(basedir, "src/main");
+		if (srcMain.isDirectory()) {
+			try {
+				Files.walkFileTree(srcMain.toPath(), new SimpleFileVisitor<Path>() {
+					@Override
+					public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+						files.put(base.relativize(file).toString(), attrs.lastModifiedTime().toMillis() + ":" + attrs.size());
+						return FileVisitResult.CONTINUE;
+					}
+				});
+			} catch (IOException e) {
+				LOG.warn("Failed to scan sources in " + srcMain + ". " + e, e);
+				return null;
+			}
+		}
+
+		// digest the files in path order so the fingerprint does not depend on the file walk order
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		for (Map.Entry<String, String> entry : files.entrySet()) {
+			digest.update((entry.getKey() + "=" + entry.getValue() + "\n").getBytes(StandardCharsets.UTF_8));
+		}
+		StringBuilder fingerprint = new StringBuilder();
+		for (byte b : digest.digest()) {
+			fingerprint.append(String.format("%02x", b));
+		}
+		return new Sources(files.keySet(), fingerprint.toString());
+	}
+
+	private void disposeClassScanner() {
+		if (classScanner != null) {
+			classScanner.dispose();
+			classScanner = null;
+		}
+	}
+
+	/**
+	 * The paths of the source files of a project relative to its folder and a fingerprint of their content
+	 */
+	protected static class Sources {
+		private final Set<String> paths;
+		private final String fingerprint;
+
+		public Sources(Set<String> paths, String fingerprint) {
+			this.paths = Collections.unmodifiableSet(new HashSet<>(paths));
+			this.fingerprint = fingerprint;
+		}
+
+		public Set<String> getPaths() {
+			return paths;
+		}
+
+		public String getFingerprint() {
+			return fingerprint;
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright (C) 2013 the original author or authors.
+ * See the notice.md file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.introspection.introspect.support;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds annotated methods by reading the class files with ASM rather than loading the classes,
+ * so scanning a whole class path does not define thousands of classes in the project class loader.
+ * <p/>
+ * Like {@link io.fabric8.forge.introspection.util.ReflectionHelper#hasMethodWithAnnotation(Class, Class, boolean)}
+ * only runtime visible annotations are considered, super classes are checked too and meta annotations are
+ * optionally matched one level deep.
+ */
+public class BytecodeAnnotationScanner {
+    private static final transient Logger LOG = LoggerFactory.getLogger(BytecodeAnnotationScanner.class);
+
+    private static final ClassMetadata MISSING = new ClassMetadata();
+
+    private final List<ClassLoader> classLoaders;
+    private final Map<String, ClassMetadata> cache = new ConcurrentHashMap<String, ClassMetadata>();
+
+    public BytecodeAnnotationScanner(List<ClassLoader> classLoaders) {
+        this.classLoaders = classLoaders;
+    }
+
+    /**
+     * Returns true if the class or one of its super classes has a method annotated with the given annotation
+     */
+    public boolean hasMethodWithAnnotation(String className, String annotationClassName, boolean checkMetaAnnotations) {
+        String annotationDescriptor = toDescriptor(annotationClassName);
+        Set<String> visited = new HashSet<String>();
+        String name = className;
+        while (name != null && visited.add(name)) {
+            ClassMetadata metadata = getMetadata(name);
+            if (metadata.hasMethodAnnotatedWith(annotationDescriptor)) {
+                return true;
+            }
+            if (checkMetaAnnotations) {
+                for (String methodAnnotation : metadata.methodAnnotations) {
+                    if (getMetadata(toClassName(methodAnnotation)).classAnnotations.contains(annotationDescriptor)) {
+                        return true;
+                    }
+                }
+            }
+            name = metadata.superClassName;
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the given class file has a method annotated with the given annotation
+     * (or with an annotation which is itself annotated with it), also checking the super classes on the class path
+     */
+    public boolean hasMethodWithAnnotation(File classFile, String annotationClassName, boolean checkMetaAnnotations) {
+        try {
+            ClassMetadata metadata = readMetadata(new FileInputStream(classFile));
+            cache.put(metadata.className, metadata);
+            return hasMethodWithAnnotation(metadata.className, annotationClassName, checkMetaAnnotations);
+        } catch (IOException | RuntimeException e) {
+            // ASM throws runtime exceptions for truncated class files or class file versions it does not support
+            LOG.debug("Failed to read class file " + classFile + ". Reason: " + e, e);
+            return false;
+        }
+    }
+
+    public void clearCache() {
+        cache.clear();
+    }
+
+    protected ClassMetadata getMetadata(String className) {
+        ClassMetadata answer = cache.get(className);
+        if (answer == null) {
+            answer = MISSING;
+            String resource = className.replace('.', '/') + ".class";
+            for (ClassLoader classLoader : classLoaders) {
+                InputStream is = classLoader.getResourceAsStream(resource);
+                if (is != null) {
+                    try {
+                        answer = readMetadata(is);
+                    } catch (IOException | RuntimeException e) {
+                        LOG.debug("Failed to read class " + className + ". Reason: " + e, e);
+                    }
+                    break;
+                }
+            }
+            cache.put(className, answer);
+        }
+        return answer;
+    }
+
+    protected static ClassMetadata readMetadata(InputStream is) throws IOException {
+        final ClassMetadata answer = new ClassMetadata();
+        try {
+            ClassReader reader = new ClassReader(is);
+            reader.accept(new ClassVisitor(Opcodes.ASM5) {
+                @Override
+                public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+                    answer.className = toClassName(name);
+                    if (superName != null && !"java/lang/Object".equals(superName)) {
+                        answer.superClassName = toClassName(superName);
+                    }
+                }
+
+                @Override
+                public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+                    if (visible) {
+                        answer.classAnnotations.add(desc);
+                    }
+                    return null;
+                }
+
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+                    return new MethodVisitor(Opcodes.ASM5) {
+                        @Override
+                        public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+                            if (visible) {
+                                answer.methodAnnotations.add(desc);
+                            }
+                            return null;
+                        }
+                    };
+                }
+            }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        } finally {
+            is.close();
+        }
+        return answer;
+    }
+
+    protected static String toDescriptor(String className) {
+        return "L" + className.replace('.', '/') + ";";
+    }
+
+    protected static String toClassName(String internalNameOrDescriptor) {
+        String name = internalNameOrDescriptor;
+        if (name.startsWith("L") && name.endsWith(";")) {
+            name = name.substring(1, name.length() - 1);
+        }
+        return name.replace('/', '.');
+    }
+
+    protected static class ClassMetadata {
+        private String className;
+        private String superClassName;
+        private final Set<String> classAnnotations = new HashSet<String>();
+        private final Set<String> methodAnnotations = new HashSet<String>();
+
+        boolean hasMethodAnnotatedWith(String annotationDescriptor) {
+            return methodAnnotations.contains(annotationDescriptor);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/**
+ * Copyright (C) 2013 the original author or authors.
+ * See the notice.md file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.introspection.introspect.support;
+
+import io.fabric8.forge.introspection.util.Strings;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * An immutable, sorted index of the class names in a single class path entry (a jar or a directory of classes).
+ * <p/>
+ * Searches walk the sorted array in order so they can stop as soon as <tt>limit</tt> matches have been found,
+ * and prefix searches use a binary search to jump straight to the first match.
+ */
+public class ClassNameIndex {
+    public static final ClassNameIndex EMPTY = new ClassNameIndex(new String[0]);
+
+    private final String[] classNames;
+
+    private ClassNameIndex(String[] sortedClassNames) {
+        this.classNames = sortedClassNames;
+    }
+
+    public static ClassNameIndex newInstance(Collection<String> classNames) {
+        TreeSet<String> sorted = new TreeSet<String>(classNames);
+        return new ClassNameIndex(sorted.toArray(new String[sorted.size()]));
+    }
+
+    /**
+     * Creates an index of all the classes in the given jar
+     */
+    public static ClassNameIndex forJar(File file) throws IOException {
+        TreeSet<String> names = new TreeSet<String>();
+        JarFile jarFile = new JarFile(file);
+        try {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                String entryName = entries.nextElement().getName();
+                String className = toClassName(entryName);
+                if (className != null) {
+                    names.add(className);
+                }
+            }
+        } finally {
+            jarFile.close();
+        }
+        return new ClassNameIndex(names.toArray(new String[names.size()]));
+    }
+
+    /**
+     * Creates an index of all the classes in the given directory, such as <tt>target/classes</tt>
+     */
+    public static ClassNameIndex forDirectory(File dir) {
+        TreeSet<String> names = new TreeSet<String>();
+        addDirectoryClassNames(dir, "", names);
+        return new ClassNameIndex(names.toArray(new String[names.size()]));
+    }
+
+    /**
+     * Creates an index of all the classes in the modules of the runtime image, which hold the JDK classes on
+     * Java 9 or later where there is no boot class path, or returns null if the JVM has no <tt>jrt:</tt> file system
+     */
+    public static ClassNameIndex forRuntimeImage() throws IOException {
+        FileSystem fileSystem;
+        try {
+            fileSystem = FileSystems.getFileSystem(URI.create("jrt:/"));
+        } catch (RuntimeException e) {
+            return null;
+        }
+        final TreeSet<String> names = new TreeSet<String>();
+        DirectoryStream<Path> modules = Files.newDirectoryStream(fileSystem.getPath("/modules"));
+        try {
+            for (final Path module : modules) {
+                Files.walkFileTree(module, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        String className = toClassName(module.relativize(file).toString());
+                        if (className != null) {
+                            names.add(className);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            }
+        } finally {
+            modules.close();
+        }
+        return new ClassNameIndex(names.toArray(new String[names.size()]));
+    }
+
+    /**
+     * Adds the class names which contain the search text to the answer, in sorted order,
+     * stopping after <tt>limit</tt> matches if the limit is greater than zero
+     *
+     * @return the number of matches added
+     */
+    public int addMatches(String search, int limit, Collection<String> answer) {
+        if (Strings.isBlank(search)) {
+            int end = limit > 0 ? Math.min(limit, classNames.length) : classNames.length;
+            answer.addAll(Arrays.asList(classNames).subList(0, end));
+            return end;
+        }
+        int count = 0;
+        for (String className : classNames) {
+            if (className.contains(search)) {
+                answer.add(className);
+                if (++count == limit) {
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds the class names which start with the given prefix to the answer, in sorted order,
+     * stopping after <tt>limit</tt> matches if the limit is greater than zero
+     *
+     * @return the number of matches added
+     */
+    public int addPrefixMatches(String prefix, int limit, Collection<String> answer) {
+        int idx = Arrays.binarySearch(classNames, prefix);
+        if (idx < 0) {
+            idx = -idx - 1;
+        }
+        int count = 0;
+        for (int i = idx; i < classNames.length && classNames[i].startsWith(prefix); i++) {
+            answer.add(classNames[i]);
+            if (++count == limit) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    public boolean contains(String className) {
+        return Arrays.binarySearch(classNames, className) >= 0;
+    }
+
+    public int size() {
+        return classNames.length;
+    }
+
+    /**
+     * Returns the class names in sorted order
+     */
+    public String[] getClassNames() {
+        return classNames.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "ClassNameIndex(" + classNames.length + " classes)";
+    }
+
+    /**
+     * Returns the class name for the given jar entry or file name relative to the class path root,
+     * or null if its not a class we want to index
+     */
+    protected static String toClassName(String entryName) {
+        if (!entryName.endsWith(".class") || entryName.endsWith("package-info.class") || entryName.endsWith("module-info.class")
+                || entryName.startsWith("META-INF/")) {
+            return null;
+        }
+        return entryName.substring(0, entryName.length() - 6).replace('/', '.').replace('\\', '.');
+    }
+
+    private static void addDirectoryClassNames(File directory, String packagePrefix, Collection<String> classNames) {
+        String[] fileNames = directory.list();
+        if (fileNames != null) {
+            for (String fileName : fileNames) {
+                File file = new File(directory, fileName);
+                if (file.isDirectory()) {
+                    addDirectoryClassNames(file, packagePrefix + fileName + ".", classNames);
+                } else {
+                    String className = toClassName(fileName);
+                    if (className != null) {
+                        classNames.add(packagePrefix + className);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * Copyright (C) 2013 the original author or authors.
+ * See the notice.md file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.introspection.introspect.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores the {@link ClassNameIndex} of each jar on disk keyed by the SHA-1 checksum of the jar, so the same
+ * jar is only ever indexed once no matter which project or process uses it.
+ * <p/>
+ * The checksum of a jar is only recalculated when its size or modification time changes.
+ */
+public class ClassNameIndexStore {
+    private static final transient Logger LOG = LoggerFactory.getLogger(ClassNameIndexStore.class);
+
+    public static final String ENV_CLASS_INDEX_DIR = "FABRIC8_FORGE_CLASS_INDEX_DIR";
+
+    private static final ClassNameIndexStore INSTANCE = new ClassNameIndexStore(defaultDirectory());
+
+    private final File directory;
+    private final Map<String, JarIndex> jarIndexes = new ConcurrentHashMap<String, JarIndex>();
+
+    public ClassNameIndexStore(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the shared store
+     */
+    public static ClassNameIndexStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the index of the given jar, loading it from disk or creating it if required
+     */
+    public ClassNameIndex getIndex(File jar) {
+        String key = jar.getAbsolutePath();
+        long size = jar.length();
+        long lastModified = jar.lastModified();
+        JarIndex jarIndex = jarIndexes.get(key);
+        if (jarIndex != null && jarIndex.size == size && jarIndex.lastModified == lastModified) {
+            return jarIndex.index;
+        }
+        ClassNameIndex index;
+        try {
+            index = loadOrCreateIndex(jar);
+        } catch (IOException e) {
+            LOG.debug("Failed to index jar " + jar + ". Reason: " + e, e);
+            index = ClassNameIndex.EMPTY;
+        }
+        jarIndexes.put(key, new JarIndex(size, lastModified, index));
+        return index;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    protected ClassNameIndex loadOrCreateIndex(File jar) throws IOException {
+        String checksum = checksum(jar);
+        File file = new File(directory, checksum + ".idx");
+        if (file.isFile()) {
+            try {
+                return readIndex(file);
+            } catch (IOException e) {
+                LOG.warn("Failed to read class name index " + file + " so recreating it. Reason: " + e, e);
+            }
+        }
+        ClassNameIndex index = ClassNameIndex.forJar(jar);
+        try {
+            writeIndex(file, index);
+        } catch (IOException e) {
+            LOG.warn("Failed to write class name index " + file + ". Reason: " + e, e);
+        }
+        return index;
+    }
+
+    protected static ClassNameIndex readIndex(File file) throws IOException {
+        List<String> classNames = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.length() > 0) {
+                    classNames.add(line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return ClassNameIndex.newInstance(classNames);
+    }
+
+    protected static void writeIndex(File file, ClassNameIndex index) throws IOException {
+        file.getParentFile().mkdirs();
+        // write to a temporary file first so concurrent readers never see a partial index
+        File tmp = new File(file.getParentFile(), file.getName() + "." + System.nanoTime() + ".tmp");
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), "UTF-8"));
+        try {
+            for (String className : index.getClassNames()) {
+                writer.write(className);
+                writer.newLine();
+            }
+        } finally {
+            writer.close();
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+        }
+    }
+
+    protected static String checksum(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        InputStream is = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = is.read(buffer)) != -1) {
+                digest.update(buffer, 0, n);
+            }
+        } finally {
+            is.close();
+        }
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static File defaultDirectory() {
+        String dir = System.getenv(ENV_CLASS_INDEX_DIR);
+        if (dir != null && dir.trim().length() > 0) {
+            return new File(dir);
+        }
+        return new File(System.getProperty("user.home"), ".fabric8/forge/class-index");
+    }
+
+    private static class JarIndex {
+        private final long size;
+        private final long lastModified;
+        private final ClassNameIndex index;
+
+        JarIndex(long size, long lastModified, ClassNameIndex index) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.index = index;
+        }
+    }
+}
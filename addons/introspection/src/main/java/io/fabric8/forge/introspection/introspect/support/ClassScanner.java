@@ -18,7 +18,6 @@
 package io.fabric8.forge.introspection.introspect.support;
 
 import io.fabric8.forge.introspection.util.Predicate;
-import io.fabric8.forge.introspection.util.ReflectionHelper;
 import io.fabric8.forge.introspection.util.Strings;
 import io.fabric8.forge.introspection.introspect.ClassLoaderProvider;
 import org.jboss.forge.addon.parser.java.facets.JavaSourceFacet;
@@ -32,9 +31,10 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
-import java.lang.annotation.Annotation;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -48,12 +48,19 @@ public class ClassScanner {
     // lets skip some classes which can cause ugly WARN logging when doing package scanning
     private static final String[] SKIP_CLASSES = new String[]{"org.apache.log4j.net.ZeroConfSupport"};
 
+    private static ClassNameIndex runtimeImageIndex;
+    private static boolean runtimeImageIndexed;
+
     private final ClassLoader[] classLoaders;
 
     private WeakHashMap<String, CacheValue> cache = new WeakHashMap<String, CacheValue>();
     private WeakHashMap<Package, CacheValue> packageCache = new WeakHashMap<Package, CacheValue>();
     private Map<String,ClassLoaderProvider> classLoaderProviderMap = new HashMap<String, ClassLoaderProvider>();
     private Set<String> ignorePackages = new HashSet<String>(Arrays.asList("sun.reflect.misc"));
+    private ClassNameIndexStore indexStore = ClassNameIndexStore.getInstance();
+    private Map<File, ClassNameIndex> directoryIndexes = new HashMap<File, ClassNameIndex>();
+    private SortedSet<String> sourceClassNames;
+    private BytecodeAnnotationScanner annotationScanner;
 		private Project project;
 
 	public static ClassScanner newInstance(Project project) {
@@ -75,6 +82,9 @@ public class ClassScanner {
         cache.clear();
         packageCache.clear();
         classLoaderProviderMap.clear();
+        directoryIndexes.clear();
+        sourceClassNames = null;
+        annotationScanner = null;
     }
 
     /**
@@ -93,38 +103,84 @@ public class ClassScanner {
      *
      * @return all the class names found on the current classpath using the given text search filter
      */
-    public SortedSet<String> findClassNames(String search, Integer limit) {
-        Map<Package, ClassLoader[]> packageMap = Packages.getPackageMap(getClassLoaders(), ignorePackages);
-        return findClassNamesInPackages(search, limit, packageMap);
+    public SortedSet<String> findClassNames(final String search, Integer limit) {
+        int max = limit != null ? limit.intValue() : 0;
+        SortedSet<String> answer = new TreeSet<String>();
+        // each index returns its first matches in sorted order so the first limit of the merged set are correct
+        for (ClassNameIndex index : getClassNameIndexes()) {
+            index.addMatches(search, max, answer);
+        }
+        for (String className : getSourceClassNames()) {
+            if (classNameMatches(className, search)) {
+                answer.add(className);
+            }
+        }
+        Map<Package, ClassLoader[]> packageMap = getUnindexedPackageMap();
+        if (!packageMap.isEmpty()) {
+            answer.addAll(findClassNamesInPackages(search, limit, packageMap));
+        }
+        return truncate(answer, max);
+    }
+
+    /**
+     * Searches for the available class names which start with the given prefix
+     */
+    public SortedSet<String> findClassNamesWithPrefix(final String prefix, Integer limit) {
+        int max = limit != null ? limit.intValue() : 0;
+        SortedSet<String> answer = new TreeSet<String>();
+        for (ClassNameIndex index : getClassNameIndexes()) {
+            index.addPrefixMatches(prefix, max, answer);
+        }
+        for (String className : getSourceClassNames().tailSet(prefix)) {
+            if (!className.startsWith(prefix)) {
+                break;
+            }
+            answer.add(className);
+        }
+        Map<Package, ClassLoader[]> packageMap = getUnindexedPackageMap();
+        if (!packageMap.isEmpty()) {
+            answer.addAll(findClassNames(packageMap, new Predicate<String>() {
+                @Override
+                public boolean evaluate(String className) {
+                    return className.startsWith(prefix);
+                }
+            }, limit));
+        }
+        return truncate(answer, max);
     }
 
     public SortedSet<String> findClassNamesMethodsAnnotatedWith(String annotationClassName) {
-        Map<Package, ClassLoader[]> packageMap = Packages.getPackageMap(getClassLoaders(), ignorePackages);
-        return findClassNamesMethodsAnnotatedWith(annotationClassName, null, packageMap);
+        SortedSet<String> classNames = findClassNames("", null);
+        SortedSet<String> answer = new TreeSet<String>();
+        BytecodeAnnotationScanner scanner = getAnnotationScanner();
+        for (String className : classNames) {
+            if (scanner.hasMethodWithAnnotation(className, annotationClassName, true)) {
+                answer.add(className);
+            }
+        }
+        return answer;
     }
 
     public SortedSet<String> findClassNamesInDirectoryWithMethodAnnotatedWith(File dir, String annotationClassName) {
         SortedSet<String> answer = new TreeSet<String>();
-        final Class<? extends Annotation> annotationClass = optionallyFindAnnotationClass(annotationClassName);
-        if (annotationClass != null && dir.exists()) {
-            addClassNamesInDirectoryWithMethodsAnnotatedWith(answer, dir, annotationClass, "");
+        if (dir.exists()) {
+            addClassNamesInDirectoryWithMethodsAnnotatedWith(answer, dir, annotationClassName, "");
         }
         return answer;
     }
 
     protected void addClassNamesInDirectoryWithMethodsAnnotatedWith(SortedSet<String> answer, File dir,
-                                                                    Class<? extends Annotation> annotationClass, String packageName) {
+                                                                    String annotationClassName, String packageName) {
         File[] files = dir.listFiles();
         if (files != null) {
             for (File file : files) {
                 if (file.isDirectory()) {
-                    addClassNamesInDirectoryWithMethodsAnnotatedWith(answer, file, annotationClass, packageName + file.getName() + ".");
+                    addClassNamesInDirectoryWithMethodsAnnotatedWith(answer, file, annotationClassName, packageName + file.getName() + ".");
                 } else if (file.isFile()) {
                     String name = file.getName();
                     if (name.endsWith(".class")) {
                         String className = packageName + (name.substring(0, name.length() - 6).replace('$', '.'));
-                        Class<?> aClass = optionallyFindClass(className);
-                        if (aClass != null && ReflectionHelper.hasMethodWithAnnotation(aClass, annotationClass, true)) {
+                        if (getAnnotationScanner().hasMethodWithAnnotation(file, annotationClassName, true)) {
                             answer.add(className);
                         }
                     }
@@ -134,30 +190,15 @@ public class ClassScanner {
     }
 
 
-    protected Class<? extends Annotation> optionallyFindAnnotationClass(String annotationClassName) {
-        final Class<? extends Annotation> annotationClass = optionallyFindClass(annotationClassName).asSubclass(Annotation.class);
-        if (annotationClass != null && Annotation.class.isAssignableFrom(annotationClass)) {
-            return annotationClass;
-        }
-        return null;
-    }
-
-    public SortedSet<String> findClassNamesMethodsAnnotatedWith(String annotationClassName, Integer limit, Map<Package, ClassLoader[]> packages) {
-        final Class<? extends Annotation> annotationClass = optionallyFindAnnotationClass(annotationClassName);
-        if (annotationClass != null) {
-            Predicate<String> filter = new Predicate<String>() {
-                @Override
-                public boolean evaluate(String className) {
-                    Class<?> aClass = optionallyFindClass(className);
-                    if (aClass != null) {
-                        return ReflectionHelper.hasMethodWithAnnotation(aClass, annotationClass, true);
-                    }
-                    return false;
-                }
-            };
-            return findClassNames(packages, filter, limit);
-        }
-        return new TreeSet<String>();
+    public SortedSet<String> findClassNamesMethodsAnnotatedWith(final String annotationClassName, Integer limit, Map<Package, ClassLoader[]> packages) {
+        final BytecodeAnnotationScanner scanner = getAnnotationScanner();
+        Predicate<String> filter = new Predicate<String>() {
+            @Override
+            public boolean evaluate(String className) {
+                return scanner.hasMethodWithAnnotation(className, annotationClassName, true);
+            }
+        };
+        return findClassNames(packages, filter, limit);
     }
 
 
@@ -173,7 +214,7 @@ public class ClassScanner {
 
     protected SortedSet<String> findClassNames(Map<Package, ClassLoader[]> packages, Predicate<String> filter, Integer limit) {
         SortedSet<String> answer = new TreeSet<String>();
-        SortedSet<String> classes = new TreeSet<String>();
+        final SortedSet<String> classes = new TreeSet<String>();
 
         Set<Map.Entry<Package, ClassLoader[]>> entries = packages.entrySet();
         for (Map.Entry<Package, ClassLoader[]> entry : entries) {
@@ -186,15 +227,7 @@ public class ClassScanner {
             }
             classes.addAll(cacheValue.getClassNames());
         }
-	      if (this.project != null) {
-		      JavaSourceFacet sourceFacet = project.getFacet(JavaSourceFacet.class);
-		      sourceFacet.visitJavaSources(new JavaResourceVisitor() {
-			      @Override
-			      public void visit(VisitContext visitContext, JavaResource javaResource) {
-				      classes.add(javaResource.getFullyQualifiedTypeName());
-			      }
-		      });
-	      }
+        classes.addAll(getSourceClassNames());
 /*
         for (Map.Entry<String, ClassResource> entry : entries) {
             String key = entry.getKey();
@@ -311,6 +344,151 @@ public class ClassScanner {
 
     // Implementation methods
     //-------------------------------------------------------------------------
+
+    /**
+     * Returns the class name indexes of the jars and directories on the class path of the class loaders,
+     * their parent <tt>URLClassLoader</tt>s and the boot class path
+     */
+    protected List<ClassNameIndex> getClassNameIndexes() {
+        List<ClassNameIndex> answer = new ArrayList<ClassNameIndex>();
+        Set<File> files = new LinkedHashSet<File>();
+        String bootClassPath = System.getProperty("sun.boot.class.path");
+        if (Strings.isNotBlank(bootClassPath)) {
+            for (String path : bootClassPath.split(File.pathSeparator)) {
+                files.add(new File(path));
+            }
+        } else {
+            ClassNameIndex runtimeIndex = getRuntimeImageIndex();
+            if (runtimeIndex != null) {
+                answer.add(runtimeIndex);
+            }
+        }
+        for (ClassLoader classLoader : getClassLoaders()) {
+            for (ClassLoader loader = classLoader; loader instanceof URLClassLoader; loader = loader.getParent()) {
+                for (URL url : ((URLClassLoader) loader).getURLs()) {
+                    File file = toFile(url);
+                    if (file != null) {
+                        files.add(file);
+                    }
+                }
+            }
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                ClassNameIndex index = directoryIndexes.get(file);
+                if (index == null) {
+                    index = ClassNameIndex.forDirectory(file);
+                    directoryIndexes.put(file, index);
+                }
+                answer.add(index);
+            } else if (file.isFile()) {
+                answer.add(indexStore.getIndex(file));
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the packages of the class loaders which cannot be indexed by their class path, such as the
+     * JBoss Modules class loaders of Furnace, the first class loader which is not a <tt>URLClassLoader</tt> in the
+     * parent chain of a class loader, or the boot class loader if the JVM exposes neither the boot class path
+     * nor a runtime image
+     */
+    protected Map<Package, ClassLoader[]> getUnindexedPackageMap() {
+        List<ClassLoader> unindexed = new ArrayList<ClassLoader>();
+        boolean bootIndexed = Strings.isNotBlank(System.getProperty("sun.boot.class.path")) || getRuntimeImageIndex() != null;
+        for (ClassLoader classLoader : getClassLoaders()) {
+            ClassLoader loader = classLoader;
+            while (loader instanceof URLClassLoader) {
+                loader = loader.getParent();
+            }
+            if (loader != null) {
+                if (!unindexed.contains(loader)) {
+                    unindexed.add(loader);
+                }
+            } else if (!bootIndexed && !unindexed.contains(classLoader)) {
+                unindexed.add(classLoader);
+            }
+        }
+        if (unindexed.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return Packages.getPackageMap(unindexed, ignorePackages);
+    }
+
+    /**
+     * Returns the index of the JDK classes in the runtime image on Java 9 or later, or null if there is none.
+     * The image does not change while the JVM runs so it is only indexed once
+     */
+    protected static synchronized ClassNameIndex getRuntimeImageIndex() {
+        if (!runtimeImageIndexed) {
+            runtimeImageIndexed = true;
+            try {
+                runtimeImageIndex = ClassNameIndex.forRuntimeImage();
+            } catch (IOException e) {
+                LOG.warn("Failed to index the runtime image. Reason: " + e, e);
+            }
+        }
+        return runtimeImageIndex;
+    }
+
+    /**
+     * Returns the local file of the given class path url, or null if its not a file url
+     */
+    protected static File toFile(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            // decodes escaped characters such as spaces
+            return Paths.get(url.toURI()).toFile();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            LOG.debug("Cannot convert " + url + " to a file. Reason: " + e, e);
+            return new File(url.getPath());
+        }
+    }
+
+    /**
+     * Returns the class names of the java sources in the project, if any
+     */
+    protected SortedSet<String> getSourceClassNames() {
+        if (sourceClassNames == null) {
+            final SortedSet<String> classNames = new TreeSet<String>();
+            if (this.project != null) {
+                JavaSourceFacet sourceFacet = project.getFacet(JavaSourceFacet.class);
+                sourceFacet.visitJavaSources(new JavaResourceVisitor() {
+                    @Override
+                    public void visit(VisitContext visitContext, JavaResource javaResource) {
+                        classNames.add(javaResource.getFullyQualifiedTypeName());
+                    }
+                });
+            }
+            sourceClassNames = classNames;
+        }
+        return sourceClassNames;
+    }
+
+    protected BytecodeAnnotationScanner getAnnotationScanner() {
+        if (annotationScanner == null) {
+            annotationScanner = new BytecodeAnnotationScanner(getClassLoaders());
+        }
+        return annotationScanner;
+    }
+
+    protected static SortedSet<String> truncate(SortedSet<String> classNames, int limit) {
+        if (limit <= 0 || classNames.size() <= limit) {
+            return classNames;
+        }
+        SortedSet<String> answer = new TreeSet<String>();
+        for (String className : classNames) {
+            answer.add(className);
+            if (answer.size() >= limit) {
+                break;
+            }
+        }
+        return answer;
+    }
+
     protected void addPackageResources(Package aPackage, Map<String, ClassResource> urlSet, ClassLoader[] classLoaders) {
         String packageName = aPackage.getName();
         String relativePath = getPackageRelativePath(packageName);
@@ -353,7 +531,12 @@ public class ClassScanner {
             if (resourceText.startsWith("jar:")) {
                 processJarClassNames(classResource, classNames);
             } else {
-                processDirectoryClassNames(new File(resource.getPath()), packageName, classNames);
+                File directory = toFile(resource);
+                if (directory != null) {
+                    processDirectoryClassNames(directory, packageName, classNames);
+                } else {
+                    LOG.debug("Ignoring resource " + resource + " as it is neither a jar nor a directory");
+                }
             }
         }
         return answer;
@@ -416,7 +599,12 @@ public class ClassScanner {
             if (resourceText.startsWith("jar:")) {
                 processJar(classResource, classes, filter, limit);
             } else {
-                processDirectory(new File(resource.getPath()), packageName, classes, filter, limit);
+                File directory = toFile(resource);
+                if (directory != null) {
+                    processDirectory(directory, packageName, classes, filter, limit);
+                } else {
+                    LOG.debug("Ignoring resource " + resource + " as it is neither a jar nor a directory");
+                }
             }
         }
     }
@@ -580,4 +768,8 @@ public class ClassScanner {
 	public void setProject(Project project) {
 		this.project = project;
 	}
+
+	public void setIndexStore(ClassNameIndexStore indexStore) {
+		this.indexStore = indexStore;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.introspection.introspect;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.fabric8.forge.introspection.dto.PropertyDTO;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ProjectIntrospectorTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File basedir;
+	private StubIntrospector introspector;
+
+	@Before
+	public void setUp() throws Exception {
+		basedir = folder.getRoot();
+		write("pom.xml", "<project/>");
+		write("src/main/java/foo/Cheese.java", "package foo; public class Cheese {}");
+		write("src/main/java/foo/Wine.java", "package foo; public class Wine {}");
+		introspector = new StubIntrospector();
+	}
+
+	@Test
+	public void testCompilesOnlyWhenSourcesChange() throws Exception {
+		assertCompile("clean", "compile");
+		assertCompile();
+
+		File cheese = write("src/main/java/foo/Cheese.java", "package foo; public class Cheese { int age; }");
+		Assert.assertTrue(cheese.setLastModified(cheese.lastModified() + 2000));
+		assertCompile("compile");
+		assertCompile();
+
+		write("src/main/java/foo/Beer.java", "package foo; public class Beer {}");
+		assertCompile("compile");
+		assertCompile();
+	}
+
+	@Test
+	public void testCleansWhenSourcesAreRemoved() throws Exception {
+		assertCompile("clean", "compile");
+
+		Assert.assertTrue(new File(basedir, "src/main/java/foo/Wine.java").delete());
+		assertCompile("clean", "compile");
+		assertCompile();
+	}
+
+	@Test
+	public void testCompilesWhenClassesAreRemoved() throws Exception {
+		assertCompile("clean", "compile");
+
+		// like an external mvn clean
+		Assert.assertTrue(new File(basedir, "target/classes").delete());
+		assertCompile("compile");
+		assertCompile();
+	}
+
+	@Test
+	public void testChangesDoNotCancelOut() throws Exception {
+		File cheese = new File(basedir, "src/main/java/foo/Cheese.java");
+		File wine = new File(basedir, "src/main/java/foo/Wine.java");
+		long time = 1000000000000L;
+		Assert.assertTrue(cheese.setLastModified(time));
+		Assert.assertTrue(wine.setLastModified(time + 5000));
+		String fingerprint = ProjectIntrospector.scanSources(basedir).getFingerprint();
+
+		Assert.assertTrue(cheese.setLastModified(time + 1000));
+		Assert.assertTrue(wine.setLastModified(time + 4000));
+		Assert.assertNotEquals(fingerprint, ProjectIntrospector.scanSources(basedir).getFingerprint());
+	}
+
+	@Test
+	public void testInvalidateCleansAgain() throws Exception {
+		assertCompile("clean", "compile");
+		introspector.invalidate();
+		assertCompile("clean", "compile");
+	}
+
+	@Test
+	public void testPropertiesAreCachedPerClass() throws Exception {
+		ClassLoader classLoader = getClass().getClassLoader();
+		List<PropertyDTO> properties = introspector.getProperties(classLoader, PropertyDTO.class.getName());
+		Assert.assertFalse(properties.isEmpty());
+		Assert.assertSame(properties, introspector.getProperties(classLoader, PropertyDTO.class.getName()));
+	}
+
+	private void assertCompile(String... goals) throws Exception {
+		introspector.goals.clear();
+		Assert.assertEquals(goals.length > 0, introspector.compileIfRequired(new PrintStream(System.out)));
+		Assert.assertEquals(Arrays.asList(goals), introspector.goals);
+	}
+
+	private File write(String path, String content) throws Exception {
+		File file = new File(basedir, path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes("UTF-8"));
+		return file;
+	}
+
+	/**
+	 * Records the goals instead of running maven
+	 */
+	private class StubIntrospector extends ProjectIntrospector {
+		private final List<String> goals = new ArrayList<>();
+
+		public StubIntrospector() {
+			super(null);
+		}
+
+		@Override
+		protected void build(PrintStream out, String... goals) {
+			this.goals.addAll(Arrays.asList(goals));
+			new File(basedir, "target/classes").mkdirs();
+		}
+
+		@Override
+		protected File getBasedir() {
+			return basedir;
+		}
+	}
+}
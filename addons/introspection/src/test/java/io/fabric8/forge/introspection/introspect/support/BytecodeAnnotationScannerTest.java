@@ -0,0 +1,137 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.introspection.introspect.support;
+
+import java.io.File;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BytecodeAnnotationScannerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final BytecodeAnnotationScanner scanner = new BytecodeAnnotationScanner(Collections.singletonList(getClass().getClassLoader()));
+
+	@Test
+	public void testFindsAnnotatedMethods() throws Exception {
+		Assert.assertTrue(hasMethodWithAnnotation(Annotated.class, Marker.class, false));
+		Assert.assertFalse(hasMethodWithAnnotation(Plain.class, Marker.class, false));
+		Assert.assertFalse(hasMethodWithAnnotation(Annotated.class, Deprecated.class, true));
+	}
+
+	@Test
+	public void testChecksSuperClasses() throws Exception {
+		Assert.assertTrue(hasMethodWithAnnotation(SubClass.class, Marker.class, false));
+	}
+
+	@Test
+	public void testChecksMetaAnnotationsOnlyWhenAsked() throws Exception {
+		Assert.assertTrue(hasMethodWithAnnotation(MetaAnnotated.class, Marker.class, true));
+		Assert.assertFalse(hasMethodWithAnnotation(MetaAnnotated.class, Marker.class, false));
+	}
+
+	@Test
+	public void testIgnoresAnnotationsWhichAreNotRuntimeVisible() throws Exception {
+		Assert.assertFalse(hasMethodWithAnnotation(Invisible.class, ClassRetained.class, true));
+	}
+
+	@Test
+	public void testReadsClassFiles() throws Exception {
+		File classFile = Paths.get(getClass().getResource(getClass().getSimpleName() + "$" + SubClass.class.getSimpleName() + ".class").toURI()).toFile();
+		Assert.assertTrue(scanner.hasMethodWithAnnotation(classFile, Marker.class.getName(), false));
+		Assert.assertFalse(scanner.hasMethodWithAnnotation(new File(classFile.getParentFile(), "NoSuchClass.class"), Marker.class.getName(), false));
+	}
+
+	@Test
+	public void testMissingClassesHaveNoAnnotatedMethods() throws Exception {
+		Assert.assertFalse(scanner.hasMethodWithAnnotation("org.foo.NoSuchClass", Marker.class.getName(), true));
+	}
+
+	@Test
+	public void testUnreadableClassesHaveNoAnnotatedMethods() throws Exception {
+		File classFile = Paths.get(getClass().getResource(getClass().getSimpleName() + "$" + Annotated.class.getSimpleName() + ".class").toURI()).toFile();
+		byte[] data = Files.readAllBytes(classFile.toPath());
+
+		// a class file version which ASM 5 does not support
+		byte[] newer = data.clone();
+		newer[7] = 61;
+		File newerFile = folder.newFile("Newer.class");
+		Files.write(newerFile.toPath(), newer);
+		Assert.assertFalse(scanner.hasMethodWithAnnotation(newerFile, Marker.class.getName(), false));
+
+		File classes = folder.newFolder("classes");
+		Files.write(new File(classes, "Truncated.class").toPath(), Arrays.copyOf(data, data.length / 2));
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toURI().toURL()}, null)) {
+			BytecodeAnnotationScanner classPathScanner = new BytecodeAnnotationScanner(Collections.<ClassLoader>singletonList(classLoader));
+			Assert.assertFalse(classPathScanner.hasMethodWithAnnotation("Truncated", Marker.class.getName(), true));
+		}
+	}
+
+	private boolean hasMethodWithAnnotation(Class<?> clazz, Class<?> annotation, boolean checkMetaAnnotations) {
+		return scanner.hasMethodWithAnnotation(clazz.getName(), annotation.getName(), checkMetaAnnotations);
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	public @interface Marker {
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Marker
+	public @interface MetaMarker {
+	}
+
+	@Retention(RetentionPolicy.CLASS)
+	public @interface ClassRetained {
+	}
+
+	public static class Annotated {
+		@Marker
+		public void run() {
+		}
+	}
+
+	public static class SubClass extends Annotated {
+	}
+
+	public static class MetaAnnotated {
+		@MetaMarker
+		public void run() {
+		}
+	}
+
+	public static class Invisible {
+		@ClassRetained
+		public void run() {
+		}
+	}
+
+	public static class Plain {
+		public void run() {
+		}
+	}
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.introspection.introspect.support;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClassNameIndexTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testSearchesInSortedOrderUpToTheLimit() throws Exception {
+		ClassNameIndex index = ClassNameIndex.newInstance(Arrays.asList("org.foo.Wine", "org.foo.Cheese", "com.foo.Cheese", "org.bar.Beer"));
+		Assert.assertEquals(4, index.size());
+		Assert.assertEquals(Arrays.asList("com.foo.Cheese", "org.bar.Beer", "org.foo.Cheese", "org.foo.Wine"), Arrays.asList(index.getClassNames()));
+
+		Assert.assertEquals(Arrays.asList("com.foo.Cheese", "org.foo.Cheese"), matches(index, "Cheese", 0));
+		Assert.assertEquals(Arrays.asList("com.foo.Cheese"), matches(index, "Cheese", 1));
+		Assert.assertEquals(Arrays.asList("com.foo.Cheese", "org.bar.Beer"), matches(index, "", 2));
+		Assert.assertEquals(Arrays.asList(), matches(index, "Bread", 0));
+
+		List<String> answer = new ArrayList<>();
+		Assert.assertEquals(2, index.addPrefixMatches("org.foo.", 0, answer));
+		Assert.assertEquals(Arrays.asList("org.foo.Cheese", "org.foo.Wine"), answer);
+		answer.clear();
+		index.addPrefixMatches("org.", 2, answer);
+		Assert.assertEquals(Arrays.asList("org.bar.Beer", "org.foo.Cheese"), answer);
+
+		Assert.assertTrue(index.contains("org.bar.Beer"));
+		Assert.assertFalse(index.contains("org.bar"));
+	}
+
+	@Test
+	public void testIndexesJarsAndDirectories() throws Exception {
+		File jar = createJar(folder.newFile("foo.jar"), "org/foo/Cheese.class", "org/foo/Cheese$Slice.class",
+				"org/foo/package-info.class", "META-INF/versions/9/org/foo/Cheese.class", "org/foo/cheese.properties");
+		Assert.assertEquals(Arrays.asList("org.foo.Cheese", "org.foo.Cheese$Slice"), Arrays.asList(ClassNameIndex.forJar(jar).getClassNames()));
+
+		File dir = folder.newFolder("classes");
+		new File(dir, "org/foo").mkdirs();
+		Assert.assertTrue(new File(dir, "org/foo/Wine.class").createNewFile());
+		Assert.assertTrue(new File(dir, "org/foo/wine.xml").createNewFile());
+		Assert.assertEquals(Arrays.asList("org.foo.Wine"), Arrays.asList(ClassNameIndex.forDirectory(dir).getClassNames()));
+	}
+
+	@Test
+	public void testStoreKeepsIndexesOnDiskByChecksum() throws Exception {
+		File dir = folder.newFolder("index");
+		File jar = createJar(folder.newFile("foo.jar"), "org/foo/Cheese.class");
+		ClassNameIndexStore store = new ClassNameIndexStore(dir);
+		ClassNameIndex index = store.getIndex(jar);
+		Assert.assertEquals(Arrays.asList("org.foo.Cheese"), Arrays.asList(index.getClassNames()));
+		Assert.assertSame(index, store.getIndex(jar));
+
+		File file = new File(dir, ClassNameIndexStore.checksum(jar) + ".idx");
+		Assert.assertEquals(Arrays.asList("org.foo.Cheese"), Files.readAllLines(file.toPath()));
+
+		// another store, like another process, reads the index from disk rather than the jar
+		Files.write(file.toPath(), Arrays.asList("org.foo.Cheese", "org.foo.Stored"));
+		Assert.assertTrue(new ClassNameIndexStore(dir).getIndex(jar).contains("org.foo.Stored"));
+
+		// a changed jar is indexed again
+		createJar(jar, "org/foo/Wine.class", "org/foo/Beer.class");
+		Assert.assertTrue(jar.setLastModified(jar.lastModified() + 2000));
+		Assert.assertEquals(Arrays.asList("org.foo.Beer", "org.foo.Wine"), Arrays.asList(store.getIndex(jar).getClassNames()));
+	}
+
+	@Test
+	public void testStoreReturnsEmptyIndexForInvalidJar() throws Exception {
+		File jar = folder.newFile("broken.jar");
+		Files.write(jar.toPath(), "not a jar".getBytes("UTF-8"));
+		Assert.assertSame(ClassNameIndex.EMPTY, new ClassNameIndexStore(folder.newFolder("index")).getIndex(jar));
+	}
+
+	private static List<String> matches(ClassNameIndex index, String search, int limit) {
+		List<String> answer = new ArrayList<>();
+		Assert.assertEquals(index.addMatches(search, limit, answer), answer.size());
+		return answer;
+	}
+
+	private static File createJar(File file, String... entryNames) throws Exception {
+		try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(file))) {
+			for (String entryName : entryNames) {
+				jos.putNextEntry(new JarEntry(entryName));
+				jos.write(new byte[]{1});
+				jos.closeEntry();
+			}
+		}
+		return file;
+	}
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.introspection.introspect.support;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SortedSet;
+
+import io.fabric8.forge.introspection.introspect.support.fixture.ScannedFixture;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClassScannerTest {
+
+	private static final String FIXTURE = ScannedFixture.class.getName();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private URLClassLoader classLoader;
+	private ClassNameIndexStore indexStore;
+
+	@Before
+	public void setUp() throws Exception {
+		// a class path folder with a space in its name
+		File classes = new File(folder.getRoot(), "with space/classes");
+		File classFile = new File(classes, FIXTURE.replace('.', '/') + ".class");
+		classFile.getParentFile().mkdirs();
+		try (InputStream is = getClass().getResourceAsStream("/" + FIXTURE.replace('.', '/') + ".class")) {
+			Files.copy(is, classFile.toPath());
+		}
+		URL url = classes.toURI().toURL();
+		Assert.assertTrue(url.toString().contains("%20"));
+		classLoader = new URLClassLoader(new URL[]{url}, null);
+		indexStore = new ClassNameIndexStore(folder.newFolder("index"));
+	}
+
+	@Test
+	public void testIndexesEscapedClassPathUrls() throws Exception {
+		ClassScanner scanner = createScanner(classLoader);
+		Assert.assertTrue(scanner.findClassNames("ScannedFixture", 0).contains(FIXTURE));
+		Assert.assertTrue(scanner.findClassNamesWithPrefix(FIXTURE, 0).contains(FIXTURE));
+	}
+
+	@Test
+	public void testFindsBootClasses() throws Exception {
+		ClassScanner scanner = createScanner(classLoader);
+		SortedSet<String> answer = scanner.findClassNames("java.lang.StringBuilder", 0);
+		Assert.assertTrue(answer.toString(), answer.contains("java.lang.StringBuilder"));
+	}
+
+	@Test
+	public void testFallsBackToPackagesOfOtherClassLoaders() throws Exception {
+		// like the JBoss Modules class loaders of Furnace which do not expose their class path
+		ClassLoader moduleClassLoader = new ClassLoader(classLoader) {
+		};
+		// the packages are only known once a class has been loaded
+		Assert.assertSame(classLoader, moduleClassLoader.loadClass(FIXTURE).getClassLoader());
+		ClassScanner scanner = createScanner(moduleClassLoader);
+		Assert.assertTrue(scanner.findClassNames("ScannedFixture", 0).contains(FIXTURE));
+	}
+
+	@Test
+	public void testIgnoresResourcesWhichAreNotFiles() throws Exception {
+		ClassScanner scanner = createScanner(classLoader);
+		ClassResource resource = new ClassResource("java.lang", new URL("http://localhost/java/lang"));
+		Assert.assertTrue(scanner.createCacheValue("java.lang", resource).getClassNames().isEmpty());
+
+		Set<Class<?>> classes = new HashSet<Class<?>>();
+		scanner.addClassesForPackage(resource, null, 0, classes);
+		Assert.assertTrue(classes.isEmpty());
+	}
+
+	private ClassScanner createScanner(ClassLoader classLoader) {
+		ClassScanner answer = ClassScanner.newInstance(classLoader);
+		answer.setIndexStore(indexStore);
+		return answer;
+	}
+}
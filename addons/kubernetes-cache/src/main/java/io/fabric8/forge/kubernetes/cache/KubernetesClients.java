@@ -0,0 +1,193 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.kubernetes.cache;
+
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.utils.HttpClientUtils;
+import io.fabric8.utils.Strings;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A registry of {@link KubernetesClient} instances keyed by kubernetes master and namespace so that the commands of
+ * an addon share their clients rather than each command creating its own client, TLS connections and thread pools.
+ * <p/>
+ * Each addon bundles this jar so it has its own registry for its own kubernetes client classes, which the addon
+ * closes when it is shut down. The clients of the same master share one HTTP client and all the clients share one
+ * connection pool. Closing a client returned by the registry does nothing. Clients derived from them, such as by
+ * <tt>inNamespace()</tt> or <tt>adapt()</tt>, use the same HTTP client so must not be closed.
+ */
+public class KubernetesClients implements Closeable {
+    private static final transient Logger LOG = LoggerFactory.getLogger(KubernetesClients.class);
+
+    private static final KubernetesClients INSTANCE = new KubernetesClients();
+
+    private final ConnectionPool connectionPool;
+    private final ConcurrentMap<String, OkHttpClient> httpClients = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, KubernetesClient> clients = new ConcurrentHashMap<>();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong connectionCount = new AtomicLong();
+    private final AtomicLong handshakeCount = new AtomicLong();
+    private final AtomicLong acquiredCount = new AtomicLong();
+    private final EventListener listener = new EventListener() {
+        @Override
+        public void callStart(Call call) {
+            requestCount.incrementAndGet();
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol) {
+            connectionCount.incrementAndGet();
+        }
+
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            handshakeCount.incrementAndGet();
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            acquiredCount.incrementAndGet();
+        }
+    };
+
+    public KubernetesClients() {
+        this(new ConnectionPool());
+    }
+
+    public KubernetesClients(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    /**
+     * Returns the clients shared by everything in the addon which bundles this jar
+     */
+    public static KubernetesClients getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the client for the given master and namespace, creating it the first time
+     *
+     * @param masterUrl the URL of the kubernetes master or blank to use the master of the environment
+     * @param namespace the default namespace of the client or blank to use the namespace of the environment
+     */
+    public KubernetesClient getClient(String masterUrl, String namespace) {
+        String master = Strings.isNotBlank(masterUrl) ? masterUrl : "";
+        String ns = Strings.isNotBlank(namespace) ? namespace : "";
+        String key = master + " " + ns;
+        KubernetesClient answer = clients.get(key);
+        if (answer == null) {
+            answer = clients.computeIfAbsent(key, k -> createClient(master, ns));
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the metrics of the clients and their connections; the requests which did not have to open a
+     * connection reused a pooled one
+     */
+    public Map<String, Object> getMetrics() {
+        long acquired = acquiredCount.get();
+        long connections = connectionCount.get();
+        Map<String, Object> answer = new LinkedHashMap<>();
+        answer.put("clients", clients.size());
+        answer.put("masters", httpClients.size());
+        answer.put("requests", requestCount.get());
+        answer.put("connections", connections);
+        answer.put("tlsHandshakes", handshakeCount.get());
+        answer.put("reusedConnections", Math.max(0, acquired - connections));
+        answer.put("pooledConnections", connectionPool.connectionCount());
+        answer.put("idleConnections", connectionPool.idleConnectionCount());
+        return answer;
+    }
+
+    @Override
+    public void close() {
+        for (KubernetesClient client : clients.values()) {
+            try {
+                if (client instanceof SharedKubernetesClient) {
+                    ((SharedKubernetesClient) client).closeShared();
+                } else {
+                    client.close();
+                }
+            } catch (Exception e) {
+                LOG.warn("Failed to close kubernetes client for " + client.getMasterUrl() + " due " + e.getMessage(), e);
+            }
+        }
+        clients.clear();
+        httpClients.clear();
+        connectionPool.evictAll();
+    }
+
+    protected KubernetesClient createClient(String masterUrl, String namespace) {
+        ConfigBuilder builder = new ConfigBuilder();
+        if (Strings.isNotBlank(masterUrl)) {
+            builder.withMasterUrl(masterUrl);
+        }
+        if (Strings.isNotBlank(namespace)) {
+            builder.withNamespace(namespace);
+        }
+        Config config = builder.build();
+        OkHttpClient httpClient = httpClients.get(config.getMasterUrl());
+        if (httpClient == null) {
+            httpClient = httpClients.computeIfAbsent(config.getMasterUrl(), k -> HttpClientUtils.createHttpClient(config).newBuilder()
+                    .connectionPool(connectionPool).eventListener(listener).build());
+        }
+        LOG.debug("Creating kubernetes client for master {} and namespace {}", config.getMasterUrl(), config.getNamespace());
+        return new SharedKubernetesClient(httpClient, config);
+    }
+
+    /**
+     * A client handed out by the registry. Closing a client shuts down the dispatcher and connection pool of its
+     * HTTP client, which the other clients of the same master use too, so {@link #close()} does nothing and the
+     * client is only closed by the registry.
+     */
+    static class SharedKubernetesClient extends DefaultKubernetesClient {
+
+        SharedKubernetesClient(OkHttpClient httpClient, Config config) {
+            super(httpClient, config);
+        }
+
+        @Override
+        public void close() {
+            LOG.debug("Ignoring close of the shared kubernetes client for {}", getMasterUrl());
+        }
+
+        void closeShared() {
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,343 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.kubernetes.cache;
+
+import io.fabric8.kubernetes.api.KubernetesHelper;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.ListMeta;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local cache of the resources of one kind in one namespace which lists the resources once
+ * and then keeps itself up to date by watching for changes; rather like an informer in the go client.
+ * <p/>
+ * If the watch is closed or reports an error the cache is marked as stale and the next lookup
+ * lists the resources again and starts a new watch.
+ * <p/>
+ * If the resources cannot be listed or watched, for example as that is forbidden, lookups get the resource
+ * directly and the cache only tries to list again after a back off which doubles on every failure. Until then
+ * {@link #list()} lists directly if only the watch failed, or fails with the error of the last list.
+ */
+public class ResourceCache<T extends HasMetadata> implements Closeable {
+    private static final transient Logger LOG = LoggerFactory.getLogger(ResourceCache.class);
+
+    public static final long MIN_LIST_BACKOFF_MILLIS = 30 * 1000L;
+    public static final long MAX_LIST_BACKOFF_MILLIS = 10 * 60 * 1000L;
+
+    private final String kind;
+    private final String namespace;
+    private final ResourceSource<T> source;
+    private final AtomicLong listCount = new AtomicLong();
+    private final AtomicLong eventCount = new AtomicLong();
+    private final AtomicLong lookupCount = new AtomicLong();
+    private final AtomicLong directGetCount = new AtomicLong();
+    private final AtomicLong directListCount = new AtomicLong();
+    private volatile ConcurrentSkipListMap<String, T> resources = new ConcurrentSkipListMap<>();
+    private volatile ResourceWatcher watcher;
+    private volatile boolean synced;
+    private volatile boolean closed;
+    private volatile String resourceVersion;
+    private volatile long lastSyncTime;
+    private volatile long lastEventTime;
+    private volatile String lastError;
+    private volatile KubernetesClientException listFailure;
+    private volatile long listBackoff;
+    private volatile long nextListTime;
+    private Watch watch;
+
+    public ResourceCache(String kind, String namespace, ResourceSource<T> source) {
+        this.kind = kind;
+        this.namespace = namespace;
+        this.source = source;
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceCache{" + kind + " in namespace " + namespace + "}";
+    }
+
+    /**
+     * Returns all the resources sorted by name
+     */
+    public List<T> list() {
+        lookupCount.incrementAndGet();
+        if (System.currentTimeMillis() < nextListTime) {
+            KubernetesClientException failure = listFailure;
+            if (failure != null) {
+                // listing failed so lets not ask the API server again until the back off expires
+                throw failure;
+            }
+            // the watch failed so the listed resources would not be kept up to date
+            return listDirectly();
+        }
+        ensureSynced();
+        return new ArrayList<>(resources.values());
+    }
+
+    /**
+     * Returns the resource of the given name or null if it does not exist
+     */
+    public T get(String name) {
+        lookupCount.incrementAndGet();
+        if (System.currentTimeMillis() < nextListTime) {
+            return getDirectly(name);
+        }
+        try {
+            ensureSynced();
+        } catch (KubernetesClientException e) {
+            // we may be allowed to get a resource but not to list or watch them all
+            LOG.debug("Could not list " + kind + " in namespace " + namespace + " so getting " + name + " directly: " + e);
+            return getDirectly(name);
+        }
+        if (!synced) {
+            // the watch failed so the listed resources will not be kept up to date
+            return getDirectly(name);
+        }
+        T answer = resources.get(name);
+        if (answer == null) {
+            // the resource may have been created before its watch event has arrived
+            answer = getDirectly(name);
+        }
+        return answer;
+    }
+
+    /**
+     * Returns whether the cache has listed the resources and is currently watching for changes
+     */
+    public boolean isWatching() {
+        return synced;
+    }
+
+    /**
+     * Marks the cache as stale so that the next lookup lists the resources again
+     */
+    public synchronized void invalidate() {
+        synced = false;
+        nextListTime = 0;
+        closeWatch();
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        invalidate();
+        resources = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Returns the size, freshness and usage counters of this cache
+     */
+    public Map<String, Object> getMetrics() {
+        long now = System.currentTimeMillis();
+        long lastUpdate = Math.max(lastSyncTime, lastEventTime);
+        Map<String, Object> answer = new LinkedHashMap<>();
+        answer.put("kind", kind);
+        answer.put("namespace", namespace);
+        answer.put("size", resources.size());
+        answer.put("watching", synced);
+        answer.put("resourceVersion", resourceVersion);
+        answer.put("lastSyncTime", lastSyncTime);
+        answer.put("lastEventTime", lastEventTime);
+        answer.put("millisSinceLastUpdate", lastUpdate > 0 ? now - lastUpdate : -1);
+        answer.put("lookups", lookupCount.get());
+        answer.put("lists", listCount.get());
+        answer.put("events", eventCount.get());
+        answer.put("directGets", directGetCount.get());
+        answer.put("directLists", directListCount.get());
+        answer.put("millisUntilNextList", Math.max(0, nextListTime - now));
+        answer.put("lastError", lastError);
+        return answer;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public long getListCount() {
+        return listCount.get();
+    }
+
+    public long getEventCount() {
+        return eventCount.get();
+    }
+
+    public long getDirectGetCount() {
+        return directGetCount.get();
+    }
+
+    public long getDirectListCount() {
+        return directListCount.get();
+    }
+
+    protected void ensureSynced() {
+        if (synced) {
+            return;
+        }
+        synchronized (this) {
+            if (synced) {
+                return;
+            }
+            closeWatch();
+            KubernetesResourceList<T> list;
+            try {
+                list = source.list();
+            } catch (KubernetesClientException e) {
+                listFailure = e;
+                backOff(e);
+                throw e;
+            }
+            listFailure = null;
+            listCount.incrementAndGet();
+            ConcurrentSkipListMap<String, T> map = toMap(list.getItems());
+            ListMeta metadata = list.getMetadata();
+            resourceVersion = metadata != null ? metadata.getResourceVersion() : null;
+            resources = map;
+            lastSyncTime = System.currentTimeMillis();
+            if (closed) {
+                return;
+            }
+            ResourceWatcher newWatcher = new ResourceWatcher();
+            watcher = newWatcher;
+            try {
+                watch = source.watch(resourceVersion, newWatcher);
+                synced = true;
+                lastError = null;
+                listBackoff = 0;
+                nextListTime = 0;
+            } catch (KubernetesClientException e) {
+                // we still return the listed resources; lookups get directly until the back off expires
+                watcher = null;
+                backOff(e);
+            }
+        }
+    }
+
+    protected T getDirectly(String name) {
+        directGetCount.incrementAndGet();
+        return source.get(name);
+    }
+
+    protected List<T> listDirectly() {
+        directListCount.incrementAndGet();
+        return new ArrayList<>(toMap(source.list().getItems()).values());
+    }
+
+    /**
+     * Returns the resources sorted by name
+     */
+    private static <T extends HasMetadata> ConcurrentSkipListMap<String, T> toMap(List<T> items) {
+        ConcurrentSkipListMap<String, T> answer = new ConcurrentSkipListMap<>();
+        if (items != null) {
+            for (T item : items) {
+                String name = KubernetesHelper.getName(item);
+                if (name != null) {
+                    answer.put(name, item);
+                }
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Records that the resources could not be listed or watched so lookups do not try again until the back off expires
+     */
+    private void backOff(KubernetesClientException e) {
+        long backoff = listBackoff > 0 ? Math.min(listBackoff * 2, MAX_LIST_BACKOFF_MILLIS) : MIN_LIST_BACKOFF_MILLIS;
+        listBackoff = backoff;
+        nextListTime = System.currentTimeMillis() + backoff;
+        lastError = e.toString();
+        String reason = e.getCode() == 403 ? "as it is forbidden" : "due " + e;
+        LOG.warn("Could not list or watch " + kind + " in namespace " + namespace + " " + reason + " so getting them directly for the next " + backoff + " millis");
+    }
+
+    private void closeWatch() {
+        watcher = null;
+        Watch oldWatch = watch;
+        watch = null;
+        if (oldWatch != null) {
+            try {
+                oldWatch.close();
+            } catch (Exception e) {
+                LOG.debug("Failed to close watch on " + kind + " in namespace " + namespace + ": " + e);
+            }
+        }
+    }
+
+    /**
+     * Applies the events of a single watch; events from a watch which has since been replaced are ignored
+     */
+    private class ResourceWatcher implements Watcher<T> {
+        @Override
+        public void eventReceived(Action action, T resource) {
+            if (watcher != this) {
+                return;
+            }
+            eventCount.incrementAndGet();
+            lastEventTime = System.currentTimeMillis();
+            String name = KubernetesHelper.getName(resource);
+            ObjectMeta metadata = resource != null ? resource.getMetadata() : null;
+            if (metadata != null && metadata.getResourceVersion() != null) {
+                resourceVersion = metadata.getResourceVersion();
+            }
+            switch (action) {
+                case ADDED:
+                case MODIFIED:
+                    if (name != null) {
+                        resources.put(name, resource);
+                    }
+                    break;
+                case DELETED:
+                    if (name != null) {
+                        resources.remove(name);
+                    }
+                    break;
+                default:
+                    LOG.warn("Watch on " + kind + " in namespace " + namespace + " reported an error so it will be listed again");
+                    synced = false;
+            }
+        }
+
+        @Override
+        public void onClose(KubernetesClientException cause) {
+            if (watcher != this) {
+                return;
+            }
+            if (cause != null) {
+                lastError = cause.toString();
+                LOG.warn("Watch on " + kind + " in namespace " + namespace + " closed so it will be listed again: " + cause);
+            }
+            synced = false;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.kubernetes.cache;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.ReplicationController;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.openshift.api.model.BuildConfig;
+import io.fabric8.openshift.client.OpenShiftClient;
+import io.fabric8.utils.Strings;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A registry of {@link ResourceCache} instances keyed by kubernetes master, namespace and kind so that
+ * commands and REST resources share a single list and watch per namespace and kind.
+ * <p/>
+ * Only the {@link #MAX_CACHES} most recently used caches are kept so that looking up many namespaces does not
+ * keep a watch open and the resources in memory for each of them. Secrets are not cached as a cache would keep
+ * the data of every secret in a namespace in memory; get the one secret instead.
+ */
+public class ResourceCaches implements Closeable {
+    private static final ResourceCaches INSTANCE = new ResourceCaches();
+
+    /**
+     * The maximum number of caches kept; the least recently used cache is closed when another is created
+     */
+    public static final int MAX_CACHES = 50;
+
+    private final int maxCaches;
+    private final Map<String, ResourceCache<?>> caches;
+
+    public ResourceCaches() {
+        this(MAX_CACHES);
+    }
+
+    public ResourceCaches(final int maxCaches) {
+        this.maxCaches = maxCaches;
+        this.caches = Collections.synchronizedMap(new LinkedHashMap<String, ResourceCache<?>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ResourceCache<?>> eldest) {
+                if (size() > ResourceCaches.this.maxCaches) {
+                    // stop watching so the evicted cache does not keep its connection and resources
+                    eldest.getValue().close();
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Returns the caches shared by everything in this JVM
+     */
+    public static ResourceCaches getInstance() {
+        return INSTANCE;
+    }
+
+    public ResourceCache<Pod> pods(KubernetesClient client, String namespace) {
+        final String ns = namespaceOrDefault(client, namespace);
+        return getOrCreate("Pod", client, ns, () -> createSource(client.pods().inNamespace(ns)));
+    }
+
+    public ResourceCache<Service> services(KubernetesClient client, String namespace) {
+        final String ns = namespaceOrDefault(client, namespace);
+        return getOrCreate("Service", client, ns, () -> createSource(client.services().inNamespace(ns)));
+    }
+
+    public ResourceCache<ReplicationController> replicationControllers(KubernetesClient client, String namespace) {
+        final String ns = namespaceOrDefault(client, namespace);
+        return getOrCreate("ReplicationController", client, ns, () -> createSource(client.replicationControllers().inNamespace(ns)));
+    }
+
+    public ResourceCache<BuildConfig> buildConfigs(OpenShiftClient client, String namespace) {
+        final String ns = namespaceOrDefault(client, namespace);
+        return getOrCreate("BuildConfig", client, ns, () -> createSource(client.buildConfigs().inNamespace(ns)));
+    }
+
+    /**
+     * Returns the metrics of all the caches
+     */
+    public List<Map<String, Object>> getMetrics() {
+        List<Map<String, Object>> answer = new ArrayList<>();
+        for (ResourceCache<?> cache : getCaches()) {
+            answer.add(cache.getMetrics());
+        }
+        return answer;
+    }
+
+    /**
+     * Marks all the caches as stale so they are listed again on their next lookup
+     */
+    public void invalidate() {
+        for (ResourceCache<?> cache : getCaches()) {
+            cache.invalidate();
+        }
+    }
+
+    @Override
+    public void close() {
+        List<ResourceCache<?>> list;
+        synchronized (caches) {
+            list = new ArrayList<>(caches.values());
+            caches.clear();
+        }
+        for (ResourceCache<?> cache : list) {
+            cache.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected <T extends HasMetadata> ResourceCache<T> getOrCreate(String kind, KubernetesClient client, String namespace, Supplier<ResourceSource<T>> sourceFactory) {
+        String key = client.getMasterUrl() + " " + namespace + " " + kind;
+        synchronized (caches) {
+            ResourceCache<?> answer = caches.get(key);
+            if (answer == null) {
+                answer = new ResourceCache<>(kind, namespace, sourceFactory.get());
+                caches.put(key, answer);
+            }
+            return (ResourceCache<T>) answer;
+        }
+    }
+
+    protected List<ResourceCache<?>> getCaches() {
+        synchronized (caches) {
+            return new ArrayList<>(caches.values());
+        }
+    }
+
+    protected static String namespaceOrDefault(KubernetesClient client, String namespace) {
+        if (Strings.isNullOrBlank(namespace)) {
+            namespace = client.getNamespace();
+        }
+        return namespace;
+    }
+
+    /**
+     * Adapts the client DSL for a kind in a namespace to a {@link ResourceSource}
+     */
+    public static <T extends HasMetadata, L extends KubernetesResourceList, R extends Resource<T, ?>> ResourceSource<T> createSource(final NonNamespaceOperation<T, L, ?, R> operation) {
+        return new ResourceSource<T>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public KubernetesResourceList<T> list() {
+                return operation.list();
+            }
+
+            @Override
+            public Watch watch(String resourceVersion, Watcher<T> watcher) {
+                if (Strings.isNullOrBlank(resourceVersion)) {
+                    return operation.watch(watcher);
+                }
+                return operation.watch(resourceVersion, watcher);
+            }
+
+            @Override
+            public T get(String name) {
+                return operation.withName(name).get();
+            }
+        };
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.kubernetes.cache;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+
+/**
+ * The operations a {@link ResourceCache} needs to list, watch and get the resources of one kind in one namespace
+ */
+public interface ResourceSource<T extends HasMetadata> {
+
+    /**
+     * Lists all the current resources
+     */
+    KubernetesResourceList<T> list();
+
+    /**
+     * Watches for changes after the given resource version (which may be null)
+     */
+    Watch watch(String resourceVersion, Watcher<T> watcher);
+
+    /**
+     * Gets a single resource by name or returns null if it does not exist
+     */
+    T get(String name);
+}
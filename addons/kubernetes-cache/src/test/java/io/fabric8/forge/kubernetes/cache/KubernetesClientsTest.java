@@ -0,0 +1,135 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.kubernetes.cache;
+
+import java.util.Map;
+
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.HttpClientAware;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class KubernetesClientsTest {
+
+    private static final int REQUESTS = 20;
+
+    @Rule
+    public MockWebServer server = new MockWebServer();
+
+    private KubernetesClients clients;
+    private String masterUrl;
+
+    @Before
+    public void setUp() {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody("{\"kind\":\"PodList\",\"apiVersion\":\"v1\",\"items\":[]}");
+            }
+        });
+        masterUrl = server.url("/").toString();
+        clients = new KubernetesClients();
+    }
+
+    @After
+    public void tearDown() {
+        clients.close();
+    }
+
+    @Test
+    public void testClientsAreSharedPerMasterAndNamespace() {
+        KubernetesClient first = clients.getClient(masterUrl, "first");
+        KubernetesClient second = clients.getClient(masterUrl, "second");
+
+        assertSame(first, clients.getClient(masterUrl, "first"));
+        assertNotSame(first, second);
+        assertEquals("first", first.getNamespace());
+        assertEquals("second", second.getNamespace());
+        assertSame(((HttpClientAware) first).getHttpClient(), ((HttpClientAware) second).getHttpClient());
+        assertEquals(2, clients.getMetrics().get("clients"));
+        assertEquals(1, clients.getMetrics().get("masters"));
+
+        clients.close();
+        assertEquals(0, clients.getMetrics().get("clients"));
+        assertNotSame(first, clients.getClient(masterUrl, "first"));
+    }
+
+    @Test
+    public void testClosingASharedClientKeepsItsHttpClientOpen() throws Exception {
+        KubernetesClient first = clients.getClient(masterUrl, "first");
+        first.pods().list();
+        first.close();
+
+        // the client and the other clients of the master can still be used, including for watches and async calls
+        assertFalse(((HttpClientAware) first).getHttpClient().dispatcher().executorService().isShutdown());
+        first.pods().list();
+        clients.getClient(masterUrl, "second").pods().list();
+        assertSame(first, clients.getClient(masterUrl, "first"));
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void testSharedClientsReuseConnections() throws Exception {
+        for (int i = 0; i < REQUESTS; i++) {
+            // as each command looks up its client
+            clients.getClient(masterUrl, i % 2 == 0 ? "first" : "second").pods().list();
+        }
+        assertEquals(1, countConnections());
+
+        Map<String, Object> metrics = clients.getMetrics();
+        assertEquals((long) REQUESTS, metrics.get("requests"));
+        assertEquals(1L, metrics.get("connections"));
+        assertEquals(0L, metrics.get("tlsHandshakes"));
+        assertEquals((long) REQUESTS - 1, metrics.get("reusedConnections"));
+    }
+
+    @Test
+    public void testClientPerCommandOpensConnectionPerCommand() throws Exception {
+        for (int i = 0; i < REQUESTS; i++) {
+            // as each command used to create its own client
+            KubernetesClient client = new DefaultKubernetesClient(new ConfigBuilder().withMasterUrl(masterUrl).build());
+            client.pods().list();
+            client.close();
+        }
+        assertEquals(REQUESTS, countConnections());
+    }
+
+    /**
+     * Returns the number of connections the requests received by the server were sent on
+     */
+    private int countConnections() throws InterruptedException {
+        int answer = 0;
+        for (int i = 0; i < server.getRequestCount(); i++) {
+            if (server.takeRequest().getSequenceNumber() == 0) {
+                answer++;
+            }
+        }
+        return answer;
+    }
+}
@@ -0,0 +1,242 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.kubernetes.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.api.model.ServiceListBuilder;
+import io.fabric8.kubernetes.api.model.WatchEvent;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ResourceCachesTest {
+
+    @Rule
+    public KubernetesServer server = new KubernetesServer(false);
+
+    private final ResourceCaches caches = new ResourceCaches();
+
+    @After
+    public void tearDown() {
+        caches.close();
+    }
+
+    @Test
+    public void testListsOnceThenAppliesWatchEvents() throws Exception {
+        server.expect().withPath("/api/v1/namespaces/test/services")
+                .andReturn(200, new ServiceListBuilder().withNewMetadata().withResourceVersion("1").endMetadata()
+                        .addToItems(service("b", "1"), service("a", "1")).build())
+                .once();
+        server.expect().withPath("/api/v1/namespaces/test/services?resourceVersion=1&watch=true")
+                .andUpgradeToWebSocket().open()
+                .waitFor(100).andEmit(new WatchEvent(service("c", "2"), "ADDED"))
+                .waitFor(100).andEmit(new WatchEvent(service("a", "3"), "DELETED"))
+                .done().once();
+
+        KubernetesClient client = server.getClient();
+        ResourceCache<Service> cache = caches.services(client, "test");
+        assertEquals(names("a", "b"), names(cache.list()));
+        assertTrue(cache.isWatching());
+
+        waitForEvents(cache, 2);
+        assertEquals(names("b", "c"), names(cache.list()));
+        assertNull(cache.get("a"));
+        assertNotNull(cache.get("c"));
+        assertEquals(1, cache.getListCount());
+        assertEquals("3", cache.getMetrics().get("resourceVersion"));
+
+        // the same namespace and kind share a cache
+        assertTrue(cache == caches.services(client, "test"));
+        assertEquals(1, caches.getMetrics().size());
+    }
+
+    @Test
+    public void testListsAgainAfterInvalidate() throws Exception {
+        server.expect().withPath("/api/v1/namespaces/test/services")
+                .andReturn(200, new ServiceListBuilder().withNewMetadata().withResourceVersion("1").endMetadata()
+                        .addToItems(service("a", "1")).build())
+                .once();
+        server.expect().withPath("/api/v1/namespaces/test/services")
+                .andReturn(200, new ServiceListBuilder().withNewMetadata().withResourceVersion("5").endMetadata()
+                        .addToItems(service("d", "5")).build())
+                .once();
+
+        ResourceCache<Service> cache = caches.services(server.getClient(), "test");
+        assertEquals(names("a"), names(cache.list()));
+
+        cache.invalidate();
+        assertFalse(cache.isWatching());
+        assertEquals(names("d"), names(cache.list()));
+        assertEquals(2, cache.getListCount());
+    }
+
+    @Test
+    public void testGetFallsBackWhenListIsForbidden() throws Exception {
+        server.expect().withPath("/api/v1/namespaces/test/services").andReturn(403, "forbidden").always();
+        server.expect().withPath("/api/v1/namespaces/test/services/git").andReturn(200, service("git", "7")).times(2);
+
+        ResourceCache<Service> cache = caches.services(server.getClient(), "test");
+        Service service = cache.get("git");
+        assertNotNull(service);
+        assertEquals("7", service.getMetadata().getResourceVersion());
+        assertFalse(cache.isWatching());
+        assertNotNull(cache.getMetrics().get("lastError"));
+        assertEquals(2, server.getMockServer().getRequestCount());
+
+        // the forbidden list is not tried again until the back off expires
+        assertNotNull(cache.get("git"));
+        assertEquals(3, server.getMockServer().getRequestCount());
+        assertEquals(2, cache.getDirectGetCount());
+        assertTrue((Long) cache.getMetrics().get("millisUntilNextList") > 0);
+    }
+
+    @Test
+    public void testListFailsWithoutListingAgainDuringBackOff() throws Exception {
+        server.expect().withPath("/api/v1/namespaces/test/services").andReturn(403, "forbidden").always();
+
+        ResourceCache<Service> cache = caches.services(server.getClient(), "test");
+        for (int i = 0; i < 3; i++) {
+            try {
+                cache.list();
+                fail("Expected the list to be forbidden");
+            } catch (KubernetesClientException e) {
+                assertEquals(403, e.getCode());
+            }
+        }
+        assertEquals(1, server.getMockServer().getRequestCount());
+    }
+
+    @Test
+    public void testListsDirectlyWhenWatchFails() throws Exception {
+        server.expect().withPath("/api/v1/namespaces/test/services")
+                .andReturn(200, new ServiceListBuilder().withNewMetadata().withResourceVersion("1").endMetadata()
+                        .addToItems(service("a", "1")).build())
+                .once();
+        server.expect().withPath("/api/v1/namespaces/test/services?resourceVersion=1&watch=true").andReturn(403, "forbidden").always();
+        server.expect().withPath("/api/v1/namespaces/test/services")
+                .andReturn(200, new ServiceListBuilder().withNewMetadata().withResourceVersion("2").endMetadata()
+                        .addToItems(service("b", "2"), service("a", "1")).build())
+                .once();
+
+        ResourceCache<Service> cache = caches.services(server.getClient(), "test");
+        assertEquals(names("a"), names(cache.list()));
+        assertFalse(cache.isWatching());
+        int requests = server.getMockServer().getRequestCount();
+
+        // no new watch is started until the back off expires
+        assertEquals(names("a", "b"), names(cache.list()));
+        assertEquals(requests + 1, server.getMockServer().getRequestCount());
+        assertEquals(1, cache.getListCount());
+        assertEquals(1, cache.getDirectListCount());
+    }
+
+    @Test
+    public void testEvictedCachesStopWatching() throws Exception {
+        for (String namespace : new String[]{"first", "second", "third"}) {
+            server.expect().withPath("/api/v1/namespaces/" + namespace + "/services")
+                    .andReturn(200, new ServiceListBuilder().withNewMetadata().withResourceVersion("1").endMetadata()
+                            .addToItems(service("a", "1")).build())
+                    .once();
+            server.expect().withPath("/api/v1/namespaces/" + namespace + "/services?resourceVersion=1&watch=true")
+                    .andUpgradeToWebSocket().open().done().once();
+        }
+
+        KubernetesClient client = server.getClient();
+        ResourceCaches bounded = new ResourceCaches(2);
+        try {
+            ResourceCache<Service> first = bounded.services(client, "first");
+            first.list();
+            ResourceCache<Service> second = bounded.services(client, "second");
+            second.list();
+            assertTrue(first.isWatching());
+
+            // using the first cache makes the second the least recently used
+            assertTrue(first == bounded.services(client, "first"));
+            bounded.services(client, "third").list();
+            assertEquals(2, bounded.getMetrics().size());
+            assertTrue(first.isWatching());
+            assertFalse(second.isWatching());
+            assertFalse(second == bounded.services(client, "second"));
+        } finally {
+            bounded.close();
+        }
+    }
+
+    @Test
+    public void testGetFallsBackForResourcesNotYetWatched() throws Exception {
+        server.expect().withPath("/api/v1/namespaces/test/services")
+                .andReturn(200, new ServiceListBuilder().withNewMetadata().withResourceVersion("1").endMetadata()
+                        .addToItems(service("a", "1")).build())
+                .once();
+        server.expect().withPath("/api/v1/namespaces/test/services?resourceVersion=1&watch=true")
+                .andUpgradeToWebSocket().open().done().once();
+        // created after the list but its watch event has not arrived yet
+        server.expect().withPath("/api/v1/namespaces/test/services/b").andReturn(200, service("b", "2")).once();
+
+        ResourceCache<Service> cache = caches.services(server.getClient(), "test");
+        assertNotNull(cache.get("a"));
+        assertTrue(cache.isWatching());
+        assertEquals(0, cache.getDirectGetCount());
+
+        Service service = cache.get("b");
+        assertNotNull(service);
+        assertEquals("2", service.getMetadata().getResourceVersion());
+        assertEquals(1, cache.getDirectGetCount());
+        assertNull(cache.get("c"));
+        assertEquals(1, cache.getListCount());
+    }
+
+    private static Service service(String name, String resourceVersion) {
+        return new ServiceBuilder().withNewMetadata().withName(name).withNamespace("test").withResourceVersion(resourceVersion).endMetadata().build();
+    }
+
+    private static List<String> names(String... names) {
+        List<String> answer = new ArrayList<>();
+        for (String name : names) {
+            answer.add(name);
+        }
+        return answer;
+    }
+
+    private static List<String> names(List<Service> services) {
+        List<String> answer = new ArrayList<>();
+        for (Service service : services) {
+            answer.add(service.getMetadata().getName());
+        }
+        return answer;
+    }
+
+    private static void waitForEvents(ResourceCache<?> cache, long count) throws InterruptedException {
+        for (int i = 0; i < 100 && cache.getEventCount() < count; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(count, cache.getEventCount());
+    }
+}
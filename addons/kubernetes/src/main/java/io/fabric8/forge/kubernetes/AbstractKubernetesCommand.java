@@ -15,12 +15,10 @@
  */
 package io.fabric8.forge.kubernetes;
 
+import io.fabric8.forge.kubernetes.cache.KubernetesClients;
 import io.fabric8.kubernetes.api.KubernetesHelper;
-import io.fabric8.kubernetes.client.DefaultKubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.fabric8.kubernetes.client.ConfigBuilder;
 import io.fabric8.utils.Objects;
-import io.fabric8.utils.Strings;
 import io.fabric8.utils.TablePrinter;
 import org.jboss.forge.addon.projects.ProjectFactory;
 import org.jboss.forge.addon.projects.ui.AbstractProjectCommand;
@@ -69,12 +67,7 @@ public abstract class AbstractKubernetesCommand extends AbstractProjectCommand i
 
     public KubernetesClient getKubernetes() {
         if (kubernetes == null) {
-            String kubernetesAddress = kubernetesUrl.getValue();
-            if (Strings.isNotBlank(kubernetesAddress)) {
-                kubernetes = new DefaultKubernetesClient(new ConfigBuilder().withMasterUrl(kubernetesAddress).build());
-            } else {
-                kubernetes = new DefaultKubernetesClient();
-            }
+            kubernetes = KubernetesClients.getInstance().getClient(kubernetesUrl.getValue(), getNamespace());
         }
         Objects.notNull(kubernetes, "kubernetes");
         return kubernetes;
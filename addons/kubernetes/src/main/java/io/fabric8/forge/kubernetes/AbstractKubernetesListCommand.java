@@ -0,0 +1,84 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.kubernetes;
+
+import io.fabric8.forge.kubernetes.cache.ResourceCache;
+import io.fabric8.forge.kubernetes.list.PagedTablePrinter;
+import io.fabric8.forge.kubernetes.list.ResourcePager;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.utils.Strings;
+import org.jboss.forge.addon.ui.context.UIBuilder;
+import org.jboss.forge.addon.ui.input.UIInput;
+import org.jboss.forge.addon.ui.metadata.WithAttributes;
+import org.jboss.forge.addon.ui.result.Result;
+import org.jboss.forge.addon.ui.result.Results;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * An abstract base class for commands which list kubernetes resources a page at a time
+ */
+public abstract class AbstractKubernetesListCommand extends AbstractKubernetesCommand {
+
+    @Inject
+    @WithAttributes(name = "labelSelector", label = "The label selector the master uses to select the resources, such as app=cheese,tier!=db")
+    UIInput<String> labelSelector;
+
+    @Inject
+    @WithAttributes(name = "fieldSelector", label = "The field selector the master uses to select the resources, such as status.phase=Running")
+    UIInput<String> fieldSelector;
+
+    @Inject
+    @WithAttributes(name = "pageSize", label = "The number of resources to load and print at a time", defaultValue = "500")
+    UIInput<Integer> pageSize;
+
+    @Override
+    public void initializeUI(UIBuilder builder) throws Exception {
+        super.initializeUI(builder);
+        builder.add(labelSelector).add(fieldSelector).add(pageSize);
+    }
+
+    /**
+     * Prints the resources a page at a time; from the shared cache if it is already watching the namespace and no
+     * selectors are used, otherwise by paging through the resources on the master
+     */
+    protected <T extends HasMetadata> Result printPages(ResourceCache<T> cache, ResourcePager<T> pager, PagedTablePrinter table, Consumer<T> printer) {
+        int size = getPageSize();
+        String labels = labelSelector != null ? labelSelector.getValue() : null;
+        String fields = fieldSelector != null ? fieldSelector.getValue() : null;
+        if (cache != null && cache.isWatching() && Strings.isNullOrBlank(labels) && Strings.isNullOrBlank(fields)) {
+            List<T> items = cache.list();
+            for (int i = 0; i < items.size(); i += size) {
+                items.subList(i, Math.min(i + size, items.size())).forEach(printer);
+                table.flush();
+            }
+        } else {
+            pager.withLabelSelector(labels).withFieldSelector(fields).withPageSize(size).forEachPage(page -> {
+                page.forEach(printer);
+                table.flush();
+            });
+        }
+        table.close();
+        return Results.success();
+    }
+
+    protected int getPageSize() {
+        Integer answer = pageSize != null ? pageSize.getValue() : null;
+        return answer != null && answer > 0 ? answer : ResourcePager.DEFAULT_PAGE_SIZE;
+    }
+}
@@ -15,7 +15,9 @@
  */
 package io.fabric8.forge.kubernetes;
 
-import io.fabric8.kubernetes.api.Controller;
+import io.fabric8.forge.kubernetes.apply.ApplyEngine;
+import io.fabric8.forge.kubernetes.apply.ApplyResult;
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.utils.Files;
 import org.jboss.forge.addon.ui.context.UIBuilder;
 import org.jboss.forge.addon.ui.context.UIContext;
@@ -26,15 +28,18 @@ import org.jboss.forge.addon.ui.input.UIInput;
 import org.jboss.forge.addon.ui.metadata.UICommandMetadata;
 import org.jboss.forge.addon.ui.metadata.WithAttributes;
 import org.jboss.forge.addon.ui.result.Result;
+import org.jboss.forge.addon.ui.result.Results;
 import org.jboss.forge.addon.ui.util.Categories;
 import org.jboss.forge.addon.ui.util.Metadata;
 import org.jboss.forge.addon.ui.validate.UIValidator;
 
 import javax.inject.Inject;
 import java.io.File;
+import java.util.List;
+import java.util.Map;
 
 /**
- * Apploies a given JSON configuration to kubernetes
+ * Applies a given JSON configuration to kubernetes in dependency order, skipping the resources which have not changed
  */
 public class Apply extends AbstractKubernetesCommand {
     @Inject
@@ -42,6 +47,11 @@ public class Apply extends AbstractKubernetesCommand {
             description = "The JSON file of configuration to apply to Kubernetes.", required = true)
     UIInput<File> file;
 
+    @Inject
+    @WithAttributes(name = "threads", label = "Threads",
+            description = "The maximum number of resources to apply at the same time.", defaultValue = "8")
+    UIInput<Integer> threads;
+
     @Override
     public UICommandMetadata getMetadata(UIContext context) {
         return Metadata.from(super.getMetadata(context), getClass())
@@ -96,15 +106,24 @@ public class Apply extends AbstractKubernetesCommand {
             }
         });
 
-        builder.add(file);
+        builder.add(file).add(threads);
     }
 
     @Override
     public Result execute(UIExecutionContext context) throws Exception {
         File applyFile = file.getValue();
-        Controller controller = new Controller(getKubernetes());
-        controller.applyJson(applyFile);
-        return null;
+        List<HasMetadata> items = ApplyEngine.loadItems(applyFile);
+        Integer threadCount = threads.getValue();
+        ApplyEngine engine = new ApplyEngine(getKubernetes(), getNamespace(), threadCount != null ? threadCount : ApplyEngine.DEFAULT_THREADS);
+        ApplyResult result = engine.apply(items);
+        if (result.hasFailures()) {
+            StringBuilder message = new StringBuilder(result.toString());
+            for (Map.Entry<String, Throwable> failure : result.getFailures().entrySet()) {
+                message.append("\n").append(failure.getKey()).append(": ").append(failure.getValue().getMessage());
+            }
+            return Results.fail(message.toString());
+        }
+        return Results.success(result.toString());
     }
 }
 
@@ -15,14 +15,17 @@
  */
 package io.fabric8.forge.kubernetes;
 
+import io.fabric8.forge.kubernetes.cache.ResourceCaches;
+import io.fabric8.forge.kubernetes.list.PagedTablePrinter;
+import io.fabric8.forge.kubernetes.list.ResourcePager;
 import io.fabric8.kubernetes.api.KubernetesHelper;
 import io.fabric8.kubernetes.api.model.Container;
 import io.fabric8.kubernetes.api.model.Pod;
-import io.fabric8.kubernetes.api.model.PodList;
 import io.fabric8.kubernetes.api.model.PodSpec;
 import io.fabric8.kubernetes.api.model.PodStatus;
+import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.utils.Filter;
-import io.fabric8.utils.TablePrinter;
+import io.fabric8.utils.Strings;
 import org.jboss.forge.addon.ui.context.UIBuilder;
 import org.jboss.forge.addon.ui.context.UIContext;
 import org.jboss.forge.addon.ui.context.UIExecutionContext;
@@ -34,14 +37,13 @@ import org.jboss.forge.addon.ui.util.Categories;
 import org.jboss.forge.addon.ui.util.Metadata;
 
 import javax.inject.Inject;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Command to list pods in kubernetes
  */
-public class PodsList extends AbstractKubernetesCommand {
+public class PodsList extends AbstractKubernetesListCommand {
 
     @Inject
     @WithAttributes(name = "filter", label = "The text filter used to filter pods using label selectors")
@@ -63,48 +65,45 @@ public class PodsList extends AbstractKubernetesCommand {
 
     @Override
     public Result execute(UIExecutionContext uiExecutionContext) throws Exception {
-        PodList pods = getKubernetes().pods().inNamespace(getNamespace()).list();
-        KubernetesHelper.removeEmptyPods(pods);
-        TablePrinter table = podsAsTable(pods);
-        return tableResults(table);
+        KubernetesClient kubernetes = getKubernetes();
+        String namespace = getNamespace();
+        PagedTablePrinter table = new PagedTablePrinter(getOut(), "id", "image(s)", "host", "labels", "status");
+        Filter<Pod> filter = KubernetesHelper.createPodFilter(filterText.getValue());
+        return printPages(ResourceCaches.getInstance().pods(kubernetes, namespace), ResourcePager.pods(kubernetes, namespace), table, pod -> {
+            if (filter.matches(pod)) {
+                printPod(table, pod);
+            }
+        });
     }
 
-    protected TablePrinter podsAsTable(PodList pods) {
-        TablePrinter table = new TablePrinter();
-        table.columns("id", "image(s)", "host", "labels", "status");
-        List<Pod> items = pods.getItems();
-        if (items == null) {
-            items = Collections.EMPTY_LIST;
+    protected void printPod(PagedTablePrinter table, Pod item) {
+        String id = KubernetesHelper.getName(item);
+        if (Strings.isNullOrBlank(id)) {
+            // ignore empty pods
+            return;
         }
-        Filter<Pod> filter = KubernetesHelper.createPodFilter(filterText.getValue());
-        for (Pod item : items) {
-            if (filter.matches(item)) {
-                String id = KubernetesHelper.getName(item);
-                PodStatus podStatus = item.getStatus();
-                String status = "";
-                String host = "";
-                if (podStatus != null) {
-                    status = KubernetesHelper.getStatusText(podStatus);
-                    host = podStatus.getHostIP();
-                }
-                Map<String, String> labelMap = item.getMetadata().getLabels();
-                String labels = KubernetesHelper.toLabelsString(labelMap);
-                PodSpec spec = item.getSpec();
-                if (spec != null) {
-                    List<Container> containerList = spec.getContainers();
-                    for (Container container : containerList) {
-                        String image = container.getImage();
-                        table.row(id, image, host, labels, status);
+        PodStatus podStatus = item.getStatus();
+        String status = "";
+        String host = "";
+        if (podStatus != null) {
+            status = KubernetesHelper.getStatusText(podStatus);
+            host = podStatus.getHostIP();
+        }
+        Map<String, String> labelMap = item.getMetadata().getLabels();
+        String labels = KubernetesHelper.toLabelsString(labelMap);
+        PodSpec spec = item.getSpec();
+        if (spec != null) {
+            List<Container> containerList = spec.getContainers();
+            for (Container container : containerList) {
+                String image = container.getImage();
+                table.row(id, image, host, labels, status);
 
-                        id = "";
-                        host = "";
-                        status = "";
-                        labels = "";
-                    }
-                }
+                id = "";
+                host = "";
+                status = "";
+                labels = "";
             }
         }
-        return table;
     }
 
 }
@@ -15,13 +15,15 @@
  */
 package io.fabric8.forge.kubernetes;
 
+import io.fabric8.forge.kubernetes.cache.ResourceCaches;
+import io.fabric8.forge.kubernetes.list.PagedTablePrinter;
+import io.fabric8.forge.kubernetes.list.ResourcePager;
 import io.fabric8.kubernetes.api.KubernetesHelper;
 import io.fabric8.kubernetes.api.model.ReplicationController;
-import io.fabric8.kubernetes.api.model.ReplicationControllerList;
 import io.fabric8.kubernetes.api.model.ReplicationControllerSpec;
 import io.fabric8.kubernetes.api.model.ReplicationControllerStatus;
+import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.utils.Filter;
-import io.fabric8.utils.TablePrinter;
 import org.jboss.forge.addon.ui.context.UIBuilder;
 import org.jboss.forge.addon.ui.context.UIContext;
 import org.jboss.forge.addon.ui.context.UIExecutionContext;
@@ -33,16 +35,13 @@ import org.jboss.forge.addon.ui.util.Categories;
 import org.jboss.forge.addon.ui.util.Metadata;
 
 import javax.inject.Inject;
-import java.io.PrintStream;
-import java.util.Collections;
-import java.util.List;
 
 import static io.fabric8.kubernetes.api.KubernetesHelper.toPositiveNonZeroText;
 
 /**
  * Command to list replication controllers in kubernetes
  */
-public class ReplicationControllersList extends AbstractKubernetesCommand {
+public class ReplicationControllersList extends AbstractKubernetesListCommand {
 
     @Inject
     @WithAttributes(name = "filter", label = "The text filter used to filter pods using label selectors")
@@ -64,37 +63,32 @@ public class ReplicationControllersList extends AbstractKubernetesCommand {
 
     @Override
     public Result execute(UIExecutionContext uiExecutionContext) throws Exception {
-        ReplicationControllerList replicationControllers = getKubernetes().replicationControllers().inNamespace(getNamespace()).list();
-        printReplicationControllers(replicationControllers, System.out);
-        return null;
+        KubernetesClient kubernetes = getKubernetes();
+        String namespace = getNamespace();
+        PagedTablePrinter table = new PagedTablePrinter(getOut(), "id", "labels", "replicas", "replica selector");
+        Filter<ReplicationController> filter = KubernetesHelper.createReplicationControllerFilter(filterText.getValue());
+        return printPages(ResourceCaches.getInstance().replicationControllers(kubernetes, namespace),
+                ResourcePager.replicationControllers(kubernetes, namespace), table, item -> {
+                    if (filter.matches(item)) {
+                        printReplicationController(table, item);
+                    }
+                });
     }
 
-    private void printReplicationControllers(ReplicationControllerList replicationControllers, PrintStream out) {
-        TablePrinter table = new TablePrinter();
-        table.columns("id", "labels", "replicas", "replica selector");
-        List<ReplicationController> items = replicationControllers.getItems();
-        if (items == null) {
-            items = Collections.EMPTY_LIST;
+    private void printReplicationController(PagedTablePrinter table, ReplicationController item) {
+        String id = KubernetesHelper.getName(item);
+        String labels = KubernetesHelper.toLabelsString(item.getMetadata().getLabels());
+        Integer replicas = null;
+        ReplicationControllerSpec desiredState = item.getSpec();
+        ReplicationControllerStatus currentState = item.getStatus();
+        String selector = null;
+        if (desiredState != null) {
+            selector = KubernetesHelper.toLabelsString(desiredState.getSelector());
         }
-        Filter<ReplicationController> filter = KubernetesHelper.createReplicationControllerFilter(filterText.getValue());
-        for (ReplicationController item : items) {
-            if (filter.matches(item)) {
-                String id = KubernetesHelper.getName(item);
-                String labels = KubernetesHelper.toLabelsString(item.getMetadata().getLabels());
-                Integer replicas = null;
-                ReplicationControllerSpec desiredState = item.getSpec();
-                ReplicationControllerStatus currentState = item.getStatus();
-                String selector = null;
-                if (desiredState != null) {
-                    selector = KubernetesHelper.toLabelsString(desiredState.getSelector());
-                }
-                if (currentState != null) {
-                    replicas = currentState.getReplicas();
-                }
-                table.row(id, labels, toPositiveNonZeroText(replicas), selector);
-            }
+        if (currentState != null) {
+            replicas = currentState.getReplicas();
         }
-        table.print();
+        table.row(id, labels, toPositiveNonZeroText(replicas), selector);
     }
 }
 
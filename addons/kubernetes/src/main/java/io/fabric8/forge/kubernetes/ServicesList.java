@@ -15,12 +15,14 @@
  */
 package io.fabric8.forge.kubernetes;
 
+import io.fabric8.forge.kubernetes.cache.ResourceCaches;
+import io.fabric8.forge.kubernetes.list.PagedTablePrinter;
+import io.fabric8.forge.kubernetes.list.ResourcePager;
 import io.fabric8.kubernetes.api.KubernetesHelper;
 import io.fabric8.kubernetes.api.model.Service;
-import io.fabric8.kubernetes.api.model.ServiceList;
+import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.utils.Filter;
 import io.fabric8.utils.Strings;
-import io.fabric8.utils.TablePrinter;
 import org.jboss.forge.addon.ui.context.UIBuilder;
 import org.jboss.forge.addon.ui.context.UIContext;
 import org.jboss.forge.addon.ui.context.UIExecutionContext;
@@ -32,9 +34,7 @@ import org.jboss.forge.addon.ui.util.Categories;
 import org.jboss.forge.addon.ui.util.Metadata;
 
 import javax.inject.Inject;
-import java.io.PrintStream;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -44,7 +44,7 @@ import static io.fabric8.kubernetes.api.KubernetesHelper.getSelector;
 /**
  * Command to list services in kubernetes
  */
-public class ServicesList extends AbstractKubernetesCommand {
+public class ServicesList extends AbstractKubernetesListCommand {
 
     @Inject
     @WithAttributes(name = "filter", label = "The text filter used to filter pods using label selectors")
@@ -66,36 +66,29 @@ public class ServicesList extends AbstractKubernetesCommand {
 
     @Override
     public Result execute(UIExecutionContext uiExecutionContext) throws Exception {
-        ServiceList services = getKubernetes().services().list();
-        printServices(services, System.out);
-        return null;
-    }
-
-    private void printServices(ServiceList services, PrintStream out) {
-        TablePrinter table = new TablePrinter();
-        table.columns("id", "labels", "selector", "port");
-        List<Service> items = services.getItems();
-        if (items == null) {
-            items = Collections.EMPTY_LIST;
-        }
+        KubernetesClient kubernetes = getKubernetes();
+        PagedTablePrinter table = new PagedTablePrinter(getOut(), "id", "labels", "selector", "port");
         Filter<Service> filter = KubernetesHelper.createServiceFilter(filterText.getValue());
-        for (Service service : items) {
+        return printPages(ResourceCaches.getInstance().services(kubernetes, null), ResourcePager.services(kubernetes, null), table, service -> {
             if (filter.matches(service)) {
-                String labels = KubernetesHelper.toLabelsString(service.getMetadata().getLabels());
-                String selector = KubernetesHelper.toLabelsString(getSelector(service));
-                Set<Integer> ports = getPorts(service);
-                List<Integer> portList = new ArrayList<>(ports);
-                String portText;
-                if (portList.size() == 1) {
-                    portText = portList.get(0).toString();
-
-                } else {
-                    portText = Strings.join(portList, ", ");
-                }
-                table.row(KubernetesHelper.getName(service), labels, selector, portText);
+                printService(table, service);
             }
+        });
+    }
+
+    private void printService(PagedTablePrinter table, Service service) {
+        String labels = KubernetesHelper.toLabelsString(service.getMetadata().getLabels());
+        String selector = KubernetesHelper.toLabelsString(getSelector(service));
+        Set<Integer> ports = getPorts(service);
+        List<Integer> portList = new ArrayList<>(ports);
+        String portText;
+        if (portList.size() == 1) {
+            portText = portList.get(0).toString();
+
+        } else {
+            portText = Strings.join(portList, ", ");
         }
-        table.print();
+        table.row(KubernetesHelper.getName(service), labels, selector, portText);
     }
 }
 
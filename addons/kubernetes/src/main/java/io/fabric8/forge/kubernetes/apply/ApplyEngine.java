@@ -0,0 +1,224 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.kubernetes.apply;
+
+import io.fabric8.kubernetes.api.KubernetesHelper;
+import io.fabric8.kubernetes.api.extensions.Templates;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.Handlers;
+import io.fabric8.kubernetes.client.HttpClientAware;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.ResourceHandler;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.fabric8.openshift.api.model.Template;
+import io.fabric8.utils.Strings;
+import okhttp3.OkHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Applies the resources of a kubernetes <code>List</code> or <code>Template</code> in dependency order; first the
+ * namespaces, then the secrets and configuration, then the services and finally the controllers and everything else.
+ * <p/>
+ * The resources of the same level do not depend on each other so they are applied concurrently using a bounded pool
+ * of threads. A hash of the content of each resource is stored in the {@link #HASH_ANNOTATION} annotation so that a
+ * resource which has not changed since it was last applied is skipped.
+ */
+public class ApplyEngine {
+    private static final transient Logger LOG = LoggerFactory.getLogger(ApplyEngine.class);
+
+    public static final String HASH_ANNOTATION = "fabric8.io/apply-hash";
+    public static final int DEFAULT_THREADS = 8;
+
+    private static final Set<String> NAMESPACE_KINDS = new HashSet<>(Arrays.asList("Namespace", "Project", "ProjectRequest"));
+    private static final Set<String> CONFIG_KINDS = new HashSet<>(Arrays.asList("Secret", "ConfigMap", "ServiceAccount",
+            "PersistentVolume", "PersistentVolumeClaim", "LimitRange", "ResourceQuota", "Role", "RoleBinding",
+            "ClusterRole", "ClusterRoleBinding", "OAuthClient", "ImageStream"));
+    private static final Set<String> SERVICE_KINDS = new HashSet<>(Arrays.asList("Service"));
+    private static final Set<String> CLUSTER_KINDS = new HashSet<>(Arrays.asList("Namespace", "Project", "ProjectRequest",
+            "PersistentVolume", "Node", "StorageClass", "ClusterRole", "ClusterRoleBinding", "OAuthClient", "SecurityContextConstraints"));
+
+    private final OkHttpClient httpClient;
+    private final Config config;
+    private final String namespace;
+    private final int threads;
+
+    public ApplyEngine(KubernetesClient client, String namespace) {
+        this(client, namespace, DEFAULT_THREADS);
+    }
+
+    public ApplyEngine(KubernetesClient client, String namespace, int threads) {
+        if (Strings.isNullOrBlank(namespace)) {
+            namespace = client.getNamespace();
+        }
+        if (!(client instanceof HttpClientAware)) {
+            throw new IllegalArgumentException("Cannot apply resources with client " + client.getClass().getName());
+        }
+        this.httpClient = ((HttpClientAware) client).getHttpClient();
+        this.config = client.getConfiguration();
+        this.namespace = namespace;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Loads the resources of the given JSON file, processing it locally if it is a template
+     */
+    public static List<HasMetadata> loadItems(File file) throws IOException {
+        Object dto = KubernetesHelper.loadJson(file);
+        if (dto instanceof Template) {
+            dto = Templates.processTemplatesLocally((Template) dto, false);
+        }
+        return KubernetesHelper.toItemList(dto);
+    }
+
+    /**
+     * Returns the level of the resource in the dependency order, the resources of a level are applied after all the
+     * resources of the lower levels
+     */
+    public static int getLevel(HasMetadata item) {
+        String kind = KubernetesHelper.getKind(item);
+        if (NAMESPACE_KINDS.contains(kind)) {
+            return 0;
+        } else if (CONFIG_KINDS.contains(kind)) {
+            return 1;
+        } else if (SERVICE_KINDS.contains(kind)) {
+            return 2;
+        }
+        return 3;
+    }
+
+    /**
+     * Returns the hash of the content of the resource ignoring any previous {@link #HASH_ANNOTATION}
+     */
+    public static String getContentHash(HasMetadata item) {
+        ObjectMeta metadata = item.getMetadata();
+        Map<String, String> annotations = metadata != null ? metadata.getAnnotations() : null;
+        String previous = annotations != null ? annotations.remove(HASH_ANNOTATION) : null;
+        try {
+            byte[] json = Serialization.asJson(item).getBytes(StandardCharsets.UTF_8);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            StringBuilder answer = new StringBuilder();
+            for (byte b : digest) {
+                answer.append(String.format("%02x", b));
+            }
+            return answer.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot hash resources due " + e.getMessage(), e);
+        } finally {
+            if (previous != null) {
+                annotations.put(HASH_ANNOTATION, previous);
+            }
+        }
+    }
+
+    /**
+     * Applies the resources level by level; if a resource of a level fails the higher levels are not applied as
+     * they may depend on it
+     */
+    public ApplyResult apply(List<HasMetadata> items) throws InterruptedException {
+        Map<Integer, List<HasMetadata>> levels = new TreeMap<>();
+        for (HasMetadata item : items) {
+            levels.computeIfAbsent(getLevel(item), k -> new ArrayList<>()).add(item);
+        }
+
+        ApplyResult answer = new ApplyResult();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (Map.Entry<Integer, List<HasMetadata>> entry : levels.entrySet()) {
+                Map<HasMetadata, Future<ApplyResult.Outcome>> futures = new LinkedHashMap<>();
+                for (HasMetadata item : entry.getValue()) {
+                    futures.put(item, executor.submit(() -> applyItem(item)));
+                }
+                for (Map.Entry<HasMetadata, Future<ApplyResult.Outcome>> future : futures.entrySet()) {
+                    String name = ApplyResult.nameOf(future.getKey());
+                    try {
+                        answer.add(name, future.getValue().get());
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        LOG.warn("Failed to apply " + name + " due " + cause.getMessage(), cause);
+                        answer.addFailure(name, cause);
+                    }
+                }
+                if (answer.hasFailures()) {
+                    break;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return answer;
+    }
+
+    protected ApplyResult.Outcome applyItem(HasMetadata item) {
+        String kind = KubernetesHelper.getKind(item);
+        ObjectMeta metadata = item.getMetadata();
+        if (metadata == null) {
+            metadata = new ObjectMeta();
+            item.setMetadata(metadata);
+        }
+        if (!CLUSTER_KINDS.contains(kind) && Strings.isNullOrBlank(metadata.getNamespace())) {
+            metadata.setNamespace(namespace);
+        }
+
+        String hash = getContentHash(item);
+        Map<String, String> annotations = metadata.getAnnotations();
+        if (annotations == null) {
+            annotations = new HashMap<>();
+            metadata.setAnnotations(annotations);
+        }
+        annotations.put(HASH_ANNOTATION, hash);
+
+        String itemNamespace = CLUSTER_KINDS.contains(kind) ? null : metadata.getNamespace();
+        ResourceHandler<HasMetadata, ?> handler = Handlers.get(kind);
+        if (handler == null) {
+            throw new IllegalArgumentException("Cannot apply resources of kind " + kind);
+        }
+        HasMetadata existing = handler.reload(httpClient, config, itemNamespace, item);
+        if (existing != null) {
+            ObjectMeta existingMetadata = existing.getMetadata();
+            Map<String, String> existingAnnotations = existingMetadata != null ? existingMetadata.getAnnotations() : null;
+            if (existingAnnotations != null && hash.equals(existingAnnotations.get(HASH_ANNOTATION))) {
+                LOG.debug("Skipping unchanged {}", ApplyResult.nameOf(item));
+                return ApplyResult.Outcome.UNCHANGED;
+            }
+            handler.replace(httpClient, config, itemNamespace, item);
+        } else {
+            handler.create(httpClient, config, itemNamespace, item);
+        }
+        return existing == null ? ApplyResult.Outcome.CREATED : ApplyResult.Outcome.UPDATED;
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.kubernetes.apply;
+
+import io.fabric8.kubernetes.api.KubernetesHelper;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The resources created, updated, skipped as unchanged or failed by an {@link ApplyEngine}
+ */
+public class ApplyResult {
+
+    public enum Outcome {
+        CREATED, UPDATED, UNCHANGED
+    }
+
+    private final List<String> created = new ArrayList<>();
+    private final List<String> updated = new ArrayList<>();
+    private final List<String> unchanged = new ArrayList<>();
+    private final Map<String, Throwable> failures = new LinkedHashMap<>();
+
+    static String nameOf(HasMetadata item) {
+        return KubernetesHelper.getKind(item) + "/" + KubernetesHelper.getName(item);
+    }
+
+    void add(String name, Outcome outcome) {
+        switch (outcome) {
+            case CREATED:
+                created.add(name);
+                break;
+            case UPDATED:
+                updated.add(name);
+                break;
+            default:
+                unchanged.add(name);
+        }
+    }
+
+    void addFailure(String name, Throwable cause) {
+        failures.put(name, cause);
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    public List<String> getCreated() {
+        return Collections.unmodifiableList(created);
+    }
+
+    public List<String> getUpdated() {
+        return Collections.unmodifiableList(updated);
+    }
+
+    public List<String> getUnchanged() {
+        return Collections.unmodifiableList(unchanged);
+    }
+
+    public Map<String, Throwable> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    @Override
+    public String toString() {
+        return "Applied " + (created.size() + updated.size() + unchanged.size()) + " resources (created: " + created.size()
+                + ", updated: " + updated.size() + ", unchanged: " + unchanged.size() + ", failed: " + failures.size() + ")";
+    }
+}
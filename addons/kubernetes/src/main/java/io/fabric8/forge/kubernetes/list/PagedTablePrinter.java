@@ -0,0 +1,103 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.kubernetes.list;
+
+import io.fabric8.utils.TablePrinter;
+
+import java.io.PrintStream;
+
+/**
+ * Prints a table a page of rows at a time in the same format as {@link TablePrinter}, so the first rows are
+ * shown before the remaining rows have been loaded.
+ * <p/>
+ * The header is printed with the first page and the columns are as wide as the widest value seen so far, so
+ * a column only grows when a later page has a wider value.
+ */
+public class PagedTablePrinter {
+    private final PrintStream out;
+    private final String[] headers;
+    private final int[] widths;
+    private TablePrinter page;
+    private boolean printedHeader;
+    private long rowCount;
+
+    public PagedTablePrinter(PrintStream out, String... headers) {
+        this.out = out;
+        this.headers = headers;
+        this.widths = new int[headers.length];
+    }
+
+    public void row(String... values) {
+        if (page == null) {
+            page = new TablePrinter();
+            page.columns(headers);
+        }
+        page.row(values);
+        rowCount++;
+    }
+
+    /**
+     * Prints the rows added since the last flush
+     */
+    public void flush() {
+        if (page == null) {
+            return;
+        }
+        for (int i = 0; i < widths.length; i++) {
+            TablePrinter.Column column = page.column(i);
+            column.ensureWidth(widths[i]);
+            widths[i] = column.getWidth();
+        }
+        final boolean skipHeader = printedHeader;
+        page.print(new TablePrinter.TableWriter() {
+            private boolean inHeader = skipHeader;
+
+            @Override
+            public void print(String text) {
+                if (!inHeader) {
+                    out.print(text);
+                }
+            }
+
+            @Override
+            public void println() {
+                if (inHeader) {
+                    inHeader = false;
+                } else {
+                    out.println();
+                }
+            }
+        });
+        out.flush();
+        printedHeader = true;
+        page = null;
+    }
+
+    /**
+     * Prints the header if no rows have been printed, so an empty table still shows its columns
+     */
+    public void close() {
+        if (page == null && !printedHeader) {
+            page = new TablePrinter();
+            page.columns(headers);
+        }
+        flush();
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+}
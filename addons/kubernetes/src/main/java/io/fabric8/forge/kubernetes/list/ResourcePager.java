@@ -0,0 +1,188 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.kubernetes.list;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.ListMeta;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.api.model.ReplicationController;
+import io.fabric8.kubernetes.api.model.ReplicationControllerList;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceList;
+import io.fabric8.kubernetes.client.HttpClientAware;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.fabric8.kubernetes.client.utils.URLUtils;
+import io.fabric8.utils.Strings;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Lists the resources of one kind in one namespace a page at a time using the <code>limit</code> and
+ * <code>continue</code> parameters of the kubernetes API, so that only one page of resources is held in memory.
+ * <p/>
+ * Masters which do not support paging ignore the limit and return all the resources as a single page.
+ */
+public class ResourcePager<T extends HasMetadata> {
+    public static final int DEFAULT_PAGE_SIZE = 500;
+
+    private final KubernetesClient client;
+    private final String url;
+    private final Class<? extends KubernetesResourceList> listType;
+    private String labelSelector;
+    private String fieldSelector;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private int pageCount;
+
+    public ResourcePager(KubernetesClient client, String namespace, String plural, Class<? extends KubernetesResourceList> listType) {
+        if (Strings.isNullOrBlank(namespace)) {
+            namespace = client.getNamespace();
+        }
+        this.client = client;
+        this.url = URLUtils.join(client.getMasterUrl().toString(), "api", client.getApiVersion(), "namespaces", namespace, plural);
+        this.listType = listType;
+    }
+
+    public static ResourcePager<Pod> pods(KubernetesClient client, String namespace) {
+        return new ResourcePager<>(client, namespace, "pods", PodList.class);
+    }
+
+    public static ResourcePager<Service> services(KubernetesClient client, String namespace) {
+        return new ResourcePager<>(client, namespace, "services", ServiceList.class);
+    }
+
+    public static ResourcePager<ReplicationController> replicationControllers(KubernetesClient client, String namespace) {
+        return new ResourcePager<>(client, namespace, "replicationcontrollers", ReplicationControllerList.class);
+    }
+
+    /**
+     * Only lists the resources matching the given label selector, such as <code>app=cheese,tier!=db</code>
+     */
+    public ResourcePager<T> withLabelSelector(String labelSelector) {
+        this.labelSelector = labelSelector;
+        return this;
+    }
+
+    /**
+     * Only lists the resources matching the given field selector, such as <code>status.phase=Running</code>
+     */
+    public ResourcePager<T> withFieldSelector(String fieldSelector) {
+        this.fieldSelector = fieldSelector;
+        return this;
+    }
+
+    public ResourcePager<T> withPageSize(int pageSize) {
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Returns the number of pages requested from the master so far
+     */
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Requests each page in turn, passing its resources to the consumer before the next page is requested
+     *
+     * @return the total number of resources
+     */
+    public long forEachPage(Consumer<List<T>> consumer) {
+        long answer = 0;
+        String continueToken = null;
+        do {
+            KubernetesResourceList<T> page = requestPage(continueToken);
+            List<T> items = page.getItems();
+            if (items == null) {
+                items = Collections.emptyList();
+            }
+            answer += items.size();
+            consumer.accept(items);
+            continueToken = getContinueToken(page.getMetadata());
+        } while (Strings.isNotBlank(continueToken));
+        return answer;
+    }
+
+    protected HttpUrl pageUrl(String continueToken) {
+        HttpUrl.Builder builder = HttpUrl.parse(url).newBuilder();
+        if (pageSize > 0) {
+            builder.addQueryParameter("limit", "" + pageSize);
+        }
+        if (Strings.isNotBlank(continueToken)) {
+            builder.addQueryParameter("continue", continueToken);
+        }
+        if (Strings.isNotBlank(labelSelector)) {
+            builder.addQueryParameter("labelSelector", labelSelector);
+        }
+        if (Strings.isNotBlank(fieldSelector)) {
+            builder.addQueryParameter("fieldSelector", fieldSelector);
+        }
+        return builder.build();
+    }
+
+    @SuppressWarnings("unchecked")
+    protected KubernetesResourceList<T> requestPage(String continueToken) {
+        if (!(client instanceof HttpClientAware)) {
+            throw new IllegalArgumentException("Cannot page through resources using client " + client.getClass().getName());
+        }
+        OkHttpClient httpClient = ((HttpClientAware) client).getHttpClient();
+        HttpUrl pageUrl = pageUrl(continueToken);
+        Request request = new Request.Builder().get().url(pageUrl).build();
+        pageCount++;
+        try (Response response = httpClient.newCall(request).execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful()) {
+                String message = body != null ? body.string() : response.message();
+                throw new KubernetesClientException("Failed to list " + pageUrl + " due " + response.code() + ": " + message, response.code(), null);
+            }
+            try (InputStream is = body.byteStream()) {
+                return Serialization.jsonMapper().readValue(is, listType);
+            }
+        } catch (IOException e) {
+            throw new KubernetesClientException("Failed to list " + pageUrl + " due " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The model does not have the <code>continue</code> field of newer masters yet so it ends up as an additional property
+     */
+    protected static String getContinueToken(ListMeta metadata) {
+        if (metadata != null && metadata.getAdditionalProperties() != null) {
+            Object value = metadata.getAdditionalProperties().get("continue");
+            if (value != null) {
+                return value.toString();
+            }
+        }
+        return null;
+    }
+}
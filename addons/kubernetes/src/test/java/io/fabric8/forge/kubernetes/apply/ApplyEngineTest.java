@@ -0,0 +1,277 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.kubernetes.apply;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ServerSocketFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.NamespaceBuilder;
+import io.fabric8.kubernetes.api.model.ReplicationControllerBuilder;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.fabric8.openshift.api.model.TemplateBuilder;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ApplyEngineTest {
+
+    private static final long LATENCY_MILLIS = 2;
+    private static final int ITEMS = 100;
+
+    @Rule
+    public MockWebServer server = new MockWebServer();
+
+    {
+        // answer each request at once rather than waiting for the acknowledgement of its headers
+        server.setServerSocketFactory(new NoDelayServerSocketFactory());
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FakeMaster master;
+    private File template;
+    private KubernetesClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        master = new FakeMaster();
+        server.setDispatcher(master);
+        template = writeTemplate(folder.newFile("template.json"), createItems("1"));
+        client = new DefaultKubernetesClient(new ConfigBuilder().withMasterUrl(server.url("/").toString())
+                .withNamespace("test").build());
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+    }
+
+    @Test
+    public void testAppliesInDependencyOrder() throws Exception {
+        ApplyResult result = new ApplyEngine(client, "test", 8).apply(ApplyEngine.loadItems(template));
+
+        assertFalse(result.toString(), result.hasFailures());
+        assertEquals(ITEMS, result.getCreated().size());
+        assertEquals(ITEMS, master.writes.size());
+
+        // a resource is only written once all the resources of the lower levels have been written
+        int level = 0;
+        for (String kind : master.writes) {
+            int kindLevel = levelOf(kind);
+            assertTrue("Applied " + kind + " after level " + level, kindLevel >= level);
+            level = kindLevel;
+        }
+        assertEquals("Namespace", master.writes.get(0));
+    }
+
+    @Test
+    public void testSkipsUnchangedResources() throws Exception {
+        ApplyEngine engine = new ApplyEngine(client, "test", 8);
+        engine.apply(ApplyEngine.loadItems(template));
+        master.writes.clear();
+
+        ApplyResult result = engine.apply(ApplyEngine.loadItems(template));
+        assertEquals(result.toString(), ITEMS, result.getUnchanged().size());
+        assertEquals(0, master.writes.size());
+
+        // only the changed resource is written again
+        writeTemplate(template, createItems("2"));
+        result = engine.apply(ApplyEngine.loadItems(template));
+        assertEquals(result.getUpdated().toString(), Collections.singletonList("ConfigMap/config-0"), result.getUpdated());
+        assertEquals(ITEMS - 1, result.getUnchanged().size());
+        assertEquals(Collections.singletonList("ConfigMap"), master.writes);
+    }
+
+    @Test
+    public void testAppliesConcurrently() throws Exception {
+        ApplyResult result = new ApplyEngine(client, "test", 1).apply(ApplyEngine.loadItems(template));
+        assertEquals(ITEMS, result.getCreated().size());
+        assertEquals(1, master.peakInFlight.get());
+
+        master.clear();
+        result = new ApplyEngine(client, "test", 8).apply(ApplyEngine.loadItems(template));
+        assertEquals(ITEMS, result.getCreated().size());
+        int peak = master.peakInFlight.get();
+        assertTrue("Expected concurrent requests but at most " + peak + " were in flight", peak > 1);
+        assertTrue("Expected at most 8 requests in flight but got " + peak, peak <= 8);
+    }
+
+    private static int levelOf(String kind) {
+        switch (kind) {
+            case "Namespace":
+                return 0;
+            case "Secret":
+            case "ConfigMap":
+                return 1;
+            case "Service":
+                return 2;
+            default:
+                return 3;
+        }
+    }
+
+    /**
+     * Creates {@link #ITEMS} resources; a namespace, 20 secrets, 19 config maps, 30 services and 30 replication
+     * controllers. The first config map has the given value
+     */
+    private static List<HasMetadata> createItems(String value) {
+        List<HasMetadata> items = new ArrayList<>();
+        items.add(new NamespaceBuilder().withNewMetadata().withName("test").endMetadata().build());
+        for (int i = 0; i < 30; i++) {
+            if (i < 20) {
+                items.add(new SecretBuilder().withNewMetadata().withName("secret-" + i).endMetadata()
+                        .addToData("password", "c2VjcmV0").build());
+            }
+            if (i < 19) {
+                ConfigMap configMap = new ConfigMapBuilder().withNewMetadata().withName("config-" + i).endMetadata()
+                        .addToData("value", i == 0 ? value : "1").build();
+                items.add(configMap);
+            }
+            items.add(new ReplicationControllerBuilder().withNewMetadata().withName("app-" + i).endMetadata()
+                    .withNewSpec().withReplicas(1).addToSelector("app", "app-" + i).endSpec().build());
+            items.add(new ServiceBuilder().withNewMetadata().withName("app-" + i).endMetadata()
+                    .withNewSpec().addToSelector("app", "app-" + i).addNewPort().withPort(80).endPort().endSpec().build());
+        }
+        // shuffle the kinds so the order comes from the engine
+        Collections.reverse(items);
+        return items;
+    }
+
+    private static File writeTemplate(File file, List<HasMetadata> items) throws Exception {
+        String json = Serialization.asJson(new TemplateBuilder().withNewMetadata().withName("big").endMetadata().withObjects(items).build());
+        Files.write(file.toPath(), json.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static class NoDelayServerSocketFactory extends ServerSocketFactory {
+
+        @Override
+        public ServerSocket createServerSocket() throws IOException {
+            return new ServerSocket() {
+                @Override
+                public Socket accept() throws IOException {
+                    Socket socket = super.accept();
+                    socket.setTcpNoDelay(true);
+                    return socket;
+                }
+            };
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog, InetAddress address) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * A master which keeps the resources in memory, takes a little while to answer each request and records
+     * the most requests it was answering at the same time
+     */
+    private static class FakeMaster extends Dispatcher {
+        private final Map<String, String> resources = new ConcurrentHashMap<>();
+        private final List<String> writes = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peakInFlight = new AtomicInteger();
+
+        void clear() {
+            resources.clear();
+            writes.clear();
+            peakInFlight.set(0);
+        }
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            int current = inFlight.incrementAndGet();
+            peakInFlight.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(LATENCY_MILLIS);
+                return answer(request);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        private MockResponse answer(RecordedRequest request) {
+            String path = request.getPath();
+            if (path.contains("?")) {
+                path = path.substring(0, path.indexOf('?'));
+            }
+            String method = request.getMethod();
+            if ("GET".equals(method)) {
+                String body = resources.get(path);
+                if (body == null) {
+                    return new MockResponse().setResponseCode(404).setBody("{\"kind\":\"Status\",\"code\":404}");
+                }
+                return new MockResponse().setResponseCode(200).setBody(body);
+            }
+            String body = request.getBody().readUtf8();
+            try {
+                JsonNode json = Serialization.jsonMapper().readTree(body);
+                if ("POST".equals(method)) {
+                    path = path + "/" + json.get("metadata").get("name").asText();
+                }
+                resources.put(path, body);
+                writes.add(json.get("kind").asText());
+            } catch (Exception e) {
+                return new MockResponse().setResponseCode(500).setBody(e.getMessage());
+            }
+            return new MockResponse().setResponseCode("POST".equals(method) ? 201 : 200).setBody(body);
+        }
+    }
+}
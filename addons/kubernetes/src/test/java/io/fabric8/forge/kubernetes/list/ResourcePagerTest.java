@@ -0,0 +1,162 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p/>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.kubernetes.list;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResourcePagerTest {
+
+    private static final int PODS = 50000;
+    private static final int PAGE_SIZE = 500;
+
+    @Rule
+    public KubernetesServer server = new KubernetesServer(false);
+
+    @Test
+    public void testPagesThroughManyPods() throws Exception {
+        int pages = PODS / PAGE_SIZE;
+        for (int page = 0; page < pages; page++) {
+            String path = "/api/v1/namespaces/test/pods?limit=" + PAGE_SIZE + (page > 0 ? "&continue=page" + page : "");
+            server.expect().withPath(path).andReturn(200, podPage(page, page + 1 < pages ? "page" + (page + 1) : null)).once();
+        }
+
+        final AtomicInteger requestsBeforeFirstRow = new AtomicInteger(-1);
+        final int[] lines = new int[1];
+        PrintStream out = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                if (requestsBeforeFirstRow.get() < 0) {
+                    requestsBeforeFirstRow.set(server.getMockServer().getRequestCount());
+                }
+                if (b == '\n') {
+                    lines[0]++;
+                }
+            }
+        });
+        final PagedTablePrinter table = new PagedTablePrinter(out, "id", "image(s)", "labels");
+        final int[] largestPage = new int[1];
+        final WeakReference<?>[] firstPage = new WeakReference<?>[1];
+
+        ResourcePager<Pod> pager = ResourcePager.pods(server.getClient(), "test").withPageSize(PAGE_SIZE);
+        long count = pager.forEachPage(items -> {
+            if (firstPage[0] == null) {
+                firstPage[0] = new WeakReference<>(items);
+            }
+            largestPage[0] = Math.max(largestPage[0], items.size());
+            for (Pod pod : items) {
+                table.row(pod.getMetadata().getName(), pod.getSpec().getContainers().get(0).getImage(), "app=cheese");
+            }
+            table.flush();
+        });
+        table.close();
+
+        assertEquals(PODS, count);
+        assertEquals(pages, pager.getPageCount());
+        assertEquals(PAGE_SIZE, largestPage[0]);
+        // the header and first page are printed before the second page is requested
+        assertEquals(1, requestsBeforeFirstRow.get());
+        // the header is only printed once
+        assertEquals(PODS + 1, lines[0]);
+        assertEquals(PODS, table.getRowCount());
+
+        // the pages are not kept once they are printed
+        assertNull(awaitCollected(firstPage[0]));
+    }
+
+    /**
+     * Requests garbage collections until the reference is cleared or a few attempts have been made,
+     * as a single request is not guaranteed to collect it
+     */
+    private static Object awaitCollected(WeakReference<?> reference) throws InterruptedException {
+        for (int i = 0; i < 10 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return reference.get();
+    }
+
+    @Test
+    public void testPassesSelectorsAndStopsWithoutContinue() throws Exception {
+        server.expect().withPath("/api/v1/namespaces/test/pods?limit=2&labelSelector=app%3Dcheese&fieldSelector=status.phase%3DRunning")
+                .andReturn(200, podPage(0, null)).once();
+
+        ResourcePager<Pod> pager = ResourcePager.pods(server.getClient(), "test").withPageSize(2)
+                .withLabelSelector("app=cheese").withFieldSelector("status.phase=Running");
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PagedTablePrinter table = new PagedTablePrinter(new PrintStream(buffer), "id");
+        long count = pager.forEachPage(items -> {
+            for (Pod pod : items) {
+                table.row(pod.getMetadata().getName());
+            }
+            table.flush();
+        });
+        table.close();
+
+        // a master which does not support paging returns everything in one page
+        assertEquals(PAGE_SIZE, count);
+        assertEquals(1, pager.getPageCount());
+        List<String> lines = Arrays.asList(buffer.toString().split("\n"));
+        assertEquals(PAGE_SIZE + 1, lines.size());
+        assertTrue(lines.get(0).startsWith("[id]"));
+        assertTrue(lines.get(1).startsWith("pod-0-0"));
+    }
+
+    @Test
+    public void testPrintsHeaderOfEmptyTable() throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PagedTablePrinter table = new PagedTablePrinter(new PrintStream(buffer), "id", "labels");
+        table.flush();
+        table.close();
+        assertTrue(buffer.toString().startsWith("[id]"));
+        assertEquals(0, table.getRowCount());
+    }
+
+    /**
+     * Creates the json of a page of pods directly as building thousands of pods with the model builders is slow
+     */
+    private static String podPage(int page, String continueToken) {
+        StringBuilder json = new StringBuilder("{\"apiVersion\":\"v1\",\"kind\":\"PodList\",\"metadata\":{\"resourceVersion\":\"1\"");
+        if (continueToken != null) {
+            json.append(",\"continue\":\"").append(continueToken).append("\"");
+        }
+        json.append("},\"items\":[");
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            if (i > 0) {
+                json.append(",");
+            }
+            json.append("{\"metadata\":{\"name\":\"pod-").append(page).append("-").append(i)
+                    .append("\",\"namespace\":\"test\",\"labels\":{\"app\":\"cheese\"}},")
+                    .append("\"spec\":{\"containers\":[{\"name\":\"cheese\",\"image\":\"fabric8/cheese:1.0\"}]},")
+                    .append("\"status\":{\"phase\":\"Running\",\"hostIP\":\"10.0.0.1\"}}");
+        }
+        return json.append("]}").toString();
+    }
+}
@@ -0,0 +1,345 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.addon.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import org.jboss.forge.addon.parser.java.facets.JavaSourceFacet;
+import org.jboss.forge.addon.resource.DirectoryResource;
+import org.jboss.forge.roaster.Roaster;
+import org.jboss.forge.roaster.model.Extendable;
+import org.jboss.forge.roaster.model.JavaType;
+import org.jboss.forge.roaster.model.JavaUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An index of the package, top level type names and super class of the java source files of a project.
+ * <p/>
+ * The index is keyed by the path of each source file and its last modified time and size. Each time the index
+ * is used the source directories are scanned for changes and only the new or changed files are parsed with Roaster.
+ * The index is persisted so it survives restarts; inside the <tt>.git</tt> directory of the project so that it is
+ * never committed, or in the temporary directory if the project is not in a git repository.
+ */
+public class JavaSourceIndex {
+    private static final transient Logger LOG = LoggerFactory.getLogger(JavaSourceIndex.class);
+
+    private static final String INDEX_HEADER = "# fabric8-forge java source index v1";
+    private static final String INDEX_DIRECTORY = "fabric8-forge";
+    static final int MAX_INDEXES = 50;
+    private static final Map<File, JavaSourceIndex> INDEXES = Collections.synchronizedMap(new LinkedHashMap<File, JavaSourceIndex>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<File, JavaSourceIndex> eldest) {
+            return size() > MAX_INDEXES;
+        }
+    });
+
+    private final File indexFile;
+    private final List<File> sourceDirectories;
+    private final SourceParser parser;
+    private Map<String, SourceEntry> entries;
+
+    /**
+     * Extracts the types declared in a java source file
+     */
+    public interface SourceParser {
+        List<TypeSymbol> parse(File file) throws IOException;
+    }
+
+    /**
+     * A top level type of a java source file
+     */
+    public static final class TypeSymbol {
+        private final String packageName;
+        private final String qualifiedName;
+        private final String superType;
+
+        public TypeSymbol(String packageName, String qualifiedName, String superType) {
+            this.packageName = packageName;
+            this.qualifiedName = qualifiedName;
+            this.superType = superType;
+        }
+
+        public String getPackageName() {
+            return packageName;
+        }
+
+        public String getQualifiedName() {
+            return qualifiedName;
+        }
+
+        public String getSuperType() {
+            return superType;
+        }
+
+        @Override
+        public String toString() {
+            return "TypeSymbol{" + qualifiedName + " extends " + superType + "}";
+        }
+    }
+
+    private static final class SourceEntry {
+        private final long lastModified;
+        private final long length;
+        private final List<TypeSymbol> types;
+
+        SourceEntry(long lastModified, long length, List<TypeSymbol> types) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.types = types;
+        }
+    }
+
+    public JavaSourceIndex(File indexFile, List<File> sourceDirectories, SourceParser parser) {
+        this.indexFile = indexFile;
+        this.sourceDirectories = sourceDirectories;
+        this.parser = parser;
+    }
+
+    /**
+     * Returns the index of the main java sources of the project of the given facet
+     */
+    public static JavaSourceIndex forJavaSources(JavaSourceFacet facet) {
+        List<File> directories = new ArrayList<>();
+        for (DirectoryResource directory : facet.getSourceDirectories()) {
+            directories.add(directory.getUnderlyingResourceObject());
+        }
+        return getInstance(indexFile(facet, "java-sources.idx"), directories);
+    }
+
+    /**
+     * Returns the index of the test java sources of the project of the given facet
+     */
+    public static JavaSourceIndex forJavaTestSources(JavaSourceFacet facet) {
+        List<File> directories = Collections.singletonList(facet.getTestSourceDirectory().getUnderlyingResourceObject());
+        return getInstance(indexFile(facet, "java-test-sources.idx"), directories);
+    }
+
+    /**
+     * Returns the shared index which is persisted in the given file, parsing the sources with Roaster.
+     * Only the most recently used indexes are kept in memory
+     */
+    public static JavaSourceIndex getInstance(File indexFile, List<File> sourceDirectories) {
+        JavaSourceIndex answer = INDEXES.computeIfAbsent(indexFile.getAbsoluteFile(),
+                file -> new JavaSourceIndex(file, sourceDirectories, JavaSourceIndex::parseWithRoaster));
+        if (!answer.sourceDirectories.equals(sourceDirectories)) {
+            // the source directories of the project have been reconfigured
+            answer = new JavaSourceIndex(indexFile.getAbsoluteFile(), sourceDirectories, JavaSourceIndex::parseWithRoaster);
+            INDEXES.put(indexFile.getAbsoluteFile(), answer);
+        }
+        return answer;
+    }
+
+    private static File indexFile(JavaSourceFacet facet, String name) {
+        Object root = facet.getFaceted().getRoot().getUnderlyingResourceObject();
+        return indexFile((File) root, name);
+    }
+
+    /**
+     * Returns the file to persist the named index of the project in the given directory. It lives in the
+     * <tt>.git</tt> directory of the repository containing the project so it is not part of the working tree,
+     * otherwise in the temporary directory.
+     */
+    public static File indexFile(File projectDir, String name) {
+        File projectRoot = projectDir.getAbsoluteFile();
+        StringBuilder relativePath = new StringBuilder();
+        for (File dir = projectRoot; dir != null; dir = dir.getParentFile()) {
+            File gitDir = new File(dir, ".git");
+            if (gitDir.isDirectory()) {
+                return new File(new File(new File(gitDir, INDEX_DIRECTORY), relativePath.toString()), name);
+            }
+            relativePath.insert(0, dir.getName() + File.separator);
+        }
+        String key = UUID.nameUUIDFromBytes(projectRoot.getPath().getBytes(StandardCharsets.UTF_8)).toString();
+        return new File(new File(new File(System.getProperty("java.io.tmpdir"), INDEX_DIRECTORY), key), name);
+    }
+
+    /**
+     * Returns all the top level types of the java sources, bringing the index up to date first
+     */
+    public synchronized List<TypeSymbol> getTypes() {
+        refresh();
+        List<TypeSymbol> answer = new ArrayList<>();
+        for (SourceEntry entry : entries.values()) {
+            answer.addAll(entry.types);
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the package names of the java sources
+     */
+    public SortedSet<String> getPackageNames() {
+        SortedSet<String> answer = new TreeSet<>();
+        for (TypeSymbol type : getTypes()) {
+            if (type.getPackageName() != null) {
+                answer.add(type.getPackageName());
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the types whose super class matches the given predicate
+     */
+    public List<TypeSymbol> findTypes(Predicate<String> superTypeFilter) {
+        List<TypeSymbol> answer = new ArrayList<>();
+        for (TypeSymbol type : getTypes()) {
+            if (type.getSuperType() != null && superTypeFilter.test(type.getSuperType())) {
+                answer.add(type);
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Scans the source directories for new, changed and deleted files, parses the new and changed ones
+     * and saves the index if anything changed
+     */
+    public synchronized void refresh() {
+        if (entries == null) {
+            entries = load();
+        }
+        Map<String, File> files = new HashMap<>();
+        for (File directory : sourceDirectories) {
+            findJavaFiles(directory, files);
+        }
+
+        boolean changed = entries.keySet().retainAll(files.keySet());
+        int parsed = 0;
+        for (Map.Entry<String, File> file : files.entrySet()) {
+            File source = file.getValue();
+            long lastModified = source.lastModified();
+            long length = source.length();
+            SourceEntry entry = entries.get(file.getKey());
+            if (entry == null || entry.lastModified != lastModified || entry.length != length) {
+                List<TypeSymbol> types;
+                try {
+                    types = parser.parse(source);
+                } catch (Exception e) {
+                    LOG.debug("Failed to parse " + source + ": " + e, e);
+                    types = Collections.emptyList();
+                }
+                entries.put(file.getKey(), new SourceEntry(lastModified, length, types));
+                parsed++;
+                changed = true;
+            }
+        }
+        if (changed) {
+            LOG.debug("Parsed " + parsed + " of " + files.size() + " java sources for " + indexFile);
+            save();
+        }
+    }
+
+    private static void findJavaFiles(File directory, Map<String, File> files) {
+        File[] children = directory.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                if (child.isDirectory()) {
+                    findJavaFiles(child, files);
+                } else if (child.getName().endsWith(".java") && !child.getName().contains("package-info")) {
+                    files.put(child.getPath(), child);
+                }
+            }
+        }
+    }
+
+    private Map<String, SourceEntry> load() {
+        Map<String, SourceEntry> answer = new HashMap<>();
+        if (!indexFile.isFile()) {
+            return answer;
+        }
+        try (BufferedReader reader = java.nio.file.Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (!INDEX_HEADER.equals(line)) {
+                return answer;
+            }
+            while ((line = reader.readLine()) != null) {
+                // path, last modified, length then package, name and super type of each type
+                String[] values = line.split("\t", -1);
+                List<TypeSymbol> types = new ArrayList<>();
+                for (int i = 3; i + 2 < values.length; i += 3) {
+                    types.add(new TypeSymbol(emptyToNull(values[i]), values[i + 1], emptyToNull(values[i + 2])));
+                }
+                answer.put(values[0], new SourceEntry(Long.parseLong(values[1]), Long.parseLong(values[2]), types));
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Ignoring invalid java source index " + indexFile + ": " + e);
+            answer.clear();
+        }
+        return answer;
+    }
+
+    private void save() {
+        indexFile.getParentFile().mkdirs();
+        try (BufferedWriter writer = java.nio.file.Files.newBufferedWriter(indexFile.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(INDEX_HEADER);
+            writer.newLine();
+            for (Map.Entry<String, SourceEntry> entry : entries.entrySet()) {
+                SourceEntry value = entry.getValue();
+                writer.write(entry.getKey() + "\t" + value.lastModified + "\t" + value.length);
+                for (TypeSymbol type : value.types) {
+                    writer.write("\t" + nullToEmpty(type.getPackageName()) + "\t" + type.getQualifiedName() + "\t" + nullToEmpty(type.getSuperType()));
+                }
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            LOG.warn("Failed to save java source index " + indexFile + ": " + e, e);
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    /**
+     * Parses the top level types of the source file with Roaster
+     */
+    public static List<TypeSymbol> parseWithRoaster(File file) throws IOException {
+        List<TypeSymbol> answer = new ArrayList<>();
+        try (InputStream is = new FileInputStream(file)) {
+            JavaUnit unit = Roaster.parseUnit(is);
+            for (JavaType<?> type : unit.getTopLevelTypes()) {
+                String superType = null;
+                if (type instanceof Extendable) {
+                    superType = ((Extendable<?>) type).getSuperType();
+                }
+                answer.add(new TypeSymbol(type.getPackage(), type.getQualifiedName(), superType));
+            }
+        }
+        return answer;
+    }
+}
@@ -0,0 +1,405 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.addon.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An in memory snapshot of the files below a directory, such as <tt>src/main/resources</tt>, so the completers
+ * can query the files by extension and name without walking the tree each time.
+ * <p/>
+ * Before each query the snapshot is validated by checking the last modified time of each directory, as adding,
+ * deleting or renaming a file changes the time of its parent directory. Only the directories which have changed
+ * are listed again. Alternatively the tree can be watched using a {@link WatchService} in which case only the
+ * directories reported by the watcher are listed again.
+ */
+public class ResourceTree {
+    private static final transient Logger LOG = LoggerFactory.getLogger(ResourceTree.class);
+
+    public static final String ENV_WATCH_RESOURCES = "FABRIC8_FORGE_WATCH_RESOURCES";
+
+    /**
+     * Directories changed this close to when they were listed may be changed again without their time changing
+     * on file systems with a coarse timestamp granularity, so they are listed again on the next query
+     */
+    private static final long RACY_MILLIS = 2000;
+
+    static final int MAX_TREES = 50;
+
+    /**
+     * The most recently used trees; a tree which is evicted stops watching so its watch service is closed
+     */
+    private static final Map<File, ResourceTree> TREES = Collections.synchronizedMap(new LinkedHashMap<File, ResourceTree>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<File, ResourceTree> eldest) {
+            if (size() > MAX_TREES) {
+                eldest.getValue().close();
+                return true;
+            }
+            return false;
+        }
+    });
+
+    private final File rootDirectory;
+    private final SortedMap<String, DirectoryEntry> directories = new TreeMap<>();
+    private final SortedMap<String, FileEntry> files = new TreeMap<>();
+    private WatchService watchService;
+    private boolean scanned;
+
+    private static final class DirectoryEntry {
+        private final File directory;
+        private FileTime lastModified;
+        private boolean racy;
+        private WatchKey watchKey;
+        private Set<String> fileNames = Collections.emptySet();
+        private Set<String> directoryNames = Collections.emptySet();
+
+        DirectoryEntry(File directory) {
+            this.directory = directory;
+        }
+    }
+
+    private static final class FileEntry {
+        private final File file;
+        private long lastModified;
+        private long length;
+        private Map<Predicate<File>, Boolean> matches;
+
+        FileEntry(File file, long lastModified, long length) {
+            this.file = file;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+
+    public ResourceTree(File rootDirectory) {
+        this.rootDirectory = rootDirectory;
+    }
+
+    /**
+     * Returns the shared tree of the given directory, which is watched for changes if the
+     * {@link #ENV_WATCH_RESOURCES} environment variable is <tt>true</tt>.
+     * Only the most recently used trees are kept
+     */
+    public static ResourceTree getInstance(File rootDirectory) {
+        return TREES.computeIfAbsent(rootDirectory.getAbsoluteFile(), directory -> {
+            ResourceTree answer = new ResourceTree(directory);
+            if ("true".equalsIgnoreCase(System.getenv(ENV_WATCH_RESOURCES))) {
+                answer.watch();
+            }
+            return answer;
+        });
+    }
+
+    public File getRootDirectory() {
+        return rootDirectory;
+    }
+
+    /**
+     * Switches to detecting changes with a {@link WatchService}, falling back to checking the directory times
+     * if the file system cannot be watched
+     */
+    public synchronized void watch() {
+        if (watchService != null) {
+            return;
+        }
+        try {
+            watchService = rootDirectory.toPath().getFileSystem().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            LOG.warn("Cannot watch " + rootDirectory + " so checking directory times instead: " + e);
+            return;
+        }
+        for (DirectoryEntry entry : directories.values()) {
+            register(entry);
+            // changes made before the directory was registered are not reported
+            entry.racy = true;
+        }
+    }
+
+    public synchronized boolean isWatching() {
+        return watchService != null;
+    }
+
+    /**
+     * Stops watching the tree for changes; the tree can still be used as it goes back to checking the directory times
+     */
+    public synchronized void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOG.debug("Failed to close watch service of " + rootDirectory + ": " + e, e);
+            }
+            watchService = null;
+            for (DirectoryEntry entry : directories.values()) {
+                entry.watchKey = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the paths relative to the root directory of all the files which match the given filter
+     */
+    public synchronized List<String> findFiles(Predicate<String> filter) {
+        refresh();
+        List<String> answer = new ArrayList<>();
+        for (String path : files.keySet()) {
+            if (filter == null || filter.test(path)) {
+                answer.add(path);
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the paths relative to the root directory of the files with the given extension which match the given filter
+     */
+    public List<String> findFiles(String extension, Predicate<String> filter) {
+        return findFiles(path -> path.endsWith(extension) && (filter == null || filter.test(path)));
+    }
+
+    /**
+     * Returns the paths relative to the root directory of the files with the given extension which match the given
+     * filter and whose content matches the given content filter.
+     * <p/>
+     * The result of the content filter is remembered for each file until the file is modified, so the same
+     * filter instance should be used for each query.
+     */
+    public synchronized List<String> findFiles(String extension, Predicate<String> filter, Predicate<File> contentFilter) {
+        List<String> answer = new ArrayList<>();
+        for (String path : findFiles(extension, filter)) {
+            if (matches(files.get(path), contentFilter)) {
+                answer.add(path);
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the file with the given path relative to the root directory
+     */
+    public File getFile(String path) {
+        return new File(rootDirectory, path);
+    }
+
+    /**
+     * Brings the snapshot up to date with the file system
+     */
+    public synchronized void refresh() {
+        if (!scanned) {
+            scanDirectory("", rootDirectory);
+            scanned = true;
+            return;
+        }
+
+        Set<String> changed = new HashSet<>();
+        boolean checkTimes = watchService == null;
+        if (!checkTimes && !pollWatchEvents(changed)) {
+            // events have been lost
+            checkTimes = true;
+        }
+        for (Map.Entry<String, DirectoryEntry> entry : new ArrayList<>(directories.entrySet())) {
+            DirectoryEntry directory = entry.getValue();
+            if (directory.racy || ((checkTimes || directory.watchKey == null)
+                    && !Objects.equals(directory.lastModified, lastModified(directory.directory)))) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (String path : changed) {
+            DirectoryEntry directory = directories.get(path);
+            // the directory may have been removed together with its parent
+            if (directory != null) {
+                updateDirectory(path, directory);
+            }
+        }
+    }
+
+    private void scanDirectory(String path, File directory) {
+        DirectoryEntry entry = new DirectoryEntry(directory);
+        directories.put(path, entry);
+        register(entry);
+        updateDirectory(path, entry);
+    }
+
+    /**
+     * Lists the given directory again, adding and removing the files and subdirectories which have changed
+     */
+    private void updateDirectory(String path, DirectoryEntry entry) {
+        entry.lastModified = lastModified(entry.directory);
+        entry.racy = entry.lastModified != null
+                && System.currentTimeMillis() - entry.lastModified.toMillis() < RACY_MILLIS;
+
+        Set<String> fileNames = new HashSet<>();
+        Set<String> directoryNames = new HashSet<>();
+        String[] names = entry.directory.list();
+        if (names != null) {
+            for (String name : names) {
+                File child = new File(entry.directory, name);
+                BasicFileAttributes attributes = attributes(child);
+                if (attributes == null) {
+                    // deleted while listing
+                    continue;
+                }
+                String childPath = path.isEmpty() ? name : path + File.separator + name;
+                if (attributes.isDirectory()) {
+                    directoryNames.add(name);
+                    if (!entry.directoryNames.contains(name)) {
+                        scanDirectory(childPath, child);
+                    }
+                } else {
+                    fileNames.add(name);
+                    long lastModified = attributes.lastModifiedTime().toMillis();
+                    FileEntry file = files.get(childPath);
+                    if (file == null) {
+                        files.put(childPath, new FileEntry(child, lastModified, attributes.size()));
+                    } else {
+                        updateFile(file, lastModified, attributes.size());
+                    }
+                }
+            }
+        }
+        for (String name : entry.fileNames) {
+            if (!fileNames.contains(name)) {
+                files.remove(path.isEmpty() ? name : path + File.separator + name);
+            }
+        }
+        for (String name : entry.directoryNames) {
+            if (!directoryNames.contains(name)) {
+                removeDirectory(path.isEmpty() ? name : path + File.separator + name);
+            }
+        }
+        entry.fileNames = fileNames;
+        entry.directoryNames = directoryNames;
+    }
+
+    private void removeDirectory(String path) {
+        String prefix = path + File.separator;
+        String end = path + (char) (File.separatorChar + 1);
+        files.subMap(prefix, end).clear();
+        SortedMap<String, DirectoryEntry> removed = directories.subMap(prefix, end);
+        for (DirectoryEntry entry : removed.values()) {
+            cancel(entry);
+        }
+        removed.clear();
+        cancel(directories.remove(path));
+    }
+
+    private static void updateFile(FileEntry file, long lastModified, long length) {
+        if (file.lastModified != lastModified || file.length != length) {
+            file.lastModified = lastModified;
+            file.length = length;
+            file.matches = null;
+        }
+    }
+
+    private static boolean matches(FileEntry file, Predicate<File> contentFilter) {
+        // modifying a file does not change the time of its directory
+        BasicFileAttributes attributes = attributes(file.file);
+        if (attributes == null) {
+            return false;
+        }
+        updateFile(file, attributes.lastModifiedTime().toMillis(), attributes.size());
+        if (file.matches == null) {
+            file.matches = new IdentityHashMap<>();
+        }
+        Boolean answer = file.matches.get(contentFilter);
+        if (answer == null) {
+            answer = contentFilter.test(file.file);
+            file.matches.put(contentFilter, answer);
+        }
+        return answer;
+    }
+
+    private void register(DirectoryEntry entry) {
+        if (watchService != null && entry.watchKey == null) {
+            try {
+                entry.watchKey = entry.directory.toPath().register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE);
+            } catch (IOException | ClosedWatchServiceException e) {
+                LOG.debug("Cannot watch directory " + entry.directory + ": " + e);
+            }
+        }
+    }
+
+    private static void cancel(DirectoryEntry entry) {
+        if (entry != null && entry.watchKey != null) {
+            entry.watchKey.cancel();
+            entry.watchKey = null;
+        }
+    }
+
+    /**
+     * Adds the paths of the directories with pending watch events to the given set, returning false if events
+     * were lost
+     */
+    private boolean pollWatchEvents(Set<String> changed) {
+        Path root = rootDirectory.toPath();
+        boolean answer = true;
+        WatchKey key;
+        try {
+            while ((key = watchService.poll()) != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        answer = false;
+                    }
+                }
+                Path directory = (Path) key.watchable();
+                changed.add(directory.equals(root) ? "" : root.relativize(directory).toString());
+                key.reset();
+            }
+        } catch (ClosedWatchServiceException e) {
+            answer = false;
+        }
+        return answer;
+    }
+
+    private static FileTime lastModified(File directory) {
+        BasicFileAttributes attributes = attributes(directory);
+        return attributes != null ? attributes.lastModifiedTime() : null;
+    }
+
+    private static BasicFileAttributes attributes(File file) {
+        try {
+            return java.nio.file.Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -19,7 +19,6 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Result;
 import javax.xml.transform.Source;
@@ -56,16 +55,12 @@ public final class XmlHelper {
      * This implementation attempts to preserve the xml structure as-is with whitespace etc
      */
     public static Document inputStreamToDocument(InputStream is) throws Exception {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        factory.setExpandEntityReferences(false);
-        factory.setIgnoringComments(false);
-        factory.setIgnoringElementContentWhitespace(false);
-        factory.setValidating(false);
-
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        Document root = builder.parse(is);
-
-        return root;
+        DocumentBuilder builder = XmlParsers.borrowDocumentBuilder();
+        try {
+            return builder.parse(is);
+        } finally {
+            XmlParsers.release(builder);
+        }
     }
 
     /**
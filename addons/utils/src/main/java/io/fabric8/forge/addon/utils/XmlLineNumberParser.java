@@ -20,9 +20,7 @@ import java.io.InputStream;
 import java.io.StringReader;
 import java.util.Stack;
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -74,21 +72,12 @@ public final class XmlLineNumberParser {
      */
     public static Document parseXml(final InputStream is, final String rootNames, final String forceNamespace) throws Exception {
         final Document doc;
-        SAXParser parser;
-        final SAXParserFactory factory = SAXParserFactory.newInstance();
-        parser = factory.newSAXParser();
-        final DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-        // turn off validator and loading external dtd
-        dbf.setValidating(false);
-        dbf.setNamespaceAware(true);
-        dbf.setFeature("http://xml.org/sax/features/namespaces", false);
-        dbf.setFeature("http://xml.org/sax/features/validation", false);
-        dbf.setFeature("http://apache.org/xml/features/nonvalidating/load-dtd-grammar", false);
-        dbf.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-        dbf.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-        dbf.setFeature("http://xml.org/sax/features/external-general-entities", false);
-        final DocumentBuilder docBuilder = dbf.newDocumentBuilder();
-        doc = docBuilder.newDocument();
+        final DocumentBuilder docBuilder = XmlParsers.borrowDocumentBuilder();
+        try {
+            doc = docBuilder.newDocument();
+        } finally {
+            XmlParsers.release(docBuilder);
+        }
 
         final Stack<Element> elementStack = new Stack<Element>();
         final StringBuilder textBuffer = new StringBuilder();
@@ -185,7 +174,12 @@ public final class XmlLineNumberParser {
                 }
             }
         };
-        parser.parse(is, handler);
+        final SAXParser parser = XmlParsers.borrowSAXParser();
+        try {
+            parser.parse(is, handler);
+        } finally {
+            XmlParsers.release(parser);
+        }
 
         return doc;
     }
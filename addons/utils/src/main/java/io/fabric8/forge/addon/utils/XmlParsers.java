@@ -0,0 +1,145 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.addon.utils;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Provides SAX parsers and DOM document builders which are reused by each thread, as looking up the JAXP factories
+ * through the service loader and creating new parsers on every parse is costly.
+ * <p/>
+ * The factories are created and configured once: they are non validating, do not load external DTDs or entities
+ * and use secure processing. A parser is borrowed for a single parse and must be released afterwards, for example
+ * <pre>
+ *   SAXParser parser = XmlParsers.borrowSAXParser();
+ *   try {
+ *       parser.parse(is, handler);
+ *   } finally {
+ *       XmlParsers.release(parser);
+ *   }
+ * </pre>
+ * If a parser is borrowed again on the same thread before it is released then a new parser is created.
+ * <p/>
+ * {@link XmlLineNumberParser#parseXml} uses these parsers, so they are shared by the camel commands and by the
+ * fabric8 camel maven plugin, whose endpoint validation parses the XML routes with the XmlRouteParser.
+ */
+public final class XmlParsers {
+
+    private static final SAXParserFactory SAX_PARSER_FACTORY = createSAXParserFactory();
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = createDocumentBuilderFactory();
+
+    private static final ThreadLocal<SAXParser> SAX_PARSERS = new ThreadLocal<>();
+    private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDERS = new ThreadLocal<>();
+
+    private XmlParsers() {
+    }
+
+    /**
+     * Borrows the SAX parser of the current thread
+     */
+    public static SAXParser borrowSAXParser() throws ParserConfigurationException, SAXException {
+        SAXParser answer = SAX_PARSERS.get();
+        if (answer != null) {
+            SAX_PARSERS.remove();
+            return answer;
+        }
+        synchronized (SAX_PARSER_FACTORY) {
+            return SAX_PARSER_FACTORY.newSAXParser();
+        }
+    }
+
+    /**
+     * Resets the parser, so it does not keep hold of the last handler, and keeps it for the next parse on this thread
+     */
+    public static void release(SAXParser parser) {
+        if (parser != null) {
+            parser.reset();
+            SAX_PARSERS.set(parser);
+        }
+    }
+
+    /**
+     * Borrows the document builder of the current thread
+     */
+    public static DocumentBuilder borrowDocumentBuilder() throws ParserConfigurationException {
+        DocumentBuilder answer = DOCUMENT_BUILDERS.get();
+        if (answer != null) {
+            DOCUMENT_BUILDERS.remove();
+            return answer;
+        }
+        synchronized (DOCUMENT_BUILDER_FACTORY) {
+            return DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+        }
+    }
+
+    /**
+     * Resets the builder and keeps it for the next parse on this thread
+     */
+    public static void release(DocumentBuilder builder) {
+        if (builder != null) {
+            builder.reset();
+            DOCUMENT_BUILDERS.set(builder);
+        }
+    }
+
+    private static SAXParserFactory createSAXParserFactory() {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setValidating(false);
+        setFeature(factory, XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        setFeature(factory, "http://apache.org/xml/features/nonvalidating/load-dtd-grammar", false);
+        setFeature(factory, "http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        setFeature(factory, "http://xml.org/sax/features/external-parameter-entities", false);
+        setFeature(factory, "http://xml.org/sax/features/external-general-entities", false);
+        return factory;
+    }
+
+    private static DocumentBuilderFactory createDocumentBuilderFactory() {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setValidating(false);
+        factory.setExpandEntityReferences(false);
+        factory.setIgnoringComments(false);
+        factory.setIgnoringElementContentWhitespace(false);
+        setFeature(factory, XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        setFeature(factory, "http://apache.org/xml/features/nonvalidating/load-dtd-grammar", false);
+        setFeature(factory, "http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        setFeature(factory, "http://xml.org/sax/features/external-parameter-entities", false);
+        setFeature(factory, "http://xml.org/sax/features/external-general-entities", false);
+        return factory;
+    }
+
+    private static void setFeature(SAXParserFactory factory, String name, boolean value) {
+        try {
+            factory.setFeature(name, value);
+        } catch (Exception e) {
+            // ignore as not all parsers support all features
+        }
+    }
+
+    private static void setFeature(DocumentBuilderFactory factory, String name, boolean value) {
+        try {
+            factory.setFeature(name, value);
+        } catch (Exception e) {
+            // ignore as not all parsers support all features
+        }
+    }
+}
@@ -15,20 +15,16 @@
  */
 package io.fabric8.forge.addon.utils.completer;
 
-import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
+import io.fabric8.forge.addon.utils.JavaSourceIndex;
 import org.jboss.forge.addon.parser.java.facets.JavaSourceFacet;
-import org.jboss.forge.addon.parser.java.resources.JavaResource;
-import org.jboss.forge.addon.parser.java.resources.JavaResourceVisitor;
-import org.jboss.forge.addon.resource.visit.VisitContext;
 import org.jboss.forge.addon.ui.context.UIContext;
 import org.jboss.forge.addon.ui.input.InputComponent;
 import org.jboss.forge.addon.ui.input.UICompleter;
-import org.jboss.forge.roaster.model.JavaClass;
 
 /**
  * A completer of java source package names
@@ -37,24 +33,8 @@ public class PackageNameCompleter implements UICompleter<String> {
     private final SortedSet<String> packageNames = new TreeSet<>();
 
     public PackageNameCompleter(JavaSourceFacet facet) {
-        // find package names in the source code
-        facet.visitJavaSources(new JavaResourceVisitor() {
-            @Override
-            public void visit(VisitContext context, JavaResource javaResource) {
-                try {
-                    // avoid package-info.java files
-                    if (!javaResource.getName().contains("package-info")) {
-                        JavaClass clazz = javaResource.getJavaType();
-                        String packageName = clazz.getPackage();
-                        if (packageName != null && !packageNames.contains(packageName)) {
-                            packageNames.add(packageName);
-                        }
-                    }
-                } catch (FileNotFoundException e) {
-                    // ignore
-                }
-            }
-        });
+        // find package names in the source code using the index so only changed files are parsed
+        packageNames.addAll(JavaSourceIndex.forJavaSources(facet).getPackageNames());
     }
 
     @Override
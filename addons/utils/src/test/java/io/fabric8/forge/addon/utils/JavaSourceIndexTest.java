@@ -0,0 +1,157 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.addon.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JavaSourceIndexTest {
+
+    private static final int CLASSES = 5000;
+
+    private final AtomicInteger parsed = new AtomicInteger();
+    private File projectDir;
+    private File sourceDir;
+    private File indexFile;
+
+    @Before
+    public void init() throws IOException {
+        projectDir = java.nio.file.Files.createTempDirectory("java-source-index").toFile();
+        sourceDir = new File(projectDir, "src/main/java");
+        indexFile = new File(projectDir, "target/fabric8-forge/java-sources.idx");
+    }
+
+    @After
+    public void cleanUp() {
+        io.fabric8.utils.Files.recursiveDelete(projectDir);
+    }
+
+    @Test
+    public void testOnlyChangedFilesAreParsed() throws Exception {
+        for (int i = 0; i < CLASSES; i++) {
+            writeClass("com.acme.p" + (i % 50), "Foo" + i, i % 10 == 0 ? "RouteBuilder" : null);
+        }
+
+        JavaSourceIndex index = createIndex();
+        assertThat(index.getPackageNames()).hasSize(50).contains("com.acme.p0", "com.acme.p49");
+        assertThat(index.findTypes("org.apache.camel.builder.RouteBuilder"::equals)).hasSize(CLASSES / 10);
+        assertThat(parsed.getAndSet(0)).isEqualTo(CLASSES);
+
+        // nothing changed
+        assertThat(index.getTypes()).hasSize(CLASSES);
+        assertThat(parsed.getAndSet(0)).isEqualTo(0);
+
+        // change two classes, add one and delete one
+        File changed = writeClass("com.acme.p1", "Foo1", "RouteBuilder");
+        changed.setLastModified(changed.lastModified() + 2000);
+        File moved = writeClass("com.acme.p2", "Foo2", null);
+        moved.setLastModified(moved.lastModified() + 2000);
+        writeClass("com.acme.extra", "Extra", null);
+        assertThat(new File(sourceDir, "com/acme/p3/Foo3.java").delete()).isTrue();
+
+        List<JavaSourceIndex.TypeSymbol> routeBuilders = index.findTypes("org.apache.camel.builder.RouteBuilder"::equals);
+        assertThat(parsed.getAndSet(0)).isEqualTo(3);
+        assertThat(routeBuilders).extracting(JavaSourceIndex.TypeSymbol::getQualifiedName).contains("com.acme.p1.Foo1");
+        assertThat(index.getTypes()).hasSize(CLASSES);
+        assertThat(index.getPackageNames()).contains("com.acme.extra");
+
+        // a new index loads the persisted symbols so nothing needs parsing
+        JavaSourceIndex reloaded = createIndex();
+        assertThat(reloaded.getTypes()).hasSize(CLASSES);
+        assertThat(reloaded.getPackageNames()).isEqualTo(index.getPackageNames());
+        assertThat(parsed.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void testRoasterResolvesSuperTypes() throws Exception {
+        writeClass("com.acme", "MyRoute", "RouteBuilder");
+        writeClass("com.acme", "Plain", null);
+        JavaSourceIndex index = createIndex();
+
+        assertThat(index.getTypes()).extracting(JavaSourceIndex.TypeSymbol::getQualifiedName).containsOnly("com.acme.MyRoute", "com.acme.Plain");
+        List<JavaSourceIndex.TypeSymbol> routeBuilders = index.findTypes("org.apache.camel.builder.RouteBuilder"::equals);
+        assertThat(routeBuilders).hasSize(1);
+        assertThat(routeBuilders.get(0).getPackageName()).isEqualTo("com.acme");
+    }
+
+    @Test
+    public void testInstancesAreSharedPerIndexFile() throws Exception {
+        List<File> dirs = Collections.singletonList(sourceDir);
+        assertThat(JavaSourceIndex.getInstance(indexFile, dirs)).isSameAs(JavaSourceIndex.getInstance(indexFile, dirs));
+        assertThat(JavaSourceIndex.getInstance(indexFile, Arrays.asList(sourceDir, new File(projectDir, "src/main/other"))))
+                .isNotSameAs(JavaSourceIndex.getInstance(indexFile, dirs));
+    }
+
+    @Test
+    public void testOnlyRecentlyUsedInstancesAreKept() throws Exception {
+        List<File> dirs = Collections.singletonList(sourceDir);
+        JavaSourceIndex first = JavaSourceIndex.getInstance(indexFile, dirs);
+        for (int i = 0; i < JavaSourceIndex.MAX_INDEXES; i++) {
+            JavaSourceIndex.getInstance(new File(projectDir, "index" + i + ".idx"), dirs);
+        }
+        assertThat(JavaSourceIndex.getInstance(indexFile, dirs)).isNotSameAs(first);
+    }
+
+    @Test
+    public void testIndexFileIsOutsideTheWorkingTree() throws Exception {
+        File gitDir = new File(projectDir, ".git");
+        assertThat(gitDir.mkdirs()).isTrue();
+        File module = new File(projectDir, "modules/cheese");
+
+        assertThat(JavaSourceIndex.indexFile(projectDir, "java-sources.idx")).isEqualTo(new File(gitDir, "fabric8-forge/java-sources.idx"));
+        assertThat(JavaSourceIndex.indexFile(module, "java-sources.idx")).isEqualTo(new File(gitDir, "fabric8-forge/modules/cheese/java-sources.idx"));
+
+        assertThat(gitDir.delete()).isTrue();
+        File tempIndexFile = JavaSourceIndex.indexFile(module, "java-sources.idx");
+        assertThat(tempIndexFile.getPath()).doesNotStartWith(projectDir.getPath());
+        assertThat(tempIndexFile).isEqualTo(JavaSourceIndex.indexFile(module, "java-sources.idx"));
+        assertThat(tempIndexFile).isNotEqualTo(JavaSourceIndex.indexFile(projectDir, "java-sources.idx"));
+    }
+
+    private JavaSourceIndex createIndex() {
+        return new JavaSourceIndex(indexFile, Collections.singletonList(sourceDir), file -> {
+            parsed.incrementAndGet();
+            return JavaSourceIndex.parseWithRoaster(file);
+        });
+    }
+
+    private File writeClass(String packageName, String name, String superClass) throws IOException {
+        File dir = new File(sourceDir, packageName.replace('.', '/'));
+        dir.mkdirs();
+        StringBuilder buffer = new StringBuilder("package " + packageName + ";\n\n");
+        if (superClass != null) {
+            buffer.append("import org.apache.camel.builder.").append(superClass).append(";\n\n");
+        }
+        buffer.append("public class ").append(name);
+        if (superClass != null) {
+            buffer.append(" extends ").append(superClass);
+        }
+        buffer.append(" {\n    private String name;\n}\n");
+        File file = new File(dir, name + ".java");
+        io.fabric8.utils.Files.writeToFile(file, buffer.toString().getBytes());
+        return file;
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.addon.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResourceTreeTest {
+
+    private static final String SEP = File.separator;
+
+    private File rootDir;
+    private ResourceTree tree;
+
+    @Before
+    public void init() throws IOException {
+        rootDir = java.nio.file.Files.createTempDirectory("resource-tree").toFile();
+        write("META-INF/spring/camel-context.xml", "<camelContext/>");
+        write("META-INF/spring/beans.xml", "<beans/>");
+        write("application.properties", "foo=bar");
+        write("routes/a/routes.xml", "<routes/>");
+        tree = new ResourceTree(rootDir);
+    }
+
+    @After
+    public void cleanUp() {
+        tree.close();
+        io.fabric8.utils.Files.recursiveDelete(rootDir);
+    }
+
+    @Test
+    public void testQueriesByExtensionAndFilter() throws Exception {
+        assertThat(tree.findFiles(null)).containsExactly("META-INF" + SEP + "spring" + SEP + "beans.xml",
+                "META-INF" + SEP + "spring" + SEP + "camel-context.xml", "application.properties", "routes" + SEP + "a" + SEP + "routes.xml");
+        assertThat(tree.findFiles(".xml", name -> name.startsWith("routes"))).containsExactly("routes" + SEP + "a" + SEP + "routes.xml");
+        assertThat(tree.findFiles(".yml", null)).isEmpty();
+    }
+
+    @Test
+    public void testAddDeleteAndRenameWithDirectoryTimes() throws Exception {
+        assertThat(tree.findFiles(".xml", null)).hasSize(3);
+        // pretend the tree was last changed long ago so only the time of the directories detects the changes
+        makeOld(rootDir);
+        tree.refresh();
+
+        write("META-INF/spring/added.xml", "<routes/>");
+        assertThat(tree.findFiles(".xml", null)).contains("META-INF" + SEP + "spring" + SEP + "added.xml").hasSize(4);
+
+        makeOld(rootDir);
+        tree.refresh();
+        assertThat(new File(rootDir, "META-INF/spring/beans.xml").delete()).isTrue();
+        assertThat(tree.findFiles(".xml", null)).doesNotContain("META-INF" + SEP + "spring" + SEP + "beans.xml").hasSize(3);
+
+        makeOld(rootDir);
+        tree.refresh();
+        assertThat(new File(rootDir, "routes/a").renameTo(new File(rootDir, "routes/b"))).isTrue();
+        assertThat(tree.findFiles(".xml", null)).contains("routes" + SEP + "b" + SEP + "routes.xml")
+                .doesNotContain("routes" + SEP + "a" + SEP + "routes.xml").hasSize(3);
+    }
+
+    @Test
+    public void testAddDeleteAndRenameWithWatchService() throws Exception {
+        tree.watch();
+        assertThat(tree.findFiles(".xml", null)).hasSize(3);
+        makeOld(rootDir);
+        tree.refresh();
+
+        write("routes/a/added.xml", "<routes/>");
+        awaitFiles(files -> files.contains("routes" + SEP + "a" + SEP + "added.xml"));
+
+        assertThat(new File(rootDir, "META-INF/spring/beans.xml").delete()).isTrue();
+        awaitFiles(files -> !files.contains("META-INF" + SEP + "spring" + SEP + "beans.xml"));
+
+        assertThat(new File(rootDir, "META-INF/spring/camel-context.xml").renameTo(new File(rootDir, "META-INF/spring/renamed.xml"))).isTrue();
+        awaitFiles(files -> files.contains("META-INF" + SEP + "spring" + SEP + "renamed.xml")
+                && !files.contains("META-INF" + SEP + "spring" + SEP + "camel-context.xml"));
+        assertThat(tree.findFiles(".xml", null)).hasSize(3);
+    }
+
+    @Test
+    public void testEvictedTreesStopWatching() throws Exception {
+        ResourceTree first = ResourceTree.getInstance(rootDir);
+        first.watch();
+        assertThat(first.isWatching()).isTrue();
+        assertThat(ResourceTree.getInstance(rootDir)).isSameAs(first);
+
+        for (int i = 0; i < ResourceTree.MAX_TREES; i++) {
+            ResourceTree.getInstance(new File(rootDir, "other" + i));
+        }
+        assertThat(first.isWatching()).isFalse();
+        assertThat(ResourceTree.getInstance(rootDir)).isNotSameAs(first);
+
+        // an evicted tree still sees changes by checking the directory times
+        makeOld(rootDir);
+        first.refresh();
+        write("META-INF/spring/added.xml", "<routes/>");
+        assertThat(first.findFiles(".xml", null)).contains("META-INF" + SEP + "spring" + SEP + "added.xml");
+    }
+
+    @Test
+    public void testContentFilterIsOnlyEvaluatedForChangedFiles() throws Exception {
+        AtomicInteger evaluated = new AtomicInteger();
+        Predicate<File> camel = file -> {
+            evaluated.incrementAndGet();
+            return read(file).contains("<camelContext") || read(file).contains("<routes");
+        };
+        assertThat(tree.findFiles(".xml", null, camel)).hasSize(2);
+        assertThat(evaluated.getAndSet(0)).isEqualTo(3);
+
+        assertThat(tree.findFiles(".xml", null, camel)).hasSize(2);
+        assertThat(evaluated.getAndSet(0)).isEqualTo(0);
+
+        // modifying a file does not change the time of its directory
+        File beans = write("META-INF/spring/beans.xml", "<beans><camelContext/></beans>");
+        beans.setLastModified(beans.lastModified() + 2000);
+        assertThat(tree.findFiles(".xml", null, camel)).hasSize(3);
+        assertThat(evaluated.getAndSet(0)).isEqualTo(1);
+    }
+
+    private void awaitFiles(Predicate<List<String>> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        List<String> files = tree.findFiles(null);
+        while (!condition.test(files) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            files = tree.findFiles(null);
+        }
+        assertThat(condition.test(files)).as("Files " + files).isTrue();
+    }
+
+    private File write(String path, String content) throws IOException {
+        File file = new File(rootDir, path);
+        file.getParentFile().mkdirs();
+        java.nio.file.Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String read(File file) {
+        try {
+            return new String(java.nio.file.Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void makeOld(File file) {
+        if (file.isDirectory()) {
+            for (File child : file.listFiles()) {
+                makeOld(child);
+            }
+        }
+        file.setLastModified(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1));
+    }
+}
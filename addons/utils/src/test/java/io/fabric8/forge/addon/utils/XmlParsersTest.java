@@ -0,0 +1,104 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.addon.utils;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.xml.parsers.SAXParser;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class XmlParsersTest {
+
+    @Test
+    public void testParserIsReusedOnSameThread() throws Exception {
+        SAXParser parser = XmlParsers.borrowSAXParser();
+        // a nested borrow before the release gets its own parser
+        SAXParser nested = XmlParsers.borrowSAXParser();
+        assertThat(nested).isNotSameAs(parser);
+        XmlParsers.release(nested);
+        XmlParsers.release(parser);
+
+        assertThat(XmlParsers.borrowSAXParser()).isSameAs(parser);
+    }
+
+    @Test
+    public void testConcurrentParsing() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < threads * 25; i++) {
+                final int routes = 1 + i % 7;
+                futures.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        Document dom = XmlLineNumberParser.parseXml(new ByteArrayInputStream(createRoutes(routes)));
+                        NodeList list = dom.getElementsByTagName("route");
+                        for (int j = 0; j < list.getLength(); j++) {
+                            Element route = (Element) list.item(j);
+                            // each route is 3 lines after the <routes> line
+                            assertThat(route.getUserData(XmlLineNumberParser.LINE_NUMBER)).isEqualTo("" + (3 + j * 3));
+                            assertThat(route.getUserData(XmlLineNumberParser.LINE_NUMBER_END)).isEqualTo("" + (5 + j * 3));
+                            assertThat(route.getAttribute("id")).isEqualTo("route" + j);
+                        }
+                        assertThat(XmlHelper.inputStreamToDocument(new ByteArrayInputStream(createRoutes(routes)))
+                                .getElementsByTagName("route").getLength()).isEqualTo(routes);
+                        return list.getLength();
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertThat(futures.get(i).get()).isEqualTo(1 + i % 7);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testExternalEntitiesAreNotLoaded() throws Exception {
+        String xml = "<?xml version=\"1.0\"?>\n"
+                + "<!DOCTYPE routes SYSTEM \"http://localhost:1/does-not-exist.dtd\">\n"
+                + "<routes>\n"
+                + "  <route id=\"foo\"/>\n"
+                + "</routes>\n";
+        Document dom = XmlLineNumberParser.parseXml(new ByteArrayInputStream(xml.getBytes()));
+        assertThat(dom.getDocumentElement().getUserData(XmlLineNumberParser.LINE_NUMBER)).isEqualTo("3");
+        assertThat(XmlHelper.inputStreamToDocument(new ByteArrayInputStream(xml.getBytes())).getDocumentElement().getTagName()).isEqualTo("routes");
+    }
+
+    private static byte[] createRoutes(int routes) {
+        StringBuilder buffer = new StringBuilder("<?xml version=\"1.0\"?>\n<routes xmlns=\"http://camel.apache.org/schema/spring\">\n");
+        for (int i = 0; i < routes; i++) {
+            buffer.append("  <route id=\"route").append(i).append("\">\n");
+            buffer.append("    <from uri=\"timer:").append(i).append("\"/>\n");
+            buffer.append("  </route>\n");
+        }
+        buffer.append("</routes>\n");
+        return buffer.toString().getBytes();
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.benchmarks;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.forge.camel.commands.project.dto.ComponentDto;
+import io.fabric8.forge.camel.commands.project.dto.EipDto;
+import io.fabric8.forge.camel.commands.project.helper.CamelCatalogHelper;
+import io.fabric8.forge.camel.commands.project.helper.CamelCatalogService;
+import org.apache.camel.catalog.CamelCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The catalog lookups behind the component, endpoint and EIP commands, using the same catalog the addon produces
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CamelCatalogHelperBenchmark {
+
+    @Param({"jms", "file"})
+    public String scheme;
+
+    private CamelCatalog camelCatalog;
+
+    @Setup
+    public void setUp() {
+        camelCatalog = new CamelCatalogService().createCamelCatalog();
+    }
+
+    @Benchmark
+    public ComponentDto createComponentDto() {
+        return CamelCatalogHelper.createComponentDto(camelCatalog, scheme);
+    }
+
+    @Benchmark
+    public boolean isDefaultValue() {
+        return CamelCatalogHelper.isDefaultValue(camelCatalog, scheme, "synchronous", "false");
+    }
+
+    @Benchmark
+    public boolean isMultiValue() {
+        return CamelCatalogHelper.isMultiValue(camelCatalog, scheme, "synchronous");
+    }
+
+    @Benchmark
+    public EipDto createEipDto() {
+        return CamelCatalogHelper.createEipDto(camelCatalog, "split");
+    }
+
+    @Benchmark
+    public Set<String> componentsFromArtifact() {
+        return CamelCatalogHelper.componentsFromArtifact(camelCatalog, "camel-" + scheme);
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.forge.camel.commands.project.helper.CamelSimpleValidator;
+import io.fabric8.forge.camel.commands.project.model.CamelSimpleDetails;
+import org.apache.camel.catalog.CamelCatalog;
+import org.apache.camel.catalog.DefaultCamelCatalog;
+import org.apache.camel.catalog.SimpleValidationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Validates the simple expressions of a project with thousands of expressions, where the same expressions are
+ * used in many routes; one by one as the validate goal used to, and with {@link CamelSimpleValidator} both
+ * without and with the results of a previous run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CamelSimpleValidatorBenchmark {
+
+    @Param({"5000"})
+    public int expressions;
+
+    private CamelCatalog catalog;
+    private List<CamelSimpleDetails> details;
+    private Map<String, SimpleValidationResult> previousRun;
+
+    @Setup
+    public void setUp() {
+        catalog = new DefaultCamelCatalog(true);
+        details = new ArrayList<>();
+        for (int i = 0; i < expressions; i++) {
+            CamelSimpleDetails detail = new CamelSimpleDetails();
+            switch (i % 5) {
+                case 0:
+                    detail.setSimple("${header.orderId} == " + (i % 100));
+                    break;
+                case 1:
+                    detail.setSimple("${body.customer.name} contains 'Acme" + (i % 50) + "'");
+                    break;
+                case 2:
+                    detail.setSimple("Order ${header.orderId} from ${exchangeProperty.region} at ${date:now:yyyyMMdd}");
+                    break;
+                case 3:
+                    detail.setSimple("${bodyAs(String)} regex '[0-9]+" + (i % 25) + "'");
+                    break;
+                default:
+                    detail.setSimple("${in.header.type} in 'gold,silver,bronze" + (i % 200) + "'");
+                    break;
+            }
+            details.add(detail);
+        }
+        previousRun = new ConcurrentHashMap<>();
+        new CamelSimpleValidator(catalog, Runtime.getRuntime().availableProcessors(), previousRun).validate(details);
+    }
+
+    @Benchmark
+    public int validateOneByOne() {
+        int errors = 0;
+        for (CamelSimpleDetails detail : details) {
+            if (!catalog.validateSimpleExpression(detail.getSimple()).isSuccess()) {
+                errors++;
+            }
+        }
+        return errors;
+    }
+
+    @Benchmark
+    public Map<String, SimpleValidationResult> validateDistinct() {
+        return new CamelSimpleValidator(catalog, 1, new HashMap<>()).validate(details);
+    }
+
+    @Benchmark
+    public Map<String, SimpleValidationResult> validateDistinctParallel() {
+        return new CamelSimpleValidator(catalog, Runtime.getRuntime().availableProcessors(), new ConcurrentHashMap<>()).validate(details);
+    }
+
+    @Benchmark
+    public Map<String, SimpleValidationResult> validateRemembered() {
+        return new CamelSimpleValidator(catalog, Runtime.getRuntime().availableProcessors(), previousRun).validate(details);
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.benchmarks;
+
+import io.fabric8.forge.rest.client.ForgeClientCodec;
+import io.fabric8.forge.rest.dto.ExecutionResult;
+import io.fabric8.forge.rest.dto.ExecutionStatus;
+import io.fabric8.utils.jaxrs.JsonHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing a large {@link ExecutionResult} with a new ObjectMapper per response, as the client used to,
+ * against the shared {@link ForgeClientCodec}.
+ * <p>
+ * Add <code>-prof gc</code> to the runner arguments to see the allocations per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutionResultParseBenchmark {
+
+    @Param({"100", "2000"})
+    public int properties;
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws Exception {
+        ExecutionResult result = new ExecutionResult(ExecutionStatus.SUCCESS, "Created project", null, "", "", true);
+        StringBuilder output = new StringBuilder();
+        for (int i = 0; i < properties; i++) {
+            result.setOutputProperty("property" + i, "value of property " + i);
+            output.append("[INFO] line ").append(i).append(" of the command output\n");
+        }
+        result.setOutput(output.toString());
+        result.setProjectName("cheese");
+        json = JsonHelper.createObjectMapper().writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public ExecutionResult newObjectMapperPerResponse() throws Exception {
+        return JsonHelper.createObjectMapper().readerFor(ExecutionResult.class).readValue(new ByteArrayInputStream(json));
+    }
+
+    @Benchmark
+    public ExecutionResult sharedCodec() throws Exception {
+        return ForgeClientCodec.read(new ByteArrayInputStream(json), ExecutionResult.class);
+    }
+}
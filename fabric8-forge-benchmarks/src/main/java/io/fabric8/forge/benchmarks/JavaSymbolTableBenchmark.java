@@ -0,0 +1,127 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.forge.camel.commands.project.helper.CamelJavaParserHelper;
+import io.fabric8.forge.camel.commands.project.helper.JavaSymbolTable;
+import io.fabric8.forge.camel.commands.project.helper.ParserResult;
+import org.jboss.forge.roaster.Roaster;
+import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.ASTVisitor;
+import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.Block;
+import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.Expression;
+import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.jboss.forge.roaster._shade.org.eclipse.jdt.core.dom.MethodInvocation;
+import org.jboss.forge.roaster.model.source.JavaClassSource;
+import org.jboss.forge.roaster.model.source.MethodSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Resolves the endpoint uris of a RouteBuilder with hundreds of endpoints built from shared constants; each uri on
+ * its own as the parser used to, and with a {@link JavaSymbolTable} shared by all the uris of the class.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavaSymbolTableBenchmark {
+
+    @Param({"500"})
+    public int endpoints;
+
+    private JavaClassSource clazz;
+    private MethodSource<JavaClassSource> method;
+    private Block block;
+    private List<Expression> uris;
+
+    @Setup
+    public void setUp() {
+        StringBuilder source = new StringBuilder();
+        source.append("import org.apache.camel.builder.RouteBuilder;\n\n");
+        source.append("public class ManyEndpointsRouteBuilder extends RouteBuilder {\n\n");
+        source.append("    private static final String HOST = \"localhost\";\n");
+        source.append("    private static final int PORT = 61616;\n");
+        source.append("    private static final String BROKER = \"tcp://\" + HOST + \":\" + PORT;\n");
+        source.append("    private static final String OPTIONS = \"?brokerURL=\" + BROKER + \"&concurrentConsumers=5\";\n");
+        for (int i = 0; i < endpoints; i++) {
+            source.append("    private static final String QUEUE_").append(i).append(" = \"activemq:queue:orders.").append(i).append("\";\n");
+        }
+        source.append("\n    @Override\n    public void configure() throws Exception {\n");
+        for (int i = 0; i < endpoints; i++) {
+            source.append("        from(QUEUE_").append(i).append(" + OPTIONS)\n");
+            source.append("            .to(\"log:\" + HOST + \"?level=INFO\")\n");
+            source.append("            .to(QUEUE_").append((i + 1) % endpoints).append(" + OPTIONS);\n");
+        }
+        source.append("    }\n}\n");
+
+        clazz = Roaster.parse(JavaClassSource.class, source.toString());
+        method = clazz.getMethod("configure");
+        block = ((MethodDeclaration) method.getInternal()).getBody();
+        uris = new ArrayList<>();
+        block.accept(new ASTVisitor() {
+            @Override
+            public boolean visit(MethodInvocation node) {
+                String name = node.getName().getIdentifier();
+                if (("from".equals(name) || "to".equals(name)) && !node.arguments().isEmpty()) {
+                    uris.add((Expression) node.arguments().get(0));
+                }
+                return true;
+            }
+        });
+    }
+
+    @Benchmark
+    public List<String> resolveEachUri() {
+        List<String> answer = new ArrayList<>(uris.size());
+        for (Expression uri : uris) {
+            answer.add(CamelJavaParserHelper.getLiteralValue(clazz, block, uri));
+        }
+        return answer;
+    }
+
+    @Benchmark
+    public List<String> resolveWithSymbolTable() {
+        JavaSymbolTable symbols = new JavaSymbolTable(clazz);
+        List<String> answer = new ArrayList<>(uris.size());
+        for (Expression uri : uris) {
+            answer.add(CamelJavaParserHelper.getLiteralValue(symbols, block, uri));
+        }
+        return answer;
+    }
+
+    @Benchmark
+    public List<ParserResult> parseUrisWithSymbolTable() {
+        JavaSymbolTable symbols = new JavaSymbolTable(clazz);
+        List<ParserResult> answer = CamelJavaParserHelper.parseCamelConsumerUris(symbols, method, true, true);
+        answer.addAll(CamelJavaParserHelper.parseCamelProducerUris(symbols, method, true, true));
+        return answer;
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.forge.camel.commands.project.helper.RouteBuilderParser;
+import io.fabric8.forge.camel.commands.project.model.CamelEndpointDetails;
+import org.jboss.forge.roaster.Roaster;
+import org.jboss.forge.roaster.model.source.JavaClassSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Finds the endpoints in a Java RouteBuilder; both on an already parsed class and including the Roaster parse
+ * which the endpoint commands pay for each source file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteBuilderParserBenchmark {
+
+    private static final String FILE_NAME = "src/main/java/io/fabric8/forge/benchmarks/OrderRouteBuilder.java";
+
+    private String source;
+    private JavaClassSource clazz;
+
+    @Setup
+    public void setUp() {
+        source = Fixtures.load("OrderRouteBuilder.java.txt");
+        clazz = Roaster.parse(JavaClassSource.class, source);
+    }
+
+    @Benchmark
+    public List<CamelEndpointDetails> parseRouteBuilderEndpoints() {
+        List<CamelEndpointDetails> endpoints = new ArrayList<>();
+        RouteBuilderParser.parseRouteBuilderEndpoints(clazz, ".", FILE_NAME, endpoints);
+        return endpoints;
+    }
+
+    @Benchmark
+    public List<CamelEndpointDetails> parseSourceAndEndpoints() {
+        JavaClassSource parsed = Roaster.parse(JavaClassSource.class, source);
+        List<CamelEndpointDetails> endpoints = new ArrayList<>();
+        RouteBuilderParser.parseRouteBuilderEndpoints(parsed, ".", FILE_NAME, endpoints);
+        return endpoints;
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.forge.rest.dto.CommandInfoDTO;
+import io.fabric8.forge.rest.dto.PropertyDTO;
+import io.fabric8.forge.rest.dto.UICommands;
+import io.fabric8.forge.rest.ui.RestUIContext;
+import org.jboss.forge.addon.ui.command.UICommand;
+import org.jboss.forge.addon.ui.context.UIContext;
+import org.jboss.forge.addon.ui.context.UIExecutionContext;
+import org.jboss.forge.addon.ui.input.InputComponent;
+import org.jboss.forge.addon.ui.input.UICompleter;
+import org.jboss.forge.addon.ui.input.UIInput;
+import org.jboss.forge.addon.ui.input.UISelectOne;
+import org.jboss.forge.addon.ui.metadata.UICommandMetadata;
+import org.jboss.forge.addon.ui.result.Result;
+import org.jboss.forge.addon.ui.result.Results;
+import org.jboss.forge.addon.ui.util.Categories;
+import org.jboss.forge.addon.ui.util.Metadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Builds the DTOs the REST API returns when listing commands and describing a wizard page.
+ * <p>
+ * The inputs are stubs answering from fixed values so only the DTO conversion is measured; half of them are
+ * select inputs with <code>choices</code> values and the other half text inputs with a completer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UICommandsBenchmark {
+
+    private static final int INPUTS = 10;
+
+    @Param({"10", "200"})
+    public int choices;
+
+    private RestUIContext context;
+    private UICommand command;
+    private List<InputComponent<?, ?>> inputs;
+
+    @Setup
+    public void setUp() {
+        context = new RestUIContext();
+        command = new SampleCommand();
+
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < choices; i++) {
+            values.add("choice-" + i);
+        }
+        UICompleter<String> completer = (context, input, value) -> values;
+
+        inputs = new ArrayList<>();
+        for (int i = 0; i < INPUTS; i++) {
+            Map<String, Object> answers = new HashMap<>();
+            answers.put("getName", "input" + i);
+            answers.put("getLabel", "Input " + i);
+            answers.put("getDescription", "The input number " + i);
+            answers.put("getShortName", 'i');
+            answers.put("getValueType", String.class);
+            answers.put("getValue", "choice-1");
+            answers.put("isEnabled", true);
+            answers.put("isRequired", i % 3 == 0);
+            if (i % 2 == 0) {
+                answers.put("getValueChoices", values);
+                inputs.add(stubInput(UISelectOne.class, answers));
+            } else {
+                answers.put("getCompleter", completer);
+                inputs.add(stubInput(UIInput.class, answers));
+            }
+        }
+    }
+
+    @Benchmark
+    public CommandInfoDTO createCommandInfoDTO() {
+        return UICommands.createCommandInfoDTO(context, command);
+    }
+
+    @Benchmark
+    public Map<String, PropertyDTO> createInputDTOs() {
+        Map<String, PropertyDTO> answer = new LinkedHashMap<>();
+        for (InputComponent<?, ?> input : inputs) {
+            answer.put(input.getName(), UICommands.createInputDTO(context, input));
+        }
+        return answer;
+    }
+
+    private static InputComponent<?, ?> stubInput(Class<?> type, Map<String, Object> answers) {
+        return (InputComponent<?, ?>) Proxy.newProxyInstance(UICommandsBenchmark.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            String name = method.getName();
+            if (answers.containsKey(name)) {
+                return answers.get(name);
+            }
+            switch (name) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "Stub" + type.getSimpleName() + answers.get("getName");
+            }
+            Class<?> returnType = method.getReturnType();
+            if (returnType == boolean.class) {
+                return false;
+            } else if (returnType == char.class) {
+                return '\0';
+            } else if (returnType.isPrimitive() && returnType != void.class) {
+                return 0;
+            }
+            return null;
+        });
+    }
+
+    static class SampleCommand implements UICommand {
+        @Override
+        public UICommandMetadata getMetadata(UIContext context) {
+            return Metadata.forCommand(getClass()).name("Camel: Add Endpoint")
+                    .description("Adds a Camel endpoint to an existing route").category(Categories.create("Camel"));
+        }
+
+        @Override
+        public boolean isEnabled(UIContext context) {
+            return true;
+        }
+
+        @Override
+        public Result execute(UIExecutionContext context) throws Exception {
+            return Results.success();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import io.fabric8.forge.addon.utils.XmlLineNumberParser;
+import io.fabric8.forge.addon.utils.XmlParsers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+
+/**
+ * Parses a Camel XML file keeping line numbers, as the XML endpoint and route commands do on every request
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XmlLineNumberParserBenchmark {
+
+    private byte[] xml;
+
+    @Setup
+    public void setUp() {
+        xml = Fixtures.loadBytes("camel-context.xml");
+    }
+
+    @Benchmark
+    public Document parseXml() throws Exception {
+        return XmlLineNumberParser.parseXml(new ByteArrayInputStream(xml));
+    }
+
+    /**
+     * The cost of getting a parser as parseXml used to do, by looking up new factories for every parse
+     */
+    @Benchmark
+    public SAXParser newFactoryParser() throws Exception {
+        DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        return SAXParserFactory.newInstance().newSAXParser();
+    }
+
+    /**
+     * The cost of getting a parser from {@link XmlParsers} which reuses the parser of the thread
+     */
+    @Benchmark
+    public SAXParser pooledParser() throws Exception {
+        DocumentBuilder builder = XmlParsers.borrowDocumentBuilder();
+        builder.newDocument();
+        XmlParsers.release(builder);
+        SAXParser parser = XmlParsers.borrowSAXParser();
+        XmlParsers.release(parser);
+        return parser;
+    }
+}
@@ -16,6 +16,7 @@
  */
 package io.fabric8.forge.rest;
 
+import io.fabric8.forge.rest.dto.CommandBatchRequest;
 import io.fabric8.forge.rest.dto.CommandInfoDTO;
 import io.fabric8.forge.rest.dto.ExecutionRequest;
 
@@ -106,4 +107,10 @@ public interface CommandsAPI {
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     Response validateCommand(@PathParam("name") String name, ExecutionRequest executionRequest) throws Exception;
+
+    @POST
+    @Path("/command/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    Response executeBatch(CommandBatchRequest batchRequest) throws Exception;
 }
@@ -15,10 +15,15 @@
  */
 package io.fabric8.forge.rest;
 
+import io.fabric8.forge.rest.dto.CommandBatchItem;
+import io.fabric8.forge.rest.dto.CommandBatchItemResult;
+import io.fabric8.forge.rest.dto.CommandBatchRequest;
+import io.fabric8.forge.rest.dto.CommandBatchResult;
 import io.fabric8.forge.rest.dto.CommandInfoDTO;
 import io.fabric8.forge.rest.dto.CommandInputDTO;
 import io.fabric8.forge.rest.dto.ExecutionRequest;
 import io.fabric8.forge.rest.dto.ExecutionResult;
+import io.fabric8.forge.rest.dto.ExecutionStatus;
 import io.fabric8.forge.rest.dto.UICommands;
 import io.fabric8.forge.rest.dto.ValidationResult;
 import io.fabric8.forge.rest.dto.WizardResultsDTO;
@@ -31,16 +36,26 @@ import io.fabric8.forge.rest.hooks.CommandCompletePostProcessor;
 import io.fabric8.forge.rest.main.GitUserHelper;
 import io.fabric8.forge.rest.main.ProjectFileSystem;
 import io.fabric8.forge.rest.main.RepositoryCache;
+import io.fabric8.forge.rest.metrics.ForgeMetrics;
+import io.fabric8.forge.rest.tracing.Span;
+import io.fabric8.forge.rest.tracing.Tracer;
 import io.fabric8.forge.rest.ui.RestUIContext;
 import io.fabric8.forge.rest.ui.RestUIFunction;
 import io.fabric8.forge.rest.ui.RestUIRuntime;
+import io.fabric8.forge.rest.utils.StopWatch;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.project.support.UserDetails;
 import io.fabric8.utils.Objects;
 import io.fabric8.utils.Strings;
+import org.apache.camel.catalog.CamelCatalog;
 import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.Repository;
 import org.jboss.forge.addon.convert.ConverterFactory;
+import org.jboss.forge.addon.dependencies.Dependency;
+import org.jboss.forge.addon.projects.Project;
+import org.jboss.forge.addon.projects.ProjectFactory;
+import org.jboss.forge.addon.projects.facets.DependencyFacet;
 import org.jboss.forge.addon.resource.Resource;
 import org.jboss.forge.addon.resource.ResourceFactory;
 import org.jboss.forge.addon.ui.command.CommandFactory;
@@ -139,6 +154,8 @@ public class CommandsResource implements CommandsAPI {
 
     private ConverterFactory converterFactory;
 
+    private final ForgeMetrics metrics = ForgeMetrics.getInstance();
+
 
     @GET
     public String getInfo() {
@@ -331,7 +348,7 @@ public class CommandsResource implements CommandsAPI {
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     public Response executeCommand(@PathParam("name") final String name, final ExecutionRequest executionRequest) throws Exception {
-        try {
+        try (Span trace = getTracer().startTrace("executeCommand").tag("command", name)) {
             final CommandCompletePostProcessor postProcessor = this.commandCompletePostProcessor;
             final UserDetails userDetails;
             if (postProcessor != null) {
@@ -345,7 +362,9 @@ public class CommandsResource implements CommandsAPI {
             return withUIContext(namespace, projectName, resourcePath, true, new RestUIFunction<Response>() {
                 @Override
                 public Response apply(RestUIContext uiContext) throws Exception {
-                    userDetails.setAddress(uiContext.getCloneUrl());
+                    if (userDetails != null) {
+                        userDetails.setAddress(uiContext.getCloneUrl());
+                    }
                     return doExecute(name, executionRequest, postProcessor, userDetails, uiContext);
                 }
             });
@@ -359,7 +378,8 @@ public class CommandsResource implements CommandsAPI {
      * This method is only used to warm up JBoss Forge so we can create a sample project on startup in a temporary directory
      */
     public Response doExecute(String name, ExecutionRequest executionRequest, CommandCompletePostProcessor postProcessor, UserDetails userDetails, RestUIContext uiContext) throws Exception {
-        try (RestUIContext context = uiContext) {
+        Tracer tracer = getTracer();
+        try (RestUIContext context = uiContext; Span span = tracer.span("doExecute").tag("command", name)) {
             UICommand command = getCommandByName(context, name);
             if (command == null) {
                 return Response.status(Status.NOT_FOUND).build();
@@ -373,7 +393,10 @@ public class CommandsResource implements CommandsAPI {
                     map.put(TARGET_LOCATION_PROPERTY, projectFileSystem.getUserProjectFolderLocation(userDetails));
                 }
             }
-            CommandController controller = createController(context, command);
+            CommandController controller;
+            try (Span createSpan = tracer.span("createController")) {
+                controller = createController(context, command);
+            }
             configureAttributeMaps(userDetails, controller, executionRequest);
             ExecutionResult answer = null;
             if (controller instanceof WizardCommandController) {
@@ -388,57 +411,74 @@ public class CommandsResource implements CommandsAPI {
                 int page = executionRequest.wizardStep();
                 int nextPage = page + 1;
                 boolean canMoveToNextStep = false;
+                int pageIndex = 0;
                 for (Map<String, Object> inputs : inputList) {
-                    UICommands.populateController(inputs, lastController, getConverterFactory());
-                    List<UIMessage> messages = lastController.validate();
-                    ValidationResult stepValidation = UICommands.createValidationResult(context, lastController, messages);
-                    stepValidationList.add(stepValidation);
-                    if (!stepValidation.isValid()) {
-                        break;
-                    }
-                    canMoveToNextStep = lastController.canMoveToNextStep();
-                    boolean valid = lastController.isValid();
-                    if (!canMoveToNextStep) {
-                        if (lastController.canExecute()) {
-                            // lets assume we can execute now
-                            LOG.info("About to invoked command " + name + " stepValidation: " + stepValidation + " messages: " + messages + " with " + executionRequest);
-                            lastResult = lastController.execute();
-                            LOG.debug("Invoked command " + name + " with " + executionRequest + " result: " + lastResult);
-                            ExecutionResult stepResults = UICommands.createExecutionResult(context, lastResult, false);
-                            stepResultList.add(stepResults);
-                            break;
-                        } else {
-                            stepValidation.addValidationError("Forge command failed with an internal error");
-                            LOG.warn("Cannot move to next step as canExecute() returns false but the validation seems to be fine!");
+                    try (Span pageSpan = tracer.span("wizard.page").tag("page", pageIndex++)) {
+                        populateController(tracer, inputs, lastController);
+                        List<UIMessage> messages;
+                        try (Span validateSpan = tracer.span("validate")) {
+                            messages = lastController.validate();
+                        }
+                        ValidationResult stepValidation = UICommands.createValidationResult(context, lastController, messages);
+                        stepValidationList.add(stepValidation);
+                        if (!stepValidation.isValid()) {
                             break;
                         }
-                    } else if (!valid) {
-                        stepValidation.addValidationError("Forge command is not valid but didn't report any validation errors!");
-                        LOG.warn("Cannot move to next step as invalid despite the validation saying otherwise");
-                        break;
-                    }
-                    WizardCommandController nextController = lastController.next();
-                    if (nextController != null) {
-                        if (nextController == lastController) {
-                            LOG.warn("No idea whats going on ;)");
+                        canMoveToNextStep = lastController.canMoveToNextStep();
+                        boolean valid = lastController.isValid();
+                        if (!canMoveToNextStep) {
+                            if (lastController.canExecute()) {
+                                // lets assume we can execute now
+                                LOG.info("About to invoked command " + name + " stepValidation: " + stepValidation + " messages: " + messages + " with " + executionRequest);
+                                try (Span executeSpan = tracer.span("execute")) {
+                                    lastResult = lastController.execute();
+                                }
+                                LOG.debug("Invoked command " + name + " with " + executionRequest + " result: " + lastResult);
+                                ExecutionResult stepResults = UICommands.createExecutionResult(context, lastResult, false);
+                                stepResultList.add(stepResults);
+                                break;
+                            } else {
+                                stepValidation.addValidationError("Forge command failed with an internal error");
+                                LOG.warn("Cannot move to next step as canExecute() returns false but the validation seems to be fine!");
+                                break;
+                            }
+                        } else if (!valid) {
+                            stepValidation.addValidationError("Forge command is not valid but didn't report any validation errors!");
+                            LOG.warn("Cannot move to next step as invalid despite the validation saying otherwise");
                             break;
                         }
-                        lastController = nextController;
-                        lastController.initialize();
-                        controllers.add(lastController);
-                        CommandInputDTO stepDto = UICommands.createCommandInputDTO(context, command, lastController);
-                        stepPropertiesList.add(stepDto);
-                    } else {
-                        int i = 0;
-                        for (WizardCommandController stepController : controllers) {
-                            Map<String, Object> stepControllerInputs = inputList.get(i++);
-                            UICommands.populateController(stepControllerInputs, stepController, getConverterFactory());
-                            lastResult = stepController.execute();
-                            LOG.debug("Invoked command " + name + " with " + executionRequest + " result: " + lastResult);
-                            ExecutionResult stepResults = UICommands.createExecutionResult(context, lastResult, false);
-                            stepResultList.add(stepResults);
+                        WizardCommandController nextController;
+                        try (Span nextSpan = tracer.span("wizard.next")) {
+                            nextController = lastController.next();
+                            if (nextController != null && nextController != lastController) {
+                                nextController.initialize();
+                            }
+                        }
+                        if (nextController != null) {
+                            if (nextController == lastController) {
+                                LOG.warn("No idea whats going on ;)");
+                                break;
+                            }
+                            lastController = nextController;
+                            controllers.add(lastController);
+                            CommandInputDTO stepDto = UICommands.createCommandInputDTO(context, command, lastController);
+                            stepPropertiesList.add(stepDto);
+                        } else {
+                            try (Span replaySpan = tracer.span("wizard.replay")) {
+                                int i = 0;
+                                for (WizardCommandController stepController : controllers) {
+                                    Map<String, Object> stepControllerInputs = inputList.get(i++);
+                                    populateController(tracer, stepControllerInputs, stepController);
+                                    try (Span executeSpan = tracer.span("execute")) {
+                                        lastResult = stepController.execute();
+                                    }
+                                    LOG.debug("Invoked command " + name + " with " + executionRequest + " result: " + lastResult);
+                                    ExecutionResult stepResults = UICommands.createExecutionResult(context, lastResult, false);
+                                    stepResultList.add(stepResults);
+                                }
+                            }
+                            break;
                         }
-                        break;
                     }
                 }
                 answer = UICommands.createExecutionResult(context, lastResult, canMoveToNextStep);
@@ -446,13 +486,18 @@ public class CommandsResource implements CommandsAPI {
                 answer.setWizardResults(wizardResultsDTO);
             } else {
                 Map<String, Object> inputs = inputList.get(0);
-                UICommands.populateController(inputs, controller, getConverterFactory());
-                Result result = controller.execute();
+                populateController(tracer, inputs, controller);
+                Result result;
+                try (Span executeSpan = tracer.span("execute")) {
+                    result = controller.execute();
+                }
                 LOG.debug("Invoked command " + name + " with " + executionRequest + " result: " + result);
                 answer = UICommands.createExecutionResult(context, result, false);
             }
             if (answer.isCommandCompleted() && postProcessor != null) {
-                postProcessor.firePostCompleteActions(name, executionRequest, context, controller, answer, request);
+                try (Span postSpan = tracer.span("postComplete")) {
+                    postProcessor.firePostCompleteActions(name, executionRequest, context, controller, answer, request);
+                }
             }
             context.setCommitMessage(ExecutionRequest.createCommitMessage(name, executionRequest));
             return Response.ok(answer).build();
@@ -484,7 +529,7 @@ public class CommandsResource implements CommandsAPI {
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     public Response validateCommand(@PathParam("name") final String name, final ExecutionRequest executionRequest) throws Exception {
-        try {
+        try (Span trace = getTracer().startTrace("validateCommand").tag("command", name)) {
             final UserDetails userDetails;
             if (commandCompletePostProcessor != null) {
                 userDetails = commandCompletePostProcessor.preprocessRequest(name, executionRequest, request);
@@ -513,13 +558,17 @@ public class CommandsResource implements CommandsAPI {
      * Helper method used purely to pre-load and warm up JBoss Forge
      */
     public Response doValidate(String name, ExecutionRequest executionRequest, UserDetails userDetails, RestUIContext uiContext) throws Exception {
-        try (RestUIContext context = uiContext) {
+        Tracer tracer = getTracer();
+        try (RestUIContext context = uiContext; Span span = tracer.span("doValidate").tag("command", name)) {
             UICommand command = getCommandByName(context, name);
             if (command == null) {
                 return Response.status(Status.NOT_FOUND).build();
             }
             List<Map<String, Object>> inputList = executionRequest.getInputList();
-            CommandController controller = createController(context, command);
+            CommandController controller;
+            try (Span createSpan = tracer.span("createController")) {
+                controller = createController(context, command);
+            }
             configureAttributeMaps(userDetails, controller, executionRequest);
             ValidationResult answer = null;
             if (controller instanceof WizardCommandController) {
@@ -535,7 +584,7 @@ public class CommandsResource implements CommandsAPI {
                 int nextPage = page + 1;
                 boolean canMoveToNextStep = false;
                 for (Map<String, Object> inputs : inputList) {
-                    UICommands.populateController(inputs, lastController, getConverterFactory());
+                    populateController(tracer, inputs, lastController);
                     CommandInputDTO stepDto = UICommands.createCommandInputDTO(context, command, lastController);
                     stepPropertiesList.add(stepDto);
                     canMoveToNextStep = lastController.canMoveToNextStep();
@@ -564,7 +613,7 @@ public class CommandsResource implements CommandsAPI {
                         int i = 0;
                         for (WizardCommandController stepController : controllers) {
                             Map<String, Object> stepControllerInputs = inputList.get(i++);
-                            UICommands.populateController(stepControllerInputs, stepController, getConverterFactory());
+                            populateController(tracer, stepControllerInputs, stepController);
                             lastResult = stepController.validate();
                             LOG.debug("Invoked command " + name + " with " + executionRequest + " result: " + lastResult);
                             ValidationResult stepResults = UICommands.createValidationResult(context, controller, lastResult);
@@ -580,7 +629,7 @@ public class CommandsResource implements CommandsAPI {
                 answer.setWizardResults(wizardResultsDTO);
             } else {
                 Map<String, Object> inputs = inputList.get(0);
-                UICommands.populateController(inputs, controller, getConverterFactory());
+                populateController(tracer, inputs, controller);
                 List<UIMessage> result = controller.validate();
                 LOG.debug("Invoked command " + name + " with " + executionRequest + " result: " + result);
                 answer = UICommands.createValidationResult(context, controller, result);
@@ -589,6 +638,176 @@ public class CommandsResource implements CommandsAPI {
         }
     }
 
+    @Override
+    @POST
+    @Path("/command/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response executeBatch(final CommandBatchRequest batchRequest) throws Exception {
+        final List<CommandBatchItem> items = batchRequest.getItems() != null ? batchRequest.getItems() : new ArrayList<CommandBatchItem>();
+        boolean write = false;
+        for (CommandBatchItem item : items) {
+            if (!item.isValidate()) {
+                write = true;
+                break;
+            }
+        }
+        GitContext gitContext = new GitContext();
+        if (!write) {
+            gitContext.setRequirePull(false);
+        }
+        try (Span trace = getTracer().startTrace("executeBatch").tag("items", items.size())) {
+            // lets run all the commands inside one git operation so we only clone/pull, lock and push once
+            CommandBatchResult answer = withUIContext(batchRequest.getNamespace(), batchRequest.getProjectName(), batchRequest.getResource(), write, new RestUIFunction<CommandBatchResult>() {
+                @Override
+                public CommandBatchResult apply(RestUIContext uiContext) throws Exception {
+                    List<CommandBatchItemResult> results = new ArrayList<>();
+                    StringBuilder commitMessage = new StringBuilder();
+                    Git git = uiContext.getGit();
+                    if (git != null) {
+                        checkpointWorkingTree(git);
+                    }
+                    for (CommandBatchItem item : items) {
+                        RestUIContext itemContext = uiContext.createSiblingContext();
+                        CommandBatchItemResult result;
+                        try (Span span = getTracer().span("batchItem").tag("command", item.getName())) {
+                            result = executeBatchItem(batchRequest, item, itemContext);
+                        }
+                        results.add(result);
+                        if (git != null && !item.isValidate()) {
+                            if (isFailedBatchItem(result)) {
+                                // lets not commit whatever the failed command left behind with the other commands
+                                restoreWorkingTree(git);
+                                continue;
+                            }
+                            checkpointWorkingTree(git);
+                        }
+                        String itemCommitMessage = itemContext.getCommitMessage();
+                        if (Strings.isNotBlank(itemCommitMessage)) {
+                            if (commitMessage.length() > 0) {
+                                commitMessage.append("\n");
+                            }
+                            commitMessage.append(itemCommitMessage);
+                        }
+                    }
+                    if (commitMessage.length() > 0) {
+                        uiContext.setCommitMessage(commitMessage.toString());
+                    }
+                    return new CommandBatchResult(results);
+                }
+            }, gitContext);
+            return Response.ok(answer).build();
+        } catch (Throwable e) {
+            LOG.warn("Failed to invoke command batch " + batchRequest + ". " + e, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns true if the batch item threw, was not found or its command reported a failure
+     */
+    protected static boolean isFailedBatchItem(CommandBatchItemResult result) {
+        if (!result.isSuccessful()) {
+            return true;
+        }
+        ExecutionResult executionResult = result.getExecutionResult();
+        return executionResult != null && executionResult.getStatus() == ExecutionStatus.FAILED;
+    }
+
+    /**
+     * Stages the working tree so that it can be restored if a later command of a batch fails
+     */
+    protected static void checkpointWorkingTree(Git git) throws GitAPIException {
+        git.add().addFilepattern(".").call();
+        git.add().setUpdate(true).addFilepattern(".").call();
+    }
+
+    /**
+     * Restores the working tree to the last checkpoint; reverting the changes and removing the new files
+     * of a command which failed partway
+     */
+    protected static void restoreWorkingTree(Git git) throws GitAPIException {
+        git.checkout().setAllPaths(true).call();
+        git.clean().setCleanDirectories(true).call();
+    }
+
+    /**
+     * Validates or executes a single item of a batch, capturing the status and any failure in the result
+     * so that one failing command does not lose the results of the others
+     */
+    protected CommandBatchItemResult executeBatchItem(CommandBatchRequest batchRequest, CommandBatchItem item, RestUIContext uiContext) {
+        String name = item.getName();
+        CommandBatchItemResult answer = new CommandBatchItemResult(name, item.isValidate());
+        ExecutionRequest executionRequest = item.getRequest();
+        if (executionRequest == null) {
+            executionRequest = new ExecutionRequest();
+        }
+        // the items run in the working tree of the batch so they cannot target another project
+        String mismatch = null;
+        if (!isBatchValue(executionRequest.getNamespace(), batchRequest.getNamespace())) {
+            mismatch = "namespace " + executionRequest.getNamespace();
+        } else if (!isBatchValue(executionRequest.getProjectName(), batchRequest.getProjectName())) {
+            mismatch = "project " + executionRequest.getProjectName();
+        } else if (!isBatchValue(executionRequest.getResource(), batchRequest.getResource())) {
+            mismatch = "resource " + executionRequest.getResource();
+        }
+        if (mismatch != null) {
+            LOG.warn("Not invoking command " + name + " as its " + mismatch + " is not the one of the batch " + batchRequest);
+            answer.setStatus(Status.BAD_REQUEST.getStatusCode());
+            answer.setError("The " + mismatch + " of command " + name + " does not match the batch");
+            return answer;
+        }
+        executionRequest.setNamespace(batchRequest.getNamespace());
+        executionRequest.setProjectName(batchRequest.getProjectName());
+        executionRequest.setResource(batchRequest.getResource());
+        try {
+            CommandCompletePostProcessor postProcessor = this.commandCompletePostProcessor;
+            UserDetails userDetails = null;
+            if (postProcessor != null) {
+                userDetails = postProcessor.preprocessRequest(name, executionRequest, request);
+            }
+            if (userDetails != null) {
+                userDetails.setAddress(uiContext.getCloneUrl());
+            }
+            Response response;
+            if (item.isValidate()) {
+                response = doValidate(name, executionRequest, userDetails, uiContext);
+            } else {
+                response = doExecute(name, executionRequest, postProcessor, userDetails, uiContext);
+            }
+            answer.setStatus(response.getStatus());
+            Object entity = response.getEntity();
+            if (entity instanceof ExecutionResult) {
+                answer.setExecutionResult((ExecutionResult) entity);
+            } else if (entity instanceof ValidationResult) {
+                answer.setValidationResult((ValidationResult) entity);
+            } else if (response.getStatus() == Status.NOT_FOUND.getStatusCode()) {
+                answer.setError("No command called " + name);
+            }
+        } catch (Throwable e) {
+            LOG.warn("Failed to invoke command " + name + " on " + executionRequest + ". " + e, e);
+            answer.setStatus(Status.INTERNAL_SERVER_ERROR.getStatusCode());
+            answer.setError(e.toString());
+        }
+        return answer;
+    }
+
+    /**
+     * Returns true if the value of a batch item is blank, so it defaults to the value of the batch, or is the value of the batch
+     */
+    protected static boolean isBatchValue(String itemValue, String batchValue) {
+        return Strings.isNullOrBlank(itemValue) || itemValue.equals(batchValue);
+    }
+
+    /**
+     * Populates the controller with the inputs of a page, recording the time taken in the current trace
+     */
+    protected void populateController(Tracer tracer, Map<String, Object> inputs, CommandController controller) {
+        try (Span span = tracer.span("populateController")) {
+            UICommands.populateController(inputs, controller, getConverterFactory());
+        }
+    }
+
     protected CommandInfoDTO createCommandInfoDTO(RestUIContext context, String name) {
         CommandInfoDTO answer = null;
         if (isValidCommandName(name)) {
@@ -618,7 +837,11 @@ public class CommandsResource implements CommandsAPI {
     }
 
     protected UICommand getCommandByName(RestUIContext context, String name) {
-        return commandFactory.getCommandByName(context, name);
+        UICommand answer = commandFactory.getCommandByName(context, name);
+        if (answer != null) {
+            metrics.addCommandName(name);
+        }
+        return answer;
     }
 
     protected CommandController createController(RestUIContext context, UICommand command) throws Exception {
@@ -634,42 +857,48 @@ public class CommandsResource implements CommandsAPI {
     }
 
     protected <T> T withUIContext(final String namespace, final String projectName, String resourcePath, boolean write, final RestUIFunction<T> function, final GitContext gitContext) throws Exception {
-        final ResourceFactory resourceFactory = getResourceFactory();
-        if (Strings.isNotBlank(namespace) && Strings.isNotBlank(projectName) && resourceFactory != null) {
-            RepositoriesResource repositoriesResource = new RepositoriesResource(gitUserHelper, repositoryCache, projectFileSystem, lockManager, kubernetes);
-            repositoriesResource.setRequest(request);
-            final RepositoryResource projectResource = repositoriesResource.projectRepositoryResource(namespace, projectName);
-            if (projectResource == null) {
-                throw new NotFoundException("Could not find git project for namespace: " + namespace + " and projectName: " + projectName);
-            } else {
-                GitOperation<T> operation = new GitOperation<T>() {
-                    @Override
-                    public T call(Git git, GitContext gitContext) throws Exception {
-                        Repository repository = git.getRepository();
-                        File gitDir = repository.getDirectory();
-                        File directory = gitDir.getParentFile();
-                        LOG.debug("using repository directory: " + directory.getAbsolutePath());
-                        Resource<?> selection = resourceFactory.create(directory);
-                        String cloneUrl = projectResource.getCloneUrl();
-                        try (RestUIContext context = new RestUIContext(selection, namespace, projectName, cloneUrl)) {
-                            T answer = function.apply(context);
-                            String commitMessage = context.getCommitMessage();
-                            if (Strings.isNotBlank(commitMessage)) {
-                                projectResource.setMessage(commitMessage);
+        try (Span span = getTracer().span("withUIContext")) {
+            final ResourceFactory resourceFactory = getResourceFactory();
+            if (Strings.isNotBlank(namespace) && Strings.isNotBlank(projectName) && resourceFactory != null) {
+                RepositoriesResource repositoriesResource = new RepositoriesResource(gitUserHelper, repositoryCache, projectFileSystem, lockManager, kubernetes);
+                repositoriesResource.setRequest(request);
+                final RepositoryResource projectResource;
+                try (Span resolveSpan = getTracer().span("repository.resolve")) {
+                    projectResource = repositoriesResource.projectRepositoryResource(namespace, projectName);
+                }
+                if (projectResource == null) {
+                    throw new NotFoundException("Could not find git project for namespace: " + namespace + " and projectName: " + projectName);
+                } else {
+                    GitOperation<T> operation = new GitOperation<T>() {
+                        @Override
+                        public T call(Git git, GitContext gitContext) throws Exception {
+                            Repository repository = git.getRepository();
+                            File gitDir = repository.getDirectory();
+                            File directory = gitDir.getParentFile();
+                            LOG.debug("using repository directory: " + directory.getAbsolutePath());
+                            Resource<?> selection = resourceFactory.create(directory);
+                            String cloneUrl = projectResource.getCloneUrl();
+                            try (RestUIContext context = new RestUIContext(selection, namespace, projectName, cloneUrl)) {
+                                context.setGit(git);
+                                T answer = function.apply(context);
+                                String commitMessage = context.getCommitMessage();
+                                if (Strings.isNotBlank(commitMessage)) {
+                                    projectResource.setMessage(commitMessage);
+                                }
+                                return answer;
                             }
-                            return answer;
                         }
+                    };
+                    if (write) {
+                        return projectResource.gitWriteOperation(operation, gitContext);
+                    } else {
+                        return projectResource.gitReadOperation(operation, gitContext);
                     }
-                };
-                if (write) {
-                    return projectResource.gitWriteOperation(operation);
-                } else {
-                    return projectResource.gitReadOperation(operation);
                 }
-            }
-        } else {
-            try (RestUIContext context = new RestUIContext(null)) {
-                return function.apply(context);
+            } else {
+                try (RestUIContext context = new RestUIContext(null)) {
+                    return function.apply(context);
+                }
             }
         }
     }
@@ -681,6 +910,52 @@ public class CommandsResource implements CommandsAPI {
         return new RestUIContext(selection);
     }
 
+    /**
+     * Loads the forge project in the given folder, resolves its effective dependencies and evaluates which
+     * commands are enabled for it so that the project facets are cached before the first request on it
+     */
+    public void warmUpProject(File folder) {
+        try (RestUIContext context = createUIContext(folder)) {
+            Imported<ProjectFactory> projectFactoryImport = furnace.getAddonRegistry().getServices(ProjectFactory.class);
+            if (!projectFactoryImport.isUnsatisfied()) {
+                Project project = projectFactoryImport.get().findProject(context.<Resource<?>>getInitialSelection().get());
+                if (project != null && project.hasFacet(DependencyFacet.class)) {
+                    List<Dependency> dependencies = project.getFacet(DependencyFacet.class).getEffectiveDependencies();
+                    LOG.debug("Resolved " + dependencies.size() + " dependencies of " + folder);
+                }
+            }
+            for (String name : commandFactory.getCommandNames(context)) {
+                try {
+                    createCommandInfoDTO(context, name);
+                } catch (Exception e) {
+                    LOG.debug("Ignored exception warming up command " + name + " on " + folder + ": " + e, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the camel catalog and builds its suggestion index which is otherwise done on the first
+     * endpoint validation
+     */
+    public void warmUpCamelCatalog() {
+        StopWatch watch = new StopWatch();
+        try {
+            Imported<CamelCatalog> catalogImport = furnace.getAddonRegistry().getServices(CamelCatalog.class);
+            if (catalogImport.isUnsatisfied()) {
+                LOG.debug("No camel catalog service available to warm up");
+                return;
+            }
+            CamelCatalog catalog = catalogImport.get();
+            List<String> components = catalog.findComponentNames();
+            // validating a misspelt option makes the catalog build its suggestion index
+            catalog.validateEndpointProperties("timer:warmUp?perod=1000");
+            LOG.info("Warmed up camel catalog with " + components.size() + " components in " + watch.taken());
+        } catch (Exception e) {
+            LOG.warn("Failed to warm up the camel catalog: " + e, e);
+        }
+    }
+
     protected ResourceFactory getResourceFactory() {
         AddonRegistry addonRegistry = furnace.getAddonRegistry();
         Imported<ResourceFactory> resourceFactoryImport = addonRegistry.getServices(ResourceFactory.class);
@@ -697,6 +972,10 @@ public class CommandsResource implements CommandsAPI {
         return resourceFactory;
     }
 
+    protected Tracer getTracer() {
+        return Tracer.getInstance();
+    }
+
     public ConverterFactory getConverterFactory() {
         if (converterFactory == null) {
             AddonRegistry addonRegistry = furnace.getAddonRegistry();
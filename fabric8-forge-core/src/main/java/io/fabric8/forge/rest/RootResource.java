@@ -15,14 +15,17 @@
  */
 package io.fabric8.forge.rest;
 
+import io.fabric8.forge.rest.main.ForgeInitialiser;
 import io.fabric8.utils.IOHelpers;
 
+import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
@@ -53,9 +56,15 @@ public class RootResource {
         return index();
     }
 
+    @Inject
+    ForgeInitialiser forgeInitialiser;
+
     @GET
     @Path("_ping")
-    public String ping() {
-        return "true";
+    public Response ping() {
+        if (forgeInitialiser != null && !forgeInitialiser.isReady()) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity("warming up").build();
+        }
+        return Response.ok("true").build();
     }
 }
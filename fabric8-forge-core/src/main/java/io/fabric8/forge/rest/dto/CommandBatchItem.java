@@ -0,0 +1,67 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.dto;
+
+/**
+ * A command to validate or execute as part of a {@link CommandBatchRequest}
+ */
+public class CommandBatchItem {
+    private String name;
+    private ExecutionRequest request;
+    private boolean validate;
+
+    public CommandBatchItem() {
+    }
+
+    public CommandBatchItem(String name, ExecutionRequest request, boolean validate) {
+        this.name = name;
+        this.request = request;
+        this.validate = validate;
+    }
+
+    @Override
+    public String toString() {
+        return "CommandBatchItem{" +
+                "name='" + name + '\'' +
+                ", validate=" + validate +
+                ", request=" + request +
+                '}';
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public ExecutionRequest getRequest() {
+        return request;
+    }
+
+    public void setRequest(ExecutionRequest request) {
+        this.request = request;
+    }
+
+    public boolean isValidate() {
+        return validate;
+    }
+
+    public void setValidate(boolean validate) {
+        this.validate = validate;
+    }
+}
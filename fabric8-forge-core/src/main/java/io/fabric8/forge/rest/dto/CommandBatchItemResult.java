@@ -0,0 +1,102 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * The result of one item of a {@link CommandBatchRequest}; the status is the HTTP status the item
+ * would have returned as a single request and either the execution or validation result is populated
+ */
+public class CommandBatchItemResult {
+    private String name;
+    private boolean validate;
+    private int status;
+    private String error;
+    private ExecutionResult executionResult;
+    private ValidationResult validationResult;
+
+    public CommandBatchItemResult() {
+    }
+
+    public CommandBatchItemResult(String name, boolean validate) {
+        this.name = name;
+        this.validate = validate;
+    }
+
+    @Override
+    public String toString() {
+        return "CommandBatchItemResult{" +
+                "name='" + name + '\'' +
+                ", validate=" + validate +
+                ", status=" + status +
+                ", error='" + error + '\'' +
+                '}';
+    }
+
+    @JsonIgnore
+    public boolean isSuccessful() {
+        return status >= 200 && status < 300;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public boolean isValidate() {
+        return validate;
+    }
+
+    public void setValidate(boolean validate) {
+        this.validate = validate;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public ExecutionResult getExecutionResult() {
+        return executionResult;
+    }
+
+    public void setExecutionResult(ExecutionResult executionResult) {
+        this.executionResult = executionResult;
+    }
+
+    public ValidationResult getValidationResult() {
+        return validationResult;
+    }
+
+    public void setValidationResult(ValidationResult validationResult) {
+        this.validationResult = validationResult;
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A list of commands to validate or execute on one project in a single request
+ */
+public class CommandBatchRequest {
+    private String namespace;
+    private String projectName;
+    private String resource;
+    private List<CommandBatchItem> items = new ArrayList<>();
+
+    public CommandBatchRequest() {
+    }
+
+    public CommandBatchRequest(String namespace, String projectName) {
+        this.namespace = namespace;
+        this.projectName = projectName;
+    }
+
+    @Override
+    public String toString() {
+        return "CommandBatchRequest{" +
+                "namespace='" + namespace + '\'' +
+                ", projectName='" + projectName + '\'' +
+                ", resource='" + resource + '\'' +
+                ", items=" + items +
+                '}';
+    }
+
+    /**
+     * Adds a command to execute
+     */
+    public CommandBatchRequest execute(String name, ExecutionRequest request) {
+        items.add(new CommandBatchItem(name, request, false));
+        return this;
+    }
+
+    /**
+     * Adds a command to validate
+     */
+    public CommandBatchRequest validate(String name, ExecutionRequest request) {
+        items.add(new CommandBatchItem(name, request, true));
+        return this;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public void setNamespace(String namespace) {
+        this.namespace = namespace;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    public void setProjectName(String projectName) {
+        this.projectName = projectName;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public void setResource(String resource) {
+        this.resource = resource;
+    }
+
+    public List<CommandBatchItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<CommandBatchItem> items) {
+        this.items = items;
+    }
+}
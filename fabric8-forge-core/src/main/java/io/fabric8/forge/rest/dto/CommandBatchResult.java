@@ -0,0 +1,63 @@
+/**
+ * Copyright 2005-2015 Red Hat, Inc.
+ * <p>
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The results of a {@link CommandBatchRequest} in the same order as its items
+ */
+public class CommandBatchResult {
+    private List<CommandBatchItemResult> results = new ArrayList<>();
+
+    public CommandBatchResult() {
+    }
+
+    public CommandBatchResult(List<CommandBatchItemResult> results) {
+        this.results = results;
+    }
+
+    @Override
+    public String toString() {
+        return "CommandBatchResult{" +
+                "results=" + results +
+                '}';
+    }
+
+    /**
+     * Returns true if every item completed with a 2xx status
+     */
+    @JsonIgnore
+    public boolean isSuccessful() {
+        for (CommandBatchItemResult result : results) {
+            if (!result.isSuccessful()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public List<CommandBatchItemResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<CommandBatchItemResult> results) {
+        this.results = results;
+    }
+}
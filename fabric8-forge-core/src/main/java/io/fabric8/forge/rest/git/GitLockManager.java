@@ -15,6 +15,10 @@
  */
 package io.fabric8.forge.rest.git;
 
+import io.fabric8.forge.rest.metrics.ForgeMetrics;
+import io.fabric8.forge.rest.tracing.Span;
+import io.fabric8.forge.rest.tracing.Tracer;
+import io.fabric8.forge.rest.utils.StopWatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,16 +38,23 @@ public class GitLockManager {
     private static final transient Logger LOG = LoggerFactory.getLogger(GitLockManager.class);
 
     private Map<String, ReentrantLock> locks = new HashMap<>();
+    private final ForgeMetrics metrics = ForgeMetrics.getInstance();
 
     public <T> T withLock(File gitFolder, Callable<T> block) throws Exception {
         ReentrantLock lock = getLock(gitFolder);
-        lock.lock();
+        StopWatch watch = new StopWatch();
+        try (Span span = Tracer.getInstance().span("git.lockWait")) {
+            lock.lock();
+        }
+        metrics.record(ForgeMetrics.GIT_LOCK_WAIT, watch);
+        watch.restart();
         try {
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Started lock for " + gitFolder + " instance " + lock);
             }
             return block.call();
         } finally {
+            metrics.record(ForgeMetrics.GIT_LOCK_HELD, watch);
             lock.unlock();
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Ended lock for " + gitFolder + " instance " + lock);
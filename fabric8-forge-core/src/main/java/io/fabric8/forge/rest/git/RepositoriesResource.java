@@ -15,6 +15,7 @@
  */
 package io.fabric8.forge.rest.git;
 
+import io.fabric8.forge.kubernetes.cache.ResourceCaches;
 import io.fabric8.forge.rest.Constants;
 import io.fabric8.forge.rest.main.GitUserHelper;
 import io.fabric8.forge.rest.main.ProjectFileSystem;
@@ -54,6 +55,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Singleton
 @Path("/api/forge/repos")
@@ -73,6 +75,9 @@ public class RepositoriesResource {
     private final ProjectFileSystem projectFileSystem;
     private final GitLockManager lockManager;
     private final KubernetesClient kubernetes;
+    private final ResourceCaches resourceCaches = ResourceCaches.getInstance();
+    private final Map<String, String> keyFileResourceVersions = new ConcurrentHashMap<>();
+    private volatile OpenShiftClient openShiftClient;
 
     @Context
     private HttpServletRequest request;
@@ -92,6 +97,15 @@ public class RepositoriesResource {
         return "true";
     }
 
+    /**
+     * Returns the size and freshness of the local caches of kubernetes resources
+     */
+    @GET
+    @Path("_caches")
+    public List<Map<String, Object>> getCacheMetrics() {
+        return resourceCaches.getMetrics();
+    }
+
     @GET
     public List<RepositoryDTO> getUserRepositories() {
         GitRepoClient repoClient = createGitRepoClient();
@@ -169,9 +183,9 @@ public class RepositoriesResource {
         BuildSource source = null;
         if (Strings.isNullOrBlank(uri)) {
             // lets get the BuildConfig
-            OpenShiftClient osClient = new Controller(kubernetes).getOpenShiftClientOrJenkinshift();
+            OpenShiftClient osClient = getOpenShiftClient();
             if (osClient != null) {
-                BuildConfig buildConfig = osClient.buildConfigs().withName(projectId).get();
+                BuildConfig buildConfig = resourceCaches.buildConfigs(osClient, null).get(projectId);
                 if (buildConfig == null) {
                     throw new NotFoundException("No BuildConfig for " + remoteRepository);
                 }
@@ -213,20 +227,22 @@ public class RepositoriesResource {
         RepositoryResource resource = new RepositoryResource(projectFolder, gitFolder, userDetails, origin, branch, remoteRepository, lockManager, projectFileSystem, cloneUrl, objectId);
         if (sourceSecretName != null) {
             try {
+                // get the one secret rather than caching the data of all the secrets of its namespace
                 Secret secret = kubernetes.secrets().inNamespace(secretNamespace).withName(sourceSecretName).get();
                 if (secret != null) {
                     Map<String, String> data = secret.getData();
-                    File privateKeyFile = createSshKeyFile(namespace, sourceSecretName, SSH_PRIVATE_KEY_DATA_KEY, data.get(SSH_PRIVATE_KEY_DATA_KEY));
+                    String resourceVersion = secret.getMetadata() != null ? secret.getMetadata().getResourceVersion() : null;
+                    File privateKeyFile = createSshKeyFile(namespace, sourceSecretName, resourceVersion, SSH_PRIVATE_KEY_DATA_KEY, data.get(SSH_PRIVATE_KEY_DATA_KEY));
                     if (privateKeyFile == null) {
-                        privateKeyFile = createSshKeyFile(namespace, sourceSecretName, SSH_PRIVATE_KEY_DATA_KEY2, data.get(SSH_PRIVATE_KEY_DATA_KEY2));
+                        privateKeyFile = createSshKeyFile(namespace, sourceSecretName, resourceVersion, SSH_PRIVATE_KEY_DATA_KEY2, data.get(SSH_PRIVATE_KEY_DATA_KEY2));
                     }
                     userDetails.setSshPrivateKey(privateKeyFile);
                     if (privateKeyFile != null) {
                         privateKeyFile.setReadable(true, true);
                     }
-                    File publicKeyFile = createSshKeyFile(namespace, sourceSecretName, SSH_PUBLIC_KEY_DATA_KEY, data.get(SSH_PUBLIC_KEY_DATA_KEY));
+                    File publicKeyFile = createSshKeyFile(namespace, sourceSecretName, resourceVersion, SSH_PUBLIC_KEY_DATA_KEY, data.get(SSH_PUBLIC_KEY_DATA_KEY));
                     if (publicKeyFile == null) {
-                        publicKeyFile = createSshKeyFile(namespace, sourceSecretName, SSH_PUBLIC_KEY_DATA_KEY2, data.get(SSH_PUBLIC_KEY_DATA_KEY2));
+                        publicKeyFile = createSshKeyFile(namespace, sourceSecretName, resourceVersion, SSH_PUBLIC_KEY_DATA_KEY2, data.get(SSH_PUBLIC_KEY_DATA_KEY2));
                     }
                     userDetails.setSshPublicKey(publicKeyFile);
                     String username = decodeSecretData(data.get(USERNAME_DATA_KEY));
@@ -276,15 +292,38 @@ public class RepositoriesResource {
     }
 
     protected File createSshKeyFile(String namespace, String sourceSecretName, String privateKeyName, String privateKey) throws IOException {
+        return createSshKeyFile(namespace, sourceSecretName, null, privateKeyName, privateKey);
+    }
+
+    /**
+     * Writes the key file unless it has already been written for the given resource version of the secret
+     */
+    protected File createSshKeyFile(String namespace, String sourceSecretName, String resourceVersion, String privateKeyName, String privateKey) throws IOException {
         File keyFile = null;
         if (privateKey != null) {
-            String text = Base64Encoder.decode(privateKey);
             keyFile = projectFileSystem.getSecretsFolder(namespace, sourceSecretName, privateKeyName);
+            String path = keyFile.getAbsolutePath();
+            if (resourceVersion != null && resourceVersion.equals(keyFileResourceVersions.get(path)) && keyFile.isFile()) {
+                return keyFile;
+            }
+            String text = Base64Encoder.decode(privateKey);
             Files.writeToFile(keyFile, text.getBytes());
+            if (resourceVersion != null) {
+                keyFileResourceVersions.put(path, resourceVersion);
+            } else {
+                keyFileResourceVersions.remove(path);
+            }
         }
         return keyFile;
     }
 
+    protected OpenShiftClient getOpenShiftClient() {
+        if (openShiftClient == null) {
+            openShiftClient = new Controller(kubernetes).getOpenShiftClientOrJenkinshift();
+        }
+        return openShiftClient;
+    }
+
     protected void enrichRepository(RepositoryDTO repositoryDTO) {
         String repoName = repositoryDTO.getName();
         if (Strings.isNullOrBlank(repoName)) {
@@ -25,6 +25,9 @@ import io.fabric8.forge.rest.utils.StopWatch;
 import io.fabric8.project.support.GitUtils;
 import io.fabric8.forge.rest.main.MD5Util;
 import io.fabric8.forge.rest.main.ProjectFileSystem;
+import io.fabric8.forge.rest.metrics.ForgeMetrics;
+import io.fabric8.forge.rest.tracing.Span;
+import io.fabric8.forge.rest.tracing.Tracer;
 import io.fabric8.project.support.UserDetails;
 import io.fabric8.utils.Files;
 import io.fabric8.utils.IOHelpers;
@@ -110,6 +113,8 @@ public class RepositoryResource {
     private final UserDetails userDetails;
     private final String remoteRepository;
     private final GitLockManager lockManager;
+    private final ForgeMetrics metrics = ForgeMetrics.getInstance();
+    private final Tracer tracer = Tracer.getInstance();
     private final ProjectFileSystem projectFileSystem;
     private final String origin;
     private final String cloneUrl;
@@ -756,46 +761,49 @@ public class RepositoryResource {
             @Override
             public T call() throws Exception {
                 StopWatch watch = new StopWatch();
+                Git git;
+                try (Span setupSpan = tracer.span("git.setup")) {
+                    projectFileSystem.cloneRepoIfNotExist(userDetails, basedir, cloneUrl);
+
+                    FileRepositoryBuilder builder = new FileRepositoryBuilder();
+                    Repository repository = builder.setGitDir(gitFolder)
+                            .readEnvironment() // scan environment GIT_* variables
+                            .findGitDir() // scan up the file system tree
+                            .build();
+
+                    git = new Git(repository);
+                    if (Strings.isNullOrBlank(origin)) {
+                        throw new IOException("Could not find remote git URL for folder " + gitFolder.getPath());
+                    }
 
-                projectFileSystem.cloneRepoIfNotExist(userDetails, basedir, cloneUrl);
-
-                FileRepositoryBuilder builder = new FileRepositoryBuilder();
-                Repository repository = builder.setGitDir(gitFolder)
-                        .readEnvironment() // scan environment GIT_* variables
-                        .findGitDir() // scan up the file system tree
-                        .build();
-
-                Git git = new Git(repository);
-                if (Strings.isNullOrBlank(origin)) {
-                    throw new IOException("Could not find remote git URL for folder " + gitFolder.getPath());
-                }
-
-                CredentialsProvider credentials = userDetails.createCredentialsProvider();
-                createPersonIdent();
+                    CredentialsProvider credentials = userDetails.createCredentialsProvider();
+                    createPersonIdent();
 
-                disableSslCertificateChecks();
-                LOG.info("Stashing local changes to the repo");
-                boolean hasHead = true;
-                try {
-                    git.log().all().call();
-                    hasHead = git.getRepository().getAllRefs().containsKey("HEAD");
-                } catch (NoHeadException e) {
-                    hasHead = false;
-                }
-                if (hasHead) {
-                    // lets stash any local changes just in case..
+                    disableSslCertificateChecks();
+                    LOG.info("Stashing local changes to the repo");
+                    boolean hasHead = true;
                     try {
-                        git.stashCreate().setPerson(personIdent).setWorkingDirectoryMessage("Stash before a write").setRef("HEAD").call();
-                    } catch (Throwable e) {
-                        LOG.error("Failed to stash changes: " + e, e);
-                        Throwable cause = e.getCause();
-                        if (cause != null && cause != e) {
-                            LOG.error("Cause: " + cause, cause);
+                        git.log().all().call();
+                        hasHead = git.getRepository().getAllRefs().containsKey("HEAD");
+                    } catch (NoHeadException e) {
+                        hasHead = false;
+                    }
+                    if (hasHead) {
+                        // lets stash any local changes just in case..
+                        try {
+                            git.stashCreate().setPerson(personIdent).setWorkingDirectoryMessage("Stash before a write").setRef("HEAD").call();
+                        } catch (Throwable e) {
+                            LOG.error("Failed to stash changes: " + e, e);
+                            Throwable cause = e.getCause();
+                            if (cause != null && cause != e) {
+                                LOG.error("Cause: " + cause, cause);
+                            }
                         }
                     }
-                }
 
-                checkoutBranch(git, context);
+                    checkoutBranch(git, context);
+                }
+                metrics.record(ForgeMetrics.JGIT, watch, "operation", "setup");
                 if (context.isRequirePull()) {
                     doPull(git, context);
                 }
@@ -806,7 +814,11 @@ public class RepositoryResource {
                     message = "";
                 }
                 if (context.isRequireCommit() && hasGitChanges(git)) {
-                    doAddCommitAndPushFiles(git, userDetails, personIdent, branch, origin, message, isPushOnCommit());
+                    StopWatch commitWatch = new StopWatch();
+                    try (Span span = tracer.span("git.commitAndPush")) {
+                        doAddCommitAndPushFiles(git, userDetails, personIdent, branch, origin, message, isPushOnCommit());
+                    }
+                    metrics.record(ForgeMetrics.JGIT, commitWatch, "operation", "commitAndPush");
                 }
 
                 LOG.info("Git operation took " + watch.taken());
@@ -844,7 +856,10 @@ public class RepositoryResource {
         CredentialsProvider cp = userDetails.createCredentialsProvider();
         PullCommand command = git.pull();
         configureCommand(command, userDetails);
-        command.setCredentialsProvider(cp).setRebase(true).call();
+        try (Span span = tracer.span("git.pull")) {
+            command.setCredentialsProvider(cp).setRebase(true).call();
+        }
+        metrics.record(ForgeMetrics.JGIT, watch, "operation", "pull");
         LOG.info("Took " + watch.taken() + " to complete pull in git repository " + this.gitFolder + " on remote URL: " + this.remoteRepository);
     }
 
@@ -887,12 +902,22 @@ public class RepositoryResource {
     }
 
     protected RevCommit commitThenPush(Git git, CommitCommand commit) throws Exception {
-        RevCommit answer = commit.call();
+        StopWatch watch = new StopWatch();
+        RevCommit answer;
+        try (Span span = tracer.span("git.commit")) {
+            answer = commit.call();
+        }
+        metrics.record(ForgeMetrics.JGIT, watch, "operation", "commit");
         if (LOG.isDebugEnabled()) {
             LOG.debug("Committed " + answer.getId() + " " + answer.getFullMessage());
         }
         if (isPushOnCommit()) {
-            Iterable<PushResult> results = doPush(git);
+            watch.restart();
+            Iterable<PushResult> results;
+            try (Span span = tracer.span("git.push")) {
+                results = doPush(git);
+            }
+            metrics.record(ForgeMetrics.JGIT, watch, "operation", "push");
             for (PushResult result : results) {
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("Pushed " + result.getMessages() + " " + result.getURI() + " branch: " + branch + " updates: " + toString(result.getRemoteUpdates()));
@@ -19,8 +19,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -42,11 +41,22 @@ import org.slf4j.LoggerFactory;
 public class ForgeInitialiser {
     private static final transient Logger LOG = LoggerFactory.getLogger(ForgeInitialiser.class);
 
+    private final ProjectWarmUp projectWarmUp;
+
     /**
      * @param addOnDir the directory where Forge addons will be stored
+     * @param warmUpProjects the number of recently used projects to warm up on startup
+     * @param warmUpThreads the number of threads used to warm up projects
+     * @param warmUpTimeoutSeconds the time budget of the warm up after which the service reports ready anyway
      */
     @Inject
-    public ForgeInitialiser(@ConfigProperty(name = "FORGE_ADDON_DIRECTORY", defaultValue = "./addon-repository") String addOnDir, FurnaceProducer furnaceProducer) {
+    public ForgeInitialiser(@ConfigProperty(name = "FORGE_ADDON_DIRECTORY", defaultValue = "./addon-repository") String addOnDir, FurnaceProducer furnaceProducer,
+                            ProjectFileSystem projectFileSystem,
+                            @ConfigProperty(name = "WARMUP_PROJECTS", defaultValue = "5") Integer warmUpProjects,
+                            @ConfigProperty(name = "WARMUP_THREADS", defaultValue = "2") Integer warmUpThreads,
+                            @ConfigProperty(name = "WARMUP_TIMEOUT_SECONDS", defaultValue = "120") Integer warmUpTimeoutSeconds) {
+        this.projectWarmUp = new ProjectWarmUp(projectFileSystem.getRootProjectFolder(), warmUpProjects, warmUpThreads, TimeUnit.SECONDS.toMillis(warmUpTimeoutSeconds));
+
         java.util.logging.Logger out = java.util.logging.Logger.getLogger(this.getClass().getName());
         out.info("Logging to JUL to test the configuration");
 
@@ -78,8 +88,21 @@ public class ForgeInitialiser {
         LOG.info("preloadCommands took " + watch.taken());
     }
 
-    public void preloadProjects(CommandsResource commandsResource, Map<String, Set<String>> catalogs)  {
-        // does not work well with forge
+    /**
+     * Warms up the camel catalog and the most recently used projects in a background thread; the service
+     * reports itself ready once this completes or runs out of time
+     */
+    public void preloadProjects(final CommandsResource commandsResource)  {
+        Thread thread = new Thread(() -> projectWarmUp.warmUp(commandsResource::warmUpProject, commandsResource::warmUpCamelCatalog), "ForgeWarmUp");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns true once the startup warm up has completed or run out of time
+     */
+    public boolean isReady() {
+        return projectWarmUp.isReady();
     }
 
     protected File createTempDirectory() {
@@ -27,6 +27,9 @@ import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
 import io.fabric8.forge.rest.CommandsResource;
 import io.fabric8.forge.rest.RootResource;
 import io.fabric8.forge.rest.git.RepositoriesResource;
+import io.fabric8.forge.rest.metrics.MetricsFilter;
+import io.fabric8.forge.rest.metrics.MetricsResource;
+import io.fabric8.forge.rest.tracing.TracesResource;
 import org.apache.camel.catalog.rest.CamelCatalogRest;
 
 @ApplicationPath("/")
@@ -50,6 +53,7 @@ public class ForgeRestApplication extends Application {
         if (!preloaded) {
             preloaded = true;
             forgeInitialiser.preloadCommands(commandsResource);
+            forgeInitialiser.preloadProjects(commandsResource);
         }
 
         return new HashSet<Object>(
@@ -57,6 +61,9 @@ public class ForgeRestApplication extends Application {
                         rootResource,
                         commandsResource,
                         repositoriesResource,
+                        new MetricsResource(),
+                        new MetricsFilter(),
+                        new TracesResource(),
                         new JacksonJsonProvider(),
                         new CamelCatalogRest()
 /*
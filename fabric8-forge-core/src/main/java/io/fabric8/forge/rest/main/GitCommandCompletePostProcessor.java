@@ -47,15 +47,18 @@ public class GitCommandCompletePostProcessor implements CommandCompletePostProce
     private final KubernetesClient kubernetes;
     private final GitUserHelper gitUserHelper;
     private final ProjectFileSystem projectFileSystem;
+    private final RepositoryCache repositoryCache;
     private boolean useLocalGitHost;
 
     @Inject
     public GitCommandCompletePostProcessor(KubernetesClient kubernetes,
                                            GitUserHelper gitUserHelper,
-                                           ProjectFileSystem projectFileSystem) {
+                                           ProjectFileSystem projectFileSystem,
+                                           RepositoryCache repositoryCache) {
         this.kubernetes = kubernetes;
         this.gitUserHelper = gitUserHelper;
         this.projectFileSystem = projectFileSystem;
+        this.repositoryCache = repositoryCache;
         this.useLocalGitHost = true;
         String useExternalGit = System.getenv("USE_EXTERNAL_GIT_ADDRESS");
         if (!Strings.isNullOrEmpty(useExternalGit) && useExternalGit.toLowerCase().equals("true")){
@@ -128,6 +131,10 @@ public class GitCommandCompletePostProcessor implements CommandCompletePostProce
                         String message = ExecutionRequest.createCommitMessage(name, executionRequest);
 
                         BuildConfigHelper.CreateGitProjectResults createProjectResults = BuildConfigHelper.importNewGitProject(this.kubernetes, userDetails, basedir, namespace, projectName, origin, message, true, useLocalGitHost);
+                        if (createProjectResults.getFullName() != null) {
+                            // in case it was looked up and found to be missing before it was created
+                            repositoryCache.invalidateUserRepository(createProjectResults.getFullName());
+                        }
 
                         results.setOutputProperty("fullName", createProjectResults.getFullName());
                         results.setOutputProperty("cloneUrl", createProjectResults.getCloneUrl());
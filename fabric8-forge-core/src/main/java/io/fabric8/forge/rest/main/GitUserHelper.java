@@ -37,24 +37,37 @@ import static io.fabric8.kubernetes.api.ServiceNames.*;
  */
 public class GitUserHelper {
     private static final transient Logger LOG = LoggerFactory.getLogger(GitUserHelper.class);
+    public static final String USER_DETAILS_ATTRIBUTE = GitUserHelper.class.getName() + ".userDetails";
+
     private final String gitUser;
     private final String gitPassword;
     private final KubernetesClient kubernetesClient;
-    private String address;
-    private String internalAddress;
+    private final ServiceUrlCache serviceUrlCache;
 
     // TODO it'd be nice to pick either http or https based on the port number of the gogs service
     // so if folks configured it on https then we'd just work
     @Inject
     public GitUserHelper(@ConfigProperty(name = "JENKINS_GOGS_USER") String gitUser,
                          @ConfigProperty(name = "JENKINS_GOGS_PASSWORD") String gitPassword,
-                         KubernetesClient kubernetesClient) {
+                         KubernetesClient kubernetesClient,
+                         ServiceUrlCache serviceUrlCache) {
         this.gitUser = gitUser;
         this.gitPassword = gitPassword;
         this.kubernetesClient = kubernetesClient;
+        this.serviceUrlCache = serviceUrlCache;
     }
 
+    /**
+     * Returns the user details for the request. The details are only worked out once per request;
+     * each call returns a new copy so that callers can modify it
+     */
     public UserDetails createUserDetails(HttpServletRequest request) {
+        if (request != null) {
+            Object value = request.getAttribute(USER_DETAILS_ATTRIBUTE);
+            if (value instanceof UserDetails) {
+                return copyUserDetails((UserDetails) value);
+            }
+        }
         StopWatch watch = new StopWatch();
 
         String user = gitUser;
@@ -74,37 +87,58 @@ public class GitUserHelper {
             }
         }
         if (!Strings.isNullOrEmpty(authorization)) {
-            String basicPrefix = "basic";
-            String lower = authorization.toLowerCase();
-            if (lower.startsWith(basicPrefix)) {
-                String base64Credentials = authorization.substring(basicPrefix.length()).trim();
-                String credentials = new String(Base64.decode(base64Credentials),
-                        Charset.forName("UTF-8"));
-                // credentials = username:password
-                String[] values = credentials.split(":", 2);
-                if (values != null && values.length > 1) {
-                    user = values[0];
-                    password = values[1];
-                }
+            String[] values = decodeCredentials(authorization);
+            if (values != null) {
+                user = values[0];
+                password = values[1];
             }
         }
         String email = "dummy@gmail.com";
         if (!Strings.isNullOrEmpty(emailHeader)) {
             email = emailHeader;
         }
-        if (Strings.isNullOrEmpty(address)) {
-            address = getGogsURL(true);
-            internalAddress = getGogsURL(false);
-            if (!address.endsWith("/")) {
-                address += "/";
-            }
-            if (!internalAddress.endsWith("/")) {
-                internalAddress += "/";
-            }
+        String address = getGogsURL(true);
+        String internalAddress = getGogsURL(false);
+        if (!address.endsWith("/")) {
+            address += "/";
+        }
+        if (!internalAddress.endsWith("/")) {
+            internalAddress += "/";
         }
 
+        UserDetails answer = new UserDetails(address, internalAddress, user, password, email);
+        if (request != null) {
+            request.setAttribute(USER_DETAILS_ATTRIBUTE, answer);
+        }
         LOG.info("createUserDetails took " + watch.taken());
-        return new UserDetails(address, internalAddress, user, password, email);
+        return copyUserDetails(answer);
+    }
+
+    /**
+     * Returns the user name and password of a basic authorization header or null if it is not one
+     */
+    protected String[] decodeCredentials(String authorization) {
+        String basicPrefix = "basic";
+        String lower = authorization.toLowerCase();
+        if (lower.startsWith(basicPrefix)) {
+            String base64Credentials = authorization.substring(basicPrefix.length()).trim();
+            String credentials = new String(Base64.decode(base64Credentials),
+                    Charset.forName("UTF-8"));
+            // credentials = username:password
+            String[] values = credentials.split(":", 2);
+            if (values != null && values.length > 1) {
+                return values;
+            }
+        }
+        return null;
+    }
+
+    protected static UserDetails copyUserDetails(UserDetails details) {
+        UserDetails answer = new UserDetails(details.getAddress(), details.getInternalAddress(), details.getUser(), details.getPassword(), details.getEmail());
+        answer.setBranch(details.getBranch());
+        answer.setSshPrivateKey(details.getSshPrivateKey());
+        answer.setSshPublicKey(details.getSshPublicKey());
+        return answer;
     }
 
     protected String getGogsURL(boolean external) {
@@ -115,7 +149,7 @@ public class GitUserHelper {
             namespace = KubernetesHelper.defaultNamespace();
         }
         String serviceName = GOGS;
-        String answer = KubernetesHelper.getServiceURL(kubernetesClient, serviceName, namespace, "http", external);
+        String answer = serviceUrlCache.getServiceURL(serviceName, namespace, "http", external);
         if (Strings.isNullOrEmpty(answer)) {
             String kind = external ? "external" : "internal";
             throw new IllegalStateException("Could not find external URL for " + kind + " service: gogs!");
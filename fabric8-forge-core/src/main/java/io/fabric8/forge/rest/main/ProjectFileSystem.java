@@ -35,6 +35,7 @@ import org.eclipse.jgit.transport.CredentialsProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.ws.rs.NotFoundException;
@@ -71,6 +72,11 @@ public class ProjectFileSystem {
         LOG.info("Using jenkins workflow library version: " + this.jenkinsfileLibraryGitTag);
     }
 
+    @PreDestroy
+    public void close() {
+        executorService.shutdownNow();
+    }
+
     public String getRemote() {
         return remote;
     }
@@ -80,6 +86,10 @@ public class ProjectFileSystem {
         return projectFolder.getAbsolutePath();
     }
 
+    public File getRootProjectFolder() {
+        return new File(rootProjectFolder);
+    }
+
     public File getUserProjectFolder(UserDetails userDetails) {
         String gitUser = userDetails.getUser();
         return getUserProjectFolder(gitUser);
@@ -0,0 +1,164 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.main;
+
+import io.fabric8.forge.rest.utils.StopWatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warms up the most recently used projects under the project folder on startup, using a few threads
+ * and within a time budget, so that the first request on each project does not pay for loading it.
+ * The service only reports itself ready once the warm up has completed or run out of time.
+ */
+public class ProjectWarmUp {
+    private static final transient Logger LOG = LoggerFactory.getLogger(ProjectWarmUp.class);
+    private static final int MAX_DEPTH = 6;
+
+    private final File rootFolder;
+    private final int maxProjects;
+    private final int threads;
+    private final long timeoutMillis;
+    private final AtomicInteger warmedUp = new AtomicInteger();
+    private volatile boolean ready;
+
+    public ProjectWarmUp(File rootFolder, int maxProjects, int threads, long timeoutMillis) {
+        this.rootFolder = rootFolder;
+        this.maxProjects = maxProjects;
+        this.threads = Math.max(1, threads);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Warms up a single project folder
+     */
+    public interface Task {
+        void warmUp(File projectFolder) throws Exception;
+    }
+
+    /**
+     * Runs the given tasks followed by the project task on each of the recently used projects, then marks
+     * the service as ready. Returns the number of projects which were warmed up within the time budget.
+     */
+    public int warmUp(Task projectTask, Runnable... globalTasks) {
+        StopWatch watch = new StopWatch();
+        try {
+            List<File> projects = maxProjects > 0 ? findRecentProjects() : Collections.<File>emptyList();
+            LOG.info("Warming up " + projects.size() + " projects with " + threads + " threads");
+            ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "ProjectWarmUp");
+                thread.setDaemon(true);
+                return thread;
+            });
+            for (Runnable globalTask : globalTasks) {
+                executor.execute(globalTask);
+            }
+            for (final File project : projects) {
+                executor.execute(() -> {
+                    StopWatch projectWatch = new StopWatch();
+                    try {
+                        projectTask.warmUp(project);
+                        warmedUp.incrementAndGet();
+                    } catch (Exception e) {
+                        LOG.warn("Failed to warm up project " + project + ": " + e, e);
+                    } finally {
+                        LOG.info("Warming up " + project + " took " + projectWatch.taken());
+                    }
+                });
+            }
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    LOG.warn("Warm up did not complete within " + timeoutMillis + " millis so the remaining projects are skipped");
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+            }
+            return warmedUp.get();
+        } finally {
+            ready = true;
+            LOG.info("Warmed up " + warmedUp.get() + " projects in " + watch.taken());
+        }
+    }
+
+    /**
+     * Returns true once the warm up has completed or run out of time
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getWarmedUp() {
+        return warmedUp.get();
+    }
+
+    /**
+     * Returns the git project folders under the root folder ordered by when they were last used, most recent first
+     */
+    public List<File> findRecentProjects() {
+        List<File> answer = new ArrayList<>();
+        addProjects(answer, rootFolder, 0);
+        answer.sort(Comparator.comparingLong(ProjectWarmUp::lastUsed).reversed());
+        if (answer.size() > maxProjects) {
+            answer = new ArrayList<>(answer.subList(0, maxProjects));
+        }
+        return answer;
+    }
+
+    protected void addProjects(List<File> projects, File folder, int depth) {
+        File[] children = folder.listFiles();
+        if (children == null) {
+            return;
+        }
+        if (new File(folder, ".git").isDirectory()) {
+            if (new File(folder, "pom.xml").isFile()) {
+                projects.add(folder);
+            }
+            return;
+        }
+        if (depth < MAX_DEPTH) {
+            for (File child : children) {
+                if (child.isDirectory() && !child.getName().startsWith(".")) {
+                    addProjects(projects, child, depth + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns when the project was last cloned, pulled or committed to
+     */
+    protected static long lastUsed(File projectFolder) {
+        File gitFolder = new File(projectFolder, ".git");
+        long answer = gitFolder.lastModified();
+        for (String name : new String[]{"index", "FETCH_HEAD", "ORIG_HEAD", "HEAD"}) {
+            answer = Math.max(answer, new File(gitFolder, name).lastModified());
+        }
+        return answer;
+    }
+}
@@ -17,6 +17,8 @@ package io.fabric8.forge.rest.main;
 
 import io.fabric8.repo.git.GitRepoClient;
 import io.fabric8.repo.git.RepositoryDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.inject.Singleton;
 import java.util.List;
@@ -24,18 +26,41 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * Caches the user repositories by full name for a time to live; repositories which could not be found
+ * are remembered for a shorter time so that looking up a missing repository does not list all
+ * the repositories each time.
  */
 @Singleton
 public class RepositoryCache {
-    private Map<String,RepositoryDTO> userCache = new ConcurrentHashMap<>();
+    private static final transient Logger LOG = LoggerFactory.getLogger(RepositoryCache.class);
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = 5 * 60 * 1000L;
+    public static final long DEFAULT_MISSING_TIME_TO_LIVE_MILLIS = 30 * 1000L;
+
+    private final Map<String, CachedRepository> userCache = new ConcurrentHashMap<>();
+    private final Map<String, Long> missingRepositories = new ConcurrentHashMap<>();
+    private final long timeToLiveMillis;
+    private final long missingTimeToLiveMillis;
+
+    public RepositoryCache() {
+        this(DEFAULT_TIME_TO_LIVE_MILLIS, DEFAULT_MISSING_TIME_TO_LIVE_MILLIS);
+    }
+
+    public RepositoryCache(long timeToLiveMillis, long missingTimeToLiveMillis) {
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.missingTimeToLiveMillis = missingTimeToLiveMillis;
+    }
 
     /**
      * Updates the cache of all user repositories
      */
     public void updateUserRepositories(List<RepositoryDTO> repositoryDTOs) {
+        long expires = System.currentTimeMillis() + timeToLiveMillis;
         for (RepositoryDTO repositoryDTO : repositoryDTOs) {
             String fullName = repositoryDTO.getFullName();
-            userCache.put(fullName, repositoryDTO);
+            if (fullName != null) {
+                userCache.put(fullName, new CachedRepository(repositoryDTO, expires));
+                missingRepositories.remove(fullName);
+            }
         }
     }
 
@@ -44,19 +69,71 @@ public class RepositoryCache {
     }
 
     public RepositoryDTO getUserRepository(String fullName) {
-        return userCache.get(fullName);
+        CachedRepository cached = userCache.get(fullName);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.isExpired(System.currentTimeMillis())) {
+            userCache.remove(fullName, cached);
+            return null;
+        }
+        return cached.getRepository();
+    }
+
+    /**
+     * Forgets anything cached about the given repository; such as after it has been created
+     */
+    public void invalidateUserRepository(String fullName) {
+        userCache.remove(fullName);
+        missingRepositories.remove(fullName);
     }
 
     /**
      * Attempts to use the cache or performs a query for all the users repositories if its not present
+     * and has not recently been found to be missing
      */
     public RepositoryDTO getOrFindUserRepository(String user, String repositoryName, GitRepoClient repoClient) {
-        RepositoryDTO repository = getUserRepository(user, repositoryName);
+        String fullName = user + "/" + repositoryName;
+        RepositoryDTO repository = getUserRepository(fullName);
         if (repository == null) {
+            Long missingUntil = missingRepositories.get(fullName);
+            if (missingUntil != null) {
+                if (missingUntil > System.currentTimeMillis()) {
+                    return null;
+                }
+                missingRepositories.remove(fullName, missingUntil);
+            }
             List<RepositoryDTO> repositoryDTOs = repoClient.listRepositories();
             updateUserRepositories(repositoryDTOs);
-            repository = getUserRepository(user, repositoryName);
+            for (RepositoryDTO repositoryDTO : repositoryDTOs) {
+                if (fullName.equals(repositoryDTO.getFullName())) {
+                    repository = repositoryDTO;
+                    break;
+                }
+            }
+            if (repository == null) {
+                LOG.debug("No repository " + fullName + " so not looking again for " + missingTimeToLiveMillis + " millis");
+                missingRepositories.put(fullName, System.currentTimeMillis() + missingTimeToLiveMillis);
+            }
         }
         return repository;
     }
+
+    private static class CachedRepository {
+        private final RepositoryDTO repository;
+        private final long expires;
+
+        CachedRepository(RepositoryDTO repository, long expires) {
+            this.repository = repository;
+            this.expires = expires;
+        }
+
+        RepositoryDTO getRepository() {
+            return repository;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expires;
+        }
+    }
 }
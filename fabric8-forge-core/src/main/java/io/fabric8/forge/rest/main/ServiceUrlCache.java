@@ -0,0 +1,135 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.main;
+
+import io.fabric8.kubernetes.api.KubernetesHelper;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.utils.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caches the URLs of kubernetes services for a time to live. Once an URL has expired the cached value is
+ * still returned while it is looked up again in the background so requests do not wait on the kubernetes API.
+ */
+@Singleton
+public class ServiceUrlCache {
+    private static final transient Logger LOG = LoggerFactory.getLogger(ServiceUrlCache.class);
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = 60 * 1000L;
+
+    private final KubernetesClient kubernetesClient;
+    private final long timeToLiveMillis;
+    private final Map<String, CachedUrl> urls = new ConcurrentHashMap<>();
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ServiceUrlCache");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Inject
+    public ServiceUrlCache(KubernetesClient kubernetesClient) {
+        this(kubernetesClient, DEFAULT_TIME_TO_LIVE_MILLIS);
+    }
+
+    public ServiceUrlCache(KubernetesClient kubernetesClient, long timeToLiveMillis) {
+        this.kubernetesClient = kubernetesClient;
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    @PreDestroy
+    public void close() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Returns the URL of the given service or null if it could not be found
+     */
+    public String getServiceURL(final String serviceName, final String namespace, final String protocol, final boolean external) {
+        final String key = namespace + "/" + serviceName + "/" + protocol + "/" + external;
+        CachedUrl cached = urls.get(key);
+        if (cached == null) {
+            String answer = findServiceURL(serviceName, namespace, protocol, external);
+            if (Strings.isNotBlank(answer)) {
+                urls.put(key, new CachedUrl(answer, System.currentTimeMillis()));
+            }
+            return answer;
+        }
+        if (cached.isExpired(System.currentTimeMillis(), timeToLiveMillis) && cached.startRefresh()) {
+            executorService.execute(() -> {
+                try {
+                    String answer = findServiceURL(serviceName, namespace, protocol, external);
+                    if (Strings.isNotBlank(answer)) {
+                        urls.put(key, new CachedUrl(answer, System.currentTimeMillis()));
+                    } else {
+                        LOG.warn("Service " + serviceName + " in namespace " + namespace + " no longer has an URL so using " + cached.getUrl());
+                    }
+                } catch (Exception e) {
+                    LOG.warn("Failed to refresh the URL of service " + serviceName + " in namespace " + namespace + ": " + e, e);
+                } finally {
+                    cached.endRefresh();
+                }
+            });
+        }
+        return cached.getUrl();
+    }
+
+    /**
+     * Removes all the cached URLs
+     */
+    public void clear() {
+        urls.clear();
+    }
+
+    protected String findServiceURL(String serviceName, String namespace, String protocol, boolean external) {
+        return KubernetesHelper.getServiceURL(kubernetesClient, serviceName, namespace, protocol, external);
+    }
+
+    private static class CachedUrl {
+        private final String url;
+        private final long loaded;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        CachedUrl(String url, long loaded) {
+            this.url = url;
+            this.loaded = loaded;
+        }
+
+        String getUrl() {
+            return url;
+        }
+
+        boolean isExpired(long now, long timeToLiveMillis) {
+            return now - loaded >= timeToLiveMillis;
+        }
+
+        boolean startRefresh() {
+            return refreshing.compareAndSet(false, true);
+        }
+
+        void endRefresh() {
+            refreshing.set(false);
+        }
+    }
+}
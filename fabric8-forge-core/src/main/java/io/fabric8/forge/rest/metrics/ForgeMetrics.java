@@ -0,0 +1,239 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.metrics;
+
+import io.fabric8.forge.rest.utils.StopWatch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A registry of {@link LatencyHistogram}s identified by a metric name and a set of labels
+ * which can be rendered as JSON or in the Prometheus text exposition format.
+ */
+public class ForgeMetrics {
+    public static final String HTTP_REQUESTS = "fabric8_forge_http_request_seconds";
+    public static final String GIT_LOCK_WAIT = "fabric8_forge_git_lock_wait_seconds";
+    public static final String GIT_LOCK_HELD = "fabric8_forge_git_lock_held_seconds";
+    public static final String JGIT = "fabric8_forge_jgit_seconds";
+    public static final String OTHER_COMMAND = "other";
+
+    private static final ForgeMetrics INSTANCE = new ForgeMetrics();
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Map<String, String> descriptions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Series> series = new ConcurrentHashMap<>();
+    private final Set<String> commandNames = ConcurrentHashMap.newKeySet();
+
+    public ForgeMetrics() {
+        describe(HTTP_REQUESTS, "Latency of REST requests by resource method and command");
+        describe(GIT_LOCK_WAIT, "Time spent waiting to acquire the lock on a git folder");
+        describe(GIT_LOCK_HELD, "Time the lock on a git folder was held");
+        describe(JGIT, "Time spent in JGit by operation");
+    }
+
+    /**
+     * Returns the registry shared by the REST resources in this JVM
+     */
+    public static ForgeMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    public void describe(String name, String description) {
+        descriptions.put(name, description);
+    }
+
+    /**
+     * Registers the name of a command which exists so that its requests are recorded in their own series
+     */
+    public void addCommandName(String name) {
+        commandNames.add(name);
+    }
+
+    /**
+     * Returns the label value for the command name of a request. Names which are not registered commands
+     * are all labelled {@link #OTHER_COMMAND} so that arbitrary names in request paths cannot create an
+     * unbounded number of series
+     */
+    public String commandLabel(String name) {
+        if (name == null || name.isEmpty()) {
+            return "";
+        }
+        return commandNames.contains(name) ? name : OTHER_COMMAND;
+    }
+
+    /**
+     * Returns the histogram for the metric name and the label names and values given as pairs
+     */
+    public LatencyHistogram histogram(String name, String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name and value pairs but got " + labels.length + " values");
+        }
+        String key = seriesKey(name, labels);
+        Series answer = series.get(key);
+        if (answer == null) {
+            Map<String, String> labelMap = new LinkedHashMap<>();
+            for (int i = 0; i < labels.length; i += 2) {
+                labelMap.put(labels[i], labels[i + 1] != null ? labels[i + 1] : "");
+            }
+            answer = series.computeIfAbsent(key, k -> new Series(name, labelMap));
+        }
+        return answer.histogram;
+    }
+
+    /**
+     * Records the time taken so far by the stop watch
+     */
+    public void record(String name, StopWatch watch, String... labels) {
+        histogram(name, labels).record(watch.takenNanos());
+    }
+
+    public void reset() {
+        series.clear();
+    }
+
+    /**
+     * Returns the metrics keyed by name with a summary of each labelled histogram
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> answer = new TreeMap<>();
+        for (Map.Entry<String, List<Series>> entry : seriesByName().entrySet()) {
+            List<Map<String, Object>> list = new ArrayList<>();
+            for (Series s : entry.getValue()) {
+                Map<String, Object> map = new LinkedHashMap<>();
+                map.put("labels", s.labels);
+                map.putAll(s.histogram.toMap());
+                list.add(map);
+            }
+            answer.put(entry.getKey(), list);
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the metrics as summaries in the Prometheus text exposition format
+     */
+    public String toPrometheusText() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, List<Series>> entry : seriesByName().entrySet()) {
+            String name = entry.getKey();
+            String description = descriptions.get(name);
+            if (description != null) {
+                builder.append("# HELP ").append(name).append(' ').append(description).append('\n');
+            }
+            builder.append("# TYPE ").append(name).append(" summary\n");
+            for (Series s : entry.getValue()) {
+                LatencyHistogram histogram = s.histogram;
+                for (double quantile : QUANTILES) {
+                    builder.append(name);
+                    appendLabels(builder, s.labels, "quantile", Double.toString(quantile));
+                    builder.append(' ').append(toSeconds(histogram.getValueAtPercentile(quantile * 100))).append('\n');
+                }
+                builder.append(name).append("_sum");
+                appendLabels(builder, s.labels, null, null);
+                builder.append(' ').append(toSeconds(histogram.getSumNanos())).append('\n');
+                builder.append(name).append("_count");
+                appendLabels(builder, s.labels, null, null);
+                builder.append(' ').append(histogram.getCount()).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+
+    protected Map<String, List<Series>> seriesByName() {
+        Map<String, List<Series>> answer = new TreeMap<>();
+        for (Series s : series.values()) {
+            List<Series> list = answer.get(s.name);
+            if (list == null) {
+                list = new ArrayList<>();
+                answer.put(s.name, list);
+            }
+            list.add(s);
+        }
+        for (List<Series> list : answer.values()) {
+            Collections.sort(list, Comparator.comparing(s -> s.labels.toString()));
+        }
+        return answer;
+    }
+
+    protected static String seriesKey(String name, String... labels) {
+        StringBuilder builder = new StringBuilder(name);
+        for (String label : labels) {
+            builder.append('\u0000').append(label);
+        }
+        return builder.toString();
+    }
+
+    protected static void appendLabels(StringBuilder builder, Map<String, String> labels, String extraName, String extraValue) {
+        if (labels.isEmpty() && extraName == null) {
+            return;
+        }
+        builder.append('{');
+        boolean first = true;
+        for (Map.Entry<String, String> entry : labels.entrySet()) {
+            if (!first) {
+                builder.append(',');
+            }
+            first = false;
+            appendLabel(builder, entry.getKey(), entry.getValue());
+        }
+        if (extraName != null) {
+            if (!first) {
+                builder.append(',');
+            }
+            appendLabel(builder, extraName, extraValue);
+        }
+        builder.append('}');
+    }
+
+    protected static void appendLabel(StringBuilder builder, String name, String value) {
+        builder.append(name).append("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '\\' || ch == '"') {
+                builder.append('\\').append(ch);
+            } else if (ch == '\n') {
+                builder.append("\\n");
+            } else {
+                builder.append(ch);
+            }
+        }
+        builder.append('"');
+    }
+
+    protected static double toSeconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+    protected static class Series {
+        private final String name;
+        private final Map<String, String> labels;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        public Series(String name, Map<String, String> labels) {
+            this.name = name;
+            this.labels = labels;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.metrics;
+
+import io.fabric8.forge.rest.CommandsResource;
+import io.fabric8.forge.rest.git.RepositoryResource;
+import io.fabric8.forge.rest.utils.StopWatch;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+/**
+ * Records the latency of requests to the {@link CommandsResource} and {@link RepositoryResource}
+ * labelled by resource method and, for commands, the command name if its a registered command
+ */
+@Provider
+public class MetricsFilter implements ContainerRequestFilter, ContainerResponseFilter {
+    private static final String STOP_WATCH_PROPERTY = MetricsFilter.class.getName() + ".stopWatch";
+
+    private final ForgeMetrics metrics;
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    public MetricsFilter() {
+        this(ForgeMetrics.getInstance());
+    }
+
+    public MetricsFilter(ForgeMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        requestContext.setProperty(STOP_WATCH_PROPERTY, new StopWatch());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
+        Object watch = requestContext.getProperty(STOP_WATCH_PROPERTY);
+        if (!(watch instanceof StopWatch) || resourceInfo == null) {
+            return;
+        }
+        Class<?> resourceClass = resourceInfo.getResourceClass();
+        Method resourceMethod = resourceInfo.getResourceMethod();
+        if (resourceClass == null || resourceMethod == null || !isMeasured(resourceClass)) {
+            return;
+        }
+        String command = requestContext.getUriInfo().getPathParameters().getFirst("name");
+        String method = resourceMethod.getDeclaringClass().getSimpleName() + "." + resourceMethod.getName();
+        metrics.record(ForgeMetrics.HTTP_REQUESTS, (StopWatch) watch,
+                "method", method,
+                "command", metrics.commandLabel(command),
+                "status", statusFamily(responseContext.getStatus()));
+    }
+
+    protected boolean isMeasured(Class<?> resourceClass) {
+        return CommandsResource.class.isAssignableFrom(resourceClass) || RepositoryResource.class.isAssignableFrom(resourceClass);
+    }
+
+    protected static String statusFamily(int status) {
+        return (status / 100) + "xx";
+    }
+}
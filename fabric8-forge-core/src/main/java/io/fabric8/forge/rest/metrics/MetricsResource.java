@@ -0,0 +1,53 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.metrics;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import java.util.Map;
+
+/**
+ * Exposes the {@link ForgeMetrics} as JSON or as Prometheus text
+ */
+@Path("/api/metrics")
+public class MetricsResource {
+    public static final String PROMETHEUS_TEXT = "text/plain; version=0.0.4";
+
+    private final ForgeMetrics metrics;
+
+    public MetricsResource() {
+        this(ForgeMetrics.getInstance());
+    }
+
+    public MetricsResource(ForgeMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Map<String, Object> getMetrics() {
+        return metrics.toMap();
+    }
+
+    @GET
+    @Path("prometheus")
+    @Produces(PROMETHEUS_TEXT)
+    public String getPrometheusMetrics() {
+        return metrics.toPrometheusText();
+    }
+}
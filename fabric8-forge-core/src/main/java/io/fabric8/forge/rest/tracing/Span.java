@@ -0,0 +1,154 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.tracing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A timed phase of a request which may contain nested spans; closing the span ends it.
+ * <p/>
+ * Spans are created by a {@link Tracer} and are only used by the thread which started them.
+ */
+public class Span implements AutoCloseable {
+    static final Span NOOP = new Span(null, null, null);
+
+    private final Tracer tracer;
+    private final Span parent;
+    private final String name;
+    private final long startNanos;
+    private long durationNanos = -1;
+    private Map<String, String> tags;
+    private List<Span> children;
+
+    Span(Tracer tracer, Span parent, String name) {
+        this.tracer = tracer;
+        this.parent = parent;
+        this.name = name;
+        this.startNanos = System.nanoTime();
+        if (parent != null) {
+            parent.addChild(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Span{" +
+                "name='" + name + '\'' +
+                ", durationNanos=" + durationNanos +
+                ", tags=" + tags +
+                ", children=" + getChildren().size() +
+                '}';
+    }
+
+    /**
+     * Ends this span and makes its parent the current span again
+     */
+    @Override
+    public void close() {
+        if (tracer != null && durationNanos < 0) {
+            durationNanos = System.nanoTime() - startNanos;
+            tracer.ended(this);
+        }
+    }
+
+    /**
+     * Adds a tag to describe the span such as the command name or wizard page
+     */
+    public Span tag(String key, Object value) {
+        if (tracer != null) {
+            if (tags == null) {
+                tags = new LinkedHashMap<>();
+            }
+            tags.put(key, String.valueOf(value));
+        }
+        return this;
+    }
+
+    public boolean isRecording() {
+        return tracer != null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Span getParent() {
+        return parent;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * Returns the duration of the span in nanos or -1 if it has not ended yet
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public Map<String, String> getTags() {
+        return tags != null ? tags : Collections.<String, String>emptyMap();
+    }
+
+    public List<Span> getChildren() {
+        return children != null ? children : Collections.<Span>emptyList();
+    }
+
+    /**
+     * Returns the span and its children as a tree of maps with times in milliseconds relative to the root span
+     */
+    public Map<String, Object> toMap() {
+        Span root = this;
+        while (root.parent != null) {
+            root = root.parent;
+        }
+        return toMap(root.startNanos);
+    }
+
+    protected Map<String, Object> toMap(long rootStartNanos) {
+        Map<String, Object> answer = new LinkedHashMap<>();
+        answer.put("name", name);
+        answer.put("startMillis", toMillis(startNanos - rootStartNanos));
+        answer.put("durationMillis", durationNanos >= 0 ? toMillis(durationNanos) : null);
+        if (tags != null) {
+            answer.put("tags", tags);
+        }
+        if (children != null) {
+            List<Map<String, Object>> list = new ArrayList<>(children.size());
+            for (Span child : children) {
+                list.add(child.toMap(rootStartNanos));
+            }
+            answer.put("children", list);
+        }
+        return answer;
+    }
+
+    private void addChild(Span child) {
+        if (children == null) {
+            children = new ArrayList<>();
+        }
+        children.add(child);
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+}
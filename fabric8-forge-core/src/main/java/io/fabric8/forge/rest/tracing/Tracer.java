@@ -0,0 +1,145 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.tracing;
+
+import io.fabric8.utils.Systems;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A lightweight in process tracer which records nested {@link Span}s for the current thread and keeps
+ * the last few traces which were slower than a threshold so slow requests can be broken down into phases.
+ * <p/>
+ * Starting a span when there is no active trace returns a no-op span, so instrumented code costs
+ * next to nothing outside of a traced request.
+ */
+public class Tracer {
+    /**
+     * The UI context attribute holding a {@link Function} from span name to {@link AutoCloseable} so that
+     * addons, which cannot see this class, can record spans in the current trace
+     */
+    public static final String SPAN_FACTORY_ATTRIBUTE = "fabric8.tracer";
+
+    private static final Tracer INSTANCE = new Tracer(
+            Long.parseLong(Systems.getEnvVarOrSystemProperty("FABRIC8_FORGE_SLOW_TRACE_MILLIS", "1000")),
+            Integer.parseInt(Systems.getEnvVarOrSystemProperty("FABRIC8_FORGE_SLOW_TRACE_COUNT", "50")));
+
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+    private final Function<String, AutoCloseable> spanFactory = this::span;
+    private final long slowThresholdNanos;
+    private final Span[] slowTraces;
+    private int nextSlowTrace;
+
+    /**
+     * Creates a tracer
+     *
+     * @param slowThresholdMillis traces which take at least this long are kept
+     * @param capacity the maximum number of slow traces to keep
+     */
+    public Tracer(long slowThresholdMillis, int capacity) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.slowTraces = new Span[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Returns the tracer shared by the REST resources in this JVM
+     */
+    public static Tracer getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts a new trace for the current thread or a nested span if a trace is already active
+     */
+    public Span startTrace(String name) {
+        Span parent = current.get();
+        Span answer = new Span(this, parent, name);
+        current.set(answer);
+        return answer;
+    }
+
+    /**
+     * Starts a span nested inside the current span or returns a no-op span if there is no active trace
+     */
+    public Span span(String name) {
+        Span parent = current.get();
+        if (parent == null) {
+            return Span.NOOP;
+        }
+        Span answer = new Span(this, parent, name);
+        current.set(answer);
+        return answer;
+    }
+
+    /**
+     * Returns the current span of this thread or null if there is no active trace
+     */
+    public Span currentSpan() {
+        return current.get();
+    }
+
+    /**
+     * Returns a function which starts a span in the current trace, for passing to code which cannot depend on this class
+     */
+    public Function<String, AutoCloseable> getSpanFactory() {
+        return spanFactory;
+    }
+
+    /**
+     * Returns the slowest recent traces, newest first
+     */
+    public synchronized List<Span> getSlowTraces() {
+        List<Span> answer = new ArrayList<>();
+        for (int i = 1; i <= slowTraces.length; i++) {
+            Span trace = slowTraces[(nextSlowTrace - i + slowTraces.length) % slowTraces.length];
+            if (trace != null) {
+                answer.add(trace);
+            }
+        }
+        return answer;
+    }
+
+    public synchronized void clear() {
+        for (int i = 0; i < slowTraces.length; i++) {
+            slowTraces[i] = null;
+        }
+        nextSlowTrace = 0;
+    }
+
+    public long getSlowThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+    }
+
+    void ended(Span span) {
+        Span parent = span.getParent();
+        if (parent != null) {
+            current.set(parent);
+        } else {
+            current.remove();
+            if (span.getDurationNanos() >= slowThresholdNanos) {
+                addSlowTrace(span);
+            }
+        }
+    }
+
+    private synchronized void addSlowTrace(Span trace) {
+        slowTraces[nextSlowTrace] = trace;
+        nextSlowTrace = (nextSlowTrace + 1) % slowTraces.length;
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.tracing;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes the recent slow traces recorded by the {@link Tracer}
+ */
+@Path("/api/traces")
+public class TracesResource {
+    private final Tracer tracer;
+
+    public TracesResource() {
+        this(Tracer.getInstance());
+    }
+
+    public TracesResource(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<Map<String, Object>> getSlowTraces() {
+        List<Map<String, Object>> answer = new ArrayList<>();
+        for (Span trace : tracer.getSlowTraces()) {
+            answer.add(trace.toMap());
+        }
+        return answer;
+    }
+}
@@ -15,6 +15,8 @@
  */
 package io.fabric8.forge.rest.ui;
 
+import io.fabric8.forge.rest.tracing.Tracer;
+import org.eclipse.jgit.api.Git;
 import org.jboss.forge.addon.resource.Resource;
 import org.jboss.forge.addon.ui.context.AbstractUIContext;
 import org.jboss.forge.addon.ui.context.UISelection;
@@ -29,14 +31,16 @@ public class RestUIContext extends AbstractUIContext {
     private String projectName;
     private String cloneUrl;
     private String commitMessage;
+    private Git git;
 
     public RestUIContext() {
-        this.selection = null;
+        this(null);
     }
 
     public RestUIContext(Resource<?> selection) {
         super();
         this.selection = selection;
+        getAttributeMap().put(Tracer.SPAN_FACTORY_ATTRIBUTE, Tracer.getInstance().getSpanFactory());
     }
 
     public RestUIContext(Resource<?> selection, String namespace, String projectName, String cloneUrl) {
@@ -46,6 +50,13 @@ public class RestUIContext extends AbstractUIContext {
         this.cloneUrl = cloneUrl;
     }
 
+    /**
+     * Creates a new context on the same selection and project; such as for each command in a batch
+     */
+    public RestUIContext createSiblingContext() {
+        return new RestUIContext(selection, namespace, projectName, cloneUrl);
+    }
+
     public File getInitialSelectionFile() {
         if (selection != null) {
             String fullyQualifiedName = selection.getFullyQualifiedName();
@@ -90,4 +101,15 @@ public class RestUIContext extends AbstractUIContext {
     public void setCommitMessage(String commitMessage) {
         this.commitMessage = commitMessage;
     }
+
+    /**
+     * Returns the git repository of the project if the context was created inside a git operation
+     */
+    public Git getGit() {
+        return git;
+    }
+
+    public void setGit(Git git) {
+        this.git = git;
+    }
 }
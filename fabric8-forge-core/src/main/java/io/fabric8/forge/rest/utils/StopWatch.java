@@ -26,6 +26,8 @@ public final class StopWatch {
 
     private long start;
     private long stop;
+    private long startNanos;
+    private long stopNanos;
 
     /**
      * Starts the stop watch
@@ -39,6 +41,7 @@ public final class StopWatch {
      */
     public StopWatch(Date startTimestamp) {
         start = startTimestamp.getTime();
+        startNanos = System.nanoTime() - (System.currentTimeMillis() - start) * 1000000L;
     }
 
     /**
@@ -58,6 +61,8 @@ public final class StopWatch {
     public void restart() {
         start = System.currentTimeMillis();
         stop = 0;
+        startNanos = System.nanoTime();
+        stopNanos = 0;
     }
 
     /**
@@ -67,6 +72,7 @@ public final class StopWatch {
      */
     public long stop() {
         stop = System.currentTimeMillis();
+        stopNanos = System.nanoTime();
         return taken();
     }
 
@@ -85,4 +91,19 @@ public final class StopWatch {
         }
     }
 
+    /**
+     * Returns the time taken in nanos using the monotonic clock, so its suitable for recording latencies.
+     *
+     * @return time in nanos
+     */
+    public long takenNanos() {
+        if (start > 0 && stop > 0) {
+            return stopNanos - startNanos;
+        } else if (start > 0) {
+            return System.nanoTime() - startNanos;
+        } else {
+            return 0;
+        }
+    }
+
 }
@@ -0,0 +1,132 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.main;
+
+import io.fabric8.utils.Files;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ */
+public class ProjectWarmUpTest {
+    private static final long LOAD_MILLIS = 200;
+
+    private File rootFolder;
+    private final Map<File, Boolean> loadedProjects = new ConcurrentHashMap<>();
+
+    @Before
+    public void init() throws IOException {
+        rootFolder = java.nio.file.Files.createTempDirectory("warmup").toFile();
+    }
+
+    @After
+    public void cleanUp() throws IOException {
+        Files.recursiveDelete(rootFolder);
+    }
+
+    @Test
+    public void testFindsMostRecentlyUsedProjects() throws Exception {
+        File oldest = createProject("user/james/oldest", 1000);
+        File newest = createProject("user/james/newest", 3000);
+        File middle = createProject("namespace/default/gogs/default/middle", 2000);
+        createProject("user/james/old", 500);
+        new File(rootFolder, "user/james/notgit").mkdirs();
+        Files.writeToFile(new File(rootFolder, "user/james/notgit/pom.xml"), "<project/>".getBytes());
+
+        List<File> projects = new ProjectWarmUp(rootFolder, 3, 1, 1000).findRecentProjects();
+        assertThat(projects).containsExactly(newest, middle, oldest);
+    }
+
+    @Test
+    public void testFirstRequestIsFastAfterWarmUp() throws Exception {
+        File project = createProject("user/james/cheese", 1000);
+
+        long coldMillis = timeRequest(project);
+        loadedProjects.clear();
+
+        ProjectWarmUp warmUp = new ProjectWarmUp(rootFolder, 5, 2, 10000);
+        assertThat(warmUp.isReady()).isFalse();
+        assertThat(warmUp.warmUp(this::loadProject)).isEqualTo(1);
+        assertThat(warmUp.isReady()).isTrue();
+        long warmMillis = timeRequest(project);
+
+        assertThat(coldMillis).isGreaterThanOrEqualTo(LOAD_MILLIS);
+        assertThat(warmMillis).isLessThan(LOAD_MILLIS / 2);
+    }
+
+    @Test
+    public void testReadyWhenTimeBudgetRunsOut() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            createProject("user/james/project" + i, 1000 + i);
+        }
+        ProjectWarmUp warmUp = new ProjectWarmUp(rootFolder, 4, 1, LOAD_MILLIS / 2);
+        int warmed = warmUp.warmUp(folder -> Thread.sleep(LOAD_MILLIS * 10));
+        assertThat(warmed).isEqualTo(0);
+        assertThat(warmUp.isReady()).isTrue();
+    }
+
+    @Test
+    public void testFailuresDoNotStopWarmUp() throws Exception {
+        createProject("user/james/good", 2000);
+        createProject("user/james/bad", 1000);
+        final boolean[] globalTaskRan = {false};
+        ProjectWarmUp warmUp = new ProjectWarmUp(rootFolder, 5, 1, 10000);
+        int warmed = warmUp.warmUp(folder -> {
+            if (folder.getName().equals("bad")) {
+                throw new IllegalStateException("broken pom");
+            }
+        }, () -> globalTaskRan[0] = true);
+        assertThat(warmed).isEqualTo(1);
+        assertThat(globalTaskRan[0]).isTrue();
+        assertThat(warmUp.isReady()).isTrue();
+    }
+
+    /**
+     * Simulates the cost of loading a project the first time it is used
+     */
+    protected void loadProject(File folder) throws InterruptedException {
+        if (loadedProjects.putIfAbsent(folder, Boolean.TRUE) == null) {
+            Thread.sleep(LOAD_MILLIS);
+        }
+    }
+
+    protected long timeRequest(File folder) throws InterruptedException {
+        long start = System.nanoTime();
+        loadProject(folder);
+        return (System.nanoTime() - start) / 1000000;
+    }
+
+    protected File createProject(String path, long lastUsedSeconds) throws IOException {
+        File folder = new File(rootFolder, path);
+        File gitFolder = new File(folder, ".git");
+        gitFolder.mkdirs();
+        Files.writeToFile(new File(folder, "pom.xml"), "<project/>".getBytes());
+        File head = new File(gitFolder, "HEAD");
+        Files.writeToFile(head, "ref: refs/heads/master\n".getBytes());
+        head.setLastModified(lastUsedSeconds * 1000);
+        gitFolder.setLastModified(lastUsedSeconds * 1000);
+        return folder;
+    }
+}
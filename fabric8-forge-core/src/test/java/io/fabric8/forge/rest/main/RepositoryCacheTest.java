@@ -0,0 +1,89 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.main;
+
+import io.fabric8.repo.git.GitRepoClient;
+import io.fabric8.repo.git.RepositoryDTO;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ */
+public class RepositoryCacheTest {
+    private final CountingRepoClient repoClient = new CountingRepoClient();
+
+    @Test
+    public void testFoundRepositoryIsCached() {
+        RepositoryCache cache = new RepositoryCache(60000, 60000);
+        repoClient.repositories.add(repository("jstrachan/cheese"));
+
+        assertThat(cache.getOrFindUserRepository("jstrachan", "cheese", repoClient)).isNotNull();
+        assertThat(cache.getOrFindUserRepository("jstrachan", "cheese", repoClient)).isNotNull();
+        assertThat(repoClient.listCount).isEqualTo(1);
+    }
+
+    @Test
+    public void testMissingRepositoryIsNotListedAgain() {
+        RepositoryCache cache = new RepositoryCache(60000, 60000);
+        repoClient.repositories.add(repository("jstrachan/cheese"));
+
+        assertThat(cache.getOrFindUserRepository("jstrachan", "chese", repoClient)).isNull();
+        assertThat(cache.getOrFindUserRepository("jstrachan", "chese", repoClient)).isNull();
+        assertThat(repoClient.listCount).isEqualTo(1);
+
+        // once created it can be found
+        repoClient.repositories.add(repository("jstrachan/chese"));
+        cache.invalidateUserRepository("jstrachan/chese");
+        assertThat(cache.getOrFindUserRepository("jstrachan", "chese", repoClient)).isNotNull();
+        assertThat(repoClient.listCount).isEqualTo(2);
+    }
+
+    @Test
+    public void testEntriesExpire() throws Exception {
+        RepositoryCache cache = new RepositoryCache(0, 0);
+        repoClient.repositories.add(repository("jstrachan/cheese"));
+
+        assertThat(cache.getOrFindUserRepository("jstrachan", "cheese", repoClient)).isNotNull();
+        assertThat(cache.getOrFindUserRepository("jstrachan", "beer", repoClient)).isNull();
+        assertThat(cache.getOrFindUserRepository("jstrachan", "beer", repoClient)).isNull();
+        assertThat(repoClient.listCount).isEqualTo(3);
+    }
+
+    protected static RepositoryDTO repository(String fullName) {
+        RepositoryDTO answer = new RepositoryDTO();
+        answer.setFullName(fullName);
+        return answer;
+    }
+
+    private static class CountingRepoClient extends GitRepoClient {
+        private final List<RepositoryDTO> repositories = new ArrayList<>();
+        private int listCount;
+
+        CountingRepoClient() {
+            super("http://localhost/", "user", "password");
+        }
+
+        @Override
+        public List<RepositoryDTO> listRepositories() {
+            listCount++;
+            return new ArrayList<>(repositories);
+        }
+    }
+}
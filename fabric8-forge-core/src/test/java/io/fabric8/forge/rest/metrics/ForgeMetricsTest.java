@@ -0,0 +1,98 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.metrics;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ */
+public class ForgeMetricsTest {
+
+    @Test
+    public void testPercentilesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i, TimeUnit.MILLISECONDS);
+        }
+        assertThat(histogram.getCount()).isEqualTo(1000);
+        assertThat(histogram.getMaxNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertThat((double) histogram.getValueAtPercentile(50)).isCloseTo(500e6, within(500e6 * 0.04));
+        assertThat((double) histogram.getValueAtPercentile(99)).isCloseTo(990e6, within(990e6 * 0.04));
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(histogram.getMaxNanos());
+    }
+
+    @Test
+    public void testBucketsCoverTheTrackableRange() {
+        long previous = -1;
+        for (long value = 0; value < LatencyHistogram.MAX_TRACKABLE_NANOS; value = value * 3 / 2 + 1) {
+            int index = LatencyHistogram.indexFor(value);
+            assertThat(LatencyHistogram.highestValueFor(index)).isGreaterThanOrEqualTo(value);
+            assertThat(index).isGreaterThanOrEqualTo((int) Math.max(previous, 0));
+            previous = index;
+        }
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-1);
+        assertThat(histogram.getMaxNanos()).isEqualTo(LatencyHistogram.MAX_TRACKABLE_NANOS);
+        assertThat(histogram.getValueAtPercentile(0)).isEqualTo(0);
+    }
+
+    @Test
+    public void testSeriesAreLabelled() {
+        ForgeMetrics metrics = new ForgeMetrics();
+        metrics.histogram(ForgeMetrics.HTTP_REQUESTS, "method", "CommandsResource.executeCommand", "command", "camel-add-endpoint").record(2, TimeUnit.MILLISECONDS);
+        metrics.histogram(ForgeMetrics.HTTP_REQUESTS, "method", "CommandsResource.executeCommand", "command", "camel-add-endpoint").record(4, TimeUnit.MILLISECONDS);
+        metrics.histogram(ForgeMetrics.HTTP_REQUESTS, "method", "CommandsResource.validateCommand", "command", "camel-add-endpoint").record(1, TimeUnit.MILLISECONDS);
+        metrics.histogram(ForgeMetrics.GIT_LOCK_WAIT).record(1, TimeUnit.MICROSECONDS);
+
+        Map<String, Object> map = metrics.toMap();
+        assertThat(map).containsOnlyKeys(ForgeMetrics.HTTP_REQUESTS, ForgeMetrics.GIT_LOCK_WAIT);
+        List<Map<String, Object>> requests = (List<Map<String, Object>>) map.get(ForgeMetrics.HTTP_REQUESTS);
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(0).get("count")).isEqualTo(2L);
+
+        String text = metrics.toPrometheusText();
+        assertThat(text).contains("# TYPE fabric8_forge_http_request_seconds summary\n");
+        assertThat(text).contains("fabric8_forge_http_request_seconds_count{method=\"CommandsResource.executeCommand\",command=\"camel-add-endpoint\"} 2\n");
+        assertThat(text).contains("fabric8_forge_http_request_seconds{method=\"CommandsResource.validateCommand\",command=\"camel-add-endpoint\",quantile=\"0.99\"} ");
+        assertThat(text).contains("fabric8_forge_git_lock_wait_seconds_count 1\n");
+    }
+
+    @Test
+    public void testOnlyRegisteredCommandsAreLabelledByName() {
+        ForgeMetrics metrics = new ForgeMetrics();
+        metrics.addCommandName("camel-add-endpoint");
+
+        assertThat(metrics.commandLabel("camel-add-endpoint")).isEqualTo("camel-add-endpoint");
+        assertThat(metrics.commandLabel(null)).isEqualTo("");
+        for (int i = 0; i < 100; i++) {
+            String label = metrics.commandLabel("no-such-command-" + i);
+            assertThat(label).isEqualTo(ForgeMetrics.OTHER_COMMAND);
+            metrics.histogram(ForgeMetrics.HTTP_REQUESTS, "method", "CommandsResource.executeCommand", "command", label).record(1, TimeUnit.MILLISECONDS);
+        }
+
+        List<Map<String, Object>> requests = (List<Map<String, Object>>) metrics.toMap().get(ForgeMetrics.HTTP_REQUESTS);
+        assertThat(requests).hasSize(1);
+        assertThat(requests.get(0).get("count")).isEqualTo(100L);
+    }
+}
@@ -0,0 +1,219 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.rest.tracing;
+
+import io.fabric8.forge.rest.CommandsResource;
+import io.fabric8.forge.rest.dto.ExecutionRequest;
+import io.fabric8.forge.rest.dto.ExecutionResult;
+import io.fabric8.forge.rest.ui.RestUIContext;
+import org.jboss.forge.addon.convert.ConverterFactory;
+import org.jboss.forge.addon.ui.command.UICommand;
+import org.jboss.forge.addon.ui.controller.CommandController;
+import org.jboss.forge.addon.ui.controller.WizardCommandController;
+import org.jboss.forge.addon.ui.result.Results;
+import org.jboss.forge.addon.ui.util.Metadata;
+import org.junit.Test;
+
+import javax.ws.rs.core.Response;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ */
+public class TracerTest {
+    private final Tracer tracer = new Tracer(0, 3);
+
+    @Test
+    public void testWizardExecutionSpanTree() throws Exception {
+        SampleWizardResource resource = new SampleWizardResource(tracer, 2, true);
+
+        Response response = resource.executeCommand("sample-wizard", createRequest(2));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(((ExecutionResult) response.getEntity()).getWizardResults().getStepResults()).hasSize(1);
+        List<Span> traces = tracer.getSlowTraces();
+        assertThat(traces).hasSize(1);
+        assertThat(shape(traces.get(0))).isEqualTo("executeCommand[withUIContext[doExecute[createController,"
+                + "wizard.page[populateController,validate,wizard.next],"
+                + "wizard.page[populateController,validate,execute]]]]");
+        Span doExecute = traces.get(0).getChildren().get(0).getChildren().get(0);
+        assertThat(doExecute.getTags()).containsEntry("command", "sample-wizard");
+        assertThat(doExecute.getChildren().get(2).getTags()).containsEntry("page", "1");
+        assertThat(tracer.currentSpan()).isNull();
+    }
+
+    @Test
+    public void testWizardReplaySpanTree() throws Exception {
+        SampleWizardResource resource = new SampleWizardResource(tracer, 2, false);
+
+        resource.executeCommand("sample-wizard", createRequest(2));
+
+        assertThat(shape(tracer.getSlowTraces().get(0))).isEqualTo("executeCommand[withUIContext[doExecute[createController,"
+                + "wizard.page[populateController,validate,wizard.next],"
+                + "wizard.page[populateController,validate,wizard.next,"
+                + "wizard.replay[populateController,execute,populateController,execute]]]]]");
+    }
+
+    @Test
+    public void testSpansOutsideOfATraceAreNotRecorded() throws Exception {
+        Span span = tracer.span("orphan");
+        assertThat(span.isRecording()).isFalse();
+        span.close();
+
+        try (Span trace = tracer.startTrace("request")) {
+            try (AutoCloseable child = tracer.getSpanFactory().apply("child")) {
+                assertThat(tracer.currentSpan().getName()).isEqualTo("child");
+            }
+            assertThat(tracer.currentSpan()).isSameAs(trace);
+        }
+        assertThat(tracer.currentSpan()).isNull();
+        assertThat(shape(tracer.getSlowTraces().get(0))).isEqualTo("request[child]");
+    }
+
+    @Test
+    public void testOnlyTheLastSlowTracesAreKept() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            tracer.startTrace("request" + i).close();
+        }
+        assertThat(tracer.getSlowTraces()).extracting("name").containsExactly("request4", "request3", "request2");
+
+        Tracer slowOnly = new Tracer(60000, 3);
+        slowOnly.startTrace("fast").close();
+        assertThat(slowOnly.getSlowTraces()).isEmpty();
+    }
+
+    @Test
+    public void testContextExposesSpanFactoryToAddons() throws Exception {
+        try (RestUIContext context = new RestUIContext()) {
+            Object factory = context.getAttributeMap().get(Tracer.SPAN_FACTORY_ATTRIBUTE);
+            assertThat(factory).isInstanceOf(Function.class);
+        }
+    }
+
+    protected static ExecutionRequest createRequest(int pages) {
+        List<Map<String, Object>> inputList = new ArrayList<>();
+        for (int i = 0; i < pages; i++) {
+            inputList.add(new HashMap<String, Object>());
+        }
+        ExecutionRequest answer = new ExecutionRequest();
+        answer.setInputList(inputList);
+        return answer;
+    }
+
+    protected static String shape(Span span) {
+        StringBuilder builder = new StringBuilder(span.getName());
+        List<Span> children = span.getChildren();
+        if (!children.isEmpty()) {
+            builder.append('[');
+            for (int i = 0; i < children.size(); i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                builder.append(shape(children.get(i)));
+            }
+            builder.append(']');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Runs a stub wizard of the given number of pages; the last page can either be executed directly
+     * or, when the wizard has no next page, by replaying all the pages
+     */
+    public static class SampleWizardResource extends CommandsResource {
+        private final Tracer tracer;
+        private final int pages;
+        private final boolean executeLastPage;
+
+        public SampleWizardResource(Tracer tracer, int pages, boolean executeLastPage) {
+            this.tracer = tracer;
+            this.pages = pages;
+            this.executeLastPage = executeLastPage;
+        }
+
+        @Override
+        protected Tracer getTracer() {
+            return tracer;
+        }
+
+        @Override
+        public ConverterFactory getConverterFactory() {
+            return null;
+        }
+
+        @Override
+        protected org.jboss.forge.addon.resource.ResourceFactory getResourceFactory() {
+            return null;
+        }
+
+        @Override
+        protected UICommand getCommandByName(RestUIContext context, String name) {
+            return (UICommand) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{UICommand.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getMetadata":
+                        return Metadata.forCommand(UICommand.class).name(name);
+                    case "isEnabled":
+                        return true;
+                    default:
+                        return null;
+                }
+            });
+        }
+
+        @Override
+        protected CommandController createController(RestUIContext context, UICommand command) throws Exception {
+            return createPage(context, 0);
+        }
+
+        protected WizardCommandController createPage(RestUIContext context, int page) {
+            boolean lastPage = page == pages - 1;
+            return (WizardCommandController) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{WizardCommandController.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getInputs":
+                        return Collections.emptyMap();
+                    case "validate":
+                        return Collections.emptyList();
+                    case "isValid":
+                    case "canExecute":
+                        return true;
+                    case "canMoveToNextStep":
+                        return !(lastPage && executeLastPage);
+                    case "getContext":
+                        return context;
+                    case "next":
+                        return lastPage ? null : createPage(context, page + 1);
+                    case "execute":
+                        return Results.success("executed page " + page);
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return "page " + page;
+                    default:
+                        return null;
+                }
+            });
+        }
+    }
+}
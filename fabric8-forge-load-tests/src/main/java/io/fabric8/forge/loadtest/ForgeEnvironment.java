@@ -0,0 +1,273 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.loadtest;
+
+import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
+import io.fabric8.forge.kubernetes.cache.ResourceCaches;
+import io.fabric8.forge.rest.git.GitLockManager;
+import io.fabric8.forge.rest.git.RepositoriesResource;
+import io.fabric8.forge.rest.main.GitCommandCompletePostProcessor;
+import io.fabric8.forge.rest.main.GitUserHelper;
+import io.fabric8.forge.rest.main.ProjectFileSystem;
+import io.fabric8.forge.rest.main.RepositoryCache;
+import io.fabric8.forge.rest.main.ServiceUrlCache;
+import io.fabric8.forge.rest.metrics.ForgeMetrics;
+import io.fabric8.forge.rest.metrics.MetricsFilter;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.api.model.SecretListBuilder;
+import io.fabric8.openshift.api.model.BuildConfig;
+import io.fabric8.openshift.api.model.BuildConfigBuilder;
+import io.fabric8.openshift.api.model.BuildConfigListBuilder;
+import io.fabric8.openshift.client.OpenShiftClient;
+import io.fabric8.openshift.client.server.mock.OpenShiftMockServer;
+import io.fabric8.utils.Files;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
+import org.eclipse.jgit.api.Git;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * Runs the REST service in process against local stand ins for its collaborators: bare git repositories on disk,
+ * a mock kubernetes API server with a BuildConfig and git secret per project and a stub of the gogs API
+ */
+public class ForgeEnvironment implements AutoCloseable {
+    private static final transient Logger LOG = LoggerFactory.getLogger(ForgeEnvironment.class);
+    // the mock server logs every request using java.util.logging
+    private static final java.util.logging.Logger MOCK_SERVER_LOG = java.util.logging.Logger.getLogger("okhttp3.mockwebserver");
+
+    public static final String NAMESPACE = "test";
+    public static final String GIT_USER = "gogsadmin";
+    public static final String GIT_PASSWORD = "RedHat$1";
+    public static final String SECRET_NAME = "gogs-credentials";
+
+    /**
+     * The files each project is created with; read by the <code>readContent</code> scenario
+     */
+    public static final List<String> PROJECT_FILES = Collections.unmodifiableList(Arrays.asList(
+            "README.md", "pom.xml", "src/main/java/org/example/Application.java"));
+
+    private final File workDir;
+    private final boolean deleteWorkDir;
+    private final List<String> projectNames = new ArrayList<>();
+    private final GogsStubResource gogs = new GogsStubResource();
+    private WebhookRecorder webhooks;
+    private final OpenShiftMockServer kubernetesServer = new OpenShiftMockServer(false);
+    private OpenShiftClient kubernetes;
+    private ServiceUrlCache serviceUrlCache;
+    private ProjectFileSystem projectFileSystem;
+    private Server gogsServer;
+    private Server forgeServer;
+    private String forgeAddress;
+
+    public ForgeEnvironment(File workDir, int projects) throws IOException {
+        if (workDir == null) {
+            workDir = java.nio.file.Files.createTempDirectory("fabric8-forge-load-test").toFile();
+            deleteWorkDir = true;
+        } else {
+            deleteWorkDir = false;
+        }
+        this.workDir = workDir;
+        for (int i = 0; i < projects; i++) {
+            projectNames.add("project-" + i);
+        }
+    }
+
+    /**
+     * Creates the git repositories and starts the servers
+     */
+    public void start() throws Exception {
+        File reposFolder = new File(workDir, "repos");
+        for (String projectName : projectNames) {
+            File bareRepo = createRepository(reposFolder, projectName);
+            gogs.addRepository(GIT_USER, projectName, cloneUrl(bareRepo));
+        }
+        File jenkinsfiles = createRepository(reposFolder, "jenkinsfiles");
+
+        MOCK_SERVER_LOG.setLevel(Level.WARNING);
+        kubernetesServer.init();
+        expectKubernetesResources(reposFolder);
+        kubernetes = kubernetesServer.createOpenShiftClient();
+
+        gogsServer = startServer(gogs);
+        final String gogsAddress = gogsServer.getEndpoint().getEndpointInfo().getAddress();
+        webhooks = new WebhookRecorder(gogsAddress);
+
+        RepositoryCache repositoryCache = new RepositoryCache();
+        GitLockManager lockManager = new GitLockManager();
+        projectFileSystem = new ProjectFileSystem(repositoryCache, new File(workDir, "forge").getAbsolutePath(), "origin", cloneUrl(jenkinsfiles), null);
+        serviceUrlCache = new ServiceUrlCache(kubernetes);
+        GitUserHelper gitUserHelper = new GitUserHelper(GIT_USER, GIT_PASSWORD, kubernetes, serviceUrlCache) {
+            @Override
+            protected String getGogsURL(boolean external) {
+                // the internal URL would be the gogs service name
+                return gogsAddress;
+            }
+        };
+        GitCommandCompletePostProcessor postProcessor = new GitCommandCompletePostProcessor(kubernetes, gitUserHelper, projectFileSystem, repositoryCache);
+
+        LoadTestCommandsResource commandsResource = new LoadTestCommandsResource(gitUserHelper, repositoryCache, projectFileSystem, lockManager, kubernetes, postProcessor, webhooks);
+        RepositoriesResource repositoriesResource = new RepositoriesResource(gitUserHelper, repositoryCache, projectFileSystem, lockManager, kubernetes);
+        forgeServer = startServer(commandsResource, repositoriesResource);
+        forgeAddress = forgeServer.getEndpoint().getEndpointInfo().getAddress();
+        LOG.info("Started the REST service at " + forgeAddress + " with " + projectNames.size() + " projects in " + workDir);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (forgeServer != null) {
+            forgeServer.destroy();
+        }
+        if (gogsServer != null) {
+            gogsServer.destroy();
+        }
+        if (projectFileSystem != null) {
+            projectFileSystem.close();
+        }
+        if (serviceUrlCache != null) {
+            serviceUrlCache.close();
+        }
+        // stop the watches of the shared resource caches before the mock server goes away
+        ResourceCaches.getInstance().close();
+        if (kubernetes != null) {
+            kubernetes.close();
+        }
+        kubernetesServer.destroy();
+        if (deleteWorkDir) {
+            Files.recursiveDelete(workDir);
+        }
+    }
+
+    public String getForgeAddress() {
+        return forgeAddress;
+    }
+
+    public String getNamespace() {
+        return NAMESPACE;
+    }
+
+    public List<String> getProjectNames() {
+        return projectNames;
+    }
+
+    public GogsStubResource getGogs() {
+        return gogs;
+    }
+
+    public WebhookRecorder getWebhooks() {
+        return webhooks;
+    }
+
+    public File getWorkDir() {
+        return workDir;
+    }
+
+    /**
+     * Creates a bare repository with an initial commit of the {@link #PROJECT_FILES}
+     */
+    protected File createRepository(File reposFolder, String name) throws Exception {
+        File seedFolder = new File(workDir, "seed/" + name);
+        File bareRepo = new File(reposFolder, name + ".git");
+        try (Git git = Git.init().setDirectory(seedFolder).call()) {
+            for (String path : PROJECT_FILES) {
+                File file = new File(seedFolder, path);
+                file.getParentFile().mkdirs();
+                Files.writeToFile(file, createProjectFile(name, path), StandardCharsets.UTF_8);
+            }
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("Initial import").setAuthor(GIT_USER, GIT_USER + "@example.com").call();
+        }
+        Git.cloneRepository().setURI(cloneUrl(new File(seedFolder, ".git"))).setBare(true).setDirectory(bareRepo).call().close();
+        return bareRepo;
+    }
+
+    protected String createProjectFile(String name, String path) {
+        if (path.endsWith(".xml")) {
+            return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                    + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+                    + "  <modelVersion>4.0.0</modelVersion>\n"
+                    + "  <groupId>org.example</groupId>\n"
+                    + "  <artifactId>" + name + "</artifactId>\n"
+                    + "  <version>1.0-SNAPSHOT</version>\n"
+                    + "</project>\n";
+        } else if (path.endsWith(".java")) {
+            return "package org.example;\n\npublic class Application {\n}\n";
+        }
+        return "# " + name + "\n";
+    }
+
+    /**
+     * Serves a BuildConfig pointing at each project's repository and the secret with the git credentials;
+     * the watches are kept open so the resource caches only list them once
+     */
+    protected void expectKubernetesResources(File reposFolder) {
+        BuildConfigListBuilder buildConfigs = new BuildConfigListBuilder().withNewMetadata().withResourceVersion("1").endMetadata();
+        for (String projectName : projectNames) {
+            buildConfigs.addToItems(createBuildConfig(projectName, cloneUrl(new File(reposFolder, projectName + ".git"))));
+        }
+        Secret secret = new SecretBuilder().withNewMetadata().withName(SECRET_NAME).withNamespace(NAMESPACE).withResourceVersion("1").endMetadata()
+                .addToData("username", base64(GIT_USER))
+                .addToData("password", base64(GIT_PASSWORD))
+                .build();
+        String buildConfigsPath = "/oapi/v1/namespaces/" + NAMESPACE + "/buildconfigs";
+        String secretsPath = "/api/v1/namespaces/" + NAMESPACE + "/secrets";
+        kubernetesServer.expect().withPath(buildConfigsPath).andReturn(200, buildConfigs.build()).always();
+        kubernetesServer.expect().withPath(buildConfigsPath + "?resourceVersion=1&watch=true").andUpgradeToWebSocket().open().done().always();
+        kubernetesServer.expect().withPath(secretsPath).andReturn(200, new SecretListBuilder().withNewMetadata().withResourceVersion("1").endMetadata().addToItems(secret).build()).always();
+        kubernetesServer.expect().withPath(secretsPath + "?resourceVersion=1&watch=true").andUpgradeToWebSocket().open().done().always();
+    }
+
+    protected BuildConfig createBuildConfig(String projectName, String cloneUrl) {
+        return new BuildConfigBuilder().withNewMetadata().withName(projectName).withNamespace(NAMESPACE).withResourceVersion("1").endMetadata()
+                .withNewSpec().withNewSource().withType("Git").withNewGit().withUri(cloneUrl).endGit()
+                .withNewSourceSecret().withName(SECRET_NAME).endSourceSecret().endSource().endSpec()
+                .build();
+    }
+
+    protected Server startServer(Object... serviceBeans) throws IOException {
+        JAXRSServerFactoryBean factory = new JAXRSServerFactoryBean();
+        factory.setAddress("http://localhost:" + freePort() + "/");
+        factory.setServiceBeans(Arrays.asList(serviceBeans));
+        factory.setProviders(Arrays.<Object>asList(new JacksonJsonProvider(), new MetricsFilter(ForgeMetrics.getInstance())));
+        return factory.create();
+    }
+
+    protected static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    protected static String cloneUrl(File repository) {
+        return "file://" + repository.getAbsolutePath();
+    }
+
+    protected static String base64(String text) {
+        return Base64.getEncoder().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.loadtest;
+
+import io.fabric8.repo.git.CreateWebhookDTO;
+import io.fabric8.repo.git.RepositoryDTO;
+import io.fabric8.repo.git.WebHookDTO;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stands in for the parts of the gogs API the REST service uses: listing the user's repositories and creating webhooks
+ */
+@Path("/")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class GogsStubResource {
+    private final List<RepositoryDTO> repositories = new CopyOnWriteArrayList<>();
+    private final AtomicLong repositoryLists = new AtomicLong();
+    private final AtomicLong webhooks = new AtomicLong();
+
+    public void addRepository(String user, String name, String cloneUrl) {
+        RepositoryDTO repository = new RepositoryDTO();
+        repository.setName(name);
+        repository.setFullName(user + "/" + name);
+        repository.setCloneUrl(cloneUrl);
+        repository.setHtmlUrl(cloneUrl);
+        repositories.add(repository);
+    }
+
+    @GET
+    @Path("user/repos")
+    public List<RepositoryDTO> listRepositories() {
+        repositoryLists.incrementAndGet();
+        return new ArrayList<>(repositories);
+    }
+
+    @POST
+    @Path("repos/{owner}/{repo}/hooks")
+    public WebHookDTO createWebhook(@PathParam("owner") String owner, @PathParam("repo") String repo, CreateWebhookDTO dto) {
+        webhooks.incrementAndGet();
+        WebHookDTO answer = new WebHookDTO();
+        answer.setName(owner + "/" + repo);
+        answer.setActive(true);
+        return answer;
+    }
+
+    public long getRepositoryLists() {
+        return repositoryLists.get();
+    }
+
+    public long getWebhooks() {
+        return webhooks.get();
+    }
+}
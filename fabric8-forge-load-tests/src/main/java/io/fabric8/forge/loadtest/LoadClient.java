@@ -0,0 +1,101 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A minimal HTTP client for driving the REST service; the response bodies are read fully so the
+ * connections can be kept alive but are otherwise discarded.
+ */
+public class LoadClient {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String address;
+
+    public LoadClient(String address) {
+        this.address = address.endsWith("/") ? address : address + "/";
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * Performs a GET of the given path relative to the service address and returns the status code
+     */
+    public int get(String path) throws IOException {
+        HttpURLConnection connection = open(path, "GET");
+        return complete(connection);
+    }
+
+    /**
+     * Posts the given object as JSON and returns the status code
+     */
+    public int postJson(String path, Object body) throws IOException {
+        return post(path, "application/json", MAPPER.writeValueAsBytes(body));
+    }
+
+    /**
+     * Posts the given text and returns the status code
+     */
+    public int postText(String path, String text) throws IOException {
+        return post(path, "text/plain", text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected int post(String path, String contentType, byte[] body) throws IOException {
+        HttpURLConnection connection = open(path, "POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", contentType);
+        connection.setFixedLengthStreamingMode(body.length);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body);
+        }
+        return complete(connection);
+    }
+
+    protected HttpURLConnection open(String path, String method) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(address + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setRequestProperty("Accept", "application/json");
+        connection.setConnectTimeout(10000);
+        connection.setReadTimeout(120000);
+        return connection;
+    }
+
+    protected int complete(HttpURLConnection connection) throws IOException {
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        if (in != null) {
+            try {
+                byte[] buffer = new byte[8192];
+                while (in.read(buffer) >= 0) {
+                    // discard
+                }
+            } finally {
+                in.close();
+            }
+        }
+        return status;
+    }
+}
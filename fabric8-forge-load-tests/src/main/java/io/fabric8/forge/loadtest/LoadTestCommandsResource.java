@@ -0,0 +1,202 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.loadtest;
+
+import io.fabric8.forge.rest.CommandsResource;
+import io.fabric8.forge.rest.git.GitLockManager;
+import io.fabric8.forge.rest.hooks.CommandCompletePostProcessor;
+import io.fabric8.forge.rest.main.GitUserHelper;
+import io.fabric8.forge.rest.main.ProjectFileSystem;
+import io.fabric8.forge.rest.main.RepositoryCache;
+import io.fabric8.forge.rest.ui.RestUIContext;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.jboss.forge.addon.convert.ConverterFactory;
+import org.jboss.forge.addon.resource.Resource;
+import org.jboss.forge.addon.resource.ResourceFactory;
+import org.jboss.forge.addon.ui.command.CommandFactory;
+import org.jboss.forge.addon.ui.command.UICommand;
+import org.jboss.forge.addon.ui.context.UIContext;
+import org.jboss.forge.addon.ui.context.UIExecutionContext;
+import org.jboss.forge.addon.ui.controller.CommandController;
+import org.jboss.forge.addon.ui.metadata.UICommandMetadata;
+import org.jboss.forge.addon.ui.result.Result;
+import org.jboss.forge.addon.ui.result.Results;
+import org.jboss.forge.addon.ui.util.Categories;
+import org.jboss.forge.addon.ui.util.Metadata;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The REST commands API wired up without furnace; the forge commands are replaced by {@link StubCommandController}s
+ * while the git repositories, locking, kubernetes lookups and post processing are the real ones
+ */
+public class LoadTestCommandsResource extends CommandsResource {
+    public static final List<String> COMMAND_NAMES = Collections.unmodifiableList(Arrays.asList(
+            "camel-add-endpoint", "camel-edit-endpoint", "camel-add-component"));
+
+    private final Map<String, UICommand> commands = new LinkedHashMap<>();
+    private final ResourceFactory resourceFactory = createResourceFactory();
+    private final WebhookRecorder webhooks;
+
+    public LoadTestCommandsResource(GitUserHelper gitUserHelper, RepositoryCache repositoryCache, ProjectFileSystem projectFileSystem,
+                                    GitLockManager lockManager, KubernetesClient kubernetes,
+                                    CommandCompletePostProcessor postProcessor, WebhookRecorder webhooks) {
+        this.webhooks = webhooks;
+        for (String name : COMMAND_NAMES) {
+            commands.put(name, new StubCommand(name));
+        }
+        inject("commandFactory", new StubCommandFactory());
+        inject("commandCompletePostProcessor", postProcessor);
+        inject("projectFileSystem", projectFileSystem);
+        inject("gitUserHelper", gitUserHelper);
+        inject("repositoryCache", repositoryCache);
+        inject("kubernetes", kubernetes);
+        inject("lockManager", lockManager);
+    }
+
+    @Override
+    protected UICommand getCommandByName(RestUIContext context, String name) {
+        return commands.get(name);
+    }
+
+    @Override
+    protected CommandController createController(RestUIContext context, UICommand command) throws Exception {
+        CommandController controller = new StubCommandController(context, command, webhooks, "name", "uri");
+        controller.initialize();
+        return controller;
+    }
+
+    @Override
+    protected ResourceFactory getResourceFactory() {
+        return resourceFactory;
+    }
+
+    @Override
+    public ConverterFactory getConverterFactory() {
+        return null;
+    }
+
+    /**
+     * Sets one of the fields which CDI injects in the container
+     */
+    protected void inject(String fieldName, Object value) {
+        try {
+            Field field = CommandsResource.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(this, value);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not inject " + fieldName + " into " + CommandsResource.class.getName() + ": " + e, e);
+        }
+    }
+
+    /**
+     * Creates a resource factory whose resources only know the file they are for; which is all the REST service
+     * and the stub commands use
+     */
+    protected static ResourceFactory createResourceFactory() {
+        final ClassLoader classLoader = LoadTestCommandsResource.class.getClassLoader();
+        return (ResourceFactory) Proxy.newProxyInstance(classLoader, new Class<?>[]{ResourceFactory.class}, (proxy, method, args) -> {
+            if (method.getName().equals("create") && args != null && args[args.length - 1] instanceof File) {
+                final File file = (File) args[args.length - 1];
+                return Proxy.newProxyInstance(classLoader, new Class<?>[]{Resource.class}, (resource, resourceMethod, resourceArgs) -> {
+                    switch (resourceMethod.getName()) {
+                        case "getFullyQualifiedName":
+                            return file.getAbsolutePath();
+                        case "getName":
+                            return file.getName();
+                        case "getUnderlyingResourceObject":
+                            return file;
+                        case "exists":
+                            return file.exists();
+                        case "hashCode":
+                            return file.hashCode();
+                        case "equals":
+                            return resource == resourceArgs[0];
+                        case "toString":
+                            return file.toString();
+                    }
+                    throw new UnsupportedOperationException(resourceMethod.getName());
+                });
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private class StubCommandFactory implements CommandFactory {
+        @Override
+        public Iterable<UICommand> getCommands() {
+            return commands.values();
+        }
+
+        @Override
+        public Set<String> getEnabledCommandNames(UIContext context) {
+            return getCommandNames(context);
+        }
+
+        @Override
+        public Set<String> getCommandNames(UIContext context) {
+            return new LinkedHashSet<>(commands.keySet());
+        }
+
+        @Override
+        public UICommand getCommandByName(UIContext context, String name) {
+            return commands.get(name);
+        }
+
+        @Override
+        public String getCommandName(UIContext context, UICommand command) {
+            return command.getMetadata(context).getName();
+        }
+
+        @Override
+        public UICommand getNewCommandByName(UIContext context, String name) {
+            return commands.get(name);
+        }
+    }
+
+    private static class StubCommand implements UICommand {
+        private final String name;
+
+        StubCommand(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public UICommandMetadata getMetadata(UIContext context) {
+            return Metadata.forCommand(StubCommand.class).name(name).description("Load test stand in for " + name)
+                    .category(Categories.create("Camel"));
+        }
+
+        @Override
+        public boolean isEnabled(UIContext context) {
+            return true;
+        }
+
+        @Override
+        public Result execute(UIExecutionContext context) throws Exception {
+            return Results.success();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.loadtest;
+
+import java.io.File;
+
+/**
+ * The options of a load test run; parsed from command line arguments such as <code>-threads 16 -duration 120</code>
+ */
+public class LoadTestConfig {
+    private int threads = 8;
+    private int warmupSeconds = 5;
+    private int durationSeconds = 30;
+    private int projects = 2;
+    private String mix = "default";
+    private long seed = 1;
+    private File report;
+    private File workDir;
+
+    public static LoadTestConfig parse(String... args) {
+        LoadTestConfig answer = new LoadTestConfig();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.trim().isEmpty()) {
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("No value for option " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "-threads":
+                    answer.setThreads(Integer.parseInt(value));
+                    break;
+                case "-warmup":
+                    answer.setWarmupSeconds(Integer.parseInt(value));
+                    break;
+                case "-duration":
+                    answer.setDurationSeconds(Integer.parseInt(value));
+                    break;
+                case "-projects":
+                    answer.setProjects(Integer.parseInt(value));
+                    break;
+                case "-mix":
+                    answer.setMix(value);
+                    break;
+                case "-seed":
+                    answer.setSeed(Long.parseLong(value));
+                    break;
+                case "-report":
+                    answer.setReport(new File(value));
+                    break;
+                case "-workDir":
+                    answer.setWorkDir(new File(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + arg + ". Valid options are -threads, -warmup, -duration, -projects, -mix, -seed, -report and -workDir");
+            }
+        }
+        return answer;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadTestConfig{" +
+                "threads=" + threads +
+                ", warmupSeconds=" + warmupSeconds +
+                ", durationSeconds=" + durationSeconds +
+                ", projects=" + projects +
+                ", mix='" + mix + '\'' +
+                ", seed=" + seed +
+                '}';
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public void setWarmupSeconds(int warmupSeconds) {
+        this.warmupSeconds = warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(int durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    /**
+     * Returns the number of git repositories the traffic is spread over; fewer projects means more
+     * requests contending for the same git lock
+     */
+    public int getProjects() {
+        return projects;
+    }
+
+    public void setProjects(int projects) {
+        this.projects = projects;
+    }
+
+    /**
+     * Returns the name of a bundled traffic mix or the path of a mix file
+     */
+    public String getMix() {
+        return mix;
+    }
+
+    public void setMix(String mix) {
+        this.mix = mix;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public File getReport() {
+        return report;
+    }
+
+    public void setReport(File report) {
+        this.report = report;
+    }
+
+    public File getWorkDir() {
+        return workDir;
+    }
+
+    public void setWorkDir(File workDir) {
+        this.workDir = workDir;
+    }
+}
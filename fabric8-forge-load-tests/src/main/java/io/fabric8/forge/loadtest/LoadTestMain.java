@@ -0,0 +1,52 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.loadtest;
+
+/**
+ * Runs a load test against an in process REST service and writes the report; see {@link LoadTestConfig}
+ * for the options, for example:
+ * <pre>
+ *   mvn verify -Pload-test -Dloadtest.args="-threads 16 -duration 120 -projects 1 -mix write-heavy"
+ * </pre>
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) {
+        int exitCode = 0;
+        try {
+            LoadTestConfig config = LoadTestConfig.parse(args);
+            TrafficMix mix = TrafficMix.load(config.getMix());
+            LoadTestReport report;
+            try (ForgeEnvironment environment = new ForgeEnvironment(config.getWorkDir(), config.getProjects())) {
+                environment.start();
+                report = new LoadTestRunner(config, mix, environment).run();
+            }
+            System.out.println(report.toText());
+            if (config.getReport() != null) {
+                report.writeJson(config.getReport());
+                System.out.println("Wrote " + config.getReport());
+            }
+            if (report.getErrors() > 0) {
+                exitCode = 1;
+            }
+        } catch (Exception e) {
+            System.err.println("Load test failed: " + e);
+            e.printStackTrace();
+            exitCode = 2;
+        }
+        System.exit(exitCode);
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.fabric8.forge.rest.metrics.ForgeMetrics;
+import io.fabric8.forge.rest.metrics.LatencyHistogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The results of a load test run: the throughput and latency percentiles of each scenario along with the
+ * metrics the service recorded, such as the time spent waiting for git locks, and how far the webhook
+ * executor fell behind
+ */
+public class LoadTestReport {
+    private final LoadTestConfig config;
+    private final TrafficMix mix;
+    private final List<ScenarioStats> scenarios;
+    private final long elapsedNanos;
+    private final Map<String, Object> metrics;
+    private final Map<String, Object> webhooks;
+    private final long gogsWebhooks;
+
+    public LoadTestReport(LoadTestConfig config, TrafficMix mix, ForgeEnvironment environment, List<ScenarioStats> scenarios, long elapsedNanos) {
+        this.config = config;
+        this.mix = mix;
+        this.scenarios = scenarios;
+        this.elapsedNanos = elapsedNanos;
+        this.metrics = ForgeMetrics.getInstance().toMap();
+        this.webhooks = environment.getWebhooks().toMap();
+        this.gogsWebhooks = environment.getGogs().getWebhooks();
+    }
+
+    public List<ScenarioStats> getScenarios() {
+        return scenarios;
+    }
+
+    public ScenarioStats getScenario(Scenario scenario) {
+        for (ScenarioStats stats : scenarios) {
+            if (stats.getScenario() == scenario) {
+                return stats;
+            }
+        }
+        return null;
+    }
+
+    public double getSeconds() {
+        return elapsedNanos / 1e9;
+    }
+
+    public long getRequests() {
+        long answer = 0;
+        for (ScenarioStats stats : scenarios) {
+            answer += stats.getRequests();
+        }
+        return answer;
+    }
+
+    public long getErrors() {
+        long answer = 0;
+        for (ScenarioStats stats : scenarios) {
+            answer += stats.getErrors();
+        }
+        return answer;
+    }
+
+    public Map<String, Object> getMetrics() {
+        return metrics;
+    }
+
+    public Map<String, Object> getWebhooks() {
+        return webhooks;
+    }
+
+    public Map<String, Object> toMap() {
+        double seconds = getSeconds();
+        Map<String, Object> answer = new LinkedHashMap<>();
+        answer.put("threads", config.getThreads());
+        answer.put("projects", config.getProjects());
+        answer.put("mix", mix.getName());
+        answer.put("seed", config.getSeed());
+        answer.put("seconds", seconds);
+        answer.put("requests", getRequests());
+        answer.put("errors", getErrors());
+        answer.put("throughputPerSecond", seconds > 0 ? getRequests() / seconds : 0);
+        Map<String, Object> scenarioMap = new LinkedHashMap<>();
+        for (ScenarioStats stats : scenarios) {
+            if (stats.getRequests() > 0) {
+                scenarioMap.put(stats.getScenario().getId(), stats.toMap(seconds));
+            }
+        }
+        answer.put("scenarios", scenarioMap);
+        answer.put("webhooks", webhooks);
+        answer.put("gogsWebhooks", gogsWebhooks);
+        answer.put("metrics", metrics);
+        return answer;
+    }
+
+    public void writeJson(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, toMap());
+    }
+
+    /**
+     * Returns a table of the scenarios with their throughput and latencies in milliseconds
+     */
+    public String toText() {
+        double seconds = getSeconds();
+        StringBuilder buffer = new StringBuilder();
+        buffer.append(String.format("%-18s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "scenario", "requests", "errors", "req/s", "p50", "p90", "p99", "p99.9", "max"));
+        for (ScenarioStats stats : scenarios) {
+            if (stats.getRequests() > 0) {
+                appendRow(buffer, stats.getScenario().getId(), stats.getRequests(), stats.getErrors(), seconds, stats.getLatency());
+            }
+        }
+        buffer.append(String.format("%-18s %9d %7d %9.1f%n", "total", getRequests(), getErrors(), seconds > 0 ? getRequests() / seconds : 0));
+        buffer.append("webhooks ").append(webhooks).append("\n");
+        for (String name : new String[]{ForgeMetrics.GIT_LOCK_WAIT, ForgeMetrics.GIT_LOCK_HELD}) {
+            Object value = metrics.get(name);
+            if (value != null) {
+                buffer.append(name).append(" ").append(value).append("\n");
+            }
+        }
+        return buffer.toString();
+    }
+
+    protected static void appendRow(StringBuilder buffer, String name, long requests, long errors, double seconds, LatencyHistogram latency) {
+        buffer.append(String.format("%-18s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n", name, requests, errors,
+                seconds > 0 ? requests / seconds : 0,
+                toMillis(latency.getValueAtPercentile(50)), toMillis(latency.getValueAtPercentile(90)),
+                toMillis(latency.getValueAtPercentile(99)), toMillis(latency.getValueAtPercentile(99.9)),
+                toMillis(latency.getMaxNanos())));
+    }
+
+    protected static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
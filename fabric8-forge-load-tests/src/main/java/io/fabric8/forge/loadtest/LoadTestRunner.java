@@ -0,0 +1,105 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.loadtest;
+
+import io.fabric8.forge.rest.metrics.ForgeMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the REST service from a number of threads; each thread picks scenarios from the traffic mix and
+ * projects at random, using its own seeded random so a run can be repeated. The statistics and the service
+ * metrics are reset once the warm up is over so that only the measured period is reported.
+ */
+public class LoadTestRunner {
+    private static final transient Logger LOG = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private final LoadTestConfig config;
+    private final TrafficMix mix;
+    private final ForgeEnvironment environment;
+    private final Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+    private volatile boolean running;
+
+    public LoadTestRunner(LoadTestConfig config, TrafficMix mix, ForgeEnvironment environment) {
+        this.config = config;
+        this.mix = mix;
+        this.environment = environment;
+        for (Scenario scenario : Scenario.values()) {
+            stats.put(scenario, new ScenarioStats(scenario));
+        }
+    }
+
+    public LoadTestReport run() throws InterruptedException {
+        LoadClient client = new LoadClient(environment.getForgeAddress());
+        List<Thread> threads = new ArrayList<>();
+        running = true;
+        for (int i = 0; i < config.getThreads(); i++) {
+            final Random random = new Random(config.getSeed() + i);
+            Thread thread = new Thread(() -> runRequests(client, random), "load-test-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+        LOG.info("Running " + config + " with mix " + mix.getName() + " " + mix.getWeights());
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        Thread.sleep(TimeUnit.SECONDS.toMillis(config.getWarmupSeconds()));
+
+        for (ScenarioStats scenarioStats : stats.values()) {
+            scenarioStats.reset();
+        }
+        ForgeMetrics.getInstance().reset();
+        environment.getWebhooks().reset();
+        long start = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(config.getDurationSeconds()));
+        running = false;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new LoadTestReport(config, mix, environment, new ArrayList<>(stats.values()), elapsed);
+    }
+
+    protected void runRequests(LoadClient client, Random random) {
+        List<String> projects = environment.getProjectNames();
+        String namespace = environment.getNamespace();
+        while (running) {
+            Scenario scenario = mix.next(random);
+            String project = projects.get(random.nextInt(projects.size()));
+            ScenarioStats scenarioStats = stats.get(scenario);
+            long start = System.nanoTime();
+            try {
+                int status = scenario.run(client, namespace, project, random);
+                long taken = System.nanoTime() - start;
+                if (status >= 400) {
+                    scenarioStats.failure(taken, "HTTP " + status + " on " + project);
+                } else {
+                    scenarioStats.success(taken);
+                }
+            } catch (Exception e) {
+                scenarioStats.failure(System.nanoTime() - start, e.toString());
+                LOG.debug("Failed " + scenario.getId() + " on " + project + ": " + e, e);
+            }
+        }
+    }
+}
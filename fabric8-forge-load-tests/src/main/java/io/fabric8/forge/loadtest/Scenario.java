@@ -0,0 +1,124 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.loadtest;
+
+import io.fabric8.forge.rest.dto.ExecutionRequest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The kinds of request a traffic mix is made of; each one performs a single REST call against a project
+ * and returns the HTTP status code
+ */
+public enum Scenario {
+    LIST_COMMANDS("listCommands") {
+        @Override
+        public int run(LoadClient client, String namespace, String project, Random random) throws IOException {
+            return client.get("api/forge/commands/" + namespace + "/" + project);
+        }
+    },
+    VALIDATE("validate") {
+        @Override
+        public int run(LoadClient client, String namespace, String project, Random random) throws IOException {
+            String command = pick(random, LoadTestCommandsResource.COMMAND_NAMES);
+            return client.postJson("api/forge/command/validate/" + command, createRequest(namespace, project, random));
+        }
+    },
+    EXECUTE("execute") {
+        @Override
+        public int run(LoadClient client, String namespace, String project, Random random) throws IOException {
+            String command = pick(random, LoadTestCommandsResource.COMMAND_NAMES);
+            return client.postJson("api/forge/command/execute/" + command, createRequest(namespace, project, random));
+        }
+    },
+    READ_CONTENT("readContent") {
+        @Override
+        public int run(LoadClient client, String namespace, String project, Random random) throws IOException {
+            String path = pick(random, ForgeEnvironment.PROJECT_FILES);
+            return client.get(projectPath(namespace, project) + "content/" + path);
+        }
+    },
+    HISTORY("history") {
+        @Override
+        public int run(LoadClient client, String namespace, String project, Random random) throws IOException {
+            return client.get(projectPath(namespace, project) + "history?limit=20");
+        }
+    },
+    COMMIT("commit") {
+        @Override
+        public int run(LoadClient client, String namespace, String project, Random random) throws IOException {
+            int note = random.nextInt(10);
+            String text = "# Note " + note + "\n\nUpdated " + System.currentTimeMillis() + "\n";
+            return client.postText(projectPath(namespace, project) + "content/docs/note-" + note + ".md?message=Update+note+" + note, text);
+        }
+    },
+    LIST_REPOSITORIES("listRepositories") {
+        @Override
+        public int run(LoadClient client, String namespace, String project, Random random) throws IOException {
+            return client.get("api/forge/repos");
+        }
+    };
+
+    private final String id;
+
+    Scenario(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Returns the scenario for the name used in traffic mix files
+     */
+    public static Scenario fromId(String id) {
+        for (Scenario scenario : values()) {
+            if (scenario.id.equals(id)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario " + id);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public abstract int run(LoadClient client, String namespace, String project, Random random) throws IOException;
+
+    protected static String projectPath(String namespace, String project) {
+        return "api/forge/repos/project/" + namespace + "/" + project + "/";
+    }
+
+    protected static ExecutionRequest createRequest(String namespace, String project, Random random) {
+        Map<String, Object> inputs = new HashMap<>();
+        inputs.put("name", "endpoint" + random.nextInt(100));
+        inputs.put("uri", "seda:queue" + random.nextInt(100));
+        List<Map<String, Object>> inputList = new ArrayList<>();
+        inputList.add(inputs);
+        ExecutionRequest answer = new ExecutionRequest();
+        answer.setNamespace(namespace);
+        answer.setProjectName(project);
+        answer.setInputList(inputList);
+        return answer;
+    }
+
+    protected static String pick(Random random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
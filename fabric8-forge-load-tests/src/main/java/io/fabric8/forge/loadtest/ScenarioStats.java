@@ -0,0 +1,85 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.loadtest;
+
+import io.fabric8.forge.rest.metrics.LatencyHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The latencies and errors of the requests of a single {@link Scenario}
+ */
+public class ScenarioStats {
+    private final Scenario scenario;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicReference<String> firstError = new AtomicReference<>();
+
+    public ScenarioStats(Scenario scenario) {
+        this.scenario = scenario;
+    }
+
+    public void success(long nanos) {
+        latency.record(nanos);
+    }
+
+    public void failure(long nanos, String error) {
+        latency.record(nanos);
+        errors.incrementAndGet();
+        firstError.compareAndSet(null, error);
+    }
+
+    public void reset() {
+        latency.reset();
+        errors.set(0);
+        firstError.set(null);
+    }
+
+    public Scenario getScenario() {
+        return scenario;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getRequests() {
+        return latency.getCount();
+    }
+
+    public long getErrors() {
+        return errors.get();
+    }
+
+    public String getFirstError() {
+        return firstError.get();
+    }
+
+    public Map<String, Object> toMap(double seconds) {
+        Map<String, Object> answer = new LinkedHashMap<>();
+        answer.put("requests", getRequests());
+        answer.put("errors", getErrors());
+        answer.put("throughputPerSecond", seconds > 0 ? getRequests() / seconds : 0);
+        answer.putAll(latency.toMap());
+        if (getFirstError() != null) {
+            answer.put("firstError", getFirstError());
+        }
+        return answer;
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.loadtest;
+
+import io.fabric8.forge.rest.ui.RestUIContext;
+import org.jboss.forge.addon.ui.command.UICommand;
+import org.jboss.forge.addon.ui.context.UIContext;
+import org.jboss.forge.addon.ui.controller.WizardCommandController;
+import org.jboss.forge.addon.ui.input.InputComponent;
+import org.jboss.forge.addon.ui.input.UIInput;
+import org.jboss.forge.addon.ui.metadata.UICommandMetadata;
+import org.jboss.forge.addon.ui.output.UIMessage;
+import org.jboss.forge.addon.ui.result.Result;
+import org.jboss.forge.addon.ui.result.Results;
+import org.jboss.forge.addon.ui.util.InputComponents;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single page wizard which stands in for a forge command; executing it rewrites a file in the project
+ * so that the REST service commits and pushes a change and then asks for a webhook to be registered,
+ * just like the devops commands do
+ */
+public class StubCommandController implements WizardCommandController {
+    public static final String OUTPUT_FILE = "src/main/resources/loadtest.properties";
+
+    private final RestUIContext context;
+    private final UICommand command;
+    private final WebhookRecorder webhooks;
+    private final Map<String, Object> values = new LinkedHashMap<>();
+    private final Map<String, InputComponent<?, ?>> inputs = new LinkedHashMap<>();
+
+    public StubCommandController(RestUIContext context, UICommand command, WebhookRecorder webhooks, String... inputNames) {
+        this.context = context;
+        this.command = command;
+        this.webhooks = webhooks;
+        for (String inputName : inputNames) {
+            inputs.put(inputName, createInput(inputName));
+        }
+    }
+
+    @Override
+    public void initialize() throws Exception {
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return true;
+    }
+
+    @Override
+    public Result execute() throws Exception {
+        File projectFolder = context.getInitialSelectionFile();
+        if (projectFolder != null) {
+            File file = new File(projectFolder, OUTPUT_FILE);
+            file.getParentFile().mkdirs();
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Object> entry : values.entrySet()) {
+                    writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+                }
+                writer.write("updated=" + System.nanoTime() + "\n");
+            } catch (IOException e) {
+                return Results.fail("Failed to write " + file + ": " + e, e);
+            }
+        }
+        if (webhooks != null) {
+            Map<Object, Object> attributeMap = context.getAttributeMap();
+            attributeMap.put("registerWebHooks", webhooks.createTask(attributeMap));
+        }
+        return Results.success("Updated " + OUTPUT_FILE);
+    }
+
+    @Override
+    public List<UIMessage> validate() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<UIMessage> validate(InputComponent<?, ?> input) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isValid() {
+        return true;
+    }
+
+    @Override
+    public WizardCommandController setValueFor(String inputName, Object value) throws IllegalArgumentException {
+        values.put(inputName, value);
+        return this;
+    }
+
+    @Override
+    public Object getValueFor(String inputName) throws IllegalArgumentException {
+        return values.get(inputName);
+    }
+
+    @Override
+    public Map<String, InputComponent<?, ?>> getInputs() {
+        return inputs;
+    }
+
+    @Override
+    public InputComponent<?, ?> getInput(String inputName) {
+        return inputs.get(inputName);
+    }
+
+    @Override
+    public boolean hasInput(String inputName) {
+        return inputs.containsKey(inputName);
+    }
+
+    @Override
+    public UICommandMetadata getMetadata() {
+        return command.getMetadata(context);
+    }
+
+    @Override
+    public UICommandMetadata getInitialMetadata() {
+        return getMetadata();
+    }
+
+    @Override
+    public List<UICommandMetadata> getWizardStepsMetadata() {
+        return Collections.singletonList(getMetadata());
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public UICommand getCommand() {
+        return command;
+    }
+
+    @Override
+    public UIContext getContext() {
+        return context;
+    }
+
+    @Override
+    public boolean canExecute() {
+        return true;
+    }
+
+    @Override
+    public boolean canMoveToNextStep() {
+        return false;
+    }
+
+    @Override
+    public boolean canMoveToPreviousStep() {
+        return false;
+    }
+
+    @Override
+    public WizardCommandController next() throws Exception {
+        return null;
+    }
+
+    @Override
+    public WizardCommandController previous() throws Exception {
+        return null;
+    }
+
+    @Override
+    public void close() throws Exception {
+    }
+
+    /**
+     * Creates a text input which answers its name, type and current value from this controller
+     */
+    protected InputComponent<?, ?> createInput(final String inputName) {
+        return (InputComponent<?, ?>) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{UIInput.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                case "getLabel":
+                    return inputName;
+                case "getValue":
+                    return values.get(inputName);
+                case "getValueType":
+                    return String.class;
+                case "isEnabled":
+                    return true;
+                case "hasValue":
+                    return values.containsKey(inputName);
+                case "getShortName":
+                    return InputComponents.DEFAULT_SHORT_NAME;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "StubInput[" + inputName + "]";
+            }
+            return method.getReturnType() == boolean.class ? Boolean.FALSE : null;
+        });
+    }
+}
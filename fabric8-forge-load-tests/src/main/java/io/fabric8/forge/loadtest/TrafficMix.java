@@ -0,0 +1,107 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.loadtest;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A weighted mix of {@link Scenario}s recorded as one <code>scenario weight</code> pair per line;
+ * either one of the mixes bundled in this module or a file.
+ */
+public class TrafficMix {
+    private final String name;
+    private final Map<Scenario, Integer> weights;
+    private final Scenario[] table;
+
+    public TrafficMix(String name, Map<Scenario, Integer> weights) {
+        this.name = name;
+        this.weights = Collections.unmodifiableMap(new LinkedHashMap<>(weights));
+        List<Scenario> list = new ArrayList<>();
+        for (Map.Entry<Scenario, Integer> entry : weights.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                list.add(entry.getKey());
+            }
+        }
+        if (list.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix " + name + " has no scenarios");
+        }
+        this.table = list.toArray(new Scenario[list.size()]);
+    }
+
+    /**
+     * Loads the bundled mix of the given name or else the mix file at the given path
+     */
+    public static TrafficMix load(String nameOrPath) throws IOException {
+        InputStream in = TrafficMix.class.getResourceAsStream("mixes/" + nameOrPath + ".mix");
+        if (in == null) {
+            File file = new File(nameOrPath);
+            if (!file.isFile()) {
+                throw new IllegalArgumentException("No bundled traffic mix called " + nameOrPath + " and no such file");
+            }
+            in = new FileInputStream(file);
+        }
+        try {
+            return parse(nameOrPath, in);
+        } finally {
+            in.close();
+        }
+    }
+
+    public static TrafficMix parse(String name, InputStream in) throws IOException {
+        Map<Scenario, Integer> weights = new LinkedHashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] values = line.split("\\s+");
+            if (values.length != 2) {
+                throw new IllegalArgumentException("Invalid line in traffic mix " + name + ": " + line);
+            }
+            weights.put(Scenario.fromId(values[0]), Integer.parseInt(values[1]));
+        }
+        return new TrafficMix(name, weights);
+    }
+
+    /**
+     * Picks the next scenario in proportion to its weight
+     */
+    public Scenario next(Random random) {
+        return table[random.nextInt(table.length)];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<Scenario, Integer> getWeights() {
+        return weights;
+    }
+}
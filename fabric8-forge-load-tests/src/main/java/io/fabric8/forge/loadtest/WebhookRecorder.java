@@ -0,0 +1,146 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.loadtest;
+
+import io.fabric8.forge.rest.metrics.LatencyHistogram;
+import io.fabric8.repo.git.CreateWebhookDTO;
+import io.fabric8.repo.git.GitRepoClient;
+import io.fabric8.repo.git.WebhookConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates the <code>registerWebHooks</code> tasks which commands hand over to the
+ * {@link io.fabric8.forge.rest.main.ProjectFileSystem} executor and records how late they run,
+ * so that a backed up executor shows up in the report
+ */
+public class WebhookRecorder {
+    private static final transient Logger LOG = LoggerFactory.getLogger(WebhookRecorder.class);
+
+    /**
+     * The delay the {@link io.fabric8.forge.rest.main.GitCommandCompletePostProcessor} schedules the tasks with
+     */
+    public static final long DELAY_MILLIS = 1000L;
+
+    private final String gogsAddress;
+    private final LatencyHistogram lag = new LatencyHistogram();
+    private final AtomicLong scheduled = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicInteger generation = new AtomicInteger();
+
+    public WebhookRecorder(String gogsAddress) {
+        this.gogsAddress = gogsAddress;
+    }
+
+    /**
+     * Returns a task which registers a webhook for the project using the git user in the command's attributes
+     */
+    public Runnable createTask(Map<Object, Object> attributes) {
+        final String user = asString(attributes.get("gitUser"));
+        final String password = asString(attributes.get("gitPassword"));
+        final String projectName = asString(attributes.get("projectName"));
+        final long created = System.nanoTime();
+        final int taskGeneration = generation.get();
+        scheduled.incrementAndGet();
+        return new Runnable() {
+            @Override
+            public void run() {
+                boolean counted = taskGeneration == generation.get();
+                if (counted) {
+                    lag.record(System.nanoTime() - created - TimeUnit.MILLISECONDS.toNanos(DELAY_MILLIS));
+                }
+                try {
+                    WebhookConfig config = new WebhookConfig();
+                    config.setUrl("http://jenkins/gogs-webhook/?job=" + projectName);
+                    config.setContentType("json");
+                    CreateWebhookDTO dto = new CreateWebhookDTO();
+                    dto.setType("gogs");
+                    dto.setActive(true);
+                    dto.setConfig(config);
+                    dto.setEvents(Arrays.asList("create", "push", "pull_request"));
+                    new GitRepoClient(gogsAddress, user, password).createWebhook(user, projectName, dto);
+                    if (counted) {
+                        completed.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    if (counted) {
+                        failed.incrementAndGet();
+                    }
+                    LOG.warn("Failed to register webhook for " + projectName + ": " + e, e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns how long after their due time the tasks started
+     */
+    public LatencyHistogram getLag() {
+        return lag;
+    }
+
+    public long getScheduled() {
+        return scheduled.get();
+    }
+
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Returns the number of tasks which are still waiting for or running on the executor
+     */
+    public long getPending() {
+        return scheduled.get() - completed.get() - failed.get();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> answer = new LinkedHashMap<>();
+        answer.put("scheduled", getScheduled());
+        answer.put("completed", getCompleted());
+        answer.put("failed", getFailed());
+        answer.put("pending", getPending());
+        answer.put("lag", lag.toMap());
+        return answer;
+    }
+
+    /**
+     * Clears the counters after the warm up; tasks created before the reset are no longer counted
+     */
+    public void reset() {
+        generation.incrementAndGet();
+        lag.reset();
+        scheduled.set(0);
+        completed.set(0);
+        failed.set(0);
+    }
+
+    protected static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ *  Copyright 2005-2015 Red Hat, Inc.
+ *
+ *  Red Hat licenses this file to you under the Apache License, version
+ *  2.0 (the "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ *  implied.  See the License for the specific language governing
+ *  permissions and limitations under the License.
+ */
+package io.fabric8.forge.loadtest;
+
+import io.fabric8.forge.rest.metrics.ForgeMetrics;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ */
+public class LoadTestRunnerTest {
+
+    @Test
+    public void testShortRunCoversEveryScenarioWithoutErrors() throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse("-threads", "2", "-warmup", "1", "-duration", "3", "-projects", "1");
+        TrafficMix mix = TrafficMix.load(config.getMix());
+        LoadTestReport report;
+        try (ForgeEnvironment environment = new ForgeEnvironment(null, config.getProjects())) {
+            environment.start();
+            report = new LoadTestRunner(config, mix, environment).run();
+        }
+        for (ScenarioStats stats : report.getScenarios()) {
+            assertThat(stats.getFirstError()).as(stats.getScenario().getId()).isNull();
+            assertThat(stats.getRequests()).as(stats.getScenario().getId()).isGreaterThan(0);
+        }
+        assertThat(report.getMetrics()).containsKeys(ForgeMetrics.GIT_LOCK_WAIT, ForgeMetrics.GIT_LOCK_HELD);
+        assertThat(report.getWebhooks().get("scheduled")).isNotEqualTo(0L);
+        assertThat(report.toText()).contains("readContent", "commit");
+    }
+
+    @Test
+    public void testParseMix() throws Exception {
+        String text = "# comment\nreadContent 3\n\ncommit 1\n";
+        TrafficMix mix = TrafficMix.parse("test", new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+        assertThat(mix.getWeights()).containsEntry(Scenario.READ_CONTENT, 3).containsEntry(Scenario.COMMIT, 1).hasSize(2);
+        assertThat(TrafficMix.load("write-heavy").getWeights()).containsKey(Scenario.EXECUTE);
+    }
+}
@@ -16,9 +16,9 @@
  */
 package io.fabric8.forge.rest.client;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectReader;
 import io.fabric8.forge.rest.CommandsAPI;
+import io.fabric8.forge.rest.dto.CommandBatchRequest;
+import io.fabric8.forge.rest.dto.CommandBatchResult;
 import io.fabric8.forge.rest.dto.CommandInfoDTO;
 import io.fabric8.forge.rest.dto.CommandInputDTO;
 import io.fabric8.forge.rest.dto.ExecutionRequest;
@@ -32,13 +32,6 @@ import io.fabric8.openshift.client.OpenShiftClient;
 import io.fabric8.project.support.UserDetails;
 import io.fabric8.utils.Strings;
 import io.fabric8.utils.URLUtils;
-import io.fabric8.utils.jaxrs.JsonHelper;
-import io.fabric8.utils.cxf.WebClients;
-import org.apache.cxf.helpers.IOUtils;
-import org.apache.cxf.jaxrs.client.JAXRSClientFactory;
-import org.apache.cxf.jaxrs.client.WebClient;
-import org.apache.cxf.transport.http.HTTPConduit;
-import org.apache.cxf.transports.http.configuration.HTTPClientPolicy;
 import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.transport.CredentialsProvider;
 import org.slf4j.Logger;
@@ -50,12 +43,12 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.Reader;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import static io.fabric8.forge.rest.client.EnvironmentVariables.getEnvironmentValue;
-import static io.fabric8.utils.cxf.WebClients.disableSslChecks;
 
 /**
  * A simple Java Facade for interacting with the Fabric8 Forge
@@ -64,7 +57,6 @@ public class ForgeClient {
     private static final transient Logger LOG = LoggerFactory.getLogger(ForgeClient.class);
 
     private String address = getEnvironmentValue(EnvironmentVariables.FORGE_URL, "http://fabric8-forge/");
-    private CommandsAPI clientAPI;
     private String namespace;
     private String secret = "default-gogs-git";
     private String secretNamespace = "user-secrets-source-admin";
@@ -76,10 +68,19 @@ public class ForgeClient {
     private String gitUser = "gogsadmin";
     private String gitPassword = "RedHat$1";
     private String gitEmail = "gogsadmin@acme.com";
+    private Executor executor;
 
     public ForgeClient() {
     }
 
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
     public KubernetesClient getKubernetesClient() {
         return kubernetesClient;
     }
@@ -186,6 +187,20 @@ public class ForgeClient {
         this.gitEmail = gitEmail;
     }
 
+    /**
+     * Returns the executor used to invoke the asynchronous methods; defaulting to a pool shared by all clients
+     */
+    public Executor getExecutor() {
+        if (executor == null) {
+            executor = ForgeClientTransport.getInstance().getExecutor();
+        }
+        return executor;
+    }
+
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
     public ExecutionResult executeCommand(String name, ExecutionRequest executionRequest) throws Exception {
         Response response = doExecuteCommand(name, executionRequest);
         return parseResponse(response, ExecutionResult.class);
@@ -208,14 +223,47 @@ public class ForgeClient {
     }
 
     public ValidationResult validateCommand(String name, ExecutionRequest executionRequest) throws Exception {
-        Response response;
-        String projectName = executionRequest.getProjectName();
-        String namespace = executionRequest.getNamespace();
-        response = getClientAPI().validateCommand(name, executionRequest);
-        response = getClientAPI().validateCommand(name, executionRequest);
+        Response response = doValidateCommand(name, executionRequest);
         return parseResponse(response, ValidationResult.class);
     }
 
+    /**
+     * Validates and/or executes a number of commands on a single project in one request;
+     * returning the results in the same order as the items of the batch
+     */
+    public CommandBatchResult executeBatch(CommandBatchRequest batchRequest) throws Exception {
+        Response response = doExecuteBatch(batchRequest);
+        return parseResponse(response, CommandBatchResult.class);
+    }
+
+    public CompletableFuture<ExecutionResult> executeCommandAsync(String name, ExecutionRequest executionRequest) {
+        return supplyAsync(() -> executeCommand(name, executionRequest));
+    }
+
+    public CompletableFuture<ValidationResult> validateCommandAsync(String name, ExecutionRequest executionRequest) {
+        return supplyAsync(() -> validateCommand(name, executionRequest));
+    }
+
+    public CompletableFuture<CommandBatchResult> executeBatchAsync(CommandBatchRequest batchRequest) {
+        return supplyAsync(() -> executeBatch(batchRequest));
+    }
+
+    protected <T> CompletableFuture<T> supplyAsync(Callable<T> callable) {
+        CompletableFuture<T> answer = new CompletableFuture<>();
+        try {
+            getExecutor().execute(() -> {
+                try {
+                    answer.complete(callable.call());
+                } catch (Throwable e) {
+                    answer.completeExceptionally(e);
+                }
+            });
+        } catch (Throwable e) {
+            answer.completeExceptionally(e);
+        }
+        return answer;
+    }
+
 
     @GET
     @Path("/commandNames")
@@ -265,69 +313,36 @@ public class ForgeClient {
         return getClientAPI().validateCommand(name, executionRequest);
     }
 
+    protected Response doExecuteBatch(CommandBatchRequest batchRequest) throws Exception {
+        return getClientAPI().executeBatch(batchRequest);
+    }
+
     protected CommandsAPI getClientAPI() {
-        if (clientAPI == null) {
-            clientAPI = createWebClient(CommandsAPI.class);
-        }
-        return clientAPI;
+        return createWebClient(CommandsAPI.class);
     }
 
     /**
-     * Creates a JAXRS web client for the given JAXRS client
+     * Returns the shared JAXRS web client for the given JAXRS client type
      */
     protected <T> T createWebClient(Class<T> clientType) {
-        List<Object> providers = WebClients.createProviders();
         String queryString = "?secret=" + secret + "&secretNamespace=" + secretNamespace + "&kubeUserName=" + kubeUserName;
         String commandsAddress = URLUtils.pathJoin(this.address, "/api/forge" + queryString);
-        WebClient webClient = WebClient.create(commandsAddress, providers);
-        disableSslChecks(webClient);
-        HTTPConduit conduit = WebClient.getConfig(webClient).getHttpConduit();
-        HTTPClientPolicy httpClientPolicy = new HTTPClientPolicy();
-        httpClientPolicy.setConnectionTimeout(connectionTimeoutMillis);
-        httpClientPolicy.setReceiveTimeout(connectionTimeoutMillis);
-        conduit.setClient(httpClientPolicy);
-
-        return JAXRSClientFactory.fromClient(webClient, clientType);
+        return ForgeClientTransport.getInstance().getClient(clientType, commandsAddress, connectionTimeoutMillis);
     }
 
 
     protected <T> T parseResponse(Response response, Class<T> clazz) throws IOException {
-        Object entity = response.getEntity();
-        ObjectMapper objectMapper = JsonHelper.createObjectMapper();
-        ObjectReader reader = objectMapper.readerFor(clazz);
-        if (entity instanceof Reader) {
-            Reader input = (Reader) entity;
-            return reader.readValue(input);
-        } else if (entity instanceof InputStream) {
-            InputStream input = (InputStream) entity;
-            if (debugResponses) {
-                String json = IOUtils.readStringFromStream(input);
-                LOG.info("Received JSON: " + json);
-                return reader.readValue(json);
-            } else {
-                return reader.readValue(input);
-            }
-        } else if (entity instanceof String) {
-            String text = (String) entity;
-            if (debugResponses) {
-                LOG.info("Received JSON: " + text);
-            }
-            return reader.readValue(text);
-        } else if (entity instanceof byte[]) {
-            byte[] data = (byte[]) entity;
-            if (debugResponses) {
-                LOG.info("Received JSON: " + new String(data));
-            }
-            return reader.readValue(data);
-        } else if (clazz.isInstance(entity)) {
-            return clazz.cast(entity);
-        } else if (entity == null) {
-            return null;
-        } else {
-            throw new IllegalArgumentException("Could not parse the returned entity of class " + entity.getClass().getName() + " = " + entity);
+        try {
+            return doParseResponse(response, clazz);
+        } finally {
+            ForgeClientTransport.release(response);
         }
     }
 
+    private <T> T doParseResponse(Response response, Class<T> clazz) throws IOException {
+        return ForgeClientCodec.readEntity(response.getEntity(), clazz, debugResponses);
+    }
+
     public CredentialsProvider createCredentialsProvider() {
         String address = "gogs";
         String internalAddress = "gogs";
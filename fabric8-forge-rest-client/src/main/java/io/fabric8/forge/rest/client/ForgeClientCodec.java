@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.jaxrs.json.JacksonJaxbJsonProvider;
+import io.fabric8.forge.rest.dto.CommandInfoDTO;
+import io.fabric8.forge.rest.dto.CommandInputDTO;
+import io.fabric8.forge.rest.dto.ExecutionResult;
+import io.fabric8.forge.rest.dto.ValidationResult;
+import io.fabric8.utils.cxf.ExceptionResponseMapper;
+import io.fabric8.utils.jaxrs.JsonHelper;
+import org.apache.cxf.helpers.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds the single configured {@link ObjectMapper} used by the REST client along with an {@link ObjectReader}
+ * per DTO type; both are immutable and thread safe so they are created once and shared.
+ */
+public final class ForgeClientCodec {
+    private static final transient Logger LOG = LoggerFactory.getLogger(ForgeClientCodec.class);
+
+    private static final ObjectMapper OBJECT_MAPPER = createObjectMapper();
+    private static final ConcurrentMap<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    static {
+        readerFor(ExecutionResult.class);
+        readerFor(ValidationResult.class);
+        readerFor(CommandInfoDTO.class);
+        readerFor(CommandInputDTO.class);
+    }
+
+    private ForgeClientCodec() {
+    }
+
+    public static ObjectMapper getObjectMapper() {
+        return OBJECT_MAPPER;
+    }
+
+    /**
+     * Returns the shared reader for the given type. Readers leave the source open so that
+     * the rest of a response can be read before its connection is reused
+     */
+    public static ObjectReader readerFor(Class<?> type) {
+        ObjectReader answer = READERS.get(type);
+        if (answer == null) {
+            answer = READERS.computeIfAbsent(type, t -> OBJECT_MAPPER.readerFor(t).without(JsonParser.Feature.AUTO_CLOSE_SOURCE));
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the JAXRS providers for client proxies which share the same {@link ObjectMapper}
+     */
+    public static List<Object> createProviders() {
+        List<Object> answer = new ArrayList<>();
+        answer.add(new JacksonJaxbJsonProvider(OBJECT_MAPPER, JacksonJaxbJsonProvider.DEFAULT_ANNOTATIONS));
+        answer.add(new ExceptionResponseMapper());
+        return answer;
+    }
+
+    /**
+     * Parses the given stream directly without buffering it
+     */
+    public static <T> T read(InputStream input, Class<T> type) throws IOException {
+        return readerFor(type).readValue(input);
+    }
+
+    /**
+     * Parses a response entity which may be a stream, reader, text, bytes or an already parsed value
+     */
+    public static <T> T readEntity(Object entity, Class<T> type, boolean logJson) throws IOException {
+        ObjectReader reader = readerFor(type);
+        if (entity instanceof Reader) {
+            Reader input = (Reader) entity;
+            return reader.readValue(input);
+        } else if (entity instanceof InputStream) {
+            InputStream input = (InputStream) entity;
+            if (logJson) {
+                String json = IOUtils.readStringFromStream(input);
+                LOG.info("Received JSON: " + json);
+                return reader.readValue(json);
+            } else {
+                return reader.readValue(input);
+            }
+        } else if (entity instanceof String) {
+            String text = (String) entity;
+            if (logJson) {
+                LOG.info("Received JSON: " + text);
+            }
+            return reader.readValue(text);
+        } else if (entity instanceof byte[]) {
+            byte[] data = (byte[]) entity;
+            if (logJson) {
+                LOG.info("Received JSON: " + new String(data));
+            }
+            return reader.readValue(data);
+        } else if (type.isInstance(entity)) {
+            return type.cast(entity);
+        } else if (entity == null) {
+            return null;
+        } else {
+            throw new IllegalArgumentException("Could not parse the returned entity of class " + entity.getClass().getName() + " = " + entity);
+        }
+    }
+
+    private static ObjectMapper createObjectMapper() {
+        ObjectMapper answer = JsonHelper.createObjectMapper();
+        // request bodies are only read by the server so don't waste bytes indenting them
+        answer.disable(SerializationFeature.INDENT_OUTPUT);
+        return answer;
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.utils.ssl.TrustEverythingSSLTrustManager;
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
+import org.apache.cxf.jaxrs.client.JAXRSClientFactoryBean;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.transport.http.HTTPConduit;
+import org.apache.cxf.transports.http.configuration.ConnectionType;
+import org.apache.cxf.transports.http.configuration.HTTPClientPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.TrustManager;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shares thread safe JAXRS client proxies between {@link ForgeClient} instances so that calls to the same
+ * address reuse the same kept alive HTTP connections rather than creating a new client each time.
+ * <p>
+ * Connections only go back to the pool once their response has been read to the end;
+ * so callers should pass every {@link Response} to {@link #release(Response)} when they are done with it.
+ */
+public class ForgeClientTransport {
+    private static final transient Logger LOG = LoggerFactory.getLogger(ForgeClientTransport.class);
+    private static final ForgeClientTransport INSTANCE = new ForgeClientTransport();
+
+    private final ConcurrentMap<String, Object> clients = new ConcurrentHashMap<>();
+    private volatile ExecutorService executor;
+
+    /**
+     * Returns the transport shared by all clients in this JVM
+     */
+    public static ForgeClientTransport getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the shared client proxy for the given type, address and timeout
+     */
+    public <T> T getClient(Class<T> clientType, String address, long timeoutMillis) {
+        String key = clientType.getName() + " " + timeoutMillis + " " + address;
+        Object answer = clients.get(key);
+        if (answer == null) {
+            answer = clients.computeIfAbsent(key, k -> createClient(clientType, address, timeoutMillis));
+        }
+        return clientType.cast(answer);
+    }
+
+    /**
+     * Returns the shared pool of daemon threads used by the asynchronous methods of {@link ForgeClient}
+     */
+    public ExecutorService getExecutor() {
+        ExecutorService answer = executor;
+        if (answer == null) {
+            synchronized (this) {
+                answer = executor;
+                if (answer == null) {
+                    final AtomicInteger counter = new AtomicInteger();
+                    answer = Executors.newCachedThreadPool(runnable -> {
+                        Thread thread = new Thread(runnable, "forge-client-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    executor = answer;
+                }
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Removes all the shared clients so new ones are created on the next call
+     */
+    public void clear() {
+        clients.clear();
+    }
+
+    /**
+     * Reads any remaining entity of the response and closes it so that its connection can be reused
+     */
+    public static void release(Response response) {
+        if (response == null) {
+            return;
+        }
+        try {
+            Object entity = response.getEntity();
+            if (entity instanceof InputStream) {
+                InputStream input = (InputStream) entity;
+                byte[] buffer = new byte[4096];
+                while (input.read(buffer) >= 0) {
+                    // discard
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            LOG.debug("Failed to read the rest of the response: " + e, e);
+        } finally {
+            try {
+                response.close();
+            } catch (Exception e) {
+                LOG.debug("Failed to close the response: " + e, e);
+            }
+        }
+    }
+
+    protected <T> T createClient(Class<T> clientType, String address, long timeoutMillis) {
+        JAXRSClientFactoryBean bean = new JAXRSClientFactoryBean();
+        bean.setAddress(address);
+        bean.setResourceClass(clientType);
+        bean.setProviders(ForgeClientCodec.createProviders());
+        bean.setThreadSafe(true);
+        T answer = bean.create(clientType);
+
+        HTTPConduit conduit = WebClient.getConfig(answer).getHttpConduit();
+        TLSClientParameters tlsClientParameters = conduit.getTlsClientParameters();
+        if (tlsClientParameters == null) {
+            tlsClientParameters = new TLSClientParameters();
+            conduit.setTlsClientParameters(tlsClientParameters);
+        }
+        tlsClientParameters.setTrustManagers(new TrustManager[]{new TrustEverythingSSLTrustManager()});
+        tlsClientParameters.setDisableCNCheck(true);
+        HTTPClientPolicy httpClientPolicy = new HTTPClientPolicy();
+        httpClientPolicy.setConnectionTimeout(timeoutMillis);
+        httpClientPolicy.setReceiveTimeout(timeoutMillis);
+        httpClientPolicy.setConnection(ConnectionType.KEEP_ALIVE);
+        conduit.setClient(httpClientPolicy);
+        return answer;
+    }
+}
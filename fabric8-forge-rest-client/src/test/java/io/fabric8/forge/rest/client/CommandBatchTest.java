@@ -0,0 +1,502 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import com.fasterxml.jackson.jaxrs.json.JacksonJaxbJsonProvider;
+import io.fabric8.forge.rest.CommandsResource;
+import io.fabric8.forge.rest.dto.CommandBatchItemResult;
+import io.fabric8.forge.rest.dto.CommandBatchRequest;
+import io.fabric8.forge.rest.dto.CommandBatchResult;
+import io.fabric8.forge.rest.dto.ExecutionRequest;
+import io.fabric8.forge.rest.dto.ExecutionResult;
+import io.fabric8.forge.rest.dto.ExecutionStatus;
+import io.fabric8.forge.rest.dto.ValidationResult;
+import io.fabric8.forge.rest.git.GitContext;
+import io.fabric8.forge.rest.hooks.CommandCompletePostProcessor;
+import io.fabric8.forge.rest.metrics.ForgeMetrics;
+import io.fabric8.forge.rest.metrics.MetricsFilter;
+import io.fabric8.forge.rest.ui.RestUIContext;
+import io.fabric8.forge.rest.ui.RestUIFunction;
+import io.fabric8.project.support.UserDetails;
+import io.fabric8.utils.Files;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
+import org.apache.cxf.jaxrs.lifecycle.SingletonResourceProvider;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.jboss.forge.addon.convert.Converter;
+import org.jboss.forge.addon.convert.ConverterFactory;
+import org.jboss.forge.addon.ui.command.AbstractUICommand;
+import org.jboss.forge.addon.ui.command.UICommand;
+import org.jboss.forge.addon.ui.context.UIContext;
+import org.jboss.forge.addon.ui.context.UIExecutionContext;
+import org.jboss.forge.addon.ui.controller.CommandController;
+import org.jboss.forge.addon.ui.input.InputComponent;
+import org.jboss.forge.addon.ui.input.UIPrompt;
+import org.jboss.forge.addon.ui.metadata.UICommandMetadata;
+import org.jboss.forge.addon.ui.output.UIMessage;
+import org.jboss.forge.addon.ui.progress.UIProgressMonitor;
+import org.jboss.forge.addon.ui.result.Result;
+import org.jboss.forge.addon.ui.result.Results;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.core.Response;
+import java.io.File;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs batches of commands through the {@link ForgeClient} against an in process {@link CommandsResource}
+ */
+public class CommandBatchTest {
+    private final StubCommandsResource resource = new StubCommandsResource();
+    private final ForgeMetrics metrics = new ForgeMetrics();
+    private Server server;
+    private ForgeClient forgeClient;
+    private File gitFolder;
+
+    @Before
+    public void setUp() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        String address = "http://localhost:" + port + "/";
+
+        JAXRSServerFactoryBean factory = new JAXRSServerFactoryBean();
+        factory.setAddress(address);
+        factory.setResourceClasses(StubCommandsResource.class);
+        factory.setResourceProvider(StubCommandsResource.class, new SingletonResourceProvider(resource));
+        factory.setProviders(Arrays.asList(new JacksonJaxbJsonProvider(), new MetricsFilter(metrics)));
+        server = factory.create();
+
+        forgeClient = new ForgeClient();
+        forgeClient.setAddress(address);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ForgeClientTransport.getInstance().clear();
+        if (server != null) {
+            server.destroy();
+        }
+        if (gitFolder != null) {
+            Files.recursiveDelete(gitFolder);
+        }
+    }
+
+    @Test
+    public void testBatchReturnsResultsInOrderWithStatus() throws Exception {
+        CommandBatchRequest batch = new CommandBatchRequest("myns", "myproject")
+                .validate("camel-add-endpoint", createRequest("first"))
+                .execute("camel-add-endpoint", createRequest("second"))
+                .execute("does-not-exist", createRequest("third"))
+                .execute("fails", createRequest("fourth"))
+                .validate("camel-edit-endpoint", createRequest("fifth"));
+
+        CommandBatchResult result = forgeClient.executeBatch(batch);
+
+        List<CommandBatchItemResult> results = result.getResults();
+        assertThat(results).extracting("name").containsExactly("camel-add-endpoint", "camel-add-endpoint", "does-not-exist", "fails", "camel-edit-endpoint");
+        assertThat(results).extracting("status").containsExactly(200, 200, 404, 500, 200);
+        assertThat(result.isSuccessful()).isFalse();
+
+        assertThat(results.get(0).getValidationResult().getOut()).isEqualTo("first");
+        assertThat(results.get(0).getExecutionResult()).isNull();
+        assertThat(results.get(1).getExecutionResult().getOutput()).isEqualTo("second");
+        assertThat(results.get(1).getExecutionResult().getStatus()).isEqualTo(ExecutionStatus.SUCCESS);
+        assertThat(results.get(2).getError()).contains("does-not-exist");
+        assertThat(results.get(3).getError()).contains("boom");
+        assertThat(results.get(4).getValidationResult().getOut()).isEqualTo("fifth");
+
+        // the batch defaults the project of each request and runs them all in one ui context
+        assertThat(resource.projects).containsOnly("myns/myproject");
+        assertThat(resource.uiContexts.get()).isEqualTo(1);
+        assertThat(resource.writes).containsExactly(true);
+        assertThat(metrics.histogram(ForgeMetrics.HTTP_REQUESTS, "method", "CommandsResource.executeBatch", "command", "", "status", "2xx").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testValidateOnlyBatchIsReadOnly() throws Exception {
+        CommandBatchRequest batch = new CommandBatchRequest("myns", "myproject")
+                .validate("camel-add-endpoint", createRequest("first"))
+                .validate("camel-edit-endpoint", createRequest("second"));
+
+        CommandBatchResult result = forgeClient.executeBatch(batch);
+
+        assertThat(result.isSuccessful()).isTrue();
+        assertThat(result.getResults()).extracting("status").containsExactly(200, 200);
+        assertThat(resource.writes).containsExactly(false);
+    }
+
+    @Test
+    public void testItemsOfAnotherProjectAreRejected() throws Exception {
+        CommandBatchRequest batch = new CommandBatchRequest("myns", "myproject")
+                .execute("camel-add-endpoint", createRequest("first", "myns", "myproject"))
+                .execute("camel-add-endpoint", createRequest("second", "myns", "otherproject"))
+                .execute("camel-add-endpoint", createRequest("third", "otherns", null))
+                .execute("camel-add-endpoint", createRequest("fourth"));
+
+        CommandBatchResult result = forgeClient.executeBatch(batch);
+
+        List<CommandBatchItemResult> results = result.getResults();
+        assertThat(results).extracting("status").containsExactly(200, 400, 400, 200);
+        assertThat(results.get(1).getError()).contains("otherproject");
+        assertThat(results.get(2).getError()).contains("otherns");
+        assertThat(results.get(1).getExecutionResult()).isNull();
+        assertThat(result.isSuccessful()).isFalse();
+
+        // the rejected items are not executed
+        assertThat(resource.projects).containsExactly("myns/myproject", "myns/myproject");
+    }
+
+    @Test
+    public void testAsyncCalls() throws Exception {
+        List<CompletableFuture<ExecutionResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(forgeClient.executeCommandAsync("camel-add-endpoint", createRequest("async" + i)));
+        }
+        CompletableFuture<ValidationResult> validation = forgeClient.validateCommandAsync("camel-add-endpoint", createRequest("validate"));
+        CompletableFuture<CommandBatchResult> batch = forgeClient.executeBatchAsync(new CommandBatchRequest("myns", "myproject")
+                .execute("camel-add-endpoint", createRequest("batch")));
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertThat(futures.get(i).get(30, TimeUnit.SECONDS).getOutput()).isEqualTo("async" + i);
+        }
+        assertThat(validation.get(30, TimeUnit.SECONDS).getOut()).isEqualTo("validate");
+        assertThat(batch.get(30, TimeUnit.SECONDS).getResults()).extracting("status").containsExactly(200);
+    }
+
+    @Test
+    public void testAsyncFailureCompletesExceptionally() throws Exception {
+        CompletableFuture<ExecutionResult> future = forgeClient.executeCommandAsync("fails", createRequest("first"));
+        try {
+            future.get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            // expected
+        }
+        assertThat(future.isCompletedExceptionally()).isTrue();
+    }
+
+    @Test
+    public void testFailedCommandChangesAreNotCommitted() throws Exception {
+        gitFolder = java.nio.file.Files.createTempDirectory("batch").toFile();
+        GitCommandsResource gitResource = new GitCommandsResource(gitFolder);
+
+        CommandBatchRequest batch = new CommandBatchRequest("myns", "myproject")
+                .execute(WriteFileCommand.NAME, createWriteRequest("first.txt", "first"))
+                .execute(WriteFileCommand.NAME, createWriteRequest("second.txt", WriteFileCommand.FAIL))
+                .execute(WriteFileCommand.NAME, createWriteRequest("third.txt", "third"));
+
+        CommandBatchResult result = (CommandBatchResult) gitResource.executeBatch(batch).getEntity();
+
+        assertThat(result.getResults()).extracting("status").containsExactly(200, 500, 200);
+        assertThat(result.getResults().get(1).getError()).contains("second.txt");
+        assertThat(new File(gitFolder, "first.txt")).hasContent("first");
+        assertThat(new File(gitFolder, "second.txt")).doesNotExist();
+        assertThat(new File(gitFolder, "README.md")).hasContent("initial");
+        assertThat(new File(gitFolder, "third.txt")).hasContent("third");
+
+        try (Git git = Git.open(gitFolder)) {
+            Iterator<RevCommit> commits = git.log().call().iterator();
+            RevCommit commit = commits.next();
+            assertThat(commit.getFullMessage()).contains("first.txt").contains("third.txt").doesNotContain("second.txt");
+            assertThat(git.status().call().isClean()).isTrue();
+        }
+    }
+
+    protected static ExecutionRequest createRequest(String value) {
+        Map<String, Object> inputs = new HashMap<>();
+        inputs.put("value", value);
+        ExecutionRequest answer = new ExecutionRequest();
+        answer.setInputList(new ArrayList<>(Collections.singletonList(inputs)));
+        return answer;
+    }
+
+    protected static ExecutionRequest createRequest(String value, String namespace, String projectName) {
+        ExecutionRequest answer = createRequest(value);
+        answer.setNamespace(namespace);
+        answer.setProjectName(projectName);
+        return answer;
+    }
+
+    protected static ExecutionRequest createWriteRequest(String file, String value) {
+        ExecutionRequest answer = createRequest(value);
+        answer.getInputList().get(0).put("file", file);
+        return answer;
+    }
+
+    /**
+     * Replaces the forge commands and git repositories with stubs so the REST endpoints can run without furnace
+     */
+    public static class StubCommandsResource extends CommandsResource {
+        private final AtomicInteger uiContexts = new AtomicInteger();
+        private final List<Boolean> writes = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> projects = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        protected <T> T withUIContext(String namespace, String projectName, String resourcePath, boolean write, RestUIFunction<T> function, GitContext gitContext) throws Exception {
+            uiContexts.incrementAndGet();
+            writes.add(write);
+            try (RestUIContext context = new RestUIContext(null, namespace, projectName, null)) {
+                return function.apply(context);
+            }
+        }
+
+        @Override
+        public Response doExecute(String name, ExecutionRequest executionRequest, CommandCompletePostProcessor postProcessor, UserDetails userDetails, RestUIContext uiContext) throws Exception {
+            Response notFound = checkCommand(name, executionRequest);
+            if (notFound != null) {
+                return notFound;
+            }
+            ExecutionResult answer = new ExecutionResult(ExecutionStatus.SUCCESS, null, getValue(executionRequest), null, null, false);
+            return Response.ok(answer).build();
+        }
+
+        @Override
+        public Response doValidate(String name, ExecutionRequest executionRequest, UserDetails userDetails, RestUIContext uiContext) throws Exception {
+            Response notFound = checkCommand(name, executionRequest);
+            if (notFound != null) {
+                return notFound;
+            }
+            ValidationResult answer = new ValidationResult(new ArrayList<>(), true, true, getValue(executionRequest), null);
+            return Response.ok(answer).build();
+        }
+
+        protected Response checkCommand(String name, ExecutionRequest executionRequest) {
+            projects.add(executionRequest.getNamespace() + "/" + executionRequest.getProjectName());
+            if ("fails".equals(name)) {
+                throw new IllegalStateException("boom");
+            }
+            if ("does-not-exist".equals(name)) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            }
+            return null;
+        }
+
+        protected static String getValue(ExecutionRequest executionRequest) {
+            return String.valueOf(executionRequest.getInputList().get(0).get("value"));
+        }
+    }
+
+    /**
+     * Runs the real batch and command execution against a local git repository; only the forge command lookup
+     * and controller are replaced as there is no furnace container in this test
+     */
+    public static class GitCommandsResource extends CommandsResource {
+        private final File basedir;
+
+        public GitCommandsResource(File basedir) {
+            this.basedir = basedir;
+            setConverterFactory(new ConverterFactory() {
+                @Override
+                public <SOURCE, TARGET> Converter<SOURCE, TARGET> getConverter(Class<SOURCE> source, Class<TARGET> target) {
+                    return null;
+                }
+            });
+        }
+
+        @Override
+        protected <T> T withUIContext(String namespace, String projectName, String resourcePath, boolean write, RestUIFunction<T> function, GitContext gitContext) throws Exception {
+            try (Git git = Git.init().setDirectory(basedir).call()) {
+                Files.writeToFile(new File(basedir, "README.md"), "initial".getBytes());
+                git.add().addFilepattern(".").call();
+                git.commit().setMessage("initial").call();
+
+                T answer;
+                String message;
+                try (RestUIContext context = new RestUIContext(null, namespace, projectName, null)) {
+                    context.setGit(git);
+                    answer = function.apply(context);
+                    message = context.getCommitMessage();
+                }
+                // lets commit like the write git operations do
+                git.add().addFilepattern(".").call();
+                git.commit().setAll(true).setMessage(message).call();
+                return answer;
+            }
+        }
+
+        @Override
+        protected UICommand getCommandByName(RestUIContext context, String name) {
+            if (WriteFileCommand.NAME.equals(name)) {
+                return new WriteFileCommand(basedir);
+            }
+            return null;
+        }
+
+        @Override
+        protected CommandController createController(RestUIContext context, UICommand command) throws Exception {
+            return new SimpleCommandController(context, (WriteFileCommand) command);
+        }
+    }
+
+    /**
+     * Writes the value to a file; failing after writing it if the value is {@link #FAIL}
+     */
+    public static class WriteFileCommand extends AbstractUICommand {
+        public static final String NAME = "write-file";
+        public static final String FAIL = "fail";
+
+        private final File basedir;
+        private final Map<String, Object> values = new HashMap<>();
+
+        public WriteFileCommand(File basedir) {
+            this.basedir = basedir;
+        }
+
+        @Override
+        public Result execute(UIExecutionContext context) throws Exception {
+            File file = new File(basedir, String.valueOf(values.get("file")));
+            String value = String.valueOf(values.get("value"));
+            Files.writeToFile(file, value.getBytes());
+            if (FAIL.equals(value)) {
+                throw new IllegalStateException("Failed after writing " + file.getName());
+            }
+            return Results.success("Wrote " + file.getName());
+        }
+    }
+
+    /**
+     * Passes the inputs straight to the {@link WriteFileCommand} and executes it
+     */
+    public static class SimpleCommandController implements CommandController {
+        private final RestUIContext context;
+        private final WriteFileCommand command;
+        private final Map<String, InputComponent<?, ?>> inputs = new LinkedHashMap<>();
+
+        public SimpleCommandController(RestUIContext context, WriteFileCommand command) {
+            this.context = context;
+            this.command = command;
+            inputs.put("file", null);
+            inputs.put("value", null);
+        }
+
+        @Override
+        public void initialize() throws Exception {
+        }
+
+        @Override
+        public boolean isInitialized() {
+            return true;
+        }
+
+        @Override
+        public Result execute() throws Exception {
+            return command.execute(new UIExecutionContext() {
+                @Override
+                public UIProgressMonitor getProgressMonitor() {
+                    return null;
+                }
+
+                @Override
+                public UIPrompt getPrompt() {
+                    return null;
+                }
+
+                @Override
+                public UIContext getUIContext() {
+                    return context;
+                }
+            });
+        }
+
+        @Override
+        public List<UIMessage> validate() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public List<UIMessage> validate(InputComponent<?, ?> input) {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public boolean isValid() {
+            return true;
+        }
+
+        @Override
+        public CommandController setValueFor(String name, Object value) {
+            command.values.put(name, value);
+            return this;
+        }
+
+        @Override
+        public Object getValueFor(String name) {
+            return command.values.get(name);
+        }
+
+        @Override
+        public Map<String, InputComponent<?, ?>> getInputs() {
+            return inputs;
+        }
+
+        @Override
+        public InputComponent<?, ?> getInput(String name) {
+            return inputs.get(name);
+        }
+
+        @Override
+        public boolean hasInput(String name) {
+            return inputs.containsKey(name);
+        }
+
+        @Override
+        public UICommandMetadata getMetadata() {
+            return null;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public UICommand getCommand() {
+            return command;
+        }
+
+        @Override
+        public UIContext getContext() {
+            return context;
+        }
+
+        @Override
+        public boolean canExecute() {
+            return true;
+        }
+
+        @Override
+        public void close() throws Exception {
+        }
+    }
+}
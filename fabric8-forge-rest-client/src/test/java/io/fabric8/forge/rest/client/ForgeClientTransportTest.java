@@ -0,0 +1,111 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.fabric8.forge.rest.dto.ExecutionRequest;
+import io.fabric8.forge.rest.dto.ExecutionResult;
+import io.fabric8.forge.rest.dto.ValidationResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that each logical operation of the {@link ForgeClient} makes a single request and reuses connections
+ */
+public class ForgeClientTransportTest {
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private HttpServer server;
+    private ForgeClient forgeClient;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+
+        forgeClient = new ForgeClient();
+        forgeClient.setAddress("http://localhost:" + server.getAddress().getPort() + "/");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ForgeClientTransport.getInstance().clear();
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testExecuteCommandMakesOneRequest() throws Exception {
+        ExecutionResult result = forgeClient.executeCommand("project-new", new ExecutionRequest());
+        assertThat(result).isNotNull();
+        assertThat(requests).containsExactly("POST /api/forge/command/execute/project-new");
+    }
+
+    @Test
+    public void testValidateCommandMakesOneRequest() throws Exception {
+        ValidationResult result = forgeClient.validateCommand("project-new", new ExecutionRequest());
+        assertThat(result).isNotNull();
+        assertThat(requests).containsExactly("POST /api/forge/command/validate/project-new");
+    }
+
+    @Test
+    public void testConnectionIsReused() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            forgeClient.validateCommand("project-new", new ExecutionRequest());
+            forgeClient.executeCommand("project-new", new ExecutionRequest());
+        }
+        // a new client for the same address shares the same transport
+        ForgeClient another = new ForgeClient();
+        another.setAddress(forgeClient.getAddress());
+        another.executeCommand("project-new", new ExecutionRequest());
+
+        assertThat(requests).hasSize(11);
+        assertThat(clientPorts).hasSize(1);
+    }
+
+    protected void handle(HttpExchange exchange) throws IOException {
+        requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath());
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] buffer = new byte[4096];
+            while (in.read(buffer) >= 0) {
+                // discard
+            }
+        }
+        byte[] body = "{}".getBytes("UTF-8");
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}